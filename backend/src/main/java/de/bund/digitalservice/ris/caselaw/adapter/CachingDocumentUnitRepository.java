@@ -0,0 +1,164 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.PostgresDocumentUnitRepositoryImpl;
+import de.bund.digitalservice.ris.caselaw.domain.DataSource;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnit;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitListCursor;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitListEntry;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitListSlice;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitRepository;
+import de.bund.digitalservice.ris.caselaw.domain.ProceedingDecision;
+import de.bund.digitalservice.ris.caselaw.domain.User;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves document unit aggregates from the {@link DocumentUnitCache} and invalidates them after
+ * every write. If the write is part of an outer transaction, the cache defers the invalidation
+ * until the outer transaction is committed.
+ */
+@Component
+@Primary
+public class CachingDocumentUnitRepository implements DocumentUnitRepository {
+  private final PostgresDocumentUnitRepositoryImpl repository;
+  private final DocumentUnitCache cache;
+
+  public CachingDocumentUnitRepository(
+      PostgresDocumentUnitRepositoryImpl repository, DocumentUnitCache cache) {
+
+    this.repository = repository;
+    this.cache = cache;
+  }
+
+  @Override
+  public Mono<DocumentUnit> findByDocumentNumber(String documentNumber) {
+    return cache.getByDocumentNumber(
+        documentNumber, () -> repository.findByDocumentNumber(documentNumber));
+  }
+
+  @Override
+  public Mono<DocumentUnit> findByUuid(UUID uuid) {
+    return cache.getByUuid(uuid, () -> repository.findByUuid(uuid));
+  }
+
+  @Override
+  public Mono<Long> findVersionByDocumentNumber(String documentNumber) {
+    return repository.findVersionByDocumentNumber(documentNumber);
+  }
+
+  @Override
+  public Mono<DocumentUnit> createNewDocumentUnit(String documentNumber, User user) {
+    return repository.createNewDocumentUnit(documentNumber, user);
+  }
+
+  @Override
+  public Mono<DocumentUnit> createNewDocumentUnit(String documentNumber) {
+    return repository.createNewDocumentUnit(documentNumber);
+  }
+
+  @Override
+  public Mono<DocumentUnit> save(DocumentUnit documentUnit) {
+    return repository
+        .save(documentUnit)
+        .flatMap(saved -> cache.invalidate(documentUnit.uuid()).thenReturn(saved));
+  }
+
+  @Override
+  public Mono<DocumentUnit> patch(UUID documentUnitUuid, UnaryOperator<DocumentUnit> patch) {
+    return repository
+        .patch(documentUnitUuid, patch)
+        .flatMap(patched -> cache.invalidate(documentUnitUuid).thenReturn(patched));
+  }
+
+  @Override
+  public Mono<DocumentUnit> attachFile(
+      UUID documentUnitUuid, String fileUuid, String type, String fileName) {
+    return repository
+        .attachFile(documentUnitUuid, fileUuid, type, fileName)
+        .flatMap(documentUnit -> cache.invalidate(documentUnitUuid).thenReturn(documentUnit));
+  }
+
+  @Override
+  public Mono<DocumentUnit> removeFile(UUID documentUnitId) {
+    return repository
+        .removeFile(documentUnitId)
+        .flatMap(documentUnit -> cache.invalidate(documentUnitId).thenReturn(documentUnit));
+  }
+
+  @Override
+  public Mono<Void> delete(DocumentUnit documentUnit) {
+    return repository.delete(documentUnit).then(cache.invalidate(documentUnit.uuid()));
+  }
+
+  @Override
+  public Flux<ProceedingDecision> searchByProceedingDecision(
+      ProceedingDecision proceedingDecision, Pageable pageable) {
+    return repository.searchByProceedingDecision(proceedingDecision, pageable);
+  }
+
+  @Override
+  public Mono<Long> count() {
+    return repository.count();
+  }
+
+  @Override
+  public Mono<Long> countByProceedingDecision(ProceedingDecision proceedingDecision) {
+    return repository.countByProceedingDecision(proceedingDecision);
+  }
+
+  @Override
+  public Mono<Long> countByDataSource(DataSource dataSource) {
+    return repository.countByDataSource(dataSource);
+  }
+
+  @Override
+  public Flux<DocumentUnitListEntry> findAll(Pageable pageable) {
+    return repository.findAll(pageable);
+  }
+
+  @Override
+  public Mono<DocumentUnitListSlice> findAllByCursor(DocumentUnitListCursor cursor, int size) {
+    return repository.findAllByCursor(cursor, size);
+  }
+
+  @Override
+  public Mono<Long> estimateCountByDataSource(DataSource dataSource) {
+    return repository.estimateCountByDataSource(dataSource);
+  }
+
+  @Override
+  public Flux<ProceedingDecision> findAllLinkedDocumentUnitsByParentDocumentUnitId(
+      UUID parentDocumentUnitUuid) {
+    return repository.findAllLinkedDocumentUnitsByParentDocumentUnitId(parentDocumentUnitUuid);
+  }
+
+  @Override
+  public Mono<DocumentUnit> filterUnlinkedDocumentUnit(DocumentUnit documentUnit) {
+    return repository.filterUnlinkedDocumentUnit(documentUnit);
+  }
+
+  @Override
+  public Mono<DocumentUnit> linkDocumentUnits(
+      UUID parentDocumentUnitUuid, UUID childDocumentUnitUuid) {
+    return repository
+        .linkDocumentUnits(parentDocumentUnitUuid, childDocumentUnitUuid)
+        .flatMap(documentUnit -> cache.invalidate(parentDocumentUnitUuid).thenReturn(documentUnit));
+  }
+
+  @Override
+  public Mono<Void> unlinkDocumentUnits(UUID parentDocumentUnitUuid, UUID childDocumentUnitUuid) {
+    return repository
+        .unlinkDocumentUnits(parentDocumentUnitUuid, childDocumentUnitUuid)
+        .then(cache.invalidate(parentDocumentUnitUuid));
+  }
+
+  @Override
+  public Mono<Long> countLinksByChildDocumentUnitUuid(UUID childDocumentUnitUuid) {
+    return repository.countLinksByChildDocumentUnitUuid(childDocumentUnitUuid);
+  }
+}
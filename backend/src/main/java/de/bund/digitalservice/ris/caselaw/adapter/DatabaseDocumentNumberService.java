@@ -1,46 +1,175 @@
 package de.bund.digitalservice.ris.caselaw.adapter;
 
-import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseDocumentNumberCounterRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseDocumentNumberOfficeCounterRepository;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentNumberCapacity;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentNumberService;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitCreationInfo;
-import java.util.Calendar;
+import java.time.Clock;
+import java.time.Year;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+/**
+ * Hands out document numbers from blocks which are reserved in the database (hi/lo). The numbers
+ * are counted per documentation center and year. Every instance reserves its own blocks with one
+ * atomic update of the counter of the documentation center and hands out the numbers of a block in
+ * memory without locking. Numbers of a block which aren't handed out before the instance stops or
+ * the year changes are skipped.
+ */
 @Service
 public class DatabaseDocumentNumberService implements DocumentNumberService {
-  private final DatabaseDocumentNumberCounterRepository repository;
+  // the number part of a document number has five digits
+  private static final int MAX_NUMBER = 99_999;
 
-  public DatabaseDocumentNumberService(DatabaseDocumentNumberCounterRepository repository) {
+  private final DatabaseDocumentNumberOfficeCounterRepository repository;
+  private final int blockSize;
+  private final Clock clock;
+  private final Map<String, OfficeNumbers> officeNumbers = new ConcurrentHashMap<>();
+
+  @Autowired
+  public DatabaseDocumentNumberService(
+      DatabaseDocumentNumberOfficeCounterRepository repository,
+      @Value("${document-number.block-size:10}") int blockSize) {
+    this(repository, blockSize, Clock.system(ZoneId.of("Europe/Berlin")));
+  }
+
+  DatabaseDocumentNumberService(
+      DatabaseDocumentNumberOfficeCounterRepository repository, int blockSize, Clock clock) {
     this.repository = repository;
+    this.blockSize = blockSize;
+    this.clock = clock;
   }
 
   @Override
   public Mono<String> generateNextDocumentNumber(
       DocumentUnitCreationInfo documentUnitCreationInfo) {
-    int currentYear = Calendar.getInstance().get(Calendar.YEAR);
+    String documentationCenterAbbreviation =
+        String.valueOf(documentUnitCreationInfo.documentationCenterAbbreviation());
 
-    return repository
-        .getDocumentNumberCounterEntry()
+    return officeNumbers
+        .computeIfAbsent(documentationCenterAbbreviation, OfficeNumbers::new)
+        .nextNumber()
         .flatMap(
-            outdatedDocumentNumberCounter -> {
-              // this is the switch happening when the first new DocumentUnit in a new year gets
-              // created
-              if (outdatedDocumentNumberCounter.getCurrentyear() != currentYear) {
-                outdatedDocumentNumberCounter.setCurrentyear(currentYear);
-                outdatedDocumentNumberCounter.setNextnumber(1);
+            documentNumber -> {
+              if (documentNumber.number() > MAX_NUMBER) {
+                return Mono.error(
+                    new IllegalStateException(
+                        "No document numbers left for "
+                            + documentationCenterAbbreviation
+                            + " in "
+                            + documentNumber.year()));
               }
-              outdatedDocumentNumberCounter.setNextnumber(
-                  outdatedDocumentNumberCounter.getNextnumber() + 1);
-              return repository.save(outdatedDocumentNumberCounter);
-            })
+
+              return Mono.just(
+                  String.format(
+                      "%s%s%04d%05d",
+                      documentUnitCreationInfo.documentationCenterAbbreviation(),
+                      documentUnitCreationInfo.documentType(),
+                      documentNumber.year(),
+                      documentNumber.number()));
+            });
+  }
+
+  @Override
+  public Flux<DocumentNumberCapacity> getCapacities() {
+    return repository
+        .findAllOrderedByYearAndDocumentationCenter()
         .map(
-            documentNumberCounter ->
-                String.format(
-                    "%s%s%04d%05d",
-                    documentUnitCreationInfo.documentationCenterAbbreviation(),
-                    documentUnitCreationInfo.documentType(),
-                    currentYear,
-                    documentNumberCounter.getNextnumber() - 1));
+            counter -> {
+              int reservedNumbers = Math.min(counter.getNextNumber() - 1, MAX_NUMBER);
+              return new DocumentNumberCapacity(
+                  counter.getDocumentationCenterAbbreviation(),
+                  counter.getYear(),
+                  reservedNumbers,
+                  MAX_NUMBER - reservedNumbers);
+            });
   }
+
+  /** Blocks of document numbers of one documentation center. */
+  private class OfficeNumbers {
+    private final String documentationCenterAbbreviation;
+    private final AtomicReference<Block> currentBlock = new AtomicReference<>();
+    private final Object reservationLock = new Object();
+
+    private Mono<Block> runningReservation;
+
+    private OfficeNumbers(String documentationCenterAbbreviation) {
+      this.documentationCenterAbbreviation = documentationCenterAbbreviation;
+    }
+
+    private Mono<DocumentNumber> nextNumber() {
+      return Mono.defer(
+          () -> {
+            Block block = currentBlock.get();
+            Mono<DocumentNumber> documentNumber =
+                block != null && block.year() == Year.now(clock).getValue()
+                    ? block.take()
+                    : Mono.empty();
+
+            // a new block is used even if the year of the database differs from the local year
+            return documentNumber.switchIfEmpty(
+                Mono.defer(
+                    () ->
+                        reserveBlock(block)
+                            .flatMap(Block::take)
+                            .switchIfEmpty(Mono.defer(this::nextNumber))));
+          });
+    }
+
+    /**
+     * Reserves a new block if the given block is still the current one. Callers which find the same
+     * used up block share one reservation.
+     */
+    private Mono<Block> reserveBlock(Block usedBlock) {
+      synchronized (reservationLock) {
+        if (currentBlock.get() != usedBlock) {
+          return Mono.empty();
+        }
+
+        if (runningReservation == null) {
+          runningReservation =
+              repository
+                  .reserveBlock(documentationCenterAbbreviation, blockSize)
+                  .switchIfEmpty(
+                      Mono.error(
+                          new IllegalStateException(
+                              "Couldn't reserve document numbers for "
+                                  + documentationCenterAbbreviation)))
+                  .map(
+                      counter ->
+                          new Block(
+                              counter.getYear(),
+                              new AtomicInteger(counter.getNextNumber() - blockSize),
+                              counter.getNextNumber()))
+                  .doOnNext(currentBlock::set)
+                  .doFinally(
+                      signalType -> {
+                        synchronized (reservationLock) {
+                          runningReservation = null;
+                        }
+                      })
+                  .cache();
+        }
+
+        return runningReservation;
+      }
+    }
+  }
+
+  private record Block(int year, AtomicInteger next, int end) {
+    private Mono<DocumentNumber> take() {
+      int number = next.getAndIncrement();
+      return number < end ? Mono.just(new DocumentNumber(year, number)) : Mono.empty();
+    }
+  }
+
+  private record DocumentNumber(int year, int number) {}
 }
@@ -0,0 +1,43 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import de.bund.digitalservice.ris.caselaw.domain.DocumentNumberCapacity;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentNumberService;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("api/v1/caselaw/documentnumbers")
+public class DocumentNumberController {
+
+  private final DocumentNumberService service;
+  private final String capacityGroup;
+
+  public DocumentNumberController(
+      DocumentNumberService service,
+      @Value("${document-number.capacity-group:/DigitalService}") String capacityGroup) {
+    this.service = service;
+    this.capacityGroup = capacityGroup;
+  }
+
+  /**
+   * Shows how many document numbers are left per documentation center and year. The capacities of
+   * all documentation centers are only shown to the members of the capacity group.
+   */
+  @GetMapping(value = "capacity")
+  public Flux<DocumentNumberCapacity> getCapacities(@AuthenticationPrincipal OidcUser oidcUser) {
+    List<String> groups = oidcUser == null ? null : oidcUser.getAttribute("groups");
+    if (groups == null || !groups.contains(capacityGroup)) {
+      return Flux.error(new ResponseStatusException(HttpStatus.FORBIDDEN));
+    }
+
+    return service.getCapacities();
+  }
+}
@@ -0,0 +1,217 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.ReactiveSubscription.Message;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * In-process cache of assembled document unit aggregates, keyed by the uuid of the document unit.
+ *
+ * <p>Every write to a document unit has to call {@link #invalidate(UUID)}. Within a transaction the
+ * invalidation runs after the commit, so no read between the write and the commit can put the old
+ * state back into the cache. The invalidation is published on a Redis channel, so the caches of all
+ * other instances drop the document unit as well. A load which started before an invalidation is
+ * not put into the cache, so a slow read can't bring back the old state.
+ */
+@Component
+@Slf4j
+public class DocumentUnitCache implements MeterBinder {
+  private static final String CACHE_NAME = "documentUnits";
+
+  private final Cache<UUID, DocumentUnit> documentUnits;
+  private final Cache<String, UUID> uuidsByDocumentNumber;
+  private final ReactiveStringRedisTemplate redisTemplate;
+  private final String invalidationChannel;
+  private final Object lock = new Object();
+
+  private long generation;
+  private Disposable invalidationSubscription;
+
+  public DocumentUnitCache(
+      ObjectProvider<ReactiveStringRedisTemplate> redisTemplateProvider,
+      @Value("${document-unit-cache.maximum-size:1000}") long maximumSize,
+      @Value("${document-unit-cache.expire-after-write:PT10M}") Duration expireAfterWrite,
+      @Value("${document-unit-cache.invalidation-channel:document-unit-cache-invalidation}")
+          String invalidationChannel) {
+
+    this.documentUnits =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    this.uuidsByDocumentNumber =
+        Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).build();
+    this.redisTemplate = redisTemplateProvider.getIfAvailable();
+    this.invalidationChannel = invalidationChannel;
+  }
+
+  public Mono<DocumentUnit> getByUuid(UUID uuid, Supplier<Mono<DocumentUnit>> loader) {
+    DocumentUnit documentUnit = documentUnits.getIfPresent(uuid);
+    if (documentUnit != null) {
+      return Mono.just(documentUnit);
+    }
+
+    return load(loader);
+  }
+
+  public Mono<DocumentUnit> getByDocumentNumber(
+      String documentNumber, Supplier<Mono<DocumentUnit>> loader) {
+
+    UUID uuid = uuidsByDocumentNumber.getIfPresent(documentNumber);
+    if (uuid != null) {
+      DocumentUnit documentUnit = documentUnits.getIfPresent(uuid);
+      if (documentUnit != null && documentNumber.equals(documentUnit.documentNumber())) {
+        return Mono.just(documentUnit);
+      }
+    }
+
+    return load(loader);
+  }
+
+  /**
+   * Drops the document unit and every cached document unit which lists it as proceeding decision
+   * from this instance's cache and publishes the invalidation to the other instances. Within a
+   * transaction the invalidation is registered for the commit and completes right away.
+   */
+  public Mono<Void> invalidate(UUID uuid) {
+    if (uuid == null) {
+      return Mono.empty();
+    }
+
+    Mono<Void> invalidation = Mono.fromRunnable(() -> evict(uuid)).then(publishInvalidation(uuid));
+    return TransactionSynchronizationManager.forCurrentTransaction()
+        .filter(TransactionSynchronizationManager::isSynchronizationActive)
+        .doOnNext(
+            synchronizationManager ->
+                synchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                      @Override
+                      public @NonNull Mono<Void> afterCommit() {
+                        return invalidation;
+                      }
+                    }))
+        .map(synchronizationManager -> true)
+        .onErrorResume(NoTransactionException.class, ex -> Mono.empty())
+        .switchIfEmpty(invalidation.thenReturn(false))
+        .then();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void subscribeToInvalidations() {
+    if (redisTemplate == null) {
+      return;
+    }
+
+    invalidationSubscription =
+        redisTemplate
+            .listenToChannel(invalidationChannel)
+            // invalidations could have been missed while not subscribed
+            .doOnSubscribe(subscription -> evictAll())
+            .map(Message::getMessage)
+            .doOnNext(message -> evict(UUID.fromString(message)))
+            .doOnError(ex -> log.warn("Lost subscription to document unit invalidations", ex))
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)))
+            .subscribe();
+  }
+
+  @PreDestroy
+  public void unsubscribeFromInvalidations() {
+    if (invalidationSubscription != null) {
+      invalidationSubscription.dispose();
+    }
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, documentUnits, CACHE_NAME);
+  }
+
+  private Mono<Void> publishInvalidation(UUID uuid) {
+    if (redisTemplate == null) {
+      return Mono.empty();
+    }
+
+    return redisTemplate
+        .convertAndSend(invalidationChannel, uuid.toString())
+        .doOnError(ex -> log.warn("Couldn't publish invalidation of document unit {}", uuid, ex))
+        .onErrorResume(ex -> Mono.empty())
+        .then();
+  }
+
+  private Mono<DocumentUnit> load(Supplier<Mono<DocumentUnit>> loader) {
+    return Mono.defer(
+        () -> {
+          long loadGeneration = currentGeneration();
+          return loader.get().doOnNext(documentUnit -> put(documentUnit, loadGeneration));
+        });
+  }
+
+  private long currentGeneration() {
+    synchronized (lock) {
+      return generation;
+    }
+  }
+
+  private void put(DocumentUnit documentUnit, long loadGeneration) {
+    if (documentUnit.uuid() == null) {
+      return;
+    }
+
+    synchronized (lock) {
+      if (loadGeneration != generation) {
+        return;
+      }
+
+      documentUnits.put(documentUnit.uuid(), documentUnit);
+      if (documentUnit.documentNumber() != null) {
+        uuidsByDocumentNumber.put(documentUnit.documentNumber(), documentUnit.uuid());
+      }
+    }
+  }
+
+  private void evict(UUID uuid) {
+    synchronized (lock) {
+      generation++;
+      documentUnits.invalidate(uuid);
+      documentUnits
+          .asMap()
+          .values()
+          .removeIf(
+              documentUnit ->
+                  documentUnit.proceedingDecisions() != null
+                      && documentUnit.proceedingDecisions().stream()
+                          .anyMatch(proceedingDecision -> uuid.equals(proceedingDecision.uuid())));
+    }
+  }
+
+  private void evictAll() {
+    synchronized (lock) {
+      generation++;
+      documentUnits.invalidateAll();
+      uuidsByDocumentNumber.invalidateAll();
+    }
+  }
+}
@@ -1,14 +1,24 @@
 package de.bund.digitalservice.ris.caselaw.adapter;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnit;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitCreationInfo;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitListEntry;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitListSlice;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitService;
 import de.bund.digitalservice.ris.caselaw.domain.MailResponse;
 import de.bund.digitalservice.ris.caselaw.domain.ProceedingDecision;
 import de.bund.digitalservice.ris.caselaw.domain.UserService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -16,12 +26,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -30,18 +43,36 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("api/v1/caselaw/documentunits")
 @Slf4j
 public class DocumentUnitController {
+  private static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+  private static final Set<String> IDENTITY_FIELDS = Set.of("uuid", "documentNumber");
+  // members which are stored by their own endpoints and not by the save of the document unit
+  private static final List<List<String>> UNPATCHABLE_MEMBERS =
+      List.of(
+          List.of("proceedingDecisions"),
+          List.of("contentRelatedIndexing", "keywords"),
+          List.of("contentRelatedIndexing", "fieldsOfLaw"));
+
   private final DocumentUnitService service;
   private final UserService userService;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
 
-  public DocumentUnitController(DocumentUnitService service, UserService userService) {
+  public DocumentUnitController(
+      DocumentUnitService service,
+      UserService userService,
+      ObjectMapper objectMapper,
+      Validator validator) {
     this.service = service;
     this.userService = userService;
+    this.objectMapper = objectMapper;
+    this.validator = validator;
   }
 
   @PostMapping(value = "")
@@ -83,15 +114,63 @@ public class DocumentUnitController {
     return service.getAll(PageRequest.of(page, size));
   }
 
+  @GetMapping(value = "/list")
+  public Mono<DocumentUnitListSlice> getAllByCursor(
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam("sz") int size,
+      @RequestParam(value = "estimateTotal", defaultValue = "false") boolean estimateTotal) {
+
+    return service.getAllByCursor(cursor, size, estimateTotal);
+  }
+
   @GetMapping(value = "/{documentNumber}")
   public Mono<ResponseEntity<DocumentUnit>> getByDocumentNumber(
-      @NonNull @PathVariable String documentNumber) {
+      @NonNull @PathVariable String documentNumber,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
     if (documentNumber.length() != 13 && documentNumber.length() != 14) {
       return Mono.just(ResponseEntity.unprocessableEntity().body(DocumentUnit.builder().build()));
     }
 
-    return service.getByDocumentNumber(documentNumber).map(ResponseEntity::ok);
+    if (ifNoneMatch == null) {
+      return getByDocumentNumberWithETag(documentNumber);
+    }
+
+    // the version lookup is a single index scan, the document unit is only loaded if it changed
+    return service
+        .getVersionByDocumentNumber(documentNumber)
+        .filter(version -> matchesETag(ifNoneMatch, version))
+        .map(
+            version ->
+                ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(toETag(version))
+                    .<DocumentUnit>build())
+        .switchIfEmpty(Mono.defer(() -> getByDocumentNumberWithETag(documentNumber)));
+  }
+
+  private Mono<ResponseEntity<DocumentUnit>> getByDocumentNumberWithETag(String documentNumber) {
+    return service
+        .getByDocumentNumber(documentNumber)
+        .map(
+            documentUnit -> {
+              ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+              if (documentUnit.version() != null) {
+                builder.eTag(toETag(documentUnit.version()));
+              }
+              return builder.body(documentUnit);
+            });
+  }
+
+  private static String toETag(Long version) {
+    return "\"" + version + "\"";
+  }
+
+  private static boolean matchesETag(String ifNoneMatch, Long version) {
+    String eTag = toETag(version);
+    return Arrays.stream(ifNoneMatch.split(","))
+        .map(String::trim)
+        .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+        .anyMatch(tag -> tag.equals("*") || tag.equals(eTag));
   }
 
   @DeleteMapping(value = "/{uuid}")
@@ -103,6 +182,11 @@ public class DocumentUnitController {
         .onErrorResume(ex -> Mono.just(ResponseEntity.internalServerError().body(ex.getMessage())));
   }
 
+  /**
+   * Saves the document unit. A save which is buffered and not written yet is answered with 202 and
+   * the buffered document unit, the persisted state with its new version is returned by the next
+   * read.
+   */
   @PutMapping(value = "/{uuid}", consumes = MediaType.APPLICATION_JSON_VALUE)
   public Mono<ResponseEntity<DocumentUnit>> updateByUuid(
       @PathVariable UUID uuid, @Valid @RequestBody DocumentUnit documentUnit) {
@@ -111,10 +195,67 @@ public class DocumentUnitController {
     }
     return service
         .updateDocumentUnit(documentUnit)
-        .map(du -> ResponseEntity.status(HttpStatus.OK).body(du))
+        .map(
+            result ->
+                ResponseEntity.status(result.buffered() ? HttpStatus.ACCEPTED : HttpStatus.OK)
+                    .body(result.documentUnit()))
         .onErrorReturn(ResponseEntity.internalServerError().body(DocumentUnit.builder().build()));
   }
 
+  /**
+   * Updates only the parts of the document unit contained in the JSON merge patch (RFC 7396), so
+   * the client doesn't have to send the whole document unit for a small change. Patches of the
+   * identity fields and patches which result in an invalid document unit are answered with 422. The
+   * proceeding decisions, keywords and fields of law have their own endpoints, patches of them are
+   * answered with 422 and the name of the member.
+   */
+  @PatchMapping(value = "/{uuid}", consumes = APPLICATION_MERGE_PATCH_JSON_VALUE)
+  public Mono<ResponseEntity<DocumentUnit>> patchByUuid(
+      @PathVariable UUID uuid, @RequestBody JsonNode mergePatch) {
+    if (!mergePatch.isObject() || IDENTITY_FIELDS.stream().anyMatch(mergePatch::has)) {
+      return Mono.just(ResponseEntity.unprocessableEntity().body(DocumentUnit.builder().build()));
+    }
+    for (List<String> member : UNPATCHABLE_MEMBERS) {
+      if (!mergePatch.at("/" + String.join("/", member)).isMissingNode()) {
+        return Mono.error(
+            new ResponseStatusException(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                "The member " + String.join(".", member) + " can't be patched"));
+      }
+    }
+
+    return service
+        .patchDocumentUnit(uuid, documentUnit -> applyMergePatch(documentUnit, mergePatch))
+        .map(ResponseEntity::ok)
+        .defaultIfEmpty(ResponseEntity.notFound().build())
+        .onErrorResume(
+            ex ->
+                ex instanceof IllegalArgumentException
+                    || ex instanceof ConstraintViolationException,
+            ex ->
+                Mono.just(
+                    ResponseEntity.unprocessableEntity().body(DocumentUnit.builder().build())))
+        .onErrorReturn(ResponseEntity.internalServerError().body(DocumentUnit.builder().build()));
+  }
+
+  private DocumentUnit applyMergePatch(DocumentUnit documentUnit, JsonNode mergePatch) {
+    DocumentUnit patchedDocumentUnit;
+    try {
+      patchedDocumentUnit =
+          objectMapper.treeToValue(
+              JsonMergePatch.apply(objectMapper.valueToTree(documentUnit), mergePatch),
+              DocumentUnit.class);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalArgumentException("Couldn't apply the merge patch", ex);
+    }
+
+    Set<ConstraintViolation<DocumentUnit>> violations = validator.validate(patchedDocumentUnit);
+    if (!violations.isEmpty()) {
+      throw new ConstraintViolationException(violations);
+    }
+    return patchedDocumentUnit;
+  }
+
   @PutMapping(
       value = "/{uuid}/publish",
       produces = MediaType.APPLICATION_JSON_VALUE,
@@ -143,4 +284,10 @@ public class DocumentUnitController {
 
     return service.searchByProceedingDecision(proceedingDecision, PageRequest.of(page, size));
   }
+
+  /** Answers with the reason of the exception, e.g. the name of a member which can't be patched. */
+  @ExceptionHandler(ResponseStatusException.class)
+  public ResponseEntity<ProblemDetail> handleResponseStatusException(ResponseStatusException ex) {
+    return ResponseEntity.status(ex.getStatusCode()).body(ex.getBody());
+  }
 }
@@ -0,0 +1,190 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseAdvisoryLocks;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseAdvisoryLocks.Lock;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitWriteBehindBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Lets the write-behind buffer of the document units only be active while no other instance writes
+ * document units. The buffered saves are held in the memory of the instance, so another instance
+ * would read older states of the document units and its saves would be overwritten by the buffered
+ * saves.
+ *
+ * <p>Every instance holds a database advisory lock. An instance which holds the lock exclusively is
+ * the only instance and buffers the saves. Every other instance holds the lock shared and writes
+ * its saves directly. A starting instance waits for the shared lock, and its saves and reads wait
+ * with it. The instance with the buffer sees the waiting instance, deactivates its buffer, writes
+ * all buffered saves and turns its lock into a shared lock, which lets the starting instance
+ * continue. An instance with a shared lock tries to get the lock exclusively in the retry interval,
+ * which succeeds once all other instances stopped.
+ */
+@Component
+@ConditionalOnProperty(name = "document-unit-write-behind.enabled", havingValue = "true")
+@Slf4j
+public class DocumentUnitWriteBehindGuard {
+  static final String LOCK_NAME = "document-unit-write-behind";
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  private final DatabaseAdvisoryLocks locks;
+  private final DocumentUnitWriteBehindBuffer writeBehindBuffer;
+  private final Duration retryInterval;
+  private final Duration checkInterval;
+  private final Object monitor = new Object();
+  private Lock lock;
+  private Disposable task;
+  private boolean released;
+
+  public DocumentUnitWriteBehindGuard(
+      DatabaseAdvisoryLocks locks,
+      DocumentUnitWriteBehindBuffer writeBehindBuffer,
+      @Value("${document-unit-write-behind.lock-retry-millis:60000}") long retryMillis,
+      @Value("${document-unit-write-behind.lock-check-millis:1000}") long checkMillis) {
+    this.locks = locks;
+    this.writeBehindBuffer = writeBehindBuffer;
+    this.retryInterval = Duration.ofMillis(retryMillis);
+    this.checkInterval = Duration.ofMillis(checkMillis);
+  }
+
+  /**
+   * Acquires the lock exclusively before the instance takes requests. If another instance holds
+   * the lock, the buffer is suspended until this instance holds the lock shared.
+   */
+  @PostConstruct
+  public void acquireLock() {
+    Lock exclusiveLock = locks.tryAcquire(LOCK_NAME).block(TIMEOUT);
+    Mono<Void> lockHolding;
+    if (exclusiveLock != null) {
+      setLock(exclusiveLock);
+      lockHolding = holdExclusive(exclusiveLock);
+    } else {
+      log.warn(
+          "Another instance writes document units, the saves of this instance are written "
+              + "directly once the buffered saves of the other instance are written");
+      writeBehindBuffer.suspend();
+      lockHolding = acquireShared();
+    }
+
+    synchronized (monitor) {
+      if (!released) {
+        task = lockHolding.subscribe();
+      }
+    }
+  }
+
+  /** Writes the buffered saves before the lock is released, so the next instance reads them. */
+  @PreDestroy
+  public void releaseLock() {
+    synchronized (monitor) {
+      released = true;
+      if (task != null) {
+        task.dispose();
+        task = null;
+      }
+    }
+
+    writeBehindBuffer.shutdown();
+
+    Lock heldLock;
+    synchronized (monitor) {
+      heldLock = lock;
+      lock = null;
+    }
+    if (heldLock != null) {
+      locks.release(heldLock).block(TIMEOUT);
+    }
+  }
+
+  private Mono<Void> acquireShared() {
+    return locks
+        .acquireShared(LOCK_NAME)
+        .doOnError(ex -> log.warn("Couldn't acquire the write-behind lock", ex))
+        .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, checkInterval))
+        .flatMap(this::holdShared);
+  }
+
+  /** Buffers the saves and hands the lock over as soon as another instance waits for it. */
+  private Mono<Void> holdExclusive(Lock exclusiveLock) {
+    writeBehindBuffer.activate();
+    return Flux.interval(checkInterval)
+        .concatMap(
+            ignored ->
+                locks
+                    .hasWaiters(exclusiveLock)
+                    .onErrorResume(
+                        ex -> {
+                          log.warn("Couldn't check the write-behind lock", ex);
+                          return Mono.empty();
+                        }))
+        .filter(Boolean::booleanValue)
+        .next()
+        .flatMap(ignored -> handOver(exclusiveLock));
+  }
+
+  /**
+   * Writes all buffered saves before the waiting instance gets the lock. If the lock can't be
+   * handed over, it is released and this instance waits for the shared lock like a starting one.
+   */
+  private Mono<Void> handOver(Lock exclusiveLock) {
+    log.info("Another instance writes document units, the saves are no longer buffered");
+    writeBehindBuffer.deactivate();
+    return writeBehindBuffer
+        .flushAll()
+        .then(locks.downgrade(exclusiveLock))
+        .flatMap(this::holdShared)
+        .onErrorResume(
+            ex -> {
+              log.error("Couldn't hand over the write-behind lock", ex);
+              setLock(null);
+              writeBehindBuffer.suspend();
+              return locks.release(exclusiveLock).then(acquireShared());
+            });
+  }
+
+  /** Writes the saves directly and tries to get the lock exclusively in the retry interval. */
+  private Mono<Void> holdShared(Lock sharedLock) {
+    setLock(sharedLock);
+    writeBehindBuffer.resume();
+    return Flux.interval(retryInterval)
+        .concatMap(
+            ignored ->
+                locks
+                    .tryUpgrade(sharedLock)
+                    .onErrorResume(
+                        ex -> {
+                          log.warn("Couldn't acquire the write-behind lock", ex);
+                          return Mono.empty();
+                        }))
+        .next()
+        .flatMap(
+            exclusiveLock -> {
+              log.info("No other instance writes document units, the saves are buffered");
+              setLock(exclusiveLock);
+              return holdExclusive(exclusiveLock);
+            });
+  }
+
+  /** Remembers the held lock for the release. A lock acquired after the release is released. */
+  private void setLock(Lock heldLock) {
+    synchronized (monitor) {
+      if (!released) {
+        lock = heldLock;
+        return;
+      }
+    }
+
+    if (heldLock != null) {
+      locks.release(heldLock).subscribe();
+    }
+  }
+}
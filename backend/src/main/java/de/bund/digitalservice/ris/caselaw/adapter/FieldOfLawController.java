@@ -40,6 +40,13 @@ public class FieldOfLawController {
     return service.getChildrenOfFieldOfLaw(identifier);
   }
 
+  @GetMapping(value = "{identifier}/descendants")
+  public Flux<FieldOfLaw> getDescendantsOfFieldOfLaw(
+      @PathVariable String identifier,
+      @RequestParam(value = "depth", defaultValue = "1") int depth) {
+    return service.getDescendantsOfFieldOfLaw(identifier, depth);
+  }
+
   @GetMapping(value = "{identifier}/tree")
   public Mono<FieldOfLaw> getTreeForFieldOfLaw(@PathVariable String identifier) {
     return service.getTreeForFieldOfLaw(identifier);
@@ -2,13 +2,10 @@ package de.bund.digitalservice.ris.caselaw.adapter;
 
 import de.bund.digitalservice.ris.caselaw.domain.FieldOfLawRepository;
 import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldOfLaw;
-import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.Norm;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
@@ -26,9 +23,11 @@ public class FieldOfLawService {
   private static final Pattern NORMS_PATTERN = Pattern.compile("norm\\s?:\\s?\"([^\"]*)\"(.*)");
 
   private final FieldOfLawRepository repository;
+  private final DocumentUnitCache documentUnitCache;
 
-  public FieldOfLawService(FieldOfLawRepository repository) {
+  public FieldOfLawService(FieldOfLawRepository repository, DocumentUnitCache documentUnitCache) {
     this.repository = repository;
+    this.documentUnitCache = documentUnitCache;
   }
 
   public Mono<Page<FieldOfLaw>> getFieldsOfLawBySearchQuery(
@@ -49,94 +48,20 @@ public class FieldOfLawService {
 
   public Mono<Page<FieldOfLaw>> searchAndOrderByScore(String searchStr, Pageable pageable) {
     Matcher matcher = NORMS_PATTERN.matcher(searchStr);
-    AtomicInteger totalElements = new AtomicInteger();
-    String[] searchTerms;
-    String normStr;
+    String[] searchTerms = null;
+    String normStr = null;
 
-    Mono<List<FieldOfLaw>> unorderedList;
     if (matcher.find()) {
       normStr = matcher.group(1).trim().replaceAll("§(\\d+)", "§ $1");
       String afterNormSearchStr = matcher.group(2).trim();
-      if (afterNormSearchStr.isEmpty()) {
-        searchTerms = null;
-        unorderedList = repository.findByNormStr(normStr).collectList();
-      } else {
+      if (!afterNormSearchStr.isEmpty()) {
         searchTerms = splitSearchTerms(afterNormSearchStr);
-        unorderedList = repository.findByNormStrAndSearchTerms(normStr, searchTerms).collectList();
       }
     } else {
-      normStr = null;
       searchTerms = splitSearchTerms(searchStr);
-      unorderedList = repository.findBySearchTerms(searchTerms).collectList();
     }
 
-    return unorderedList
-        .map(
-            list -> {
-              totalElements.set(list.size());
-              list =
-                  list.stream()
-                      .map(fieldOfLaw -> calculateScore(searchTerms, normStr, fieldOfLaw))
-                      .sorted((f1, f2) -> f2.score().compareTo(f1.score()))
-                      .toList();
-              int fromIdx = (int) pageable.getOffset();
-              int toIdx =
-                  (int) Math.min(pageable.getOffset() + pageable.getPageSize(), list.size());
-              if (fromIdx > toIdx) {
-                return new ArrayList<FieldOfLaw>();
-              }
-              return list.subList(fromIdx, toIdx);
-            })
-        .map(list -> new PageImpl<>(list, pageable, totalElements.get()));
-  }
-
-  private FieldOfLaw calculateScore(String[] searchTerms, String normStr, FieldOfLaw fieldOfLaw) {
-    int score = 0;
-    if (searchTerms != null) {
-      for (String searchTerm : searchTerms) {
-        score += getScoreContributionFromSearchTerm(fieldOfLaw, searchTerm);
-      }
-    }
-    if (normStr != null) {
-      score += getScoreContributionFromNormStr(fieldOfLaw, normStr);
-    }
-    return fieldOfLaw.toBuilder().score(score).build();
-  }
-
-  private int getScoreContributionFromSearchTerm(FieldOfLaw fieldOfLaw, String searchTerm) {
-    int score = 0;
-    searchTerm = searchTerm.toLowerCase();
-    String identifier =
-        fieldOfLaw.identifier() == null ? "" : fieldOfLaw.identifier().toLowerCase();
-    String text = fieldOfLaw.text() == null ? "" : fieldOfLaw.text().toLowerCase();
-
-    if (identifier.equals(searchTerm)) score += 8;
-    if (identifier.startsWith(searchTerm)) score += 5;
-    if (identifier.contains(searchTerm)) score += 2;
-
-    if (text.startsWith(searchTerm)) score += 5;
-    // split by whitespace and hyphen to get words
-    for (String textPart : text.split("[\\s-]+")) {
-      if (textPart.equals(searchTerm)) score += 4;
-      if (textPart.startsWith(searchTerm)) score += 3;
-      if (textPart.contains(searchTerm)) score += 1;
-    }
-    return score;
-  }
-
-  private int getScoreContributionFromNormStr(FieldOfLaw fieldOfLaw, String normStr) {
-    int score = 0;
-    normStr = normStr.toLowerCase();
-    for (Norm norm : fieldOfLaw.norms()) {
-      String abbreviation = norm.abbreviation() == null ? "" : norm.abbreviation().toLowerCase();
-      String description =
-          norm.singleNormDescription() == null ? "" : norm.singleNormDescription().toLowerCase();
-      String normText = description + " " + abbreviation;
-      if (description.equals(normStr)) score += 8;
-      if (description.startsWith(normStr)) score += 5;
-      if (normText.contains(normStr)) score += 5;
-    }
-    return score;
+    return repository.searchAndOrderByScore(normStr, searchTerms, pageable);
   }
 
   public Flux<FieldOfLaw> getFieldsOfLawByIdentifierSearch(Optional<String> optionalSearchStr) {
@@ -154,23 +79,30 @@ public class FieldOfLawService {
     return repository.findAllByParentIdentifierOrderByIdentifierAsc(identifier);
   }
 
-  public Mono<FieldOfLaw> getTreeForFieldOfLaw(String identifier) {
-    return repository.findByIdentifier(identifier).flatMap(this::findParent);
+  /**
+   * Returns the children of the field of law with their descendants down to the given number of
+   * levels, at least one level.
+   */
+  public Flux<FieldOfLaw> getDescendantsOfFieldOfLaw(String identifier, int depth) {
+    return repository.findChildrenWithDescendants(
+        identifier.equalsIgnoreCase(ROOT_ID) ? null : identifier, Math.max(depth, 1));
   }
 
-  private Mono<FieldOfLaw> findParent(FieldOfLaw child) {
-
+  public Mono<FieldOfLaw> getTreeForFieldOfLaw(String identifier) {
     return repository
-        .findParentByChild(child)
+        .findAncestorsAndSelf(identifier)
+        .collectList()
         .flatMap(
-            parent -> {
-              if (child.identifier().equals(parent.identifier())) {
-                return Mono.just(child);
+            fieldsOfLaw -> {
+              if (fieldsOfLaw.isEmpty()) {
+                return Mono.empty();
               }
 
-              parent.children().add(child);
+              for (int i = 1; i < fieldsOfLaw.size(); i++) {
+                fieldsOfLaw.get(i - 1).children().add(fieldsOfLaw.get(i));
+              }
 
-              return findParent(parent);
+              return Mono.just(fieldsOfLaw.get(0));
             });
   }
 
@@ -180,11 +112,17 @@ public class FieldOfLawService {
 
   public Mono<List<FieldOfLaw>> addFieldOfLawToDocumentUnit(
       UUID documentUnitUuid, String identifier) {
-    return repository.addFieldOfLawToDocumentUnit(documentUnitUuid, identifier);
+    return repository
+        .addFieldOfLawToDocumentUnit(documentUnitUuid, identifier)
+        .flatMap(
+            fieldsOfLaw -> documentUnitCache.invalidate(documentUnitUuid).thenReturn(fieldsOfLaw));
   }
 
   public Mono<List<FieldOfLaw>> removeFieldOfLawToDocumentUnit(
       UUID documentUnitUuid, String identifier) {
-    return repository.removeFieldOfLawToDocumentUnit(documentUnitUuid, identifier);
+    return repository
+        .removeFieldOfLawToDocumentUnit(documentUnitUuid, identifier)
+        .flatMap(
+            fieldsOfLaw -> documentUnitCache.invalidate(documentUnitUuid).thenReturn(fieldsOfLaw));
   }
 }
@@ -0,0 +1,39 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/** Applies JSON merge patches as described in RFC 7396. */
+public class JsonMergePatch {
+  private JsonMergePatch() {}
+
+  /**
+   * Merges the patch into the target. Members of the patch with the value {@code null} are removed
+   * from the target, objects are merged recursively and all other values replace the value of the
+   * target. The target is not changed.
+   */
+  public static JsonNode apply(JsonNode target, JsonNode patch) {
+    if (patch == null || !patch.isObject()) {
+      return patch;
+    }
+
+    ObjectNode result =
+        target != null && target.isObject()
+            ? ((ObjectNode) target).deepCopy()
+            : JsonNodeFactory.instance.objectNode();
+
+    patch
+        .fields()
+        .forEachRemaining(
+            member -> {
+              if (member.getValue().isNull()) {
+                result.remove(member.getKey());
+              } else {
+                result.set(member.getKey(), apply(result.get(member.getKey()), member.getValue()));
+              }
+            });
+
+    return result;
+  }
+}
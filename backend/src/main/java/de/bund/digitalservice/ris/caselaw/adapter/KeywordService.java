@@ -11,9 +11,11 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class KeywordService {
   private final KeywordRepository repository;
+  private final DocumentUnitCache documentUnitCache;
 
-  public KeywordService(KeywordRepository repository) {
+  public KeywordService(KeywordRepository repository, DocumentUnitCache documentUnitCache) {
     this.repository = repository;
+    this.documentUnitCache = documentUnitCache;
   }
 
   public Mono<List<String>> getKeywordsForDocumentUnit(UUID documentUnitUuid) {
@@ -21,10 +23,14 @@ public class KeywordService {
   }
 
   public Mono<List<String>> addKeywordToDocumentUnit(UUID documentUnitUuid, String keyword) {
-    return repository.addKeywordToDocumentUnit(documentUnitUuid, keyword);
+    return repository
+        .addKeywordToDocumentUnit(documentUnitUuid, keyword)
+        .flatMap(keywords -> documentUnitCache.invalidate(documentUnitUuid).thenReturn(keywords));
   }
 
   public Mono<List<String>> deleteKeywordFromDocumentUnit(UUID documentUnitUuid, String keyword) {
-    return repository.deleteKeywordFromDocumentUnit(documentUnitUuid, keyword);
+    return repository
+        .deleteKeywordFromDocumentUnit(documentUnitUuid, keyword)
+        .flatMap(keywords -> documentUnitCache.invalidate(documentUnitUuid).thenReturn(keywords));
   }
 }
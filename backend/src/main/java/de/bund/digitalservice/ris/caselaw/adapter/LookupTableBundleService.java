@@ -0,0 +1,170 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataCache;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataSnapshot;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawTreeCache;
+import de.bund.digitalservice.ris.caselaw.adapter.transformer.CourtTransformer;
+import de.bund.digitalservice.ris.caselaw.adapter.transformer.DocumentTypeTransformer;
+import de.bund.digitalservice.ris.caselaw.adapter.transformer.StateTransformer;
+import de.bund.digitalservice.ris.caselaw.domain.FieldOfLawRepository;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.LookupTableBundle;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Builds the {@link LookupTableBundle} as serialized and compressed JSON. The bundle is built again
+ * after the {@link ReferenceDataCache} loaded a new snapshot or the {@link FieldOfLawTreeCache} a
+ * new tree, which happens after the import of a lookup table. The version of the bundle is a hash
+ * of its content, so all instances serve the same version for the same data.
+ */
+@Service
+@Slf4j
+public class LookupTableBundleService {
+  private static final int VERSION_BYTES = 16;
+
+  private final ReferenceDataCache referenceDataCache;
+  private final FieldOfLawTreeCache fieldOfLawTreeCache;
+  private final FieldOfLawRepository fieldOfLawRepository;
+  private final ObjectMapper objectMapper;
+  private final AtomicReference<BundleBuild> bundleBuild = new AtomicReference<>();
+
+  public LookupTableBundleService(
+      ReferenceDataCache referenceDataCache,
+      FieldOfLawTreeCache fieldOfLawTreeCache,
+      FieldOfLawRepository fieldOfLawRepository,
+      ObjectMapper objectMapper) {
+
+    this.referenceDataCache = referenceDataCache;
+    this.fieldOfLawTreeCache = fieldOfLawTreeCache;
+    this.fieldOfLawRepository = fieldOfLawRepository;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Returns the bundle of the current snapshot and field of law tree, concurrent requests share one
+   * build.
+   */
+  public Mono<SerializedBundle> getBundle() {
+    return referenceDataCache
+        .getSnapshot()
+        .flatMap(
+            snapshot -> {
+              BundleBuild newBuild =
+                  new BundleBuild(
+                      snapshot.version(),
+                      fieldOfLawTreeCache.getVersion(),
+                      Mono.defer(() -> build(snapshot)).cache());
+              BundleBuild currentBuild =
+                  bundleBuild.accumulateAndGet(
+                      newBuild,
+                      (current, created) ->
+                          current == null || created.isNewerThan(current) ? created : current);
+
+              return currentBuild
+                  .bundle()
+                  .doOnError(ex -> bundleBuild.compareAndSet(currentBuild, null));
+            });
+  }
+
+  private Mono<SerializedBundle> build(ReferenceDataSnapshot snapshot) {
+    return fieldOfLawRepository
+        .getTopLevelNodes()
+        .collectList()
+        .map(
+            fieldsOfLaw ->
+                serialize(
+                    LookupTableBundle.builder()
+                        .courts(
+                            snapshot.courts().stream().map(CourtTransformer::transformDTO).toList())
+                        .documentTypes(
+                            snapshot.caselawDocumentTypes().stream()
+                                .map(DocumentTypeTransformer::transformDTO)
+                                .toList())
+                        .states(
+                            snapshot.states().stream().map(StateTransformer::transformDTO).toList())
+                        .fieldsOfLaw(fieldsOfLaw)
+                        .build()));
+  }
+
+  private SerializedBundle serialize(LookupTableBundle bundle) {
+    try {
+      String version = hash(objectMapper.writeValueAsBytes(bundle));
+      byte[] json = objectMapper.writeValueAsBytes(bundle.toBuilder().version(version).build());
+      byte[] gzipJson = gzip(json);
+      log.info(
+          "Built lookup table bundle {} with {} bytes, {} bytes compressed",
+          version,
+          json.length,
+          gzipJson.length);
+
+      return new SerializedBundle(version, json, gzipJson);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Couldn't serialize the lookup table bundle", ex);
+    }
+  }
+
+  private static String hash(byte[] content) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+      return HexFormat.of().formatHex(digest, 0, VERSION_BYTES);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 isn't supported", ex);
+    }
+  }
+
+  private static byte[] gzip(byte[] content) {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream(content.length / 4);
+    try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+      gzipOutputStream.write(content);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Couldn't compress the lookup table bundle", ex);
+    }
+    return outputStream.toByteArray();
+  }
+
+  /** The serialized bundle. The arrays are shared and must not be changed. */
+  public static final class SerializedBundle {
+    private final String version;
+    private final byte[] json;
+    private final byte[] gzipJson;
+
+    public SerializedBundle(String version, byte[] json, byte[] gzipJson) {
+      this.version = version;
+      this.json = json;
+      this.gzipJson = gzipJson;
+    }
+
+    public String version() {
+      return version;
+    }
+
+    public byte[] json() {
+      return json;
+    }
+
+    public byte[] gzipJson() {
+      return gzipJson;
+    }
+  }
+
+  private record BundleBuild(
+      long snapshotVersion, long treeVersion, Mono<SerializedBundle> bundle) {
+
+    boolean isNewerThan(BundleBuild other) {
+      return snapshotVersion >= other.snapshotVersion
+          && treeVersion >= other.treeVersion
+          && (snapshotVersion > other.snapshotVersion || treeVersion > other.treeVersion);
+    }
+  }
+}
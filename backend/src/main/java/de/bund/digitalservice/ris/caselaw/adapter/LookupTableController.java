@@ -1,25 +1,42 @@
 package de.bund.digitalservice.ris.caselaw.adapter;
 
+import de.bund.digitalservice.ris.caselaw.adapter.LookupTableBundleService.SerializedBundle;
 import de.bund.digitalservice.ris.caselaw.domain.LookupTableService;
 import de.bund.digitalservice.ris.caselaw.domain.lookuptable.court.Court;
 import de.bund.digitalservice.ris.caselaw.domain.lookuptable.documenttype.DocumentType;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("api/v1/caselaw/lookuptable")
 @Slf4j
 public class LookupTableController {
 
+  private static final CacheControl CACHE_VERSION_FOREVER =
+      CacheControl.maxAge(Duration.ofDays(365)).cachePrivate();
+
   private final LookupTableService service;
+  private final LookupTableBundleService bundleService;
 
-  public LookupTableController(LookupTableService service) {
+  public LookupTableController(LookupTableService service, LookupTableBundleService bundleService) {
     this.service = service;
+    this.bundleService = bundleService;
   }
 
   @GetMapping(value = "documentTypes")
@@ -32,4 +49,121 @@ public class LookupTableController {
   public Flux<Court> getCourts(@RequestParam(value = "q") Optional<String> searchStr) {
     return service.getCourts(searchStr);
   }
+
+  /**
+   * Returns all courts, caselaw document types, states and top level fields of law for the search
+   * in the client. The client has to revalidate the bundle with its ETag, it is only downloaded
+   * again after a lookup table was imported.
+   */
+  @GetMapping(value = "bundle")
+  public Mono<ResponseEntity<byte[]>> getBundle(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+    return bundleService
+        .getBundle()
+        .map(
+            bundle ->
+                toBundleResponse(
+                    bundle, CacheControl.noCache().getHeaderValue(), ifNoneMatch, acceptEncoding));
+  }
+
+  /**
+   * Returns the bundle of the version, which never changes and can be cached for a year. Older
+   * versions aren't available anymore.
+   */
+  @GetMapping(value = "bundle/{version}")
+  public Mono<ResponseEntity<byte[]>> getBundleOfVersion(
+      @PathVariable String version,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+    return bundleService
+        .getBundle()
+        .filter(bundle -> bundle.version().equals(version))
+        .map(
+            bundle ->
+                toBundleResponse(
+                    bundle,
+                    CACHE_VERSION_FOREVER.getHeaderValue() + ", immutable",
+                    ifNoneMatch,
+                    acceptEncoding))
+        .defaultIfEmpty(ResponseEntity.notFound().build());
+  }
+
+  private static ResponseEntity<byte[]> toBundleResponse(
+      SerializedBundle bundle, String cacheControl, String ifNoneMatch, String acceptEncoding) {
+
+    // the compressed and the uncompressed bundle are different representations with own ETags
+    boolean gzip = acceptsGzip(acceptEncoding);
+    String eTag = "\"" + bundle.version() + (gzip ? "-gzip" : "") + "\"";
+    if (matchesETag(ifNoneMatch, eTag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(eTag)
+          .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+          .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+          .build();
+    }
+
+    ResponseEntity.BodyBuilder builder =
+        ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(eTag)
+            .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(bundle.gzipJson());
+    }
+    return builder.body(bundle.json());
+  }
+
+  /**
+   * Checks if the Accept-Encoding header accepts gzip. A coding with the q-value 0 is refused, the
+   * wildcard only applies if gzip isn't listed itself.
+   */
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+
+    Double gzipQuality = null;
+    Double wildcardQuality = null;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].trim().toLowerCase(Locale.ROOT);
+      double quality = 1;
+      for (int i = 1; i < parts.length; i++) {
+        String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+        if (parameter.startsWith("q=")) {
+          try {
+            quality = Double.parseDouble(parameter.substring(2).trim());
+          } catch (NumberFormatException ex) {
+            quality = 0;
+          }
+        }
+      }
+
+      if (name.equals("gzip") || name.equals("x-gzip")) {
+        gzipQuality = quality;
+      } else if (name.equals("*")) {
+        wildcardQuality = quality;
+      }
+    }
+
+    if (gzipQuality != null) {
+      return gzipQuality > 0;
+    }
+    return wildcardQuality != null && wildcardQuality > 0;
+  }
+
+  private static boolean matchesETag(String ifNoneMatch, String eTag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+
+    return Arrays.stream(ifNoneMatch.split(","))
+        .map(String::trim)
+        .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+        .anyMatch(tag -> tag.equals("*") || tag.equals(eTag));
+  }
 }
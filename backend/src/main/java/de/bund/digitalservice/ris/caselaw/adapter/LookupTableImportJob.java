@@ -0,0 +1,117 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of one import of a lookup table. The import updates the phase and the number of processed
+ * rows while it runs, the status endpoint reads them at any time. The state is stored in the
+ * database, so jobs of other instances can be read as well.
+ */
+public class LookupTableImportJob {
+  public enum Phase {
+    UPLOADING,
+    IMPORTING,
+    REBUILDING_CACHES,
+    COMPLETED,
+    FAILED
+  }
+
+  private final UUID id;
+  private final String table;
+  private final Instant startedAt;
+  private final AtomicLong rowsProcessed = new AtomicLong();
+  private volatile Phase phase = Phase.UPLOADING;
+  private volatile Instant finishedAt;
+  private volatile String message;
+
+  public LookupTableImportJob(String table) {
+    this(UUID.randomUUID(), table, Instant.now());
+  }
+
+  /** Restores a stored job. */
+  LookupTableImportJob(
+      UUID id,
+      String table,
+      Instant startedAt,
+      Phase phase,
+      long rowsProcessed,
+      Instant finishedAt,
+      String message) {
+    this(id, table, startedAt);
+    this.phase = phase;
+    this.rowsProcessed.set(rowsProcessed);
+    this.finishedAt = finishedAt;
+    this.message = message;
+  }
+
+  private LookupTableImportJob(UUID id, String table, Instant startedAt) {
+    this.id = id;
+    this.table = table;
+    this.startedAt = startedAt;
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public String getTable() {
+    return table;
+  }
+
+  public Phase getPhase() {
+    return phase;
+  }
+
+  public long getRowsProcessed() {
+    return rowsProcessed.get();
+  }
+
+  public Instant getStartedAt() {
+    return startedAt;
+  }
+
+  public Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  /** Returns the duration of the finished job or the time since the start of a running job. */
+  public long getDurationMillis() {
+    Instant end = finishedAt;
+    return Duration.between(startedAt, end == null ? Instant.now() : end).toMillis();
+  }
+
+  /** Returns the result of the completed job or the reason of the failed job. */
+  public String getMessage() {
+    return message;
+  }
+
+  public boolean isFinished() {
+    return finishedAt != null;
+  }
+
+  void startPhase(Phase phase) {
+    this.phase = phase;
+  }
+
+  /** Adds the rows of a written batch and returns the number of all processed rows. */
+  long addRowsProcessed(long rows) {
+    return rowsProcessed.addAndGet(rows);
+  }
+
+  void complete(String message) {
+    finish(Phase.COMPLETED, message);
+  }
+
+  void fail(String message) {
+    finish(Phase.FAILED, message);
+  }
+
+  private void finish(Phase phase, String message) {
+    this.message = message;
+    this.phase = phase;
+    this.finishedAt = Instant.now();
+  }
+}
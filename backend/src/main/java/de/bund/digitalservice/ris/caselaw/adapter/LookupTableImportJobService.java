@@ -0,0 +1,218 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import de.bund.digitalservice.ris.caselaw.adapter.LookupTableImportJob.Phase;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseAdvisoryLocks;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseAdvisoryLocks.Lock;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseLookupTableImportJobRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.LookupTableImportJobDTO;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Runs the imports of the lookup tables as background jobs. The upload is written to a temporary
+ * file within the request, the import of the file runs on the lookup table import scheduler after
+ * the job is returned.
+ *
+ * <p>Only one job per lookup table can run at the same time on all instances. The job holds a
+ * database advisory lock of the table while it runs. The jobs are stored in the database, so the
+ * status of a job can be polled on every instance. The instance which runs a job stores its
+ * progress every progress interval, the finished jobs are kept up to the number of retained jobs.
+ */
+@Service
+@Slf4j
+public class LookupTableImportJobService {
+  private final DatabaseAdvisoryLocks locks;
+  private final DatabaseLookupTableImportJobRepository jobRepository;
+  private final Scheduler scheduler;
+  private final int retainedJobs;
+  private final Duration progressInterval;
+  private final Map<UUID, LookupTableImportJob> runningJobs = new ConcurrentHashMap<>();
+
+  public LookupTableImportJobService(
+      DatabaseAdvisoryLocks locks,
+      DatabaseLookupTableImportJobRepository jobRepository,
+      @Qualifier("lookupTableImportScheduler") Scheduler scheduler,
+      @Value("${lookup-table-import.retained-jobs:100}") int retainedJobs,
+      @Value("${lookup-table-import.progress-interval:PT5S}") Duration progressInterval) {
+    this.locks = locks;
+    this.jobRepository = jobRepository;
+    this.scheduler = scheduler;
+    this.retainedJobs = retainedJobs;
+    this.progressInterval = progressInterval;
+  }
+
+  /**
+   * Starts the import of the uploaded XML into the table and returns the job as soon as the upload
+   * is written to a temporary file. Answers with a conflict if an import of the table is already
+   * running on any instance.
+   */
+  public Mono<LookupTableImportJob> submit(
+      String table,
+      Flux<DataBuffer> xml,
+      BiFunction<Path, LookupTableImportJob, Mono<String>> importer) {
+
+    return locks
+        .tryAcquire(table)
+        .switchIfEmpty(
+            Mono.error(
+                () ->
+                    new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "The " + table + " lookup table is already imported by another job")))
+        .flatMap(lock -> start(lock, table, xml, importer));
+  }
+
+  /** Returns the job of this or of another instance. */
+  public Mono<LookupTableImportJob> getJob(UUID id) {
+    return Mono.justOrEmpty(runningJobs.get(id))
+        .switchIfEmpty(Mono.defer(() -> jobRepository.findById(id).map(this::toJob)));
+  }
+
+  private Mono<LookupTableImportJob> start(
+      Lock lock,
+      String table,
+      Flux<DataBuffer> xml,
+      BiFunction<Path, LookupTableImportJob, Mono<String>> importer) {
+
+    LookupTableImportJob job = new LookupTableImportJob(table);
+
+    // the lock is free, so the unfinished jobs of the table were interrupted with their instance
+    return jobRepository
+        .finishUnfinishedJobs(table, Phase.FAILED.name(), "The import was interrupted")
+        .then(jobRepository.save(toDTO(job, true)))
+        .doOnNext(dto -> runningJobs.put(job.getId(), job))
+        .then(Mono.fromCallable(() -> Files.createTempFile("lookup-table-", ".xml")))
+        .subscribeOn(scheduler)
+        .flatMap(
+            file ->
+                DataBufferUtils.write(xml, file)
+                    .thenReturn(file)
+                    .doOnError(e -> deleteFile(file))
+                    .doOnCancel(() -> deleteFile(file)))
+        .doOnNext(file -> run(lock, job, file, importer))
+        .onErrorResume(
+            e ->
+                fail(lock, job, "Could not upload the " + table + " lookup table", e)
+                    .then(Mono.error(e)))
+        .doOnCancel(
+            () -> {
+              if (job.getPhase() == Phase.UPLOADING) {
+                fail(lock, job, "The upload of the " + table + " lookup table was cancelled", null)
+                    .subscribe();
+              }
+            })
+        .thenReturn(job);
+  }
+
+  private void run(
+      Lock lock,
+      LookupTableImportJob job,
+      Path file,
+      BiFunction<Path, LookupTableImportJob, Mono<String>> importer) {
+
+    job.startPhase(Phase.IMPORTING);
+    Disposable progress =
+        Flux.interval(progressInterval).concatMap(tick -> saveProgress(job)).subscribe();
+
+    Mono.defer(() -> importer.apply(file, job))
+        .subscribeOn(scheduler)
+        .doFinally(
+            signal -> {
+              progress.dispose();
+              deleteFile(file);
+            })
+        .flatMap(message -> complete(lock, job, message))
+        .onErrorResume(
+            e -> fail(lock, job, "Could not import the " + job.getTable() + " lookup table", e))
+        .subscribe();
+  }
+
+  private Mono<Void> complete(Lock lock, LookupTableImportJob job, String message) {
+    job.complete(message);
+    log.info(
+        "Imported {} rows into the {} lookup table in {} ms",
+        job.getRowsProcessed(),
+        job.getTable(),
+        job.getDurationMillis());
+    return finish(lock, job);
+  }
+
+  private Mono<Void> fail(Lock lock, LookupTableImportJob job, String message, Throwable e) {
+    job.fail(message);
+    log.error(message, e);
+    return finish(lock, job);
+  }
+
+  /** Stores the finished job before the lock is released, so it isn't taken as interrupted. */
+  private Mono<Void> finish(Lock lock, LookupTableImportJob job) {
+    return jobRepository
+        .save(toDTO(job, false))
+        .then(jobRepository.deleteFinishedJobsExceptNewest(retainedJobs))
+        .doOnError(e -> log.warn("Could not store the finished job {}", job.getId(), e))
+        .onErrorResume(e -> Mono.empty())
+        .then(locks.release(lock))
+        .doFinally(signal -> runningJobs.remove(job.getId()));
+  }
+
+  private Mono<Void> saveProgress(LookupTableImportJob job) {
+    if (job.isFinished()) {
+      return Mono.empty();
+    }
+
+    return jobRepository
+        .save(toDTO(job, false))
+        .doOnError(e -> log.warn("Could not store the progress of job {}", job.getId(), e))
+        .onErrorResume(e -> Mono.empty())
+        .then();
+  }
+
+  private LookupTableImportJobDTO toDTO(LookupTableImportJob job, boolean newEntry) {
+    return LookupTableImportJobDTO.builder()
+        .id(job.getId())
+        .tableName(job.getTable())
+        .phase(job.getPhase().name())
+        .rowsProcessed(job.getRowsProcessed())
+        .startedAt(job.getStartedAt())
+        .finishedAt(job.getFinishedAt())
+        .message(job.getMessage())
+        .newEntry(newEntry)
+        .build();
+  }
+
+  private LookupTableImportJob toJob(LookupTableImportJobDTO dto) {
+    return new LookupTableImportJob(
+        dto.getId(),
+        dto.getTableName(),
+        dto.getStartedAt(),
+        Phase.valueOf(dto.getPhase()),
+        dto.getRowsProcessed(),
+        dto.getFinishedAt(),
+        dto.getMessage());
+  }
+
+  private void deleteFile(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Could not delete the temporary lookup table file {}", file, e);
+    }
+  }
+}
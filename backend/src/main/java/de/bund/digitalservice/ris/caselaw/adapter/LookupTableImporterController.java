@@ -1,13 +1,16 @@
 package de.bund.digitalservice.ris.caselaw.adapter;
 
-import java.nio.ByteBuffer;
+import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -16,51 +19,55 @@ import reactor.core.publisher.Mono;
 public class LookupTableImporterController {
 
   private final LookupTableImporterService service;
+  private final LookupTableImportJobService jobService;
 
-  public LookupTableImporterController(LookupTableImporterService service) {
+  public LookupTableImporterController(
+      LookupTableImporterService service, LookupTableImportJobService jobService) {
     this.service = service;
+    this.jobService = jobService;
   }
 
   // In Postman go to "Body", select "raw" and "XML" and paste the XML-contents.
-  // Can we use @RequestBody @Valid DocumentTypesXML directly instead of ByteBuffer?
+  // Can we use @RequestBody @Valid DocumentTypesXML directly instead of DataBuffer?
+  // The imports run in the background, the returned job can be polled with its id.
 
   @PutMapping(value = "doktyp")
-  public Mono<ResponseEntity<String>> importDocumentTypeLookupTable(
-      @RequestBody ByteBuffer byteBuffer) {
-    return service
-        .importDocumentTypeLookupTable(byteBuffer)
-        .map(resultString -> ResponseEntity.status(HttpStatus.OK).body(resultString))
-        .onErrorReturn(
-            ResponseEntity.internalServerError()
-                .body("Could not import the document type lookup table"));
+  public Mono<ResponseEntity<LookupTableImportJob>> importDocumentTypeLookupTable(
+      @RequestBody Flux<DataBuffer> xml) {
+    return jobService
+        .submit("document type", xml, service::importDocumentTypeLookupTable)
+        .map(job -> ResponseEntity.accepted().body(job));
   }
 
   @PutMapping(value = "gerichtdata")
-  public Mono<ResponseEntity<String>> importCourtLookupTable(@RequestBody ByteBuffer byteBuffer) {
-    return service
-        .importCourtLookupTable(byteBuffer)
-        .map(resultString -> ResponseEntity.status(HttpStatus.OK).body(resultString))
-        .onErrorReturn(
-            ResponseEntity.internalServerError().body("Could not import the court lookup table"));
+  public Mono<ResponseEntity<LookupTableImportJob>> importCourtLookupTable(
+      @RequestBody Flux<DataBuffer> xml) {
+    return jobService
+        .submit("court", xml, service::importCourtLookupTable)
+        .map(job -> ResponseEntity.accepted().body(job));
   }
 
   @PutMapping(value = "buland")
-  public Mono<ResponseEntity<String>> importStateLookupTable(@RequestBody ByteBuffer byteBuffer) {
-    return service
-        .importStateLookupTable(byteBuffer)
-        .map(resultString -> ResponseEntity.status(HttpStatus.OK).body(resultString))
-        .onErrorReturn(
-            ResponseEntity.internalServerError().body("Could not import the state lookup table"));
+  public Mono<ResponseEntity<LookupTableImportJob>> importStateLookupTable(
+      @RequestBody Flux<DataBuffer> xml) {
+    return jobService
+        .submit("state", xml, service::importStateLookupTable)
+        .map(job -> ResponseEntity.accepted().body(job));
   }
 
   @PutMapping(value = "fieldOfLaw")
-  public Mono<ResponseEntity<String>> importFieldOfLawLookupTable(
-      @RequestBody ByteBuffer byteBuffer) {
-    return service
-        .importFieldOfLawLookupTable(byteBuffer)
-        .map(resultString -> ResponseEntity.status(HttpStatus.OK).body(resultString))
-        .onErrorReturn(
-            ResponseEntity.internalServerError()
-                .body("Could not import the fieldOfLaw lookup table"));
+  public Mono<ResponseEntity<LookupTableImportJob>> importFieldOfLawLookupTable(
+      @RequestBody Flux<DataBuffer> xml) {
+    return jobService
+        .submit("fieldOfLaw", xml, service::importFieldOfLawLookupTable)
+        .map(job -> ResponseEntity.accepted().body(job));
+  }
+
+  @GetMapping(value = "jobs/{id}")
+  public Mono<ResponseEntity<LookupTableImportJob>> getImportJob(@PathVariable UUID id) {
+    return jobService
+        .getJob(id)
+        .map(ResponseEntity::ok)
+        .defaultIfEmpty(ResponseEntity.notFound().build());
   }
 }
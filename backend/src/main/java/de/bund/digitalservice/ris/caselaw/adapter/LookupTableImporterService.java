@@ -1,42 +1,49 @@
 package de.bund.digitalservice.ris.caselaw.adapter;
 
-import static de.bund.digitalservice.ris.caselaw.domain.ServiceUtils.byteBufferToArray;
-
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import de.bund.digitalservice.ris.caselaw.adapter.LookupTableImportJob.Phase;
 import de.bund.digitalservice.ris.caselaw.adapter.database.jpa.JPADocumentTypeDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.jpa.JPADocumentTypeRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.jpa.JPAFieldOfLawDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.jpa.JPAFieldOfLawLinkDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.jpa.JPAFieldOfLawLinkRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.jpa.JPAFieldOfLawRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataCache;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.CourtDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseCourtRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseDocumentTypeRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawTreeCache;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.transformer.FieldOfLawTransformer;
-import de.bund.digitalservice.ris.caselaw.domain.lookuptable.court.CourtsXML;
-import de.bund.digitalservice.ris.caselaw.domain.lookuptable.documenttype.DocumentTypesXML;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.court.CourtXML;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.documenttype.DocumentTypeXML;
 import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldOfLawXml;
-import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldsOfLawXml;
-import de.bund.digitalservice.ris.caselaw.domain.lookuptable.state.StatesXML;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.state.StateXML;
+import jakarta.persistence.EntityManager;
 import java.io.IOException;
-import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 @Service
 @Slf4j
@@ -48,7 +55,15 @@ public class LookupTableImporterService {
   private final StateRepository stateRepository;
   private final JPAFieldOfLawRepository jpaFieldOfLawRepository;
   private final JPAFieldOfLawLinkRepository jpaFieldOfLawLinkRepository;
-
+  private final ReferenceDataCache referenceDataCache;
+  private final FieldOfLawTreeCache fieldOfLawTreeCache;
+  private final EntityManager entityManager;
+  private final TransactionTemplate jpaTransactionTemplate;
+  private final TransactionalOperator r2dbcTransactionalOperator;
+  private final int batchSize;
+  private final Scheduler scheduler;
+
+  private static final String FIELD_OF_LAW_PATH_SEPARATOR = "/";
   private static final Pattern FIELD_OF_LAW_NUMBER_PATTERN =
       Pattern.compile("\\p{Lu}{2}(-\\d{2})+(?![\\p{L}\\d-])");
 
@@ -58,28 +73,31 @@ public class LookupTableImporterService {
       DatabaseCourtRepository databaseCourtRepository,
       StateRepository stateRepository,
       JPAFieldOfLawRepository jpaFieldOfLawRepository,
-      JPAFieldOfLawLinkRepository jpaFieldOfLawLinkRepository) {
+      JPAFieldOfLawLinkRepository jpaFieldOfLawLinkRepository,
+      ReferenceDataCache referenceDataCache,
+      FieldOfLawTreeCache fieldOfLawTreeCache,
+      EntityManager entityManager,
+      @Qualifier("jpaTransactionManager") PlatformTransactionManager jpaTransactionManager,
+      @Qualifier("connectionFactoryTransactionManager")
+          ReactiveTransactionManager r2dbcTransactionManager,
+      @Value("${lookup-table-import.batch-size:1000}") int batchSize,
+      @Qualifier("lookupTableImportScheduler") Scheduler scheduler) {
     this.databaseDocumentTypeRepository = databaseDocumentTypeRepository;
     this.jpaDocumentTypeRepository = jpaDocumentTypeRepository;
     this.databaseCourtRepository = databaseCourtRepository;
     this.stateRepository = stateRepository;
     this.jpaFieldOfLawRepository = jpaFieldOfLawRepository;
     this.jpaFieldOfLawLinkRepository = jpaFieldOfLawLinkRepository;
+    this.referenceDataCache = referenceDataCache;
+    this.fieldOfLawTreeCache = fieldOfLawTreeCache;
+    this.entityManager = entityManager;
+    this.jpaTransactionTemplate = new TransactionTemplate(jpaTransactionManager);
+    this.r2dbcTransactionalOperator = TransactionalOperator.create(r2dbcTransactionManager);
+    this.batchSize = batchSize;
+    this.scheduler = scheduler;
   }
 
-  @Transactional(transactionManager = "jpaTransactionManager")
-  public Mono<String> importDocumentTypeLookupTable(ByteBuffer byteBuffer) {
-    XmlMapper mapper = new XmlMapper();
-    DocumentTypesXML documentTypesXML;
-    try {
-      documentTypesXML = mapper.readValue(byteBufferToArray(byteBuffer), DocumentTypesXML.class);
-    } catch (IOException e) {
-      throw new ResponseStatusException(
-          HttpStatus.NOT_ACCEPTABLE, "Could not map ByteBuffer-content to DocumentTypesXML", e);
-    }
-
-    importDocumentTypeJPA(documentTypesXML);
-
+  public Mono<String> importDocumentTypeLookupTable(Path file, LookupTableImportJob job) {
     //    List<DocumentTypeDTO> documentTypeDTOs =
     //        documentTypesXML.getList().stream()
     //            .map(
@@ -103,177 +121,227 @@ public class LookupTableImporterService {
     //        .thenMany(documentTypeRepository.saveAll(documentTypeDTOs))
     //        .subscribe();
 
-    return Mono.just("Successfully imported the document type lookup table");
+    return inJpaTransaction(() -> importDocumentTypeJPA(file, job))
+        .then(rebuildCaches(job, referenceDataCache.rebuild()))
+        .thenReturn("Successfully imported the document type lookup table");
   }
 
-  public void importDocumentTypeJPA(DocumentTypesXML documentTypesXML) {
-    List<JPADocumentTypeDTO> documentTypeDTOS =
-        documentTypesXML.getList().stream()
-            .map(
-                documentTypeXML ->
-                    JPADocumentTypeDTO.builder()
-                        .id(documentTypeXML.getId())
-                        .changeDateClient(documentTypeXML.getChangeDateClient())
-                        .changeIndicator(documentTypeXML.getChangeIndicator())
-                        .version(documentTypeXML.getVersion())
-                        .jurisShortcut(documentTypeXML.getJurisShortcut())
-                        .documentType(documentTypeXML.getDocumentType())
-                        .multiple(documentTypeXML.getMultiple())
-                        .label(documentTypeXML.getLabel())
-                        .superlabel1(documentTypeXML.getSuperlabel1())
-                        .superlabel2(documentTypeXML.getSuperlabel2())
-                        .build())
-            .toList();
-
-    jpaDocumentTypeRepository.saveAll(documentTypeDTOS);
-  }
-
-  public Mono<String> importCourtLookupTable(ByteBuffer byteBuffer) {
-    XmlMapper mapper = new XmlMapper();
-    CourtsXML courtsXML;
-    try {
-      courtsXML = mapper.readValue(byteBufferToArray(byteBuffer), CourtsXML.class);
+  private void importDocumentTypeJPA(Path file, LookupTableImportJob job) {
+    try (LookupTableXmlReader<DocumentTypeXML> reader =
+        new LookupTableXmlReader<>(file, "juris-doktyp", DocumentTypeXML.class)) {
+      for (List<DocumentTypeXML> batch = reader.nextBatch(batchSize);
+          !batch.isEmpty();
+          batch = reader.nextBatch(batchSize)) {
+        jpaDocumentTypeRepository.saveAll(transformToJPADocumentTypeDTOs(batch));
+        flushBatch(job, batch.size());
+      }
     } catch (IOException e) {
       throw new ResponseStatusException(
-          HttpStatus.NOT_ACCEPTABLE, "Could not map ByteBuffer-content to CourtsXML", e);
+          HttpStatus.NOT_ACCEPTABLE, "Could not map the content to DocumentTypeXML", e);
     }
+  }
 
-    List<CourtDTO> courtsDTO =
-        courtsXML.getList().stream()
-            .map(
-                courtXML ->
-                    CourtDTO.builder()
-                        .id(courtXML.getId())
-                        .newEntry(true)
-                        .changedatemail(courtXML.getChangeDateMail())
-                        .changedateclient(courtXML.getChangeDateClient())
-                        .changeindicator(courtXML.getChangeIndicator())
-                        .version(courtXML.getVersion())
-                        .courttype(courtXML.getCourtType())
-                        .courtlocation(courtXML.getCourtLocation())
-                        .field(courtXML.getField())
-                        .superiorcourt(courtXML.getSuperiorcourt())
-                        .foreigncountry(courtXML.getForeignCountry())
-                        .region(courtXML.getRegion())
-                        .federalstate(courtXML.getFederalState())
-                        .belongsto(courtXML.getBelongsto())
-                        .street(courtXML.getStreet())
-                        .zipcode(courtXML.getZipcode())
-                        .maillocation(courtXML.getMaillocation())
-                        .phone(courtXML.getPhone())
-                        .fax(courtXML.getFax())
-                        .postofficebox(courtXML.getPostofficebox())
-                        .postofficeboxzipcode(courtXML.getPostofficeboxzipcode())
-                        .postofficeboxlocation(courtXML.getPostofficeboxlocation())
-                        .email(courtXML.getEmail())
-                        .internet(courtXML.getInternet())
-                        .isbranchofficeto(courtXML.getIsbranchofficeto())
-                        .earlycourtname(courtXML.getEarlycourtname())
-                        .latecourtname(courtXML.getLatecourtname())
-                        .currentofficialcourtname(courtXML.getCurrentofficialcourtname())
-                        .traditionalcourtname(courtXML.getTraditionalcourtname())
-                        .existingbranchoffice(courtXML.getExistingbranchoffice())
-                        .abandonedbranchoffice(courtXML.getAbandonedbranchoffice())
-                        .contactperson(courtXML.getContactperson())
-                        .deliverslrs(courtXML.getDeliverslrs())
-                        .remark(courtXML.getRemark())
-                        .additional(courtXML.getAdditional())
-                        .existencedate(courtXML.getExistencedate())
-                        .cancellationdate(courtXML.getCancellationdate())
-                        .build())
-            .toList();
+  private List<JPADocumentTypeDTO> transformToJPADocumentTypeDTOs(List<DocumentTypeXML> batch) {
+    return batch.stream()
+        .map(
+            documentTypeXML ->
+                JPADocumentTypeDTO.builder()
+                    .id(documentTypeXML.getId())
+                    .changeDateClient(documentTypeXML.getChangeDateClient())
+                    .changeIndicator(documentTypeXML.getChangeIndicator())
+                    .version(documentTypeXML.getVersion())
+                    .jurisShortcut(documentTypeXML.getJurisShortcut())
+                    .documentType(documentTypeXML.getDocumentType())
+                    .multiple(documentTypeXML.getMultiple())
+                    .label(documentTypeXML.getLabel())
+                    .superlabel1(documentTypeXML.getSuperlabel1())
+                    .superlabel2(documentTypeXML.getSuperlabel2())
+                    .build())
+        .toList();
+  }
 
+  public Mono<String> importCourtLookupTable(Path file, LookupTableImportJob job) {
     return databaseCourtRepository
         .deleteAll()
-        .thenMany(databaseCourtRepository.saveAll(courtsDTO))
-        .collectList()
-        .map(list -> "Successfully imported the court lookup table");
+        .then(
+            writeInBatches(
+                LookupTableXmlReader.read(file, "juris-gericht", CourtXML.class, scheduler)
+                    .map(this::transformToCourtDTO),
+                job,
+                batch -> databaseCourtRepository.saveAll(batch).then()))
+        .as(r2dbcTransactionalOperator::transactional)
+        .then(rebuildCaches(job, referenceDataCache.rebuild()))
+        .thenReturn("Successfully imported the court lookup table");
   }
 
-  public Mono<String> importStateLookupTable(ByteBuffer byteBuffer) {
-    XmlMapper mapper = new XmlMapper();
-    StatesXML statesXML;
-    try {
-      statesXML = mapper.readValue(byteBufferToArray(byteBuffer), StatesXML.class);
-    } catch (IOException e) {
-      throw new ResponseStatusException(
-          HttpStatus.NOT_ACCEPTABLE, "Could not map ByteBuffer-content to StatesXML", e);
-    }
-
-    List<StateDTO> statesDTO =
-        statesXML.getList().stream()
-            .map(
-                stateXML ->
-                    StateDTO.builder()
-                        .id(stateXML.getId())
-                        .newEntry(true)
-                        .changeindicator(stateXML.getChangeIndicator())
-                        .version(stateXML.getVersion())
-                        .jurisshortcut(stateXML.getJurisShortcut())
-                        .label(stateXML.getLabel())
-                        .build())
-            .toList();
+  private CourtDTO transformToCourtDTO(CourtXML courtXML) {
+    return CourtDTO.builder()
+        .id(courtXML.getId())
+        .newEntry(true)
+        .changedatemail(courtXML.getChangeDateMail())
+        .changedateclient(courtXML.getChangeDateClient())
+        .changeindicator(courtXML.getChangeIndicator())
+        .version(courtXML.getVersion())
+        .courttype(courtXML.getCourtType())
+        .courtlocation(courtXML.getCourtLocation())
+        .field(courtXML.getField())
+        .superiorcourt(courtXML.getSuperiorcourt())
+        .foreigncountry(courtXML.getForeignCountry())
+        .region(courtXML.getRegion())
+        .federalstate(courtXML.getFederalState())
+        .belongsto(courtXML.getBelongsto())
+        .street(courtXML.getStreet())
+        .zipcode(courtXML.getZipcode())
+        .maillocation(courtXML.getMaillocation())
+        .phone(courtXML.getPhone())
+        .fax(courtXML.getFax())
+        .postofficebox(courtXML.getPostofficebox())
+        .postofficeboxzipcode(courtXML.getPostofficeboxzipcode())
+        .postofficeboxlocation(courtXML.getPostofficeboxlocation())
+        .email(courtXML.getEmail())
+        .internet(courtXML.getInternet())
+        .isbranchofficeto(courtXML.getIsbranchofficeto())
+        .earlycourtname(courtXML.getEarlycourtname())
+        .latecourtname(courtXML.getLatecourtname())
+        .currentofficialcourtname(courtXML.getCurrentofficialcourtname())
+        .traditionalcourtname(courtXML.getTraditionalcourtname())
+        .existingbranchoffice(courtXML.getExistingbranchoffice())
+        .abandonedbranchoffice(courtXML.getAbandonedbranchoffice())
+        .contactperson(courtXML.getContactperson())
+        .deliverslrs(courtXML.getDeliverslrs())
+        .remark(courtXML.getRemark())
+        .additional(courtXML.getAdditional())
+        .existencedate(courtXML.getExistencedate())
+        .cancellationdate(courtXML.getCancellationdate())
+        .build();
+  }
 
+  public Mono<String> importStateLookupTable(Path file, LookupTableImportJob job) {
     return stateRepository
         .deleteAll()
-        .thenMany(stateRepository.saveAll(statesDTO))
-        .collectList()
-        .map(list -> "Successfully imported the state lookup table");
+        .then(
+            writeInBatches(
+                LookupTableXmlReader.read(file, "juris-buland", StateXML.class, scheduler)
+                    .map(
+                        stateXML ->
+                            StateDTO.builder()
+                                .id(stateXML.getId())
+                                .newEntry(true)
+                                .changeindicator(stateXML.getChangeIndicator())
+                                .version(stateXML.getVersion())
+                                .jurisshortcut(stateXML.getJurisShortcut())
+                                .label(stateXML.getLabel())
+                                .build()),
+                job,
+                batch -> stateRepository.saveAll(batch).then()))
+        .as(r2dbcTransactionalOperator::transactional)
+        .then(rebuildCaches(job, referenceDataCache.rebuild()))
+        .thenReturn("Successfully imported the state lookup table");
   }
 
-  @Transactional(transactionManager = "jpaTransactionManager")
-  public Mono<String> importFieldOfLawLookupTable(ByteBuffer byteBuffer) {
-    XmlMapper mapper = new XmlMapper();
-    FieldsOfLawXml fieldsOfLawXml;
-    try {
-      fieldsOfLawXml = mapper.readValue(byteBufferToArray(byteBuffer), FieldsOfLawXml.class);
-    } catch (IOException e) {
-      throw new ResponseStatusException(
-          HttpStatus.NOT_ACCEPTABLE, "Could not map ByteBuffer-content to FieldsOfLawXml", e);
-    }
-
-    importFieldOfLawJPA(fieldsOfLawXml);
-
-    return Mono.just("Successfully imported the fieldOfLaw lookup table");
+  public Mono<String> importFieldOfLawLookupTable(Path file, LookupTableImportJob job) {
+    return inJpaTransaction(() -> importFieldOfLawJPA(file, job))
+        .then(rebuildCaches(job, fieldOfLawTreeCache.rebuild()))
+        .thenReturn("Successfully imported the fieldOfLaw lookup table");
   }
 
-  private void importFieldOfLawJPA(FieldsOfLawXml fieldsOfLawXml) {
+  /**
+   * Imports the fields of law in three passes over the file. The first pass only collects the ids
+   * of all identifiers, which gives the path, the depth and the number of children of every field
+   * of law and resolves the linked fields of law. The second pass inserts the fields of law batch
+   * by batch. A parent can come after its children in the file, so the parents are set afterwards
+   * by the paths. The third pass inserts the links batch by batch, when all linked fields of law
+   * exist.
+   */
+  private void importFieldOfLawJPA(Path file, LookupTableImportJob job) {
     jpaFieldOfLawRepository.deleteAllInBatch();
 
-    List<JPAFieldOfLawDTO> jpaFieldOfLawDTOS =
-        fieldsOfLawXml.getList().stream()
-            .map(FieldOfLawTransformer::transformToJPADTO)
-            .sorted(Comparator.comparing(JPAFieldOfLawDTO::getIdentifier))
-            .toList();
-
-    setFieldOfLawParentIds(jpaFieldOfLawDTOS);
+    Map<String, Long> allFieldOfLawNumbers = new HashMap<>();
+    forEachBatch(
+        file,
+        batch ->
+            batch.forEach(
+                fieldOfLawXml ->
+                    allFieldOfLawNumbers.put(
+                        fieldOfLawXml.getIdentifier(), fieldOfLawXml.getId())));
+
+    Map<String, Integer> childrenCounts = new HashMap<>();
+    allFieldOfLawNumbers
+        .keySet()
+        .forEach(
+            identifier -> {
+              String identifierOfParent = JPAFieldOfLawDTO.getIdentifierOfParent(identifier);
+              if (allFieldOfLawNumbers.containsKey(identifierOfParent)) {
+                childrenCounts.merge(identifierOfParent, 1, Integer::sum);
+              }
+            });
 
-    jpaFieldOfLawRepository.saveAll(jpaFieldOfLawDTOS);
+    forEachBatch(
+        file,
+        batch -> {
+          List<JPAFieldOfLawDTO> jpaFieldOfLawDTOs = new ArrayList<>(batch.size());
+          for (FieldOfLawXml fieldOfLawXml : batch) {
+            JPAFieldOfLawDTO jpaFieldOfLawDTO =
+                FieldOfLawTransformer.transformToJPADTO(fieldOfLawXml);
+            String path = getFieldOfLawPath(jpaFieldOfLawDTO.getIdentifier(), allFieldOfLawNumbers);
+            jpaFieldOfLawDTO.setPath(path);
+            jpaFieldOfLawDTO.setDepth(path.split(FIELD_OF_LAW_PATH_SEPARATOR).length);
+            jpaFieldOfLawDTO.setChildrenCount(
+                childrenCounts.getOrDefault(jpaFieldOfLawDTO.getIdentifier(), 0));
+            jpaFieldOfLawDTOs.add(jpaFieldOfLawDTO);
+          }
+          jpaFieldOfLawRepository.saveAll(jpaFieldOfLawDTOs);
+          flushBatch(job, batch.size());
+        });
 
-    extractAndStoreAllLinkedFieldsOfLaw(fieldsOfLawXml);
+    jpaFieldOfLawRepository.setParentIdsByPath();
+
+    forEachBatch(
+        file,
+        batch -> {
+          List<JPAFieldOfLawLinkDTO> jpaFieldOfLawLinkDTOs = new ArrayList<>();
+          for (FieldOfLawXml fieldOfLawXml : batch) {
+            for (Long linkedFieldOfLawId :
+                extractLinkedFieldsOfLaw(fieldOfLawXml.getText(), allFieldOfLawNumbers)) {
+              jpaFieldOfLawLinkDTOs.add(
+                  JPAFieldOfLawLinkDTO.builder()
+                      .fieldOfLawId(fieldOfLawXml.getId())
+                      .linkedFieldOfLawId(linkedFieldOfLawId)
+                      .build());
+            }
+          }
+          if (!jpaFieldOfLawLinkDTOs.isEmpty()) {
+            jpaFieldOfLawLinkRepository.saveAll(jpaFieldOfLawLinkDTOs);
+            flushBatch(job, jpaFieldOfLawLinkDTOs.size());
+          }
+        });
   }
 
-  private void extractAndStoreAllLinkedFieldsOfLaw(FieldsOfLawXml fieldsOfLawXml) {
-    Map<String, Long> allFieldOfLawNumbers =
-        fieldsOfLawXml.getList().stream()
-            .collect(Collectors.toMap(FieldOfLawXml::getIdentifier, FieldOfLawXml::getId));
-
-    List<JPAFieldOfLawLinkDTO> jpaFieldOfLawLinkDTOs = new ArrayList<>();
-    fieldsOfLawXml
-        .getList()
-        .forEach(
-            fieldOfLawXml -> {
-              for (Long linkedFieldOfLawId :
-                  extractLinkedFieldsOfLaw(fieldOfLawXml.getText(), allFieldOfLawNumbers)) {
-                jpaFieldOfLawLinkDTOs.add(
-                    JPAFieldOfLawLinkDTO.builder()
-                        .fieldOfLawId(fieldOfLawXml.getId())
-                        .linkedFieldOfLawId(linkedFieldOfLawId)
-                        .build());
-              }
-            });
+  private void forEachBatch(Path file, Consumer<List<FieldOfLawXml>> consumer) {
+    try (LookupTableXmlReader<FieldOfLawXml> reader =
+        new LookupTableXmlReader<>(file, "juris-sachg", FieldOfLawXml.class)) {
+      for (List<FieldOfLawXml> batch = reader.nextBatch(batchSize);
+          !batch.isEmpty();
+          batch = reader.nextBatch(batchSize)) {
+        consumer.accept(batch);
+      }
+    } catch (IOException e) {
+      throw new ResponseStatusException(
+          HttpStatus.NOT_ACCEPTABLE, "Could not map the content to FieldOfLawXml", e);
+    }
+  }
 
-    jpaFieldOfLawLinkRepository.saveAll(jpaFieldOfLawLinkDTOs);
+  /**
+   * Returns the identifiers of the field of law and all its ancestors in the lookup table, from the
+   * top level field of law down, each followed by the separator.
+   */
+  private String getFieldOfLawPath(String identifier, Map<String, Long> allFieldOfLawNumbers) {
+    String identifierOfParent = JPAFieldOfLawDTO.getIdentifierOfParent(identifier);
+    String pathOfParent =
+        allFieldOfLawNumbers.containsKey(identifierOfParent)
+            ? getFieldOfLawPath(identifierOfParent, allFieldOfLawNumbers)
+            : "";
+    return pathOfParent + identifier + FIELD_OF_LAW_PATH_SEPARATOR;
   }
 
   private List<Long> extractLinkedFieldsOfLaw(
@@ -296,31 +364,47 @@ public class LookupTableImporterService {
     return linkedFieldIds;
   }
 
-  private void setFieldOfLawParentIds(List<JPAFieldOfLawDTO> jpaFieldOfLawDTOS) {
-    Map<String, JPAFieldOfLawDTO> identifierToFieldOfLawDTO =
-        jpaFieldOfLawDTOS.stream()
-            .collect(Collectors.toMap(JPAFieldOfLawDTO::getIdentifier, Function.identity()));
-    jpaFieldOfLawDTOS.forEach(
-        jpaFieldOfLawDTO -> {
-          countChildren(jpaFieldOfLawDTO, identifierToFieldOfLawDTO);
-          JPAFieldOfLawDTO parentDTO =
-              identifierToFieldOfLawDTO.get(jpaFieldOfLawDTO.getIdentifierOfParent());
-          if (parentDTO != null) {
-            jpaFieldOfLawDTO.setParentFieldOfLaw(parentDTO);
-          }
-        });
+  /**
+   * Writes the persistence context of the batch to the database and detaches the written entities,
+   * so that the memory needed is bounded by the batch size.
+   */
+  private void flushBatch(LookupTableImportJob job, int rows) {
+    entityManager.flush();
+    entityManager.clear();
+    reportProgress(job, rows);
+  }
+
+  /** Writes the records in batches of the batch size and reports the progress after every batch. */
+  private <T> Mono<Void> writeInBatches(
+      Flux<T> records, LookupTableImportJob job, Function<List<T>, Mono<Void>> writer) {
+    return records
+        .buffer(batchSize)
+        .concatMap(
+            batch ->
+                writer
+                    .apply(batch)
+                    .then(Mono.fromRunnable(() -> reportProgress(job, batch.size()))))
+        .then();
+  }
+
+  private void reportProgress(LookupTableImportJob job, int rows) {
+    log.info(
+        "Imported {} rows into the {} lookup table", job.addRowsProcessed(rows), job.getTable());
+  }
+
+  private Mono<Void> rebuildCaches(LookupTableImportJob job, Mono<?> rebuild) {
+    return Mono.fromRunnable(() -> job.startPhase(Phase.REBUILDING_CACHES)).then(rebuild).then();
   }
 
-  private void countChildren(
-      JPAFieldOfLawDTO jpaFieldOfLawDTO, Map<String, JPAFieldOfLawDTO> identifierToFieldOfLawDTO) {
-    String thisIdentifier = jpaFieldOfLawDTO.getIdentifier();
-    jpaFieldOfLawDTO.setChildrenCount(
-        (int)
-            identifierToFieldOfLawDTO.keySet().stream()
-                .filter(
-                    otherIdentifier ->
-                        otherIdentifier.startsWith(thisIdentifier)
-                            && otherIdentifier.length() == thisIdentifier.length() + 3)
-                .count());
+  /**
+   * Runs the blocking import in a transaction of the JPA transaction manager. The transaction is
+   * bound to the thread, so the whole import runs on one thread of the lookup table import
+   * scheduler.
+   */
+  private Mono<Void> inJpaTransaction(Runnable importer) {
+    return Mono.fromRunnable(
+            () -> jpaTransactionTemplate.executeWithoutResult(status -> importer.run()))
+        .subscribeOn(scheduler)
+        .then();
   }
 }
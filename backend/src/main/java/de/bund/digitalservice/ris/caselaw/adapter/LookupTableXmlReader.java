@@ -0,0 +1,110 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Reads the records of a lookup table XML file one after another. The file is read with StAX and
+ * only the current record is deserialized with Jackson, so the memory needed does not depend on the
+ * size of the file.
+ */
+class LookupTableXmlReader<T> implements Closeable {
+  private static final XmlMapper XML_MAPPER = new XmlMapper();
+
+  private final InputStream inputStream;
+  private final XMLStreamReader streamReader;
+  private final String recordName;
+  private final Class<T> recordType;
+
+  LookupTableXmlReader(Path file, String recordName, Class<T> recordType) throws IOException {
+    this.recordName = recordName;
+    this.recordType = recordType;
+    this.inputStream = Files.newInputStream(file);
+    try {
+      this.streamReader =
+          XML_MAPPER.getFactory().getXMLInputFactory().createXMLStreamReader(inputStream);
+    } catch (XMLStreamException e) {
+      inputStream.close();
+      throw new IOException("Could not open the lookup table file", e);
+    }
+  }
+
+  /**
+   * Returns a flux of all records of the file. The file is read on the given scheduler while the
+   * records are requested and closed afterwards.
+   */
+  static <T> Flux<T> read(Path file, String recordName, Class<T> recordType, Scheduler scheduler) {
+    return Flux.using(
+            () -> new LookupTableXmlReader<>(file, recordName, recordType),
+            reader ->
+                Flux.<T>generate(
+                    sink -> {
+                      try {
+                        T next = reader.next();
+                        if (next == null) {
+                          sink.complete();
+                        } else {
+                          sink.next(next);
+                        }
+                      } catch (IOException e) {
+                        sink.error(e);
+                      }
+                    }),
+            reader -> {
+              try {
+                reader.close();
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            })
+        .subscribeOn(scheduler);
+  }
+
+  /** Returns the next record or null at the end of the file. */
+  T next() throws IOException {
+    try {
+      while (streamReader.hasNext()) {
+        if (streamReader.next() == XMLStreamConstants.START_ELEMENT
+            && recordName.equals(streamReader.getLocalName())) {
+          return XML_MAPPER.readValue(streamReader, recordType);
+        }
+      }
+      return null;
+    } catch (XMLStreamException e) {
+      throw new IOException("Could not read the next " + recordName, e);
+    }
+  }
+
+  /** Returns the next records, at most size of them. The list is empty at the end of the file. */
+  List<T> nextBatch(int size) throws IOException {
+    List<T> batch = new ArrayList<>(size);
+    T next;
+    while (batch.size() < size && (next = next()) != null) {
+      batch.add(next);
+    }
+    return batch;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      streamReader.close();
+    } catch (XMLStreamException e) {
+      throw new IOException("Could not close the lookup table file", e);
+    } finally {
+      inputStream.close();
+    }
+  }
+}
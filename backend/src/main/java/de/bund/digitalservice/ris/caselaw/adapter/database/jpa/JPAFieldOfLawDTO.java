@@ -57,7 +57,17 @@ public class JPAFieldOfLawDTO {
   @Column(name = "children_count")
   Integer childrenCount;
 
+  @Column(name = "path")
+  String path;
+
+  @Column(name = "depth")
+  Integer depth;
+
   public String getIdentifierOfParent() {
+    return getIdentifierOfParent(identifier);
+  }
+
+  public static String getIdentifierOfParent(String identifier) {
     int lastIndexOf = identifier.lastIndexOf('-');
 
     if (lastIndexOf == -1) {
@@ -1,7 +1,24 @@
 package de.bund.digitalservice.ris.caselaw.adapter.database.jpa;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface JPAFieldOfLawRepository extends JpaRepository<JPAFieldOfLawDTO, Long> {}
+public interface JPAFieldOfLawRepository extends JpaRepository<JPAFieldOfLawDTO, Long> {
+
+  /**
+   * Sets the parent of every field of law to the field of law whose path is the path of the field
+   * of law without its own identifier.
+   */
+  @Modifying
+  @Query(
+      value =
+          "UPDATE lookuptable_field_of_law child "
+              + "SET parent_id = parent.id "
+              + "FROM lookuptable_field_of_law parent "
+              + "WHERE child.path = parent.path || child.identifier || '/'",
+      nativeQuery = true)
+  void setParentIdsByPath();
+}
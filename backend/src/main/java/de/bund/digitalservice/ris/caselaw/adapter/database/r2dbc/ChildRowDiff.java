@@ -0,0 +1,161 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Minimal set of row writes which turns the stored rows of a child table into a list of values.
+ *
+ * <p>The stored rows are compared with the values by value, in the order in which they are read.
+ * A stored row is kept for an equal value, reused for a changed value or deleted, and a value
+ * without a stored row gets a new row. Of all these assignments the one with the fewest updated,
+ * inserted and deleted rows is used. An unchanged list needs no write, a removed value deletes
+ * only its row and an added value inserts only one row, wherever it is added.
+ *
+ * <p>The rows are read in the order of their positions. The positions only have to ascend, so the
+ * kept rows keep their positions and a new row takes a free position between its neighbours, or
+ * before the first or after the last row. Only if there is no free position, the following kept
+ * rows are shifted until there is one, which updates their positions in the same statement as the
+ * other updated rows. Stored rows without a position get one as well.
+ *
+ * @param rows the rows in the order of the values, the inserted rows without id
+ * @param toUpdate the kept rows whose value or position changed
+ * @param toInsert the new rows for the values without a stored row
+ * @param toDelete the stored rows which are no longer needed
+ * @param <T> type of the row
+ */
+record ChildRowDiff<T>(List<T> rows, List<T> toUpdate, List<T> toInsert, List<T> toDelete) {
+
+  private static final int KEEP = 1;
+  private static final int DELETE = 2;
+  private static final int INSERT = 3;
+
+  static <T, V> ChildRowDiff<T> of(
+      List<T> storedRows,
+      List<V> values,
+      Function<T, V> valueOf,
+      BiFunction<T, V, T> update,
+      Function<V, T> create,
+      Function<T, Integer> positionOf,
+      BiFunction<T, Integer, T> withPosition) {
+
+    List<T> stored = storedRows == null ? Collections.emptyList() : storedRows;
+    int n = stored.size();
+    int m = values.size();
+
+    // writes[i][j]: fewest writes to turn the first i stored rows into the first j values
+    int[][] writes = new int[n + 1][m + 1];
+    int[][] choices = new int[n + 1][m + 1];
+    for (int i = 0; i <= n; i++) {
+      V storedValue = i == 0 ? null : valueOf.apply(stored.get(i - 1));
+      for (int j = 0; j <= m; j++) {
+        if (i == 0 && j == 0) {
+          continue;
+        }
+
+        writes[i][j] = Integer.MAX_VALUE;
+        if (i > 0 && j > 0) {
+          writes[i][j] =
+              writes[i - 1][j - 1] + (Objects.equals(storedValue, values.get(j - 1)) ? 0 : 1);
+          choices[i][j] = KEEP;
+        }
+        if (i > 0 && writes[i - 1][j] + 1 < writes[i][j]) {
+          writes[i][j] = writes[i - 1][j] + 1;
+          choices[i][j] = DELETE;
+        }
+        if (j > 0 && writes[i][j - 1] + 1 < writes[i][j]) {
+          writes[i][j] = writes[i][j - 1] + 1;
+          choices[i][j] = INSERT;
+        }
+      }
+    }
+
+    List<T> rows = new ArrayList<>(Collections.nCopies(m, null));
+    boolean[] changed = new boolean[m];
+    List<T> toDelete = new ArrayList<>();
+    for (int i = n, j = m; i > 0 || j > 0; ) {
+      if (choices[i][j] == KEEP) {
+        i--;
+        j--;
+        T row = stored.get(i);
+        V value = values.get(j);
+        if (Objects.equals(valueOf.apply(row), value)) {
+          rows.set(j, row);
+        } else {
+          rows.set(j, update.apply(row, value));
+          changed[j] = true;
+        }
+      } else if (choices[i][j] == DELETE) {
+        i--;
+        toDelete.add(0, stored.get(i));
+      } else {
+        j--;
+      }
+    }
+
+    Integer[] newPositions = positions(rows, positionOf);
+
+    List<T> toUpdate = new ArrayList<>();
+    List<T> toInsert = new ArrayList<>();
+    for (int j = 0; j < m; j++) {
+      T row = rows.get(j);
+      if (row == null) {
+        row = withPosition.apply(create.apply(values.get(j)), newPositions[j]);
+        toInsert.add(row);
+      } else if (newPositions[j] != null) {
+        row = withPosition.apply(row, newPositions[j]);
+        toUpdate.add(row);
+      } else if (changed[j]) {
+        toUpdate.add(row);
+      }
+      rows.set(j, row);
+    }
+
+    return new ChildRowDiff<>(rows, toUpdate, toInsert, toDelete);
+  }
+
+  /**
+   * Returns the new position of every row which needs one, i.e. the new rows (null in the list)
+   * and the kept rows which have to be shifted. A kept row keeps its position if it is after the
+   * position of the previous row with enough room for the new rows in between.
+   */
+  private static <T> Integer[] positions(List<T> rows, Function<T, Integer> positionOf) {
+    Integer[] newPositions = new Integer[rows.size()];
+    Integer previous = null;
+    int start = 0;
+    for (int j = 0; j <= rows.size(); j++) {
+      T row = j < rows.size() ? rows.get(j) : null;
+      Integer position = row == null ? null : positionOf.apply(row);
+      boolean kept = position != null && (previous == null || position > previous + j - start);
+      if (j < rows.size() && !kept) {
+        continue;
+      }
+
+      int first;
+      if (previous != null) {
+        first = previous + 1;
+      } else {
+        first = kept ? position - (j - start) : 0;
+      }
+      for (int k = start; k < j; k++) {
+        newPositions[k] = first + k - start;
+      }
+
+      previous = position;
+      start = j + 1;
+    }
+    return newPositions;
+  }
+
+  boolean isEmpty() {
+    return toUpdate.isEmpty() && toInsert.isEmpty() && toDelete.isEmpty();
+  }
+
+  int rowsWritten() {
+    return toUpdate.size() + toInsert.size() + toDelete.size();
+  }
+}
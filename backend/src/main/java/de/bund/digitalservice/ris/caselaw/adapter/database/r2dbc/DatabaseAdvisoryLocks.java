@@ -0,0 +1,147 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Postgres advisory locks which let only one instance at a time do a job, e.g. import a lookup
+ * table. A lock is held by a connection of its own until it is released. If the instance dies, the
+ * database releases the lock together with the connection.
+ *
+ * <p>A lock can also be held shared by several instances, which keeps every other instance from
+ * holding it exclusively. An exclusive lock can be turned into a shared one and back without
+ * releasing it in between.
+ *
+ * <p>The locks belong to the session, so their connections don't come from the connection pool: a
+ * pooled connection which still holds a lock would let the next caller get the same lock again,
+ * and every held lock would take a connection away from the pool. Closing such a connection ends
+ * its session and with it every lock which couldn't be released.
+ */
+@Component
+@Slf4j
+public class DatabaseAdvisoryLocks {
+  // first key of the advisory locks, the second key is the hash of the lock name
+  private static final int LOCK_CLASS = 7_241_001;
+
+  private final ConnectionFactory connectionFactory;
+
+  public DatabaseAdvisoryLocks(ConnectionFactory connectionFactory) {
+    this.connectionFactory = unpooled(connectionFactory);
+  }
+
+  /** Acquires the lock of the name. Completes empty if another connection holds the lock. */
+  public Mono<Lock> tryAcquire(String name) {
+    return Mono.from(connectionFactory.create())
+        .flatMap(
+            connection ->
+                execute(connection, "SELECT pg_try_advisory_lock($1, hashtext($2))", name)
+                    .onErrorResume(ex -> close(connection).then(Mono.error(ex)))
+                    .flatMap(
+                        locked ->
+                            Boolean.TRUE.equals(locked)
+                                ? Mono.just(new Lock(connection, name))
+                                : close(connection).then(Mono.empty())));
+  }
+
+  /**
+   * Acquires the lock of the name shared with other connections. Waits while another connection
+   * holds the lock exclusively, so the holder can see the waiting connection with {@link
+   * #hasWaiters(Lock)}.
+   */
+  public Mono<Lock> acquireShared(String name) {
+    return Mono.from(connectionFactory.create())
+        .flatMap(
+            connection ->
+                execute(
+                        connection,
+                        "SELECT true FROM pg_advisory_lock_shared($1, hashtext($2))",
+                        name)
+                    .thenReturn(new Lock(connection, name, true))
+                    .doOnCancel(() -> close(connection).subscribe())
+                    .onErrorResume(ex -> close(connection).then(Mono.error(ex))));
+  }
+
+  /** Completes with true if another connection waits for the held lock. */
+  public Mono<Boolean> hasWaiters(Lock lock) {
+    return execute(
+        lock.connection(),
+        "SELECT EXISTS (SELECT 1 FROM pg_locks WHERE locktype = 'advisory' "
+            + "AND classid = $1::oid AND objid = hashtext($2)::oid AND objsubid = 2 "
+            + "AND NOT granted)",
+        lock.name());
+  }
+
+  /**
+   * Turns the exclusive lock into a shared lock. The shared lock is acquired before the exclusive
+   * lock is released, so no other connection can get the lock exclusively in between.
+   */
+  public Mono<Lock> downgrade(Lock lock) {
+    return execute(
+            lock.connection(),
+            "SELECT true FROM pg_advisory_lock_shared($1, hashtext($2))",
+            lock.name())
+        .then(
+            execute(lock.connection(), "SELECT pg_advisory_unlock($1, hashtext($2))", lock.name()))
+        .thenReturn(new Lock(lock.connection(), lock.name(), true));
+  }
+
+  /**
+   * Turns the shared lock into an exclusive lock. Completes empty if another connection holds the
+   * lock or waits for it.
+   */
+  public Mono<Lock> tryUpgrade(Lock lock) {
+    return execute(lock.connection(), "SELECT pg_try_advisory_lock($1, hashtext($2))", lock.name())
+        .flatMap(
+            locked ->
+                Boolean.TRUE.equals(locked)
+                    ? execute(
+                            lock.connection(),
+                            "SELECT pg_advisory_unlock_shared($1, hashtext($2))",
+                            lock.name())
+                        .thenReturn(new Lock(lock.connection(), lock.name(), false))
+                    : Mono.empty());
+  }
+
+  /**
+   * Releases the lock and closes its connection. If the unlock fails, the database releases the
+   * lock when the connection is closed.
+   */
+  public Mono<Void> release(Lock lock) {
+    String unlock =
+        lock.shared()
+            ? "SELECT pg_advisory_unlock_shared($1, hashtext($2))"
+            : "SELECT pg_advisory_unlock($1, hashtext($2))";
+    return execute(lock.connection(), unlock, lock.name())
+        .doOnError(ex -> log.warn("Couldn't release the advisory lock {}", lock.name(), ex))
+        .onErrorResume(ex -> Mono.empty())
+        .then(close(lock.connection()));
+  }
+
+  /** Returns the connection factory behind the connection pool. */
+  private static ConnectionFactory unpooled(ConnectionFactory connectionFactory) {
+    if (connectionFactory instanceof Wrapped<?> wrapped
+        && wrapped.unwrap() instanceof ConnectionFactory unwrapped) {
+      return unwrapped;
+    }
+    return connectionFactory;
+  }
+
+  private static Mono<Boolean> execute(Connection connection, String sql, String name) {
+    return Mono.from(connection.createStatement(sql).bind(0, LOCK_CLASS).bind(1, name).execute())
+        .flatMap(result -> Mono.from(result.map((row, metadata) -> row.get(0, Boolean.class))));
+  }
+
+  private static Mono<Void> close(Connection connection) {
+    return Mono.from(connection.close());
+  }
+
+  public record Lock(Connection connection, String name, boolean shared) {
+    public Lock(Connection connection, String name) {
+      this(connection, name, false);
+    }
+  }
+}
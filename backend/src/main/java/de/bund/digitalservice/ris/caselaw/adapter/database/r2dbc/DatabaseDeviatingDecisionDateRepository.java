@@ -1,5 +1,6 @@
 package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -9,5 +10,8 @@ public interface DatabaseDeviatingDecisionDateRepository
 
   Mono<Void> deleteAllByDocumentUnitId(Long documentUnitId);
 
+  @Query(
+      "SELECT * FROM deviating_decision_date "
+          + "WHERE document_unit_id = :documentUnitId ORDER BY position, id")
   Flux<DeviatingDecisionDateDTO> findAllByDocumentUnitId(Long documentUnitId);
 }
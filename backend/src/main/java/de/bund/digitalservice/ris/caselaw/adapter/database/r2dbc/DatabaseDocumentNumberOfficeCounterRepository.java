@@ -0,0 +1,66 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface DatabaseDocumentNumberOfficeCounterRepository
+    extends R2dbcRepository<DocumentNumberOfficeCounterDTO, Long> {
+
+  /**
+   * Reserves the next block of document numbers of the documentation center in the current year
+   * with one statement. Every documentation center and year has its own row, so reservations of
+   * different documentation centers never wait for each other. The year is taken from the database,
+   * so all instances switch at the same time.
+   *
+   * <p>The first block of a documentation center in a year starts after the highest number of its
+   * stored document units in that year, so numbers which were handed out before the counters were
+   * split are never handed out again. A document number which starts with the abbreviation of
+   * another documentation center can only move the start further.
+   *
+   * <p>The shared counter of the former document number generation is kept beyond every reserved
+   * number, so instances which still use it, e.g. during a rolling deploy or after a rollback,
+   * don't hand out reserved numbers. It can be dropped once no instance uses the shared counter
+   * anymore.
+   *
+   * @return the counter after the reservation, i.e. the reserved block ends before {@code
+   *     next_number}
+   */
+  @Query(
+      "WITH current_year AS ("
+          + "SELECT EXTRACT(YEAR FROM now() AT TIME ZONE 'Europe/Berlin')::int AS year), "
+          + "updated AS ("
+          + "UPDATE document_number_office_counter SET next_number = next_number + $2 "
+          + "FROM current_year WHERE documentation_center_abbreviation = $1 "
+          + "AND document_number_office_counter.year = current_year.year "
+          + "RETURNING document_number_office_counter.*), "
+          + "inserted AS ("
+          + "INSERT INTO document_number_office_counter "
+          + "(documentation_center_abbreviation, year, next_number) "
+          + "SELECT $1, current_year.year, COALESCE((SELECT MAX(RIGHT(documentnumber, 5)::int) "
+          + "FROM doc_unit WHERE documentnumber LIKE $1 || '%' "
+          + "AND documentnumber ~ '[0-9]{9}$' "
+          + "AND SUBSTRING(documentnumber FROM LENGTH(documentnumber) - 8 FOR 4) "
+          + "= current_year.year::text), 0) + 1 + $2 "
+          + "FROM current_year WHERE NOT EXISTS (SELECT 1 FROM updated) "
+          + "ON CONFLICT (documentation_center_abbreviation, year) DO UPDATE "
+          + "SET next_number = document_number_office_counter.next_number + $2 "
+          + "RETURNING *), "
+          + "reserved AS (SELECT * FROM updated UNION ALL SELECT * FROM inserted), "
+          + "shared AS ("
+          + "UPDATE document_number_counter SET currentyear = reserved.year, "
+          + "nextnumber = GREATEST(CASE WHEN currentyear = reserved.year THEN nextnumber "
+          + "ELSE 1 END, reserved.next_number) "
+          + "FROM reserved WHERE id = 1 AND currentyear <= reserved.year) "
+          + "SELECT * FROM reserved")
+  Mono<DocumentNumberOfficeCounterDTO> reserveBlock(
+      String documentationCenterAbbreviation, int blockSize);
+
+  @Query(
+      "SELECT * FROM document_number_office_counter "
+          + "ORDER BY year DESC, documentation_center_abbreviation")
+  Flux<DocumentNumberOfficeCounterDTO> findAllOrderedByYearAndDocumentationCenter();
+}
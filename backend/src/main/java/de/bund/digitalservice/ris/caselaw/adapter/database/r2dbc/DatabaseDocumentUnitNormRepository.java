@@ -1,5 +1,6 @@
 package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -7,5 +8,8 @@ import reactor.core.publisher.Flux;
 @Repository
 public interface DatabaseDocumentUnitNormRepository
     extends R2dbcRepository<DocumentUnitNormDTO, Long> {
+  @Query(
+      "SELECT * FROM document_unit_norm "
+          + "WHERE document_unit_id = :documentUnitId ORDER BY position, id")
   Flux<DocumentUnitNormDTO> findAllByDocumentUnitId(Long documentUnitId);
 }
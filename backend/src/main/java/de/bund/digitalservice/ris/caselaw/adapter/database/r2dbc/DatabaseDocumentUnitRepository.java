@@ -13,4 +13,19 @@ public interface DatabaseDocumentUnitRepository extends R2dbcRepository<Document
 
   @Query("SELECT * FROM doc_unit WHERE uuid = $1")
   Mono<DocumentUnitDTO> findByUuid(UUID uuid);
+
+  @Query("SELECT version FROM doc_unit WHERE documentnumber = $1")
+  Mono<Long> findVersionByDocumentnumber(String documentnumber);
+
+  /**
+   * Gives the document unit and all document units which list it as proceeding decision a new
+   * version and returns the new version of the document unit. Has to be called by every write which
+   * changes the document unit aggregate.
+   */
+  @Query(
+      "WITH bumped AS (UPDATE doc_unit SET version = nextval('doc_unit_version_seq') "
+          + "WHERE id = $1 OR id IN (SELECT parent_document_unit_id FROM proceeding_decision_link "
+          + "WHERE child_document_unit_id = $1) RETURNING id, version) "
+          + "SELECT version FROM bumped WHERE id = $1")
+  Mono<Long> bumpVersion(Long id);
 }
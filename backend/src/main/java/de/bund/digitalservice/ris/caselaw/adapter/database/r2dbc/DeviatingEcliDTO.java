@@ -16,4 +16,5 @@ public class DeviatingEcliDTO {
   @Id Long id;
   Long documentUnitId;
   String ecli;
+  Integer position;
 }
@@ -1,5 +1,6 @@
 package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -8,5 +9,7 @@ public interface DeviatingEcliRepository extends R2dbcRepository<DeviatingEcliDT
 
   Mono<Void> deleteAllByDocumentUnitId(Long documentUnitId);
 
+  @Query(
+      "SELECT * FROM deviating_ecli WHERE document_unit_id = :documentUnitId ORDER BY position, id")
   Flux<DeviatingEcliDTO> findAllByDocumentUnitId(Long documentUnitId);
 }
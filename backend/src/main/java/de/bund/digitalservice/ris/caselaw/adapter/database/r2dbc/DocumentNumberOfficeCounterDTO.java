@@ -0,0 +1,20 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("document_number_office_counter")
+public class DocumentNumberOfficeCounterDTO {
+  @Id Long id;
+  String documentationCenterAbbreviation;
+  Integer year;
+  Integer nextNumber;
+}
@@ -0,0 +1,222 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DocumentTypeDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawDTO;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Loads a complete document unit aggregate (the doc_unit row and all of its child tables) with a
+ * single SQL statement. Every child table is aggregated into a JSON array by a lateral subquery, so
+ * the database is visited once per read instead of once per child table. The rows of the lists
+ * are aggregated in the order of their positions.
+ */
+@Component
+public class DocumentUnitAggregateLoader {
+
+  private static final String FILE_NUMBER_JSON =
+      "json_build_object('id', fn.id, 'documentUnitId', fn.document_unit_id, "
+          + "'fileNumber', fn.file_number, 'isDeviating', fn.is_deviating, "
+          + "'position', fn.position)";
+
+  private static final String DOCUMENT_TYPE_JSON =
+      "json_build_object('id', dt.id, 'jurisShortcut', dt.juris_shortcut, "
+          + "'documentType', dt.document_type, 'label', dt.label, "
+          + "'multiple', dt.multiple, 'superlabel1', dt.superlabel1, "
+          + "'superlabel2', dt.superlabel2)";
+
+  private static final String SELECT_AGGREGATE =
+      "SELECT du.*, "
+          + "  file_numbers.file_numbers::text AS agg_file_numbers, "
+          + "  file_numbers.deviating_file_numbers::text AS agg_deviating_file_numbers, "
+          + "  deviating_eclis.json::text AS agg_deviating_eclis, "
+          + "  deviating_decision_dates.json::text AS agg_deviating_decision_dates, "
+          + "  incorrect_courts.json::text AS agg_incorrect_courts, "
+          + "  keywords.json::text AS agg_keywords, "
+          + "  norms.json::text AS agg_norms, "
+          + "  fields_of_law.json::text AS agg_fields_of_law, "
+          + "  proceeding_decisions.json::text AS agg_proceeding_decisions, "
+          + "  document_type.json::text AS agg_document_type, "
+          + "  documentation_office.json::text AS agg_documentation_office "
+          + "FROM doc_unit du "
+          + "LEFT JOIN LATERAL ("
+          + "  SELECT "
+          + "    COALESCE(json_agg("
+          + FILE_NUMBER_JSON
+          + " ORDER BY fn.position, fn.id) FILTER (WHERE NOT fn.is_deviating), '[]') "
+          + "    AS file_numbers, "
+          + "    COALESCE(json_agg("
+          + FILE_NUMBER_JSON
+          + " ORDER BY fn.position, fn.id) FILTER (WHERE fn.is_deviating), '[]') "
+          + "    AS deviating_file_numbers "
+          + "  FROM file_number fn WHERE fn.document_unit_id = du.id"
+          + ") file_numbers ON TRUE "
+          + "LEFT JOIN LATERAL ("
+          + "  SELECT COALESCE(json_agg(json_build_object('id', de.id, "
+          + "    'documentUnitId', de.document_unit_id, 'ecli', de.ecli, 'position', de.position) "
+          + "    ORDER BY de.position, de.id), '[]') AS json "
+          + "  FROM deviating_ecli de WHERE de.document_unit_id = du.id"
+          + ") deviating_eclis ON TRUE "
+          + "LEFT JOIN LATERAL ("
+          + "  SELECT COALESCE(json_agg(json_build_object('id', ddd.id, "
+          + "    'documentUnitId', ddd.document_unit_id, "
+          + "    'decisionDate', to_char(ddd.decision_date, 'YYYY-MM-DD\"T\"HH24:MI:SS.US\"Z\"'), "
+          + "    'position', ddd.position) "
+          + "    ORDER BY ddd.position, ddd.id), '[]') AS json "
+          + "  FROM deviating_decision_date ddd WHERE ddd.document_unit_id = du.id"
+          + ") deviating_decision_dates ON TRUE "
+          + "LEFT JOIN LATERAL ("
+          + "  SELECT COALESCE(json_agg(json_build_object('id', ic.id, "
+          + "    'documentUnitId', ic.document_unit_id, 'court', ic.court, "
+          + "    'position', ic.position) "
+          + "    ORDER BY ic.position, ic.id), '[]') AS json "
+          + "  FROM incorrect_court ic WHERE ic.document_unit_id = du.id"
+          + ") incorrect_courts ON TRUE "
+          + "LEFT JOIN LATERAL ("
+          + "  SELECT COALESCE(json_agg(json_build_object('id', k.id, "
+          + "    'documentUnitId', k.document_unit_id, 'keyword', k.keyword) ORDER BY k.id), '[]') "
+          + "    AS json "
+          + "  FROM keyword k WHERE k.document_unit_id = du.id"
+          + ") keywords ON TRUE "
+          + "LEFT JOIN LATERAL ("
+          + "  SELECT COALESCE(json_agg(json_build_object('id', n.id, "
+          + "    'documentUnitId', n.document_unit_id, 'risAbbreviation', n.ris_abbreviation, "
+          + "    'singleNorm', n.single_norm, "
+          + "    'dateOfVersion', to_char(n.date_of_version AT TIME ZONE 'UTC', "
+          + "      'YYYY-MM-DD\"T\"HH24:MI:SS.US\"Z\"'), "
+          + "    'dateOfRelevance', n.date_of_relevance, 'position', n.position) "
+          + "    ORDER BY n.position, n.id), '[]') AS json "
+          + "  FROM document_unit_norm n WHERE n.document_unit_id = du.id"
+          + ") norms ON TRUE "
+          + "LEFT JOIN LATERAL ("
+          + "  SELECT COALESCE(json_agg(json_build_object('id', fol.id, "
+          + "    'childrenCount', fol.children_count, 'parentId', fol.parent_id, "
+          + "    'identifier', fol.identifier, 'text', fol.text, "
+          + "    'navigationTerm', fol.navigation_term) ORDER BY dufol.id), '[]') AS json "
+          + "  FROM document_unit_field_of_law dufol "
+          + "  JOIN lookuptable_field_of_law fol ON fol.id = dufol.field_of_law_id "
+          + "  WHERE dufol.document_unit_id = du.id"
+          + ") fields_of_law ON TRUE "
+          + "LEFT JOIN LATERAL ("
+          + "  SELECT COALESCE(json_agg(json_build_object('id', child.id, "
+          + "    'uuid', child.uuid, 'documentnumber', child.documentnumber, "
+          + "    'dataSource', child.data_source, 'courtType', child.gerichtstyp, "
+          + "    'courtLocation', child.gerichtssitz, "
+          + "    'decisionDate', to_char(child.decision_date AT TIME ZONE 'UTC', "
+          + "      'YYYY-MM-DD\"T\"HH24:MI:SS.US\"Z\"'), "
+          + "    'dateKnown', child.date_known, 'documentTypeId', child.document_type_id, "
+          + "    'documentTypeDTO', (SELECT "
+          + DOCUMENT_TYPE_JSON
+          + "      FROM lookuptable_documenttype dt WHERE dt.id = child.document_type_id), "
+          + "    'fileNumbers', (SELECT COALESCE(json_agg("
+          + FILE_NUMBER_JSON
+          + "      ORDER BY fn.position, fn.id), '[]') "
+          + "      FROM file_number fn "
+          + "      WHERE fn.document_unit_id = child.id AND NOT fn.is_deviating)) "
+          + "    ORDER BY link.id), '[]') AS json "
+          + "  FROM proceeding_decision_link link "
+          + "  JOIN doc_unit child ON child.id = link.child_document_unit_id "
+          + "  WHERE link.parent_document_unit_id = du.id"
+          + ") proceeding_decisions ON TRUE "
+          + "LEFT JOIN LATERAL ("
+          + "  SELECT "
+          + DOCUMENT_TYPE_JSON
+          + " AS json "
+          + "  FROM lookuptable_documenttype dt WHERE dt.id = du.document_type_id"
+          + ") document_type ON TRUE "
+          + "LEFT JOIN LATERAL ("
+          + "  SELECT json_build_object('id', o.id, 'label', o.label, "
+          + "    'abbreviation', o.abbreviation) AS json "
+          + "  FROM documentation_office o WHERE o.id = du.documentation_office_id"
+          + ") documentation_office ON TRUE ";
+
+  private final R2dbcEntityTemplate template;
+  private final ObjectMapper objectMapper;
+
+  public DocumentUnitAggregateLoader(R2dbcEntityTemplate template, ObjectMapper objectMapper) {
+    this.template = template;
+    this.objectMapper = objectMapper;
+  }
+
+  public Mono<DocumentUnitDTO> findByUuid(UUID uuid) {
+    return template
+        .getDatabaseClient()
+        .sql(SELECT_AGGREGATE + "WHERE du.uuid = :uuid")
+        .bind("uuid", uuid)
+        .map(this::mapRow)
+        .one();
+  }
+
+  public Mono<DocumentUnitDTO> findByDocumentNumber(String documentNumber) {
+    return template
+        .getDatabaseClient()
+        .sql(SELECT_AGGREGATE + "WHERE du.documentnumber = :documentNumber")
+        .bind("documentNumber", documentNumber)
+        .map(this::mapRow)
+        .one();
+  }
+
+  private DocumentUnitDTO mapRow(Row row, RowMetadata metadata) {
+    DocumentUnitDTO documentUnitDTO =
+        template.getConverter().read(DocumentUnitDTO.class, row, metadata);
+
+    documentUnitDTO.setFileNumbers(readList(row, "agg_file_numbers", new TypeReference<>() {}));
+    documentUnitDTO.setDeviatingFileNumbers(
+        readList(row, "agg_deviating_file_numbers", new TypeReference<>() {}));
+    documentUnitDTO.setDeviatingEclis(
+        readList(row, "agg_deviating_eclis", new TypeReference<>() {}));
+    documentUnitDTO.setDeviatingDecisionDates(
+        readList(row, "agg_deviating_decision_dates", new TypeReference<>() {}));
+    documentUnitDTO.setIncorrectCourts(
+        readList(row, "agg_incorrect_courts", new TypeReference<>() {}));
+    documentUnitDTO.setKeywords(readList(row, "agg_keywords", new TypeReference<>() {}));
+    documentUnitDTO.setNorms(readList(row, "agg_norms", new TypeReference<>() {}));
+    documentUnitDTO.setProceedingDecisions(
+        readList(row, "agg_proceeding_decisions", new TypeReference<>() {}));
+
+    documentUnitDTO.setFieldsOfLaw(
+        readList(row, "agg_fields_of_law", new TypeReference<List<FieldOfLawDTO>>() {}));
+
+    if (documentUnitDTO.getDocumentTypeId() != null) {
+      DocumentTypeDTO documentTypeDTO =
+          read(row, "agg_document_type", new TypeReference<DocumentTypeDTO>() {});
+      documentUnitDTO.setDocumentTypeDTO(
+          documentTypeDTO == null ? DocumentTypeDTO.builder().build() : documentTypeDTO);
+    }
+
+    DocumentationOfficeDTO documentationOfficeDTO =
+        read(row, "agg_documentation_office", new TypeReference<DocumentationOfficeDTO>() {});
+    if (documentationOfficeDTO != null && documentationOfficeDTO.getLabel() != null) {
+      documentUnitDTO.setDocumentationOffice(documentationOfficeDTO);
+    }
+
+    return documentUnitDTO;
+  }
+
+  private <T> List<T> readList(Row row, String column, TypeReference<List<T>> type) {
+    List<T> list = read(row, column, type);
+    return list == null ? new ArrayList<>() : list;
+  }
+
+  private <T> T read(Row row, String column, TypeReference<T> type) {
+    String json = row.get(column, String.class);
+    if (json == null) {
+      return null;
+    }
+
+    try {
+      return objectMapper.readValue(json, type);
+    } catch (JsonProcessingException e) {
+      throw new DocumentUnitException("Couldn't read aggregated column '" + column + "'", e);
+    }
+  }
+}
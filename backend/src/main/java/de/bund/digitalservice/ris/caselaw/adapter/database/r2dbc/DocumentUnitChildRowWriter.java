@@ -0,0 +1,245 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes the {@link ChildRowDiff} of a document unit child table with set-based statements. The
+ * deleted rows are removed by one {@code DELETE ... WHERE id = ANY(...)}, the updated rows are
+ * changed by one {@code UPDATE ... FROM unnest(...)} and the new rows are added by one {@code
+ * INSERT ... SELECT FROM unnest(...)}, independent of the number of rows. The values are bound as
+ * text arrays and cast to the column types in the statement.
+ */
+@Component
+public class DocumentUnitChildRowWriter {
+
+  static final ChildTable<FileNumberDTO> FILE_NUMBER =
+      new ChildTable<>(
+          "file_number",
+          FileNumberDTO::getId,
+          List.of(
+              new Column<>("document_unit_id", "bigint", FileNumberDTO::getDocumentUnitId),
+              new Column<>("file_number", "text", FileNumberDTO::getFileNumber),
+              new Column<>("is_deviating", "boolean", FileNumberDTO::getIsDeviating),
+              new Column<>("position", "integer", FileNumberDTO::getPosition)),
+          (fileNumberDTO, id) -> {
+            fileNumberDTO.setId(id);
+            return fileNumberDTO;
+          });
+
+  static final ChildTable<DeviatingEcliDTO> DEVIATING_ECLI =
+      new ChildTable<>(
+          "deviating_ecli",
+          DeviatingEcliDTO::getId,
+          List.of(
+              new Column<>("document_unit_id", "bigint", DeviatingEcliDTO::getDocumentUnitId),
+              new Column<>("ecli", "text", DeviatingEcliDTO::getEcli),
+              new Column<>("position", "integer", DeviatingEcliDTO::getPosition)),
+          (deviatingEcliDTO, id) -> {
+            deviatingEcliDTO.setId(id);
+            return deviatingEcliDTO;
+          });
+
+  static final ChildTable<DeviatingDecisionDateDTO> DEVIATING_DECISION_DATE =
+      new ChildTable<>(
+          "deviating_decision_date",
+          DeviatingDecisionDateDTO::id,
+          List.of(
+              new Column<>("document_unit_id", "bigint", DeviatingDecisionDateDTO::documentUnitId),
+              new Column<>(
+                  "decision_date",
+                  "timestamp",
+                  deviatingDecisionDateDTO ->
+                      toUtcTimestamp(deviatingDecisionDateDTO.decisionDate())),
+              new Column<>("position", "integer", DeviatingDecisionDateDTO::position)),
+          (deviatingDecisionDateDTO, id) -> deviatingDecisionDateDTO.toBuilder().id(id).build());
+
+  static final ChildTable<IncorrectCourtDTO> INCORRECT_COURT =
+      new ChildTable<>(
+          "incorrect_court",
+          IncorrectCourtDTO::id,
+          List.of(
+              new Column<>("document_unit_id", "bigint", IncorrectCourtDTO::documentUnitId),
+              new Column<>("court", "text", IncorrectCourtDTO::court),
+              new Column<>("position", "integer", IncorrectCourtDTO::position)),
+          (incorrectCourtDTO, id) -> incorrectCourtDTO.toBuilder().id(id).build());
+
+  static final ChildTable<DocumentUnitNormDTO> DOCUMENT_UNIT_NORM =
+      new ChildTable<>(
+          "document_unit_norm",
+          DocumentUnitNormDTO::getId,
+          List.of(
+              new Column<>("document_unit_id", "bigint", DocumentUnitNormDTO::getDocumentUnitId),
+              new Column<>("ris_abbreviation", "text", DocumentUnitNormDTO::getRisAbbreviation),
+              new Column<>("single_norm", "text", DocumentUnitNormDTO::getSingleNorm),
+              new Column<>("date_of_version", "timestamptz", DocumentUnitNormDTO::getDateOfVersion),
+              new Column<>("date_of_relevance", "text", DocumentUnitNormDTO::getDateOfRelevance),
+              new Column<>("position", "integer", DocumentUnitNormDTO::getPosition)),
+          (documentUnitNormDTO, id) -> {
+            documentUnitNormDTO.setId(id);
+            return documentUnitNormDTO;
+          });
+
+  private final R2dbcEntityTemplate template;
+
+  public DocumentUnitChildRowWriter(R2dbcEntityTemplate template) {
+    this.template = template;
+  }
+
+  /**
+   * Executes the writes of the diff. Returns the rows of the table in the order of their positions,
+   * with the generated ids of the inserted rows.
+   */
+  public <T> Mono<List<T>> write(ChildTable<T> table, ChildRowDiff<T> diff) {
+    if (diff.isEmpty()) {
+      return Mono.just(diff.rows());
+    }
+
+    return delete(table, diff.toDelete())
+        .then(update(table, diff.toUpdate()))
+        .then(insert(table, diff.toInsert()))
+        .map(
+            insertedRows -> {
+              // the inserted rows are in the order of the rows, so they replace the rows without id
+              List<T> rows = new ArrayList<>(diff.rows());
+              int insertedIndex = 0;
+              for (int index = 0; index < rows.size(); index++) {
+                if (insertedIndex < insertedRows.size()
+                    && rows.get(index) == diff.toInsert().get(insertedIndex)) {
+                  rows.set(index, insertedRows.get(insertedIndex++));
+                }
+              }
+              return rows;
+            });
+  }
+
+  private <T> Mono<Void> delete(ChildTable<T> table, List<T> rows) {
+    if (rows.isEmpty()) {
+      return Mono.empty();
+    }
+
+    return template
+        .getDatabaseClient()
+        .sql("DELETE FROM " + table.name() + " WHERE id = ANY(:ids)")
+        .bind("ids", table.ids(rows))
+        .then();
+  }
+
+  private <T> Mono<Void> update(ChildTable<T> table, List<T> rows) {
+    if (rows.isEmpty()) {
+      return Mono.empty();
+    }
+
+    String sql =
+        "UPDATE "
+            + table.name()
+            + " AS t SET "
+            + table.columns().stream()
+                .map(column -> column.name() + " = v." + column.name())
+                .collect(Collectors.joining(", "))
+            + " FROM unnest(:ids, "
+            + table.unnestParameters()
+            + ") AS v(id, "
+            + table.columnNames()
+            + ") WHERE t.id = v.id";
+
+    GenericExecuteSpec spec = template.getDatabaseClient().sql(sql).bind("ids", table.ids(rows));
+    return table.bindColumns(spec, rows).then();
+  }
+
+  private <T> Mono<List<T>> insert(ChildTable<T> table, List<T> rows) {
+    if (rows.isEmpty()) {
+      return Mono.just(List.of());
+    }
+
+    // the ids are drawn together with the index of their row, so they don't depend on the order
+    // of the insert
+    String sql =
+        "WITH v AS (SELECT nextval(pg_get_serial_sequence('"
+            + table.name()
+            + "', 'id')) AS id, row_index, "
+            + table.columnNames()
+            + " FROM unnest("
+            + table.unnestParameters()
+            + ") WITH ORDINALITY AS u("
+            + table.columnNames()
+            + ", row_index)), inserted AS (INSERT INTO "
+            + table.name()
+            + " (id, "
+            + table.columnNames()
+            + ") SELECT id, "
+            + table.columnNames()
+            + " FROM v RETURNING id) SELECT id, row_index FROM v WHERE id IN (SELECT id FROM"
+            + " inserted)";
+
+    GenericExecuteSpec spec = template.getDatabaseClient().sql(sql);
+    return table
+        .bindColumns(spec, rows)
+        .map(row -> new InsertedRow(row.get("id", Long.class), row.get("row_index", Long.class)))
+        .all()
+        .collectList()
+        .map(
+            insertedRows -> {
+              List<T> rowsWithId = new ArrayList<>(rows);
+              for (InsertedRow insertedRow : insertedRows) {
+                int index = Math.toIntExact(insertedRow.rowIndex() - 1);
+                rowsWithId.set(index, table.withId().apply(rows.get(index), insertedRow.id()));
+              }
+              return rowsWithId;
+            });
+  }
+
+  /** Formats the instant as the UTC date and time for a column without time zone. */
+  private static LocalDateTime toUtcTimestamp(Instant instant) {
+    return instant == null ? null : LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+  }
+
+  private record InsertedRow(Long id, Long rowIndex) {}
+
+  record Column<T>(String name, String type, Function<T, Object> value) {}
+
+  record ChildTable<T>(
+      String name, Function<T, Long> id, List<Column<T>> columns, BiFunction<T, Long, T> withId) {
+
+    private Long[] ids(List<T> rows) {
+      return rows.stream().map(id).toArray(Long[]::new);
+    }
+
+    private String columnNames() {
+      return columns.stream().map(Column::name).collect(Collectors.joining(", "));
+    }
+
+    private String unnestParameters() {
+      return IntStream.range(0, columns.size())
+          .mapToObj(index -> ":column" + index + "::" + columns.get(index).type() + "[]")
+          .collect(Collectors.joining(", "));
+    }
+
+    private GenericExecuteSpec bindColumns(GenericExecuteSpec spec, List<T> rows) {
+      GenericExecuteSpec boundSpec = spec;
+      for (int index = 0; index < columns.size(); index++) {
+        Function<T, Object> value = columns.get(index).value();
+        boundSpec =
+            boundSpec.bind(
+                "column" + index,
+                rows.stream()
+                    .map(value)
+                    .map(columnValue -> Objects.toString(columnValue, null))
+                    .toArray(String[]::new));
+      }
+      return boundSpec;
+    }
+  }
+}
@@ -5,4 +5,8 @@ public class DocumentUnitException extends RuntimeException {
   public DocumentUnitException(String message) {
     super(message);
   }
+
+  public DocumentUnitException(String message, Throwable cause) {
+    super(message, cause);
+  }
 }
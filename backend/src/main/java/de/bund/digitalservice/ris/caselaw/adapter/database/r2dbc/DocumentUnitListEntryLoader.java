@@ -0,0 +1,135 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import de.bund.digitalservice.ris.caselaw.domain.DataSource;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitListCursor;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitListEntry;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitListSlice;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentationOffice;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads slices of the document unit list with keyset pagination on (creationtimestamp, id). The
+ * first file number and the documentation office are joined into the same statement, so a slice
+ * costs one query independent of its size and of how deep the client has paged.
+ */
+@Component
+public class DocumentUnitListEntryLoader {
+
+  private static final String SELECT_LIST_ENTRIES =
+      "SELECT du.id, du.uuid, du.documentnumber, du.creationtimestamp, du.data_source, "
+          + "  du.filename, first_file_number.file_number, "
+          + "  o.label AS documentation_office_label, "
+          + "  o.abbreviation AS documentation_office_abbreviation "
+          + "FROM doc_unit du "
+          + "LEFT JOIN LATERAL ("
+          + "  SELECT fn.file_number FROM file_number fn "
+          + "  WHERE fn.document_unit_id = du.id AND fn.is_deviating = FALSE "
+          + "  ORDER BY fn.position, fn.id LIMIT 1"
+          + ") first_file_number ON TRUE "
+          + "LEFT JOIN documentation_office o ON o.id = du.documentation_office_id "
+          + "WHERE du.data_source = :dataSource ";
+
+  private static final String AFTER_CURSOR =
+      "AND (du.creationtimestamp, du.id) < (:creationTimestamp, :id) ";
+
+  private static final String ORDER_AND_LIMIT =
+      "ORDER BY du.creationtimestamp DESC, du.id DESC LIMIT :limit";
+
+  private static final String ESTIMATE_COUNT_BY_DATA_SOURCE =
+      "SELECT (c.reltuples * mcv.frequency)::bigint AS estimate "
+          + "FROM pg_class c "
+          + "JOIN pg_stats s ON s.schemaname = current_schema() "
+          + "  AND s.tablename = 'doc_unit' AND s.attname = 'data_source' "
+          + "CROSS JOIN LATERAL unnest(s.most_common_vals::text::text[], s.most_common_freqs) "
+          + "  AS mcv(value, frequency) "
+          + "WHERE c.oid = 'doc_unit'::regclass AND c.reltuples > 0 AND mcv.value = :dataSource";
+
+  private final R2dbcEntityTemplate template;
+
+  public DocumentUnitListEntryLoader(R2dbcEntityTemplate template) {
+    this.template = template;
+  }
+
+  public Mono<DocumentUnitListSlice> findAllByCursor(
+      DataSource dataSource, DocumentUnitListCursor cursor, int size) {
+
+    String sql = SELECT_LIST_ENTRIES + (cursor == null ? "" : AFTER_CURSOR) + ORDER_AND_LIMIT;
+    GenericExecuteSpec spec =
+        template
+            .getDatabaseClient()
+            .sql(sql)
+            .bind("dataSource", dataSource.name())
+            .bind("limit", size + 1);
+    if (cursor != null) {
+      spec = spec.bind("creationTimestamp", cursor.creationTimestamp()).bind("id", cursor.id());
+    }
+
+    return spec.map(this::mapRow)
+        .all()
+        .collectList()
+        .map(listEntryRows -> buildSlice(listEntryRows, size));
+  }
+
+  /**
+   * Estimates the number of document units of the given data source from the planner statistics of
+   * doc_unit. Empty if the table wasn't analyzed yet.
+   */
+  public Mono<Long> estimateCountByDataSource(DataSource dataSource) {
+    return template
+        .getDatabaseClient()
+        .sql(ESTIMATE_COUNT_BY_DATA_SOURCE)
+        .bind("dataSource", dataSource.name())
+        .map(row -> row.get("estimate", Long.class))
+        .first();
+  }
+
+  private DocumentUnitListSlice buildSlice(List<ListEntryRow> listEntryRows, int size) {
+    String nextCursor = null;
+    List<ListEntryRow> pageRows = listEntryRows;
+    if (listEntryRows.size() > size) {
+      pageRows = listEntryRows.subList(0, size);
+      ListEntryRow last = pageRows.get(size - 1);
+      nextCursor =
+          new DocumentUnitListCursor(last.listEntry().creationTimestamp(), last.id()).encode();
+    }
+
+    return DocumentUnitListSlice.builder()
+        .content(pageRows.stream().map(ListEntryRow::listEntry).toList())
+        .nextCursor(nextCursor)
+        .build();
+  }
+
+  private ListEntryRow mapRow(Row row, RowMetadata metadata) {
+    String dataSource = row.get("data_source", String.class);
+    String documentationOfficeLabel = row.get("documentation_office_label", String.class);
+
+    DocumentUnitListEntry listEntry =
+        DocumentUnitListEntry.builder()
+            .uuid(row.get("uuid", UUID.class))
+            .documentNumber(row.get("documentnumber", String.class))
+            .creationTimestamp(row.get("creationtimestamp", Instant.class))
+            .dataSource(dataSource == null ? null : DataSource.valueOf(dataSource))
+            .fileName(row.get("filename", String.class))
+            .fileNumber(row.get("file_number", String.class))
+            .documentationOffice(
+                documentationOfficeLabel == null
+                    ? null
+                    : DocumentationOffice.builder()
+                        .label(documentationOfficeLabel)
+                        .abbreviation(row.get("documentation_office_abbreviation", String.class))
+                        .build())
+            .build();
+
+    return new ListEntryRow(row.get("id", Long.class), listEntry);
+  }
+
+  private record ListEntryRow(Long id, DocumentUnitListEntry listEntry) {}
+}
@@ -10,6 +10,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.annotation.Transient;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
@@ -22,6 +23,7 @@ import org.springframework.data.relational.core.mapping.Table;
 public class DocumentUnitMetadataDTO {
 
   @Id private Long id;
+  @ReadOnlyProperty private Long version;
   UUID uuid;
   private String documentnumber;
   private Instant creationtimestamp;
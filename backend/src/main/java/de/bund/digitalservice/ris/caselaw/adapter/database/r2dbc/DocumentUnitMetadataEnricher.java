@@ -0,0 +1,118 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DocumentTypeDTO;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Fills file numbers, document types and documentation offices of a list of document unit metadata
+ * objects. Independent of the size of the list, at most one query for the file numbers is executed.
+ * Document types and documentation offices are resolved by the {@link ReferenceDataCache}.
+ */
+@Component
+public class DocumentUnitMetadataEnricher {
+
+  private final FileNumberRepository fileNumberRepository;
+  private final ReferenceDataCache referenceDataCache;
+
+  public DocumentUnitMetadataEnricher(
+      FileNumberRepository fileNumberRepository, ReferenceDataCache referenceDataCache) {
+
+    this.fileNumberRepository = fileNumberRepository;
+    this.referenceDataCache = referenceDataCache;
+  }
+
+  public <T extends DocumentUnitMetadataDTO> Mono<List<T>> enrich(
+      List<T> documentUnitMetadataDTOs) {
+    if (documentUnitMetadataDTOs.isEmpty()) {
+      return Mono.just(documentUnitMetadataDTOs);
+    }
+
+    return Mono.zip(
+            loadFileNumbers(documentUnitMetadataDTOs),
+            loadDocumentTypes(documentUnitMetadataDTOs),
+            loadDocumentationOffices(documentUnitMetadataDTOs))
+        .map(
+            tuple -> {
+              documentUnitMetadataDTOs.forEach(
+                  documentUnitMetadataDTO -> {
+                    documentUnitMetadataDTO.setFileNumbers(
+                        tuple.getT1().getOrDefault(documentUnitMetadataDTO.getId(), List.of()));
+
+                    if (documentUnitMetadataDTO.getDocumentTypeId() != null) {
+                      documentUnitMetadataDTO.setDocumentTypeDTO(
+                          tuple
+                              .getT2()
+                              .getOrDefault(
+                                  documentUnitMetadataDTO.getDocumentTypeId(),
+                                  DocumentTypeDTO.builder().build()));
+                    }
+
+                    DocumentationOfficeDTO documentationOfficeDTO =
+                        tuple.getT3().get(documentUnitMetadataDTO.getDocumentationOfficeId());
+                    if (documentationOfficeDTO != null
+                        && documentationOfficeDTO.getLabel() != null) {
+                      documentUnitMetadataDTO.setDocumentationOffice(documentationOfficeDTO);
+                    }
+                  });
+              return documentUnitMetadataDTOs;
+            });
+  }
+
+  private Mono<Map<Long, List<FileNumberDTO>>> loadFileNumbers(
+      List<? extends DocumentUnitMetadataDTO> documentUnitMetadataDTOs) {
+    Long[] ids = collectIds(documentUnitMetadataDTOs, DocumentUnitMetadataDTO::getId, Long[]::new);
+    if (ids.length == 0) {
+      return Mono.just(Collections.emptyMap());
+    }
+
+    return fileNumberRepository
+        .findAllNonDeviatingByDocumentUnitIds(ids)
+        .collect(Collectors.groupingBy(FileNumberDTO::getDocumentUnitId));
+  }
+
+  private Mono<Map<Long, DocumentTypeDTO>> loadDocumentTypes(
+      List<? extends DocumentUnitMetadataDTO> documentUnitMetadataDTOs) {
+    Long[] ids =
+        collectIds(
+            documentUnitMetadataDTOs, DocumentUnitMetadataDTO::getDocumentTypeId, Long[]::new);
+    if (ids.length == 0) {
+      return Mono.just(Collections.emptyMap());
+    }
+
+    return referenceDataCache.findDocumentTypesByIds(ids);
+  }
+
+  private Mono<Map<UUID, DocumentationOfficeDTO>> loadDocumentationOffices(
+      List<? extends DocumentUnitMetadataDTO> documentUnitMetadataDTOs) {
+    UUID[] ids =
+        collectIds(
+            documentUnitMetadataDTOs,
+            DocumentUnitMetadataDTO::getDocumentationOfficeId,
+            UUID[]::new);
+    if (ids.length == 0) {
+      return Mono.just(Collections.emptyMap());
+    }
+
+    return referenceDataCache.findDocumentationOfficesByIds(ids);
+  }
+
+  private static <I> I[] collectIds(
+      List<? extends DocumentUnitMetadataDTO> documentUnitMetadataDTOs,
+      Function<DocumentUnitMetadataDTO, I> idExtractor,
+      IntFunction<I[]> arrayGenerator) {
+    return documentUnitMetadataDTOs.stream()
+        .map(idExtractor)
+        .filter(Objects::nonNull)
+        .distinct()
+        .toArray(arrayGenerator);
+  }
+}
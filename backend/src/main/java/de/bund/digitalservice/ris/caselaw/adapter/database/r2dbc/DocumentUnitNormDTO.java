@@ -22,4 +22,5 @@ public class DocumentUnitNormDTO {
   String singleNorm;
   Instant dateOfVersion;
   String dateOfRelevance;
+  Integer position;
 }
@@ -17,4 +17,5 @@ public class FileNumberDTO {
   Long documentUnitId;
   String fileNumber;
   Boolean isDeviating;
+  Integer position;
 }
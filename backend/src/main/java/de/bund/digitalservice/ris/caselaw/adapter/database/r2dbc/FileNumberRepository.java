@@ -1,5 +1,6 @@
 package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -8,13 +9,29 @@ public interface FileNumberRepository extends R2dbcRepository<FileNumberDTO, Lon
 
   Mono<Void> deleteAllByDocumentUnitId(Long documentUnitId);
 
+  @Query(
+      "SELECT * FROM file_number WHERE document_unit_id = :documentUnitId ORDER BY position, id")
   Flux<FileNumberDTO> findAllByDocumentUnitId(Long documentUnitId);
 
+  @Query(
+      "SELECT * FROM file_number "
+          + "WHERE document_unit_id = :documentUnitId AND is_deviating = :isDeviating "
+          + "ORDER BY position, id LIMIT 1")
   Mono<FileNumberDTO> findFirstByDocumentUnitIdAndIsDeviating(
       Long documentUnitId, Boolean isDeviating);
 
+  @Query(
+      "SELECT * FROM file_number "
+          + "WHERE document_unit_id = :documentUnitId AND is_deviating = :isDeviating "
+          + "ORDER BY position, id")
   Flux<FileNumberDTO> findAllByDocumentUnitIdAndIsDeviating(
       Long documentUnitId, boolean isDeviating);
 
   Flux<FileNumberDTO> findByFileNumber(String fileNumber);
+
+  @Query(
+      "SELECT * FROM file_number "
+          + "WHERE document_unit_id = ANY(:documentUnitIds) AND is_deviating = FALSE "
+          + "ORDER BY position, id")
+  Flux<FileNumberDTO> findAllNonDeviatingByDocumentUnitIds(Long[] documentUnitIds);
 }
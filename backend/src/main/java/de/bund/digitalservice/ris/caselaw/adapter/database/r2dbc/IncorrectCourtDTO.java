@@ -6,4 +6,4 @@ import org.springframework.data.relational.core.mapping.Table;
 
 @Builder(toBuilder = true)
 @Table("incorrect_court")
-public record IncorrectCourtDTO(@Id Long id, Long documentUnitId, String court) {}
+public record IncorrectCourtDTO(@Id Long id, Long documentUnitId, String court, Integer position) {}
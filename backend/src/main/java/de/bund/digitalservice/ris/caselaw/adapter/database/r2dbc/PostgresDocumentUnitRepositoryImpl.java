@@ -1,40 +1,57 @@
 package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
 
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitChildRowWriter.ChildTable;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.CourtDTO;
-import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseCourtRepository;
-import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseDocumentTypeRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseFieldOfLawRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DocumentTypeDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateDTO;
-import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.proceedingdecision.DatabaseProceedingDecisionLinkRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.proceedingdecision.ProceedingDecisionLinkDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.transformer.DeviatingDecisionDateTransformer;
+import de.bund.digitalservice.ris.caselaw.adapter.transformer.DocumentUnitNormTransformer;
 import de.bund.digitalservice.ris.caselaw.adapter.transformer.DocumentUnitTransformer;
 import de.bund.digitalservice.ris.caselaw.adapter.transformer.DocumentationOfficeTransformer;
 import de.bund.digitalservice.ris.caselaw.adapter.transformer.IncorrectCourtTransformer;
 import de.bund.digitalservice.ris.caselaw.adapter.transformer.ProceedingDecisionTransformer;
 import de.bund.digitalservice.ris.caselaw.domain.DataSource;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnit;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitListCursor;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitListEntry;
-import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitNorm;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitListSlice;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitRepository;
 import de.bund.digitalservice.ris.caselaw.domain.LegalEffect;
 import de.bund.digitalservice.ris.caselaw.domain.ProceedingDecision;
 import de.bund.digitalservice.ris.caselaw.domain.User;
 import de.bund.digitalservice.ris.caselaw.domain.lookuptable.court.Court;
 import de.bund.digitalservice.ris.caselaw.domain.lookuptable.documenttype.DocumentType;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
@@ -45,6 +62,10 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
 
   private static final Logger LOGGER =
       LoggerFactory.getLogger(PostgresDocumentUnitRepositoryImpl.class);
+  private static final DistributionSummary CHILD_ROWS_WRITTEN_PER_SAVE =
+      DistributionSummary.builder("documentunit.save.child.rows.written")
+          .description("Child table rows inserted, updated or deleted by a document unit save")
+          .register(Metrics.globalRegistry);
 
   private final DatabaseDocumentUnitRepository repository;
   private final DatabaseDocumentUnitMetadataRepository metadataRepository;
@@ -53,14 +74,17 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
   private final DatabaseDeviatingDecisionDateRepository deviatingDecisionDateRepository;
   private final DatabaseProceedingDecisionLinkRepository proceedingDecisionLinkRepository;
   private final DatabaseIncorrectCourtRepository incorrectCourtRepository;
-  private final DatabaseCourtRepository databaseCourtRepository;
-  private final StateRepository stateRepository;
-  private final DatabaseDocumentTypeRepository databaseDocumentTypeRepository;
   private final DatabaseFieldOfLawRepository fieldOfLawRepository;
   private final DatabaseDocumentUnitFieldsOfLawRepository documentUnitFieldsOfLawRepository;
   private final DatabaseKeywordRepository keywordRepository;
   private final DatabaseDocumentUnitNormRepository documentUnitNormRepository;
-  private final DatabaseDocumentationOfficeRepository documentationOfficeRepository;
+  private final DocumentUnitAggregateLoader aggregateLoader;
+  private final DocumentUnitMetadataEnricher metadataEnricher;
+  private final DocumentUnitListEntryLoader listEntryLoader;
+  private final DocumentUnitChildRowWriter childRowWriter;
+  private final ReferenceDataCache referenceDataCache;
+  private final R2dbcEntityTemplate template;
+  private final int childLoadConcurrency;
 
   public PostgresDocumentUnitRepositoryImpl(
       DatabaseDocumentUnitRepository repository,
@@ -70,14 +94,17 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
       DatabaseProceedingDecisionLinkRepository proceedingDecisionLinkRepository,
       DatabaseDeviatingDecisionDateRepository deviatingDecisionDateRepository,
       DatabaseIncorrectCourtRepository incorrectCourtRepository,
-      DatabaseCourtRepository databaseCourtRepository,
-      StateRepository stateRepository,
-      DatabaseDocumentTypeRepository databaseDocumentTypeRepository,
       DatabaseFieldOfLawRepository fieldOfLawRepository,
       DatabaseDocumentUnitFieldsOfLawRepository documentUnitFieldsOfLawRepository,
       DatabaseKeywordRepository keywordRepository,
       DatabaseDocumentUnitNormRepository documentUnitNormRepository,
-      DatabaseDocumentationOfficeRepository documentationOfficeRepository) {
+      DocumentUnitAggregateLoader aggregateLoader,
+      DocumentUnitMetadataEnricher metadataEnricher,
+      DocumentUnitListEntryLoader listEntryLoader,
+      DocumentUnitChildRowWriter childRowWriter,
+      ReferenceDataCache referenceDataCache,
+      R2dbcEntityTemplate template,
+      @Value("${database.document-unit.child-load-concurrency:4}") int childLoadConcurrency) {
 
     this.repository = repository;
     this.metadataRepository = metadataRepository;
@@ -86,36 +113,40 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
     this.deviatingEcliRepository = deviatingEcliRepository;
     this.deviatingDecisionDateRepository = deviatingDecisionDateRepository;
     this.incorrectCourtRepository = incorrectCourtRepository;
-    this.databaseCourtRepository = databaseCourtRepository;
-    this.stateRepository = stateRepository;
-    this.databaseDocumentTypeRepository = databaseDocumentTypeRepository;
     this.fieldOfLawRepository = fieldOfLawRepository;
     this.documentUnitFieldsOfLawRepository = documentUnitFieldsOfLawRepository;
     this.keywordRepository = keywordRepository;
     this.documentUnitNormRepository = documentUnitNormRepository;
-    this.documentationOfficeRepository = documentationOfficeRepository;
+    this.aggregateLoader = aggregateLoader;
+    this.metadataEnricher = metadataEnricher;
+    this.listEntryLoader = listEntryLoader;
+    this.childRowWriter = childRowWriter;
+    this.referenceDataCache = referenceDataCache;
+    this.template = template;
+    this.childLoadConcurrency = childLoadConcurrency;
   }
 
   @Override
   public Mono<DocumentUnit> findByDocumentNumber(String documentNumber) {
-    return repository
-        .findByDocumentnumber(documentNumber)
-        .flatMap(this::injectAdditionalInformation)
+    return aggregateLoader
+        .findByDocumentNumber(documentNumber)
         .map(DocumentUnitTransformer::transformDTO);
   }
 
   @Override
   public Mono<DocumentUnit> findByUuid(UUID uuid) {
-    return repository
-        .findByUuid(uuid)
-        .flatMap(this::injectAdditionalInformation)
-        .map(DocumentUnitTransformer::transformDTO);
+    return aggregateLoader.findByUuid(uuid).map(DocumentUnitTransformer::transformDTO);
+  }
+
+  @Override
+  public Mono<Long> findVersionByDocumentNumber(String documentNumber) {
+    return repository.findVersionByDocumentnumber(documentNumber);
   }
 
   @Override
   public Mono<DocumentUnit> createNewDocumentUnit(String documentNumber, User user) {
-    return documentationOfficeRepository
-        .findByLabel(user.documentationOffice().label())
+    return referenceDataCache
+        .findDocumentationOfficeByLabel(user.documentationOffice().label())
         .flatMap(
             documentationOfficeDTO ->
                 metadataRepository
@@ -151,20 +182,113 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
   @Override
   @Transactional(transactionManager = "connectionFactoryTransactionManager")
   public Mono<DocumentUnit> save(DocumentUnit documentUnit) {
-    return repository
+    return aggregateLoader
         .findByUuid(documentUnit.uuid())
-        .flatMap(documentUnitDTO -> enrichDocumentType(documentUnitDTO, documentUnit))
-        .flatMap(documentUnitDTO -> enrichLegalEffect(documentUnitDTO, documentUnit))
-        .flatMap(documentUnitDTO -> enrichRegion(documentUnitDTO, documentUnit))
-        .map(documentUnitDTO -> DocumentUnitTransformer.enrichDTO(documentUnitDTO, documentUnit))
-        .flatMap(repository::save)
-        .flatMap(documentUnitDTO -> saveFileNumbers(documentUnitDTO, documentUnit))
-        .flatMap(documentUnitDTO -> saveDeviatingFileNumbers(documentUnitDTO, documentUnit))
-        .flatMap(documentUnitDTO -> saveDeviatingEcli(documentUnitDTO, documentUnit))
-        .flatMap(documentUnitDTO -> saveDeviatingDecisionDate(documentUnitDTO, documentUnit))
-        .flatMap(documentUnitDTO -> saveIncorrectCourt(documentUnitDTO, documentUnit))
-        .flatMap(documentUnitDTO -> saveNorms(documentUnitDTO, documentUnit))
-        .map(DocumentUnitTransformer::transformDTO);
+        .flatMap(storedDTO -> save(storedDTO, documentUnit));
+  }
+
+  @Override
+  @Transactional(transactionManager = "connectionFactoryTransactionManager")
+  public Mono<DocumentUnit> patch(UUID documentUnitUuid, UnaryOperator<DocumentUnit> patch) {
+    return aggregateLoader
+        .findByUuid(documentUnitUuid)
+        .flatMap(
+            storedDTO ->
+                save(
+                    storedDTO,
+                    patch.apply(DocumentUnitTransformer.transformDTO(storedDTO)).toBuilder()
+                        .uuid(storedDTO.getUuid())
+                        .documentNumber(storedDTO.getDocumentnumber())
+                        .build()));
+  }
+
+  private Mono<DocumentUnit> save(DocumentUnitDTO storedDTO, DocumentUnit documentUnit) {
+    // the stored child rows are loaded with the aggregate and only the changed rows are written
+    return Mono.defer(
+        () -> {
+          AtomicInteger rowsWritten = new AtomicInteger();
+          AtomicBoolean columnsChanged = new AtomicBoolean();
+          Map<SqlIdentifier, Object> storedColumns = toColumns(storedDTO);
+          return enrichDocumentType(storedDTO, documentUnit)
+              .flatMap(documentUnitDTO -> enrichLegalEffect(documentUnitDTO, documentUnit))
+              .flatMap(documentUnitDTO -> enrichRegion(documentUnitDTO, documentUnit))
+              .map(
+                  documentUnitDTO ->
+                      DocumentUnitTransformer.enrichDTO(documentUnitDTO, documentUnit))
+              .flatMap(
+                  documentUnitDTO ->
+                      updateChangedColumns(storedColumns, documentUnitDTO, columnsChanged))
+              .flatMap(
+                  documentUnitDTO -> saveFileNumbers(documentUnitDTO, documentUnit, rowsWritten))
+              .flatMap(
+                  documentUnitDTO ->
+                      saveDeviatingFileNumbers(documentUnitDTO, documentUnit, rowsWritten))
+              .flatMap(
+                  documentUnitDTO -> saveDeviatingEcli(documentUnitDTO, documentUnit, rowsWritten))
+              .flatMap(
+                  documentUnitDTO ->
+                      saveDeviatingDecisionDate(documentUnitDTO, documentUnit, rowsWritten))
+              .flatMap(
+                  documentUnitDTO -> saveIncorrectCourt(documentUnitDTO, documentUnit, rowsWritten))
+              .flatMap(documentUnitDTO -> saveNorms(documentUnitDTO, documentUnit, rowsWritten))
+              // a save without changes keeps the stored version, so the ETag stays valid
+              .flatMap(
+                  documentUnitDTO ->
+                      columnsChanged.get() || rowsWritten.get() > 0
+                          ? bumpVersion(documentUnitDTO)
+                          : Mono.just(documentUnitDTO))
+              .doOnNext(documentUnitDTO -> CHILD_ROWS_WRITTEN_PER_SAVE.record(rowsWritten.get()))
+              .map(DocumentUnitTransformer::transformDTO);
+        });
+  }
+
+  /**
+   * Updates only the columns of the doc_unit row which differ from the stored column values. If no
+   * column changed, no statement is executed and the flag isn't set.
+   */
+  private Mono<DocumentUnitDTO> updateChangedColumns(
+      Map<SqlIdentifier, Object> storedColumns,
+      DocumentUnitDTO documentUnitDTO,
+      AtomicBoolean columnsChanged) {
+    Map<SqlIdentifier, Object> changedColumns = new LinkedHashMap<>();
+    toColumns(documentUnitDTO)
+        .forEach(
+            (column, value) -> {
+              if (!Objects.equals(storedColumns.get(column), value)) {
+                changedColumns.put(column, value);
+              }
+            });
+
+    if (changedColumns.isEmpty()) {
+      return Mono.just(documentUnitDTO);
+    }
+
+    columnsChanged.set(true);
+    return template
+        .update(DocumentUnitDTO.class)
+        .matching(Query.query(Criteria.where("id").is(documentUnitDTO.getId())))
+        .apply(Update.from(changedColumns))
+        .thenReturn(documentUnitDTO);
+  }
+
+  /** Returns the values of the writable doc_unit columns of the dto, without the id. */
+  private Map<SqlIdentifier, Object> toColumns(DocumentUnitDTO documentUnitDTO) {
+    RelationalPersistentEntity<?> entity =
+        template
+            .getConverter()
+            .getMappingContext()
+            .getRequiredPersistentEntity(DocumentUnitDTO.class);
+    PersistentPropertyAccessor<DocumentUnitDTO> accessor =
+        entity.getPropertyAccessor(documentUnitDTO);
+    Map<SqlIdentifier, Object> columns = new LinkedHashMap<>();
+    entity.doWithProperties(
+        (PropertyHandler<RelationalPersistentProperty>)
+            property -> {
+              if (!property.isIdProperty() && property.isWritable()) {
+                columns.put(property.getColumnName(), accessor.getProperty(property));
+              }
+            });
+    return columns;
   }
 
   private Mono<DocumentUnitDTO> enrichDocumentType(
@@ -173,8 +297,20 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
       documentUnitDTO.setDocumentTypeId(null);
       return Mono.just(documentUnitDTO);
     }
-    return databaseDocumentTypeRepository
-        .findByJurisShortcut(documentUnit.coreData().documentType().jurisShortcut())
+
+    DocumentTypeDTO storedDocumentType = documentUnitDTO.getDocumentTypeDTO();
+    if (storedDocumentType != null
+        && Objects.equals(storedDocumentType.getId(), documentUnitDTO.getDocumentTypeId())
+        && Objects.equals(
+            storedDocumentType.getJurisShortcut(),
+            documentUnit.coreData().documentType().jurisShortcut())
+        && Objects.equals(
+            storedDocumentType.getLabel(), documentUnit.coreData().documentType().label())) {
+      return Mono.just(documentUnitDTO);
+    }
+
+    return referenceDataCache
+        .findDocumentTypeByJurisShortcut(documentUnit.coreData().documentType().jurisShortcut())
         .map(
             documentTypeDTO -> {
               if (!documentTypeDTO
@@ -217,8 +353,8 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
               if (courtDTO.getFederalstate() == null) {
                 return Mono.just(StateDTO.builder().label(courtDTO.getRegion()).build());
               }
-              return stateRepository
-                  .findByJurisshortcut(courtDTO.getFederalstate())
+              return referenceDataCache
+                  .findStateByJurisShortcut(courtDTO.getFederalstate())
                   .defaultIfEmpty(StateDTO.builder().build());
             })
         .map(
@@ -235,323 +371,227 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
       return Mono.just(CourtDTO.builder().build());
     }
 
-    return databaseCourtRepository
-        .findByCourttypeAndCourtlocation(
+    return referenceDataCache
+        .findCourtByTypeAndLocation(
             documentUnit.coreData().court().type(), documentUnit.coreData().court().location())
         .defaultIfEmpty(CourtDTO.builder().build());
   }
 
-  public Mono<DocumentUnitDTO> saveFileNumbers(
-      DocumentUnitDTO documentUnitDTO, DocumentUnit documentUnit) {
-    return fileNumberRepository
-        .findAllByDocumentUnitIdAndIsDeviating(documentUnitDTO.getId(), false)
-        .collectList()
-        .flatMap(
-            fileNumberDTOs -> {
-              List<String> fileNumbers = new ArrayList<>();
-              if (documentUnit.coreData() != null
-                  && documentUnit.coreData().fileNumbers() != null) {
-                fileNumbers.addAll(documentUnit.coreData().fileNumbers());
-              }
+  private Mono<DocumentUnitDTO> saveFileNumbers(
+      DocumentUnitDTO documentUnitDTO, DocumentUnit documentUnit, AtomicInteger rowsWritten) {
+    List<String> fileNumbers = new ArrayList<>();
+    if (documentUnit.coreData() != null && documentUnit.coreData().fileNumbers() != null) {
+      fileNumbers.addAll(documentUnit.coreData().fileNumbers());
+    }
 
-              AtomicInteger fileNumberIndex = new AtomicInteger(0);
-              List<FileNumberDTO> toSave = new ArrayList<>();
-              List<FileNumberDTO> toDelete = new ArrayList<>();
-
-              fileNumberDTOs.forEach(
-                  fileNumberDTO -> {
-                    if (fileNumberIndex.get() < fileNumbers.size()) {
-                      fileNumberDTO.fileNumber = fileNumbers.get(fileNumberIndex.getAndIncrement());
-                      fileNumberDTO.isDeviating = false;
-                      toSave.add(fileNumberDTO);
-                    } else {
-                      toDelete.add(fileNumberDTO);
-                    }
-                  });
-
-              while (fileNumberIndex.get() < fileNumbers.size()) {
-                FileNumberDTO fileNumberDTO =
-                    FileNumberDTO.builder()
-                        .fileNumber(fileNumbers.get(fileNumberIndex.getAndIncrement()))
-                        .documentUnitId(documentUnitDTO.getId())
-                        .isDeviating(false)
-                        .build();
-                toSave.add(fileNumberDTO);
-              }
+    ChildRowDiff<FileNumberDTO> diff =
+        ChildRowDiff.of(
+            documentUnitDTO.getFileNumbers(),
+            fileNumbers,
+            FileNumberDTO::getFileNumber,
+            (fileNumberDTO, fileNumber) -> {
+              fileNumberDTO.setFileNumber(fileNumber);
+              return fileNumberDTO;
+            },
+            fileNumber ->
+                FileNumberDTO.builder()
+                    .fileNumber(fileNumber)
+                    .documentUnitId(documentUnitDTO.getId())
+                    .isDeviating(false)
+                    .build(),
+            FileNumberDTO::getPosition,
+            (fileNumberDTO, position) -> {
+              fileNumberDTO.setPosition(position);
+              return fileNumberDTO;
+            });
 
-              return fileNumberRepository
-                  .deleteAll(toDelete)
-                  .then(fileNumberRepository.saveAll(toSave).collectList())
-                  .map(
-                      savedFileNumberList -> {
-                        documentUnitDTO.setFileNumbers(savedFileNumberList);
-                        return documentUnitDTO;
-                      });
+    return writeChildRows(diff, DocumentUnitChildRowWriter.FILE_NUMBER, rowsWritten)
+        .map(
+            savedFileNumberList -> {
+              documentUnitDTO.setFileNumbers(savedFileNumberList);
+              return documentUnitDTO;
             });
   }
 
-  public Mono<DocumentUnitDTO> saveNorms(
-      DocumentUnitDTO documentUnitDTO, DocumentUnit documentUnit) {
+  private Mono<DocumentUnitDTO> saveNorms(
+      DocumentUnitDTO documentUnitDTO, DocumentUnit documentUnit, AtomicInteger rowsWritten) {
+    if (documentUnit.contentRelatedIndexing() == null
+        || documentUnit.contentRelatedIndexing().norms() == null) {
+      return Mono.just(documentUnitDTO);
+    }
 
-    return documentUnitNormRepository
-        .findAllByDocumentUnitId(documentUnitDTO.getId())
-        .collectList()
-        .flatMap(
-            documentUnitNormDTOs -> {
-              List<DocumentUnitNorm> documentUnitNorms = new ArrayList<>();
-              if (documentUnit.contentRelatedIndexing() == null
-                  || documentUnit.contentRelatedIndexing().norms() == null)
-                return Mono.just(documentUnitDTO);
-
-              documentUnitNorms.addAll(documentUnit.contentRelatedIndexing().norms());
-
-              AtomicInteger normIndex = new AtomicInteger(0);
-              List<DocumentUnitNormDTO> toSave = new ArrayList<>();
-              List<DocumentUnitNormDTO> toDelete = new ArrayList<>();
-
-              documentUnitNormDTOs.forEach(
-                  documentUnitNormDTO -> {
-                    int index = normIndex.getAndIncrement();
-                    if (index < documentUnitNorms.size()) {
-                      documentUnitNormDTO.risAbbreviation =
-                          documentUnitNorms.get(index).risAbbreviation();
-                      documentUnitNormDTO.singleNorm = documentUnitNorms.get(index).singleNorm();
-                      documentUnitNormDTO.dateOfVersion =
-                          documentUnitNorms.get(index).dateOfVersion();
-                      documentUnitNormDTO.dateOfRelevance =
-                          documentUnitNorms.get(index).dateOfRelevance();
-                      toSave.add(documentUnitNormDTO);
-                    } else {
-                      toDelete.add(documentUnitNormDTO);
-                    }
-                  });
-
-              while (normIndex.get() < documentUnitNorms.size()) {
-                int index = normIndex.getAndIncrement();
-                DocumentUnitNormDTO documentUnitNormDTO =
-                    DocumentUnitNormDTO.builder()
-                        .risAbbreviation(documentUnitNorms.get(index).risAbbreviation())
-                        .singleNorm(documentUnitNorms.get(index).singleNorm())
-                        .dateOfVersion(documentUnitNorms.get(index).dateOfVersion())
-                        .dateOfRelevance(documentUnitNorms.get(index).dateOfRelevance())
-                        .documentUnitId(documentUnitDTO.getId())
-                        .build();
-                toSave.add(documentUnitNormDTO);
-              }
+    ChildRowDiff<DocumentUnitNormDTO> diff =
+        ChildRowDiff.of(
+            documentUnitDTO.getNorms(),
+            documentUnit.contentRelatedIndexing().norms(),
+            DocumentUnitNormTransformer::transformToDomain,
+            (documentUnitNormDTO, documentUnitNorm) -> {
+              documentUnitNormDTO.setRisAbbreviation(documentUnitNorm.risAbbreviation());
+              documentUnitNormDTO.setSingleNorm(documentUnitNorm.singleNorm());
+              documentUnitNormDTO.setDateOfVersion(documentUnitNorm.dateOfVersion());
+              documentUnitNormDTO.setDateOfRelevance(documentUnitNorm.dateOfRelevance());
+              return documentUnitNormDTO;
+            },
+            documentUnitNorm ->
+                DocumentUnitNormDTO.builder()
+                    .risAbbreviation(documentUnitNorm.risAbbreviation())
+                    .singleNorm(documentUnitNorm.singleNorm())
+                    .dateOfVersion(documentUnitNorm.dateOfVersion())
+                    .dateOfRelevance(documentUnitNorm.dateOfRelevance())
+                    .documentUnitId(documentUnitDTO.getId())
+                    .build(),
+            DocumentUnitNormDTO::getPosition,
+            (documentUnitNormDTO, position) -> {
+              documentUnitNormDTO.setPosition(position);
+              return documentUnitNormDTO;
+            });
 
-              return documentUnitNormRepository
-                  .deleteAll(toDelete)
-                  .then(documentUnitNormRepository.saveAll(toSave).collectList())
-                  .map(
-                      savedNormList -> {
-                        documentUnitDTO.setNorms(savedNormList);
-                        return documentUnitDTO;
-                      });
+    return writeChildRows(diff, DocumentUnitChildRowWriter.DOCUMENT_UNIT_NORM, rowsWritten)
+        .map(
+            savedNormList -> {
+              documentUnitDTO.setNorms(savedNormList);
+              return documentUnitDTO;
             });
   }
 
   private Mono<DocumentUnitDTO> saveDeviatingFileNumbers(
-      DocumentUnitDTO documentUnitDTO, DocumentUnit documentUnit) {
-    return fileNumberRepository
-        .findAllByDocumentUnitIdAndIsDeviating(documentUnitDTO.getId(), true)
-        .collectList()
-        .flatMap(
-            deviatingFileNumberDTOs -> {
-              List<String> deviatingFileNumbers = new ArrayList<>();
-              if (documentUnit.coreData() != null
-                  && documentUnit.coreData().deviatingFileNumbers() != null) {
-                deviatingFileNumbers.addAll(documentUnit.coreData().deviatingFileNumbers());
-              }
+      DocumentUnitDTO documentUnitDTO, DocumentUnit documentUnit, AtomicInteger rowsWritten) {
+    List<String> deviatingFileNumbers = new ArrayList<>();
+    if (documentUnit.coreData() != null && documentUnit.coreData().deviatingFileNumbers() != null) {
+      deviatingFileNumbers.addAll(documentUnit.coreData().deviatingFileNumbers());
+    }
 
-              AtomicInteger deviatingFileNumberIndex = new AtomicInteger(0);
-              List<FileNumberDTO> toSave = new ArrayList<>();
-              List<FileNumberDTO> toDelete = new ArrayList<>();
-
-              deviatingFileNumberDTOs.forEach(
-                  fileNumberDTO -> {
-                    if (deviatingFileNumberIndex.get() < deviatingFileNumbers.size()) {
-                      fileNumberDTO.fileNumber =
-                          deviatingFileNumbers.get(deviatingFileNumberIndex.getAndIncrement());
-                      fileNumberDTO.isDeviating = true;
-                      toSave.add(fileNumberDTO);
-                    } else {
-                      toDelete.add(fileNumberDTO);
-                    }
-                  });
-
-              while (deviatingFileNumberIndex.get() < deviatingFileNumbers.size()) {
-                FileNumberDTO fileNumberDTO =
-                    FileNumberDTO.builder()
-                        .fileNumber(
-                            deviatingFileNumbers.get(deviatingFileNumberIndex.getAndIncrement()))
-                        .documentUnitId(documentUnitDTO.getId())
-                        .isDeviating(true)
-                        .build();
-                toSave.add(fileNumberDTO);
-              }
+    ChildRowDiff<FileNumberDTO> diff =
+        ChildRowDiff.of(
+            documentUnitDTO.getDeviatingFileNumbers(),
+            deviatingFileNumbers,
+            FileNumberDTO::getFileNumber,
+            (fileNumberDTO, fileNumber) -> {
+              fileNumberDTO.setFileNumber(fileNumber);
+              return fileNumberDTO;
+            },
+            fileNumber ->
+                FileNumberDTO.builder()
+                    .fileNumber(fileNumber)
+                    .documentUnitId(documentUnitDTO.getId())
+                    .isDeviating(true)
+                    .build(),
+            FileNumberDTO::getPosition,
+            (fileNumberDTO, position) -> {
+              fileNumberDTO.setPosition(position);
+              return fileNumberDTO;
+            });
 
-              return fileNumberRepository
-                  .deleteAll(toDelete)
-                  .then(fileNumberRepository.saveAll(toSave).collectList())
-                  .map(
-                      savedDeviatingFileNumberList -> {
-                        documentUnitDTO.setDeviatingFileNumbers(savedDeviatingFileNumberList);
-                        return documentUnitDTO;
-                      });
+    return writeChildRows(diff, DocumentUnitChildRowWriter.FILE_NUMBER, rowsWritten)
+        .map(
+            savedDeviatingFileNumberList -> {
+              documentUnitDTO.setDeviatingFileNumbers(savedDeviatingFileNumberList);
+              return documentUnitDTO;
             });
   }
 
   private Mono<DocumentUnitDTO> saveDeviatingEcli(
-      DocumentUnitDTO documentUnitDTO, DocumentUnit documentUnit) {
-    return deviatingEcliRepository
-        .findAllByDocumentUnitId(documentUnitDTO.getId())
-        .collectList()
-        .flatMap(
-            deviatingEcliDTOs -> {
-              List<String> deviatingEclis = new ArrayList<>();
-              if (documentUnit.coreData() != null
-                  && documentUnit.coreData().deviatingEclis() != null) {
-                deviatingEclis.addAll(documentUnit.coreData().deviatingEclis());
-              }
+      DocumentUnitDTO documentUnitDTO, DocumentUnit documentUnit, AtomicInteger rowsWritten) {
+    List<String> deviatingEclis = new ArrayList<>();
+    if (documentUnit.coreData() != null && documentUnit.coreData().deviatingEclis() != null) {
+      deviatingEclis.addAll(documentUnit.coreData().deviatingEclis());
+    }
 
-              AtomicInteger deviatingEcliIndex = new AtomicInteger(0);
-              List<DeviatingEcliDTO> toSave = new ArrayList<>();
-              List<DeviatingEcliDTO> toDelete = new ArrayList<>();
-
-              deviatingEcliDTOs.forEach(
-                  deviatingEcliDTO -> {
-                    if (deviatingEcliIndex.get() < deviatingEclis.size()) {
-                      deviatingEcliDTO.ecli =
-                          deviatingEclis.get(deviatingEcliIndex.getAndIncrement());
-                      toSave.add(deviatingEcliDTO);
-                    } else {
-                      toDelete.add(deviatingEcliDTO);
-                    }
-                  });
-
-              while (deviatingEcliIndex.get() < deviatingEclis.size()) {
-                DeviatingEcliDTO deviatingEcliDTO =
-                    DeviatingEcliDTO.builder()
-                        .ecli(deviatingEclis.get(deviatingEcliIndex.getAndIncrement()))
-                        .documentUnitId(documentUnitDTO.getId())
-                        .build();
-                toSave.add(deviatingEcliDTO);
-              }
+    ChildRowDiff<DeviatingEcliDTO> diff =
+        ChildRowDiff.of(
+            documentUnitDTO.getDeviatingEclis(),
+            deviatingEclis,
+            DeviatingEcliDTO::getEcli,
+            (deviatingEcliDTO, ecli) -> {
+              deviatingEcliDTO.setEcli(ecli);
+              return deviatingEcliDTO;
+            },
+            ecli ->
+                DeviatingEcliDTO.builder()
+                    .ecli(ecli)
+                    .documentUnitId(documentUnitDTO.getId())
+                    .build(),
+            DeviatingEcliDTO::getPosition,
+            (deviatingEcliDTO, position) -> {
+              deviatingEcliDTO.setPosition(position);
+              return deviatingEcliDTO;
+            });
 
-              return deviatingEcliRepository
-                  .deleteAll(toDelete)
-                  .then(deviatingEcliRepository.saveAll(toSave).collectList())
-                  .map(
-                      savedDeviatingEcliList -> {
-                        documentUnitDTO.setDeviatingEclis(savedDeviatingEcliList);
-                        return documentUnitDTO;
-                      });
+    return writeChildRows(diff, DocumentUnitChildRowWriter.DEVIATING_ECLI, rowsWritten)
+        .map(
+            savedDeviatingEcliList -> {
+              documentUnitDTO.setDeviatingEclis(savedDeviatingEcliList);
+              return documentUnitDTO;
             });
   }
 
   private Mono<DocumentUnitDTO> saveDeviatingDecisionDate(
-      DocumentUnitDTO documentUnitDTO, DocumentUnit documentUnit) {
-    return deviatingDecisionDateRepository
-        .findAllByDocumentUnitId(documentUnitDTO.getId())
-        .collectList()
-        .flatMap(
-            deviatingDecisionDateDTOs -> {
-              List<Instant> deviatingDecisionDates = new ArrayList<>();
-              if (documentUnit.coreData() != null
-                  && documentUnit.coreData().deviatingDecisionDates() != null) {
-                deviatingDecisionDates.addAll(documentUnit.coreData().deviatingDecisionDates());
-              }
-
-              AtomicInteger deviatingDecisionDateIndex = new AtomicInteger(0);
-              List<DeviatingDecisionDateDTO> toSave = new ArrayList<>();
-              List<DeviatingDecisionDateDTO> toDelete = new ArrayList<>();
-
-              deviatingDecisionDateDTOs.forEach(
-                  deviatingDecisionDateDTO -> {
-                    if (deviatingDecisionDateIndex.get() < deviatingDecisionDates.size()) {
-                      deviatingDecisionDateDTO =
-                          DeviatingDecisionDateTransformer.enrichDTO(
-                              deviatingDecisionDateDTO,
-                              deviatingDecisionDates.get(
-                                  deviatingDecisionDateIndex.getAndIncrement()));
-                      toSave.add(deviatingDecisionDateDTO);
-                    } else {
-                      toDelete.add(deviatingDecisionDateDTO);
-                    }
-                  });
-
-              while (deviatingDecisionDateIndex.get() < deviatingDecisionDates.size()) {
-                DeviatingDecisionDateDTO deviatingDecisionDateDTO =
-                    DeviatingDecisionDateDTO.builder()
-                        .decisionDate(
-                            deviatingDecisionDates.get(
-                                deviatingDecisionDateIndex.getAndIncrement()))
-                        .documentUnitId(documentUnitDTO.getId())
-                        .build();
-                toSave.add(deviatingDecisionDateDTO);
-              }
+      DocumentUnitDTO documentUnitDTO, DocumentUnit documentUnit, AtomicInteger rowsWritten) {
+    List<Instant> deviatingDecisionDates = new ArrayList<>();
+    if (documentUnit.coreData() != null
+        && documentUnit.coreData().deviatingDecisionDates() != null) {
+      deviatingDecisionDates.addAll(documentUnit.coreData().deviatingDecisionDates());
+    }
 
-              return deviatingDecisionDateRepository
-                  .deleteAll(toDelete)
-                  .then(deviatingDecisionDateRepository.saveAll(toSave).collectList())
-                  .map(
-                      savedDeviatingDecisionDateList -> {
-                        documentUnitDTO.setDeviatingDecisionDates(savedDeviatingDecisionDateList);
-                        return documentUnitDTO;
-                      });
+    ChildRowDiff<DeviatingDecisionDateDTO> diff =
+        ChildRowDiff.of(
+            documentUnitDTO.getDeviatingDecisionDates(),
+            deviatingDecisionDates,
+            DeviatingDecisionDateDTO::decisionDate,
+            DeviatingDecisionDateTransformer::enrichDTO,
+            decisionDate ->
+                DeviatingDecisionDateDTO.builder()
+                    .decisionDate(decisionDate)
+                    .documentUnitId(documentUnitDTO.getId())
+                    .build(),
+            DeviatingDecisionDateDTO::position,
+            (deviatingDecisionDateDTO, position) ->
+                deviatingDecisionDateDTO.toBuilder().position(position).build());
+
+    return writeChildRows(diff, DocumentUnitChildRowWriter.DEVIATING_DECISION_DATE, rowsWritten)
+        .map(
+            savedDeviatingDecisionDateList -> {
+              documentUnitDTO.setDeviatingDecisionDates(savedDeviatingDecisionDateList);
+              return documentUnitDTO;
             });
   }
 
   private Mono<DocumentUnitDTO> saveIncorrectCourt(
-      DocumentUnitDTO documentUnitDTO, DocumentUnit documentUnit) {
-    return incorrectCourtRepository
-        .findAllByDocumentUnitId(documentUnitDTO.getId())
-        .collectList()
-        .flatMap(
-            incorrectCourtDTOs -> {
-              List<String> incorrectCourts = new ArrayList<>();
-              if (documentUnit.coreData() != null
-                  && documentUnit.coreData().incorrectCourts() != null) {
-                incorrectCourts.addAll(documentUnit.coreData().incorrectCourts());
-              }
-
-              AtomicInteger incorrectCourtIndex = new AtomicInteger(0);
-              List<IncorrectCourtDTO> toSave = new ArrayList<>();
-              List<IncorrectCourtDTO> toDelete = new ArrayList<>();
-
-              incorrectCourtDTOs.forEach(
-                  incorrectCourtDTO -> {
-                    if (incorrectCourtIndex.get() < incorrectCourts.size()) {
-                      incorrectCourtDTO =
-                          IncorrectCourtTransformer.enrichDTO(
-                              incorrectCourtDTO,
-                              incorrectCourts.get(incorrectCourtIndex.getAndIncrement()));
-                      toSave.add(incorrectCourtDTO);
-                    } else {
-                      toDelete.add(incorrectCourtDTO);
-                    }
-                  });
-
-              while (incorrectCourtIndex.get() < incorrectCourts.size()) {
-                IncorrectCourtDTO incorrectCourtDTO =
-                    IncorrectCourtDTO.builder()
-                        .court(incorrectCourts.get(incorrectCourtIndex.getAndIncrement()))
-                        .documentUnitId(documentUnitDTO.getId())
-                        .build();
-                toSave.add(incorrectCourtDTO);
-              }
+      DocumentUnitDTO documentUnitDTO, DocumentUnit documentUnit, AtomicInteger rowsWritten) {
+    List<String> incorrectCourts = new ArrayList<>();
+    if (documentUnit.coreData() != null && documentUnit.coreData().incorrectCourts() != null) {
+      incorrectCourts.addAll(documentUnit.coreData().incorrectCourts());
+    }
 
-              return incorrectCourtRepository
-                  .deleteAll(toDelete)
-                  .then(incorrectCourtRepository.saveAll(toSave).collectList())
-                  .map(
-                      savedIncorrectCourtList -> {
-                        documentUnitDTO.setIncorrectCourts(savedIncorrectCourtList);
-                        return documentUnitDTO;
-                      });
+    ChildRowDiff<IncorrectCourtDTO> diff =
+        ChildRowDiff.of(
+            documentUnitDTO.getIncorrectCourts(),
+            incorrectCourts,
+            IncorrectCourtDTO::court,
+            IncorrectCourtTransformer::enrichDTO,
+            court ->
+                IncorrectCourtDTO.builder()
+                    .court(court)
+                    .documentUnitId(documentUnitDTO.getId())
+                    .build(),
+            IncorrectCourtDTO::position,
+            (incorrectCourtDTO, position) ->
+                incorrectCourtDTO.toBuilder().position(position).build());
+
+    return writeChildRows(diff, DocumentUnitChildRowWriter.INCORRECT_COURT, rowsWritten)
+        .map(
+            savedIncorrectCourtList -> {
+              documentUnitDTO.setIncorrectCourts(savedIncorrectCourtList);
+              return documentUnitDTO;
             });
   }
 
+  private <T> Mono<List<T>> writeChildRows(
+      ChildRowDiff<T> diff, ChildTable<T> table, AtomicInteger rowsWritten) {
+    rowsWritten.addAndGet(diff.rowsWritten());
+    return childRowWriter.write(table, diff);
+  }
+
   @Override
   public Mono<DocumentUnit> attachFile(
       UUID documentUnitUuid, String fileUuid, String type, String fileName) {
@@ -567,6 +607,7 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
               return documentUnitDTO;
             })
         .flatMap(repository::save)
+        .flatMap(this::bumpVersion)
         .map(DocumentUnitTransformer::transformDTO);
   }
 
@@ -584,6 +625,7 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
               return documentUnitDTO;
             })
         .flatMap(repository::save)
+        .flatMap(this::bumpVersion)
         .map(DocumentUnitTransformer::transformDTO);
   }
 
@@ -591,21 +633,44 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
   public Mono<Void> delete(DocumentUnit documentUnit) {
     return repository
         .findByUuid(documentUnit.uuid())
-        .flatMap(documentUnitDTO -> repository.deleteById(documentUnitDTO.getId()));
+        .flatMap(
+            documentUnitDTO ->
+                repository
+                    .bumpVersion(documentUnitDTO.getId())
+                    .then(repository.deleteById(documentUnitDTO.getId())));
   }
 
-  private Mono<DocumentUnitDTO> injectAdditionalInformation(DocumentUnitDTO documentUnitDTO) {
-    return injectFileNumbers(documentUnitDTO)
-        .flatMap(this::injectDeviatingFileNumbers)
-        .flatMap(this::injectProceedingDecisions)
-        .flatMap(this::injectDeviatingEclis)
-        .flatMap(this::injectDeviatingDecisionDates)
-        .flatMap(this::injectIncorrectCourt)
-        .flatMap(this::injectDocumentType)
-        .flatMap(this::injectKeywords)
-        .flatMap(this::injectNorms)
-        .flatMap(this::injectFieldsOfLaw)
-        .flatMap(this::injectDocumentationOffice);
+  private Mono<DocumentUnitDTO> bumpVersion(DocumentUnitDTO documentUnitDTO) {
+    return repository
+        .bumpVersion(documentUnitDTO.getId())
+        .map(
+            version -> {
+              documentUnitDTO.setVersion(version);
+              return documentUnitDTO;
+            });
+  }
+
+  /**
+   * Loads all child tables of the document unit. The loads are independent of each other, so they
+   * run concurrently; the number of loads in flight per document unit is capped by {@code
+   * database.document-unit.child-load-concurrency}. The reads of a document unit use the {@link
+   * DocumentUnitAggregateLoader}, only the parent returned by {@link #linkDocumentUnits} is still
+   * loaded this way.
+   */
+  Mono<DocumentUnitDTO> injectAdditionalInformation(DocumentUnitDTO documentUnitDTO) {
+    return Flux.just(
+            injectAllFileNumbers(documentUnitDTO),
+            injectProceedingDecisions(documentUnitDTO),
+            injectDeviatingEclis(documentUnitDTO),
+            injectDeviatingDecisionDates(documentUnitDTO),
+            injectIncorrectCourt(documentUnitDTO),
+            injectDocumentType(documentUnitDTO),
+            injectKeywords(documentUnitDTO),
+            injectNorms(documentUnitDTO),
+            injectFieldsOfLaw(documentUnitDTO),
+            injectDocumentationOffice(documentUnitDTO))
+        .flatMap(inject -> inject, childLoadConcurrency)
+        .then(Mono.just(documentUnitDTO));
   }
 
   private Mono<DocumentUnitDTO> injectProceedingDecisions(DocumentUnitDTO documentUnitDTO) {
@@ -616,8 +681,8 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
                 .map(DocumentUnitMetadataDTO::getId)
                 .flatMapMany(proceedingDecisionLinkRepository::findAllByParentDocumentUnitId)
                 .map(ProceedingDecisionLinkDTO::getChildDocumentUnitId))
-        .flatMap(this::injectAdditionalProceedingDecisionInformation)
         .collectList()
+        .flatMap(metadataEnricher::enrich)
         .map(
             proceedingDecisionDTOS -> {
               documentUnitDTO.setProceedingDecisions(proceedingDecisionDTOS);
@@ -639,15 +704,17 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
             });
   }
 
-  private Mono<DocumentUnitDTO> injectDeviatingFileNumbers(DocumentUnitDTO documentUnitDTO) {
+  private Mono<DocumentUnitDTO> injectAllFileNumbers(DocumentUnitDTO documentUnitDTO) {
     return fileNumberRepository
         .findAllByDocumentUnitId(documentUnitDTO.getId())
-        .collectList()
-        .flatMap(
+        .collect(
+            Collectors.partitioningBy(
+                fileNumberDTO -> Boolean.TRUE.equals(fileNumberDTO.getIsDeviating())))
+        .map(
             fileNumbers -> {
-              documentUnitDTO.setDeviatingFileNumbers(
-                  fileNumbers.stream().filter(FileNumberDTO::getIsDeviating).toList());
-              return Mono.just(documentUnitDTO);
+              documentUnitDTO.setFileNumbers(fileNumbers.get(false));
+              documentUnitDTO.setDeviatingFileNumbers(fileNumbers.get(true));
+              return documentUnitDTO;
             });
   }
 
@@ -678,8 +745,8 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
     if (documentUnitMetadataDTO.getDocumentTypeId() == null) {
       return Mono.just(documentUnitMetadataDTO);
     }
-    return databaseDocumentTypeRepository
-        .findById(documentUnitMetadataDTO.getDocumentTypeId())
+    return referenceDataCache
+        .findDocumentTypeById(documentUnitMetadataDTO.getDocumentTypeId())
         .defaultIfEmpty(DocumentTypeDTO.builder().build())
         .map(
             documentTypeDTO -> {
@@ -706,7 +773,11 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
         .collectList()
         .flatMapMany(fieldOfLawRepository::findAllById)
         .collectList()
-        .map(fieldsOfLaw -> documentUnitDTO.toBuilder().fieldsOfLaw(fieldsOfLaw).build());
+        .map(
+            fieldsOfLaw -> {
+              documentUnitDTO.setFieldsOfLaw(fieldsOfLaw);
+              return documentUnitDTO;
+            });
   }
 
   private Mono<DocumentUnitDTO> injectKeywords(DocumentUnitDTO documentUnitDTO) {
@@ -737,8 +808,8 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
       return Mono.just(documentUnitMetadataDTO);
     }
 
-    return documentationOfficeRepository
-        .findById(documentUnitMetadataDTO.getDocumentationOfficeId())
+    return referenceDataCache
+        .findDocumentationOfficeById(documentUnitMetadataDTO.getDocumentationOfficeId())
         .defaultIfEmpty(DocumentationOfficeDTO.builder().build())
         .map(
             documentationOfficeDTO -> {
@@ -748,42 +819,6 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
             });
   }
 
-  private Mono<DocumentUnitMetadataDTO> injectAdditionalProceedingDecisionInformation(
-      DocumentUnitMetadataDTO documentUnitMetadataDTO) {
-    return injectProceedingDecisionFileNumbers(documentUnitMetadataDTO)
-        .flatMap(this::injectProceedingDecisionDocumentType);
-  }
-
-  private Mono<DocumentUnitMetadataDTO> injectProceedingDecisionFileNumbers(
-      DocumentUnitMetadataDTO documentUnitMetadataDTO) {
-    return fileNumberRepository
-        .findAllByDocumentUnitId(documentUnitMetadataDTO.getId())
-        .collectList()
-        .map(
-            fileNumbers -> {
-              documentUnitMetadataDTO.setFileNumbers(
-                  fileNumbers.stream()
-                      .filter(fileNumberDTO -> !fileNumberDTO.getIsDeviating())
-                      .toList());
-              return documentUnitMetadataDTO;
-            });
-  }
-
-  private Mono<DocumentUnitMetadataDTO> injectProceedingDecisionDocumentType(
-      DocumentUnitMetadataDTO documentUnitMetadataDTO) {
-    if (documentUnitMetadataDTO.getDocumentTypeId() == null) {
-      return Mono.just(documentUnitMetadataDTO);
-    }
-    return databaseDocumentTypeRepository
-        .findById(documentUnitMetadataDTO.getDocumentTypeId())
-        .defaultIfEmpty(DocumentTypeDTO.builder().build())
-        .map(
-            documentTypeDTO -> {
-              documentUnitMetadataDTO.setDocumentTypeDTO(documentTypeDTO);
-              return documentUnitMetadataDTO;
-            });
-  }
-
   public Flux<ProceedingDecision> searchByProceedingDecision(
       ProceedingDecision proceedingDecision, Pageable pageable) {
 
@@ -810,7 +845,9 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
                   pageable.getPageSize(),
                   pageable.getOffset());
             })
-        .flatMapSequential(this::injectAdditionalInformation)
+        .collectList()
+        .flatMap(metadataEnricher::enrich)
+        .flatMapIterable(documentUnitMetadataDTOs -> documentUnitMetadataDTOs)
         .map(ProceedingDecisionTransformer::transformToDomain);
   }
 
@@ -862,7 +899,7 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
   private Mono<Long> extractDocumentTypeDTOId(ProceedingDecision proceedingDecision) {
     return Mono.justOrEmpty(proceedingDecision.documentType())
         .map(DocumentType::jurisShortcut)
-        .flatMap(databaseDocumentTypeRepository::findByJurisShortcut)
+        .flatMap(referenceDataCache::findDocumentTypeByJurisShortcut)
         .mapNotNull(DocumentTypeDTO::getId)
         .switchIfEmpty(Mono.just(-1L));
   }
@@ -895,6 +932,18 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
                     .build());
   }
 
+  @Override
+  public Mono<DocumentUnitListSlice> findAllByCursor(DocumentUnitListCursor cursor, int size) {
+    return listEntryLoader.findAllByCursor(DataSource.NEURIS, cursor, size);
+  }
+
+  @Override
+  public Mono<Long> estimateCountByDataSource(DataSource dataSource) {
+    return listEntryLoader
+        .estimateCountByDataSource(dataSource)
+        .switchIfEmpty(Mono.defer(() -> metadataRepository.countByDataSource(dataSource)));
+  }
+
   @Override
   public Flux<ProceedingDecision> findAllLinkedDocumentUnitsByParentDocumentUnitId(
       UUID parentDocumentUnitUuid) {
@@ -905,7 +954,9 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
                 .map(DocumentUnitMetadataDTO::getId)
                 .flatMapMany(proceedingDecisionLinkRepository::findAllByParentDocumentUnitId)
                 .map(ProceedingDecisionLinkDTO::getChildDocumentUnitId))
-        .flatMap(this::injectAdditionalInformation)
+        .collectList()
+        .flatMap(metadataEnricher::enrich)
+        .flatMapIterable(documentUnitMetadataDTOs -> documentUnitMetadataDTOs)
         .map(ProceedingDecisionTransformer::transformToDomain);
   }
 
@@ -919,13 +970,6 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
         .map(isLinked -> documentUnit);
   }
 
-  private Mono<DocumentUnitMetadataDTO> injectAdditionalInformation(
-      DocumentUnitMetadataDTO documentUnitMetadataDTO) {
-    return injectFileNumbers(documentUnitMetadataDTO)
-        .flatMap(this::injectDocumentType)
-        .flatMap(this::injectDocumentationOffice);
-  }
-
   @Override
   public Mono<DocumentUnit> linkDocumentUnits(
       UUID parentDocumentUnitUuid, UUID childDocumentUnitUuid) {
@@ -944,6 +988,7 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
                             .childDocumentUnitId(tuple.getT2())
                             .build())
                     .map(ProceedingDecisionLinkDTO::getParentDocumentUnitId)
+                    .flatMap(id -> repository.bumpVersion(id).thenReturn(id))
                     .flatMap(repository::findById)
                     .flatMap(this::injectAdditionalInformation)
                     .map(DocumentUnitTransformer::transformDTO));
@@ -962,7 +1007,12 @@ public class PostgresDocumentUnitRepositoryImpl implements DocumentUnitRepositor
                 proceedingDecisionLinkRepository
                     .findByParentDocumentUnitIdAndChildDocumentUnitId(tuple.getT1(), tuple.getT2())
                     .map(ProceedingDecisionLinkDTO::getId)
-                    .flatMap(proceedingDecisionLinkRepository::deleteById));
+                    .flatMap(
+                        id ->
+                            proceedingDecisionLinkRepository
+                                .deleteById(id)
+                                .then(repository.bumpVersion(tuple.getT1())))
+                    .then());
   }
 
   @Override
@@ -2,57 +2,108 @@ package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
 
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseFieldOfLawRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawDTO;
-import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawKeywordRepository;
-import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawLinkDTO;
-import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawLinkRepository;
-import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.NormRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawEnricher;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawTree;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawTreeCache;
 import de.bund.digitalservice.ris.caselaw.adapter.transformer.FieldOfLawTransformer;
 import de.bund.digitalservice.ris.caselaw.domain.FieldOfLawRepository;
 import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldOfLaw;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
 public class PostgresFieldOfLawRepositoryImpl implements FieldOfLawRepository {
+  // the scores of the search in the database are the same as in FieldOfLawScore
+  private static final String SEARCH_TERM_SCORE =
+      "(SELECT COALESCE(SUM( "
+          + "    CASE WHEN LOWER(f.identifier) = term THEN 8 ELSE 0 END "
+          + "    + CASE WHEN starts_with(LOWER(f.identifier), term) THEN 5 ELSE 0 END "
+          + "    + CASE WHEN strpos(LOWER(f.identifier), term) > 0 THEN 2 ELSE 0 END "
+          + "    + CASE WHEN starts_with(LOWER(COALESCE(f.text, '')), term) THEN 5 ELSE 0 END "
+          + "    + (SELECT COALESCE(SUM( "
+          + "          CASE WHEN word = term THEN 4 ELSE 0 END "
+          + "          + CASE WHEN starts_with(word, term) THEN 3 ELSE 0 END "
+          + "          + CASE WHEN strpos(word, term) > 0 THEN 1 ELSE 0 END), 0) "
+          + "       FROM regexp_split_to_table(LOWER(COALESCE(f.text, '')), '[\\s-]+') AS word)), 0) "
+          + " FROM unnest(CAST(:searchTerms AS text[])) AS search_term(term))";
+
+  private static final String NORM_STR_SCORE =
+      "(SELECT COALESCE(SUM( "
+          + "    CASE WHEN LOWER(COALESCE(n.single_norm_description, '')) = :normStr THEN 8 ELSE 0 END "
+          + "    + CASE WHEN starts_with(LOWER(COALESCE(n.single_norm_description, '')), :normStr) "
+          + "        THEN 5 ELSE 0 END "
+          + "    + CASE WHEN strpos(LOWER(COALESCE(n.single_norm_description, '') || ' ' "
+          + "        || COALESCE(n.abbreviation, '')), :normStr) > 0 THEN 5 ELSE 0 END), 0) "
+          + " FROM lookuptable_field_of_law_norm n WHERE n.field_of_law_id = f.id)";
+
+  private static final String CONTAINS_SEARCH_TERMS =
+      "NOT EXISTS (SELECT 1 FROM unnest(CAST(:searchTerms AS text[])) AS search_term(term) "
+          + "  WHERE strpos(LOWER(CONCAT(f.identifier, ' ', f.text)), term) = 0)";
+
+  private static final String CONTAINS_NORM_STR =
+      "EXISTS (SELECT 1 FROM lookuptable_field_of_law_norm n WHERE n.field_of_law_id = f.id "
+          + "  AND (strpos(LOWER(CONCAT(n.abbreviation, ' ', n.single_norm_description)), :normStr) > 0 "
+          + "    OR strpos(LOWER(CONCAT(n.single_norm_description, ' ', n.abbreviation)), :normStr) > 0))";
+
+  // the total is returned with an empty page too, equal scores are ordered like Java strings
+  private static final String SELECT_PAGE =
+      "SELECT total.count AS total, page.* "
+          + "FROM (SELECT COUNT(*) AS count FROM matches) AS total "
+          + "LEFT JOIN LATERAL (SELECT * FROM matches "
+          + "  ORDER BY score DESC, identifier COLLATE \"C\" ";
 
   DatabaseFieldOfLawRepository databaseFieldOfLawRepository;
-  FieldOfLawKeywordRepository fieldOfLawKeywordRepository;
-  NormRepository normRepository;
-  FieldOfLawLinkRepository fieldOfLawLinkRepository;
+  FieldOfLawEnricher fieldOfLawEnricher;
   DatabaseDocumentUnitRepository databaseDocumentUnitRepository;
   DatabaseDocumentUnitFieldsOfLawRepository databaseDocumentUnitFieldsOfLawRepository;
+  FieldOfLawTreeCache fieldOfLawTreeCache;
+  R2dbcEntityTemplate template;
 
   public PostgresFieldOfLawRepositoryImpl(
       DatabaseFieldOfLawRepository databaseFieldOfLawRepository,
-      FieldOfLawKeywordRepository fieldOfLawKeywordRepository,
-      NormRepository normRepository,
-      FieldOfLawLinkRepository fieldOfLawLinkRepository,
+      FieldOfLawEnricher fieldOfLawEnricher,
       DatabaseDocumentUnitRepository databaseDocumentUnitRepository,
-      DatabaseDocumentUnitFieldsOfLawRepository databaseDocumentUnitFieldsOfLawRepository) {
+      DatabaseDocumentUnitFieldsOfLawRepository databaseDocumentUnitFieldsOfLawRepository,
+      FieldOfLawTreeCache fieldOfLawTreeCache,
+      R2dbcEntityTemplate template) {
 
     this.databaseFieldOfLawRepository = databaseFieldOfLawRepository;
-    this.fieldOfLawKeywordRepository = fieldOfLawKeywordRepository;
-    this.normRepository = normRepository;
-    this.fieldOfLawLinkRepository = fieldOfLawLinkRepository;
+    this.fieldOfLawEnricher = fieldOfLawEnricher;
     this.databaseDocumentUnitRepository = databaseDocumentUnitRepository;
     this.databaseDocumentUnitFieldsOfLawRepository = databaseDocumentUnitFieldsOfLawRepository;
+    this.fieldOfLawTreeCache = fieldOfLawTreeCache;
+    this.template = template;
   }
 
   @Override
   public Flux<FieldOfLaw> findAllByOrderByIdentifierAsc(Pageable pageable) {
     return databaseFieldOfLawRepository
         .findAllByOrderByIdentifierAsc(pageable)
-        .flatMapSequential(this::injectAdditionalInformation)
-        .map(FieldOfLawTransformer::transformToDomain);
+        .transform(this::injectAdditionalInformation);
   }
 
   @Override
   public Mono<FieldOfLaw> findByIdentifier(String identifier) {
+    if (fieldOfLawTreeCache.isEnabled()) {
+      return fieldOfLawTreeCache
+          .getTree()
+          .flatMap(tree -> Mono.justOrEmpty(tree.findByIdentifier(identifier)));
+    }
+
     return databaseFieldOfLawRepository
         .findByIdentifier(identifier)
         .flatMap(this::injectAdditionalInformation)
@@ -60,69 +111,82 @@ public class PostgresFieldOfLawRepositoryImpl implements FieldOfLawRepository {
   }
 
   @Override
-  public Mono<FieldOfLaw> findParentByChild(FieldOfLaw child) {
+  public Flux<FieldOfLaw> findAncestorsAndSelf(String identifier) {
+    if (fieldOfLawTreeCache.isEnabled()) {
+      return fieldOfLawTreeCache
+          .getTree()
+          .flatMapIterable(tree -> tree.getAncestorsAndSelf(identifier));
+    }
+
     return databaseFieldOfLawRepository
-        .findByIdentifier(child.identifier())
-        .flatMap(
-            childDTO -> {
-              if (childDTO.getParentId() != null) {
-                return databaseFieldOfLawRepository.findById(childDTO.getParentId());
-              }
-              return Mono.just(childDTO);
-            })
-        .flatMap(this::injectAdditionalInformation)
-        .map(FieldOfLawTransformer::transformToDomain);
+        .findAllAncestorsAndSelfByIdentifierOrderByPathAsc(identifier)
+        .transform(this::injectAdditionalInformation);
+  }
+
+  @Override
+  public Flux<FieldOfLaw> findChildrenWithDescendants(String identifier, int depth) {
+    if (fieldOfLawTreeCache.isEnabled()) {
+      return fieldOfLawTreeCache
+          .getTree()
+          .flatMapIterable(tree -> tree.getChildren(identifier, depth));
+    }
+
+    Flux<FieldOfLawDTO> descendants =
+        identifier == null
+            ? databaseFieldOfLawRepository.findAllByDepthLessThanEqualOrderByPathAsc(depth)
+            : databaseFieldOfLawRepository.findAllDescendantsByIdentifierOrderByPathAsc(
+                identifier, depth);
+
+    return descendants
+        .collectList()
+        .flatMap(fieldOfLawEnricher::enrich)
+        .flatMapIterable(PostgresFieldOfLawRepositoryImpl::addToParents);
+  }
+
+  /**
+   * Adds every field of law to the children of its parent. The fields of law are ordered by their
+   * path, so every parent comes before its children. Returns the fields of law without a parent in
+   * the list.
+   */
+  private static List<FieldOfLaw> addToParents(List<FieldOfLawDTO> fieldOfLawDTOs) {
+    Map<Long, FieldOfLaw> fieldsOfLawById = new HashMap<>();
+    List<FieldOfLaw> topLevelFieldsOfLaw = new ArrayList<>();
+    for (FieldOfLawDTO fieldOfLawDTO : fieldOfLawDTOs) {
+      FieldOfLaw fieldOfLaw = FieldOfLawTransformer.transformToDomain(fieldOfLawDTO);
+      fieldsOfLawById.put(fieldOfLawDTO.getId(), fieldOfLaw);
+      FieldOfLaw parent =
+          fieldOfLawDTO.getParentId() == null
+              ? null
+              : fieldsOfLawById.get(fieldOfLawDTO.getParentId());
+      if (parent == null) {
+        topLevelFieldsOfLaw.add(fieldOfLaw);
+      } else {
+        parent.children().add(fieldOfLaw);
+      }
+    }
+    return topLevelFieldsOfLaw;
   }
 
   @Override
   public Flux<FieldOfLaw> getTopLevelNodes() {
+    if (fieldOfLawTreeCache.isEnabled()) {
+      return fieldOfLawTreeCache.getTree().flatMapIterable(FieldOfLawTree::getTopLevelNodes);
+    }
+
     return databaseFieldOfLawRepository
         .findAllByParentIdOrderByIdentifierAsc(null)
-        .flatMapSequential(this::injectAdditionalInformation)
-        .map(FieldOfLawTransformer::transformToDomain);
+        .transform(this::injectAdditionalInformation);
   }
 
   @Override
   public Flux<FieldOfLaw> findAllByParentIdentifierOrderByIdentifierAsc(String identifier) {
+    if (fieldOfLawTreeCache.isEnabled()) {
+      return fieldOfLawTreeCache.getTree().flatMapIterable(tree -> tree.getChildren(identifier));
+    }
+
     return databaseFieldOfLawRepository
         .findAllByParentIdentifierOrderByIdentifierAsc(identifier)
-        .flatMapSequential(this::injectAdditionalInformation)
-        .map(FieldOfLawTransformer::transformToDomain);
-  }
-
-  private Mono<FieldOfLawDTO> injectKeywords(FieldOfLawDTO fieldOfLawDTO) {
-    return fieldOfLawKeywordRepository
-        .findAllByFieldOfLawIdOrderByValueAsc(fieldOfLawDTO.getId())
-        .collectList()
-        .map(
-            keywords -> {
-              fieldOfLawDTO.setKeywords(keywords);
-              return fieldOfLawDTO;
-            });
-  }
-
-  private Mono<FieldOfLawDTO> injectNorms(FieldOfLawDTO fieldOfLawDTO) {
-    return normRepository
-        .findAllByFieldOfLawIdOrderByAbbreviationAscSingleNormDescriptionAsc(fieldOfLawDTO.getId())
-        .collectList()
-        .map(
-            norms -> {
-              fieldOfLawDTO.setNorms(norms);
-              return fieldOfLawDTO;
-            });
-  }
-
-  private Mono<FieldOfLawDTO> injectLinkedFields(FieldOfLawDTO fieldOfLawDTO) {
-    return fieldOfLawLinkRepository
-        .findAllByFieldOfLawId(fieldOfLawDTO.getId())
-        .map(FieldOfLawLinkDTO::getLinkedFieldOfLawId)
-        .flatMap(linkedFieldOfLawId -> databaseFieldOfLawRepository.findById(linkedFieldOfLawId))
-        .collectList()
-        .map(
-            fieldOfLawDTOS -> {
-              fieldOfLawDTO.setLinkedFieldsOfLaw(fieldOfLawDTOS);
-              return fieldOfLawDTO;
-            });
+        .transform(this::injectAdditionalInformation);
   }
 
   @Override
@@ -134,9 +198,9 @@ public class PostgresFieldOfLawRepositoryImpl implements FieldOfLawRepository {
             documentUnitId ->
                 databaseDocumentUnitFieldsOfLawRepository.findAllByDocumentUnitId(documentUnitId))
         .map(DocumentUnitFieldsOfLawDTO::fieldOfLawId)
-        .flatMap(databaseFieldOfLawRepository::findById)
-        .flatMap(this::injectAdditionalInformation)
-        .map(FieldOfLawTransformer::transformToDomain)
+        .collectList()
+        .flatMapMany(databaseFieldOfLawRepository::findAllById)
+        .transform(this::injectAdditionalInformation)
         .collectList()
         .map(
             fieldOfLawList ->
@@ -165,10 +229,16 @@ public class PostgresFieldOfLawRepositoryImpl implements FieldOfLawRepository {
                 return getLinkedFieldsOfLaw(t.getT1());
               }
 
+              // only a written link changes the document unit and gets a new version
               return databaseDocumentUnitFieldsOfLawRepository
                   .findByDocumentUnitIdAndFieldOfLawId(t.getT1(), t.getT2())
-                  .switchIfEmpty(linkFieldOfLawToDocumentUnit(t.getT1(), t.getT2()))
-                  .map(DocumentUnitFieldsOfLawDTO::documentUnitId)
+                  .hasElement()
+                  .flatMap(
+                      exists ->
+                          Boolean.TRUE.equals(exists)
+                              ? Mono.<Long>empty()
+                              : linkFieldOfLawToDocumentUnit(t.getT1(), t.getT2())
+                                  .then(databaseDocumentUnitRepository.bumpVersion(t.getT1())))
                   .then(getLinkedFieldsOfLaw(t.getT1()));
             });
   }
@@ -216,7 +286,11 @@ public class PostgresFieldOfLawRepositoryImpl implements FieldOfLawRepository {
             t ->
                 databaseDocumentUnitFieldsOfLawRepository
                     .findByDocumentUnitIdAndFieldOfLawId(t.getT1(), t.getT2())
-                    .flatMap(dto -> databaseDocumentUnitFieldsOfLawRepository.delete(dto))
+                    .flatMap(
+                        dto ->
+                            databaseDocumentUnitFieldsOfLawRepository
+                                .delete(dto)
+                                .then(databaseDocumentUnitRepository.bumpVersion(t.getT1())))
                     .then(getLinkedFieldsOfLaw(t.getT1())));
   }
 
@@ -226,48 +300,125 @@ public class PostgresFieldOfLawRepositoryImpl implements FieldOfLawRepository {
   }
 
   @Override
-  public Flux<FieldOfLaw> findBySearchTerms(String[] searchTerms) {
-    return databaseFieldOfLawRepository
-        .findBySearchTerms(searchTerms)
-        .flatMapSequential(this::injectAdditionalInformation)
-        .map(FieldOfLawTransformer::transformToDomain);
-  }
+  public Mono<Page<FieldOfLaw>> searchAndOrderByScore(
+      String normStr, String[] searchTerms, Pageable pageable) {
 
-  @Override
-  public Flux<FieldOfLaw> findByNormStr(String normStr) {
-    return databaseFieldOfLawRepository
-        .findByNormStr(normStr)
-        .flatMapSequential(this::injectAdditionalInformation)
-        .map(FieldOfLawTransformer::transformToDomain);
+    if (fieldOfLawTreeCache.isEnabled()) {
+      return fieldOfLawTreeCache.getTree().map(tree -> tree.search(normStr, searchTerms, pageable));
+    }
+
+    return searchInDatabase(normStr, searchTerms, pageable);
   }
 
-  @Override
-  public Flux<FieldOfLaw> findByNormStrAndSearchTerms(String normStr, String[] searchTerms) {
-    return databaseFieldOfLawRepository
-        .findByNormStrAndSearchTerms(normStr, searchTerms)
-        .flatMapSequential(this::injectAdditionalInformation)
-        .map(FieldOfLawTransformer::transformToDomain);
+  /**
+   * Scores, orders and pages the matches in the database, only the fields of law of the page are
+   * loaded with their keywords, norms and linked fields.
+   */
+  private Mono<Page<FieldOfLaw>> searchInDatabase(
+      String normStr, String[] searchTerms, Pageable pageable) {
+
+    List<String> conditions = new ArrayList<>();
+    List<String> scores = new ArrayList<>();
+    if (searchTerms != null) {
+      conditions.add(CONTAINS_SEARCH_TERMS);
+      scores.add(SEARCH_TERM_SCORE);
+    }
+    if (normStr != null) {
+      conditions.add(CONTAINS_NORM_STR);
+      scores.add(NORM_STR_SCORE);
+    }
+    if (conditions.isEmpty()) {
+      return Mono.just(new PageImpl<>(List.of(), pageable, 0));
+    }
+
+    String sql =
+        "WITH matches AS (SELECT f.id, f.children_count, f.parent_id, f.identifier, f.text, "
+            + String.join(" + ", scores)
+            + " AS score FROM lookuptable_field_of_law f WHERE "
+            + String.join(" AND ", conditions)
+            + ") "
+            + SELECT_PAGE
+            + (pageable.isPaged() ? "LIMIT :limit OFFSET :offset" : "")
+            + ") AS page ON TRUE";
+
+    GenericExecuteSpec spec = template.getDatabaseClient().sql(sql);
+    if (searchTerms != null) {
+      spec =
+          spec.bind(
+              "searchTerms",
+              Arrays.stream(searchTerms).map(String::toLowerCase).toArray(String[]::new));
+    }
+    if (normStr != null) {
+      spec = spec.bind("normStr", normStr.toLowerCase());
+    }
+    if (pageable.isPaged()) {
+      spec = spec.bind("limit", pageable.getPageSize()).bind("offset", pageable.getOffset());
+    }
+
+    return spec.map(
+            (row, metadata) ->
+                new ScoredRow(
+                    row.get("total", Long.class),
+                    FieldOfLawDTO.builder()
+                        .id(row.get("id", Long.class))
+                        .childrenCount(row.get("children_count", Integer.class))
+                        .parentId(row.get("parent_id", Long.class))
+                        .identifier(row.get("identifier", String.class))
+                        .text(row.get("text", String.class))
+                        .build(),
+                    row.get("score", Long.class)))
+        .all()
+        .collectList()
+        .flatMap(
+            rows -> {
+              List<ScoredRow> page =
+                  rows.stream().filter(row -> row.fieldOfLawDTO().getId() != null).toList();
+              long total = rows.isEmpty() ? 0 : rows.get(0).total();
+              return fieldOfLawEnricher
+                  .enrich(page.stream().map(ScoredRow::fieldOfLawDTO).toList())
+                  .map(
+                      fieldOfLawDTOs ->
+                          new PageImpl<>(
+                              page.stream()
+                                  .map(
+                                      row ->
+                                          FieldOfLawTransformer.transformToDomain(
+                                                  row.fieldOfLawDTO())
+                                              .toBuilder()
+                                              .score(row.score().intValue())
+                                              .build())
+                                  .toList(),
+                              pageable,
+                              total));
+            });
   }
 
   @Override
   public Flux<FieldOfLaw> getAllLimitedOrderByIdentifierLength() {
     return databaseFieldOfLawRepository
         .getAllLimitedOrderByIdentifierLength()
-        .flatMapSequential(this::injectAdditionalInformation)
-        .map(FieldOfLawTransformer::transformToDomain);
+        .transform(this::injectAdditionalInformation);
   }
 
   @Override
   public Flux<FieldOfLaw> findByIdentifierSearch(String searchStr) {
     return databaseFieldOfLawRepository
         .findByIdentifierSearch(searchStr)
-        .flatMapSequential(this::injectAdditionalInformation)
-        .map(FieldOfLawTransformer::transformToDomain);
+        .transform(this::injectAdditionalInformation);
   }
 
   private Mono<FieldOfLawDTO> injectAdditionalInformation(FieldOfLawDTO fieldOfLawDTO) {
-    return injectKeywords(fieldOfLawDTO)
-        .flatMap(this::injectNorms)
-        .flatMap(this::injectLinkedFields);
+    return fieldOfLawEnricher.enrich(List.of(fieldOfLawDTO)).thenReturn(fieldOfLawDTO);
+  }
+
+  /** Loads the keywords, norms and linked fields of all fields of law with three queries. */
+  private Flux<FieldOfLaw> injectAdditionalInformation(Flux<FieldOfLawDTO> fieldOfLawDTOs) {
+    return fieldOfLawDTOs
+        .collectList()
+        .flatMap(fieldOfLawEnricher::enrich)
+        .flatMapIterable(Function.identity())
+        .map(FieldOfLawTransformer::transformToDomain);
   }
+
+  private record ScoredRow(Long total, FieldOfLawDTO fieldOfLawDTO, Long score) {}
 }
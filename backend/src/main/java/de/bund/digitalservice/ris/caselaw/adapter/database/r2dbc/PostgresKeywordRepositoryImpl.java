@@ -28,11 +28,21 @@ public class PostgresKeywordRepositoryImpl implements KeywordRepository {
 
   @Override
   public Mono<List<String>> addKeywordToDocumentUnit(UUID documentUnitUuid, String keyword) {
+    // only a written row changes the document unit and gets a new version
     return getDocumentUnitId(documentUnitUuid)
         .flatMap(
             documentUnitId ->
-                databaseKeywordRepository.findByDocumentUnitIdAndKeyword(documentUnitId, keyword))
-        .switchIfEmpty(saveKeyword(documentUnitUuid, keyword))
+                databaseKeywordRepository
+                    .findByDocumentUnitIdAndKeyword(documentUnitId, keyword)
+                    .hasElement()
+                    .flatMap(
+                        exists ->
+                            Boolean.TRUE.equals(exists)
+                                ? Mono.<Long>empty()
+                                : saveKeyword(documentUnitId, keyword)
+                                    .then(
+                                        databaseDocumentUnitRepository.bumpVersion(
+                                            documentUnitId))))
         .then(getAllKeywordsByDocumentUnit(documentUnitUuid).collectList());
   }
 
@@ -42,18 +52,18 @@ public class PostgresKeywordRepositoryImpl implements KeywordRepository {
         .flatMap(
             documentUnitId ->
                 databaseKeywordRepository.findByDocumentUnitIdAndKeyword(documentUnitId, keyword))
-        .flatMap(databaseKeywordRepository::delete)
+        .flatMap(
+            keywordDTO ->
+                databaseKeywordRepository
+                    .delete(keywordDTO)
+                    .then(databaseDocumentUnitRepository.bumpVersion(keywordDTO.documentUnitId())))
         .then(getAllKeywordsByDocumentUnit(documentUnitUuid).collectList());
   }
 
-  private Mono<KeywordDTO> saveKeyword(UUID documentUnitUuid, String keyword) {
-    return getDocumentUnitId(documentUnitUuid)
-        .flatMap(
-            documentUnitId -> {
-              KeywordDTO keywordDTO =
-                  KeywordDTO.builder().documentUnitId(documentUnitId).keyword(keyword).build();
-              return databaseKeywordRepository.save(keywordDTO);
-            });
+  private Mono<KeywordDTO> saveKeyword(Long documentUnitId, String keyword) {
+    KeywordDTO keywordDTO =
+        KeywordDTO.builder().documentUnitId(documentUnitId).keyword(keyword).build();
+    return databaseKeywordRepository.save(keywordDTO);
   }
 
   private Mono<Long> getDocumentUnitId(UUID documentUnitUuid) {
@@ -0,0 +1,205 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.CourtDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseCourtRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseDocumentTypeRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DocumentTypeDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateRepository;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolves courts, states, document types and documentation offices from an in-memory {@link
+ * ReferenceDataSnapshot} instead of querying the database for every document unit.
+ *
+ * <p>The snapshot is loaded on first use and has to be rebuilt with {@link #rebuild()} after every
+ * import of a lookup table. The rebuild is published on a Redis channel, so all other instances
+ * rebuild their snapshot as well. A key which is missing in the snapshot is looked up in the
+ * database. If the database knows it, the snapshot is outdated and is rebuilt.
+ */
+@Component
+public class ReferenceDataCache {
+  private final DatabaseCourtRepository courtRepository;
+  private final StateRepository stateRepository;
+  private final DatabaseDocumentTypeRepository documentTypeRepository;
+  private final DatabaseDocumentationOfficeRepository documentationOfficeRepository;
+  private final ReloadableSnapshot<ReferenceDataSnapshot> snapshot;
+
+  public ReferenceDataCache(
+      DatabaseCourtRepository courtRepository,
+      StateRepository stateRepository,
+      DatabaseDocumentTypeRepository documentTypeRepository,
+      DatabaseDocumentationOfficeRepository documentationOfficeRepository,
+      ObjectProvider<ReactiveStringRedisTemplate> redisTemplateProvider,
+      @Value("${reference-data-cache.rebuild-channel:reference-data-cache-rebuild}")
+          String rebuildChannel) {
+
+    this.courtRepository = courtRepository;
+    this.stateRepository = stateRepository;
+    this.documentTypeRepository = documentTypeRepository;
+    this.documentationOfficeRepository = documentationOfficeRepository;
+    this.snapshot =
+        new ReloadableSnapshot<>(
+            "reference data snapshot",
+            this::loadFromDatabase,
+            ReferenceDataSnapshot::size,
+            0,
+            redisTemplateProvider.getIfAvailable(),
+            rebuildChannel);
+  }
+
+  public Mono<CourtDTO> findCourtByTypeAndLocation(String courtType, String courtLocation) {
+    return find(
+        currentSnapshot -> currentSnapshot.findCourtByTypeAndLocation(courtType, courtLocation),
+        () -> courtRepository.findByCourttypeAndCourtlocation(courtType, courtLocation));
+  }
+
+  public Mono<StateDTO> findStateByJurisShortcut(String jurisShortcut) {
+    return find(
+        currentSnapshot -> currentSnapshot.findStateByJurisShortcut(jurisShortcut),
+        () -> stateRepository.findByJurisshortcut(jurisShortcut));
+  }
+
+  public Mono<DocumentTypeDTO> findDocumentTypeById(Long id) {
+    return find(
+        currentSnapshot -> currentSnapshot.findDocumentTypeById(id),
+        () -> documentTypeRepository.findById(id));
+  }
+
+  public Mono<DocumentTypeDTO> findDocumentTypeByJurisShortcut(String jurisShortcut) {
+    return find(
+        currentSnapshot -> currentSnapshot.findDocumentTypeByJurisShortcut(jurisShortcut),
+        () -> documentTypeRepository.findByJurisShortcut(jurisShortcut));
+  }
+
+  public Mono<DocumentationOfficeDTO> findDocumentationOfficeById(UUID id) {
+    return find(
+        currentSnapshot -> currentSnapshot.findDocumentationOfficeById(id),
+        () -> documentationOfficeRepository.findById(id));
+  }
+
+  public Mono<DocumentationOfficeDTO> findDocumentationOfficeByLabel(String label) {
+    return find(
+        currentSnapshot -> currentSnapshot.findDocumentationOfficeByLabel(label),
+        () -> documentationOfficeRepository.findByLabel(label));
+  }
+
+  /** Resolves all document types of the ids with at most one query for the missing ids. */
+  public Mono<Map<Long, DocumentTypeDTO>> findDocumentTypesByIds(Long[] ids) {
+    return findAll(
+        ids,
+        ReferenceDataSnapshot::findDocumentTypeById,
+        missingIds -> documentTypeRepository.findAllByIds(missingIds.toArray(Long[]::new)),
+        DocumentTypeDTO::getId);
+  }
+
+  /** Resolves all documentation offices of the ids with at most one query for the missing ids. */
+  public Mono<Map<UUID, DocumentationOfficeDTO>> findDocumentationOfficesByIds(UUID[] ids) {
+    return findAll(
+        ids,
+        ReferenceDataSnapshot::findDocumentationOfficeById,
+        missingIds -> documentationOfficeRepository.findAllByIds(missingIds.toArray(UUID[]::new)),
+        DocumentationOfficeDTO::getId);
+  }
+
+  public Mono<ReferenceDataSnapshot> getSnapshot() {
+    return snapshot.get();
+  }
+
+  /**
+   * Loads a new snapshot from the database and replaces the current one. Has to be called after the
+   * import of a lookup table is committed.
+   */
+  public Mono<ReferenceDataSnapshot> rebuild() {
+    return Mono.defer(() -> snapshot.load(true))
+        .flatMap(rebuiltSnapshot -> snapshot.publishRebuild().thenReturn(rebuiltSnapshot));
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void subscribeToRebuilds() {
+    snapshot.subscribeToRebuilds(() -> snapshot.load(true));
+  }
+
+  @PreDestroy
+  public void unsubscribeFromRebuilds() {
+    snapshot.unsubscribeFromRebuilds();
+  }
+
+  private <T> Mono<T> find(
+      Function<ReferenceDataSnapshot, Optional<T>> fromSnapshot, Supplier<Mono<T>> fromDatabase) {
+
+    return getSnapshot()
+        .flatMap(
+            currentSnapshot ->
+                Mono.justOrEmpty(fromSnapshot.apply(currentSnapshot))
+                    .switchIfEmpty(
+                        Mono.defer(
+                            () ->
+                                fromDatabase
+                                    .get()
+                                    .flatMap(found -> snapshot.load(false).thenReturn(found)))));
+  }
+
+  private <K, V> Mono<Map<K, V>> findAll(
+      K[] keys,
+      BiFunction<ReferenceDataSnapshot, K, Optional<V>> fromSnapshot,
+      Function<List<K>, Flux<V>> fromDatabase,
+      Function<V, K> keyExtractor) {
+
+    return getSnapshot()
+        .flatMap(
+            currentSnapshot -> {
+              Map<K, V> found = new HashMap<>();
+              List<K> missingKeys = new ArrayList<>();
+              for (K key : keys) {
+                fromSnapshot
+                    .apply(currentSnapshot, key)
+                    .ifPresentOrElse(value -> found.put(key, value), () -> missingKeys.add(key));
+              }
+
+              if (missingKeys.isEmpty()) {
+                return Mono.just(found);
+              }
+
+              return fromDatabase
+                  .apply(missingKeys)
+                  .collectList()
+                  .flatMap(
+                      loaded -> {
+                        loaded.forEach(value -> found.put(keyExtractor.apply(value), value));
+                        return loaded.isEmpty()
+                            ? Mono.just(found)
+                            : snapshot.load(false).thenReturn(found);
+                      });
+            });
+  }
+
+  private Mono<ReferenceDataSnapshot> loadFromDatabase(long version) {
+    return Mono.zip(
+            courtRepository.findAll().collectList(),
+            stateRepository.findAll().collectList(),
+            documentTypeRepository.findAll().collectList(),
+            documentationOfficeRepository.findAll().collectList())
+        .map(
+            tuple ->
+                new ReferenceDataSnapshot(
+                    version, tuple.getT1(), tuple.getT2(), tuple.getT3(), tuple.getT4()));
+  }
+}
@@ -0,0 +1,158 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.CourtDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DocumentTypeDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.TypeaheadIndex;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Immutable copy of the courts, states, document types and documentation offices with hash indexes
+ * on the keys which are used to enrich document units. The snapshots are numbered, a snapshot with
+ * a higher version was loaded later.
+ *
+ * <p>If a key is used by more than one row, the row with the lowest id is indexed. The DTOs of a
+ * snapshot are shared and must not be changed.
+ *
+ * <p>The typeahead search of courts and caselaw document types is served by a {@link
+ * TypeaheadIndex} over the same labels which the database search uses.
+ */
+public class ReferenceDataSnapshot {
+  private final long version;
+  private final Map<CourtKey, CourtDTO> courtsByTypeAndLocation;
+  private final Map<String, StateDTO> statesByJurisShortcut;
+  private final List<StateDTO> states;
+  private final Map<Long, DocumentTypeDTO> documentTypesById;
+  private final Map<String, DocumentTypeDTO> documentTypesByJurisShortcut;
+  private final Map<UUID, DocumentationOfficeDTO> documentationOfficesById;
+  private final Map<String, DocumentationOfficeDTO> documentationOfficesByLabel;
+  private final TypeaheadIndex<CourtDTO> courtTypeahead;
+  private final TypeaheadIndex<DocumentTypeDTO> caselawDocumentTypeTypeahead;
+
+  public ReferenceDataSnapshot(
+      long version,
+      Collection<CourtDTO> courts,
+      Collection<StateDTO> states,
+      Collection<DocumentTypeDTO> documentTypes,
+      Collection<DocumentationOfficeDTO> documentationOffices) {
+
+    this.version = version;
+    this.courtsByTypeAndLocation =
+        index(
+            courts,
+            CourtDTO::getId,
+            court -> new CourtKey(court.getCourttype(), court.getCourtlocation()));
+    this.statesByJurisShortcut = index(states, StateDTO::getId, StateDTO::getJurisshortcut);
+    this.states =
+        states.stream()
+            .sorted(
+                Comparator.comparing(
+                    StateDTO::getJurisshortcut, Comparator.nullsLast(Comparator.naturalOrder())))
+            .toList();
+    this.documentTypesById = index(documentTypes, DocumentTypeDTO::getId, DocumentTypeDTO::getId);
+    this.documentTypesByJurisShortcut =
+        index(documentTypes, DocumentTypeDTO::getId, DocumentTypeDTO::getJurisShortcut);
+    this.documentationOfficesById =
+        index(documentationOffices, DocumentationOfficeDTO::getId, DocumentationOfficeDTO::getId);
+    this.documentationOfficesByLabel =
+        index(
+            documentationOffices, DocumentationOfficeDTO::getId, DocumentationOfficeDTO::getLabel);
+    this.courtTypeahead =
+        TypeaheadIndex.of(
+            List.copyOf(courts), court -> concat(court.getCourttype(), court.getCourtlocation()));
+    this.caselawDocumentTypeTypeahead =
+        TypeaheadIndex.of(
+            documentTypes.stream()
+                .filter(documentType -> documentType.getDocumentType() == 'R')
+                .toList(),
+            documentType -> concat(documentType.getJurisShortcut(), documentType.getLabel()));
+  }
+
+  public long version() {
+    return version;
+  }
+
+  /** A {@code null} type or location only matches courts without type or location. */
+  public Optional<CourtDTO> findCourtByTypeAndLocation(String courtType, String courtLocation) {
+    return Optional.ofNullable(courtsByTypeAndLocation.get(new CourtKey(courtType, courtLocation)));
+  }
+
+  public Optional<StateDTO> findStateByJurisShortcut(String jurisShortcut) {
+    return find(statesByJurisShortcut, jurisShortcut);
+  }
+
+  public Optional<DocumentTypeDTO> findDocumentTypeById(Long id) {
+    return find(documentTypesById, id);
+  }
+
+  public Optional<DocumentTypeDTO> findDocumentTypeByJurisShortcut(String jurisShortcut) {
+    return find(documentTypesByJurisShortcut, jurisShortcut);
+  }
+
+  public Optional<DocumentationOfficeDTO> findDocumentationOfficeById(UUID id) {
+    return find(documentationOfficesById, id);
+  }
+
+  public Optional<DocumentationOfficeDTO> findDocumentationOfficeByLabel(String label) {
+    return find(documentationOfficesByLabel, label);
+  }
+
+  public List<CourtDTO> searchCourts(String searchString) {
+    return courtTypeahead.search(searchString);
+  }
+
+  public List<DocumentTypeDTO> searchCaselawDocumentTypes(String searchString) {
+    return caselawDocumentTypeTypeahead.search(searchString);
+  }
+
+  /** All courts ordered alphabetically by label. */
+  public List<CourtDTO> courts() {
+    return courtTypeahead.search("");
+  }
+
+  /** All caselaw document types ordered alphabetically by label. */
+  public List<DocumentTypeDTO> caselawDocumentTypes() {
+    return caselawDocumentTypeTypeahead.search("");
+  }
+
+  /** All states ordered by juris shortcut. */
+  public List<StateDTO> states() {
+    return states;
+  }
+
+  public int size() {
+    return courtsByTypeAndLocation.size()
+        + statesByJurisShortcut.size()
+        + documentTypesById.size()
+        + documentationOfficesById.size();
+  }
+
+  private static String concat(String first, String second) {
+    return Objects.toString(first, "") + " " + Objects.toString(second, "");
+  }
+
+  private static <K, V> Optional<V> find(Map<K, V> index, K key) {
+    return key == null ? Optional.empty() : Optional.ofNullable(index.get(key));
+  }
+
+  private static <K, V, I extends Comparable<I>> Map<K, V> index(
+      Collection<V> rows, Function<V, I> idExtractor, Function<V, K> keyExtractor) {
+
+    Map<K, V> index = new HashMap<>();
+    rows.stream()
+        .sorted(Comparator.comparing(idExtractor, Comparator.nullsLast(Comparator.naturalOrder())))
+        .filter(row -> keyExtractor.apply(row) != null)
+        .forEach(row -> index.putIfAbsent(keyExtractor.apply(row), row));
+    return Map.copyOf(index);
+  }
+
+  private record CourtKey(String courtType, String courtLocation) {}
+}
@@ -0,0 +1,180 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * In-memory snapshot of data which is loaded from the database as a whole and is reloaded after it
+ * changed.
+ *
+ * <p>Every load gets a new version, which the loader can put into the snapshot. A load only
+ * replaces a snapshot of an older version, so a slow load can't replace the snapshot of a later
+ * rebuild. A snapshot older than the max age is reloaded in the background while the old snapshot
+ * is still served. With a Redis template, a rebuild is published on the rebuild channel and the
+ * other instances reload their snapshot as well.
+ *
+ * @param <T> type of the snapshot
+ */
+@Slf4j
+public class ReloadableSnapshot<T> {
+  private final String name;
+  private final LongFunction<Mono<T>> loader;
+  private final ToIntFunction<T> size;
+  private final long maxAgeMillis;
+  private final ReactiveStringRedisTemplate redisTemplate;
+  private final String rebuildChannel;
+  private final String instanceId = UUID.randomUUID().toString();
+  private final AtomicReference<Loaded<T>> loaded = new AtomicReference<>();
+  private final Object lock = new Object();
+
+  private long lastVersion;
+  private long runningLoadVersion;
+  private Mono<T> runningLoad;
+  private Disposable rebuildSubscription;
+
+  /**
+   * @param name name of the snapshot in the log messages
+   * @param loader loads a snapshot of the given version from the database
+   * @param size number of entries of a snapshot, for the log messages
+   * @param maxAgeMillis age after which a snapshot is reloaded, 0 to keep it until the next rebuild
+   * @param redisTemplate template to publish and receive rebuilds, or null for a single instance
+   * @param rebuildChannel Redis channel of the rebuilds
+   */
+  public ReloadableSnapshot(
+      String name,
+      LongFunction<Mono<T>> loader,
+      ToIntFunction<T> size,
+      long maxAgeMillis,
+      ReactiveStringRedisTemplate redisTemplate,
+      String rebuildChannel) {
+
+    this.name = name;
+    this.loader = loader;
+    this.size = size;
+    this.maxAgeMillis = maxAgeMillis;
+    this.redisTemplate = redisTemplate;
+    this.rebuildChannel = rebuildChannel;
+  }
+
+  /** Returns the current snapshot, or loads the first one. */
+  public Mono<T> get() {
+    return Mono.defer(
+        () -> {
+          Loaded<T> current = loaded.get();
+          if (current == null) {
+            return load(false);
+          }
+
+          if (maxAgeMillis > 0 && System.currentTimeMillis() - current.loadedAt() > maxAgeMillis) {
+            load(false).subscribe(null, ex -> log.warn("Couldn't refresh the {}", name, ex));
+          }
+          return Mono.just(current.snapshot());
+        });
+  }
+
+  /** Returns the version of the current snapshot, or 0 before the first load. */
+  public long getVersion() {
+    Loaded<T> current = loaded.get();
+    return current == null ? 0 : current.version();
+  }
+
+  /**
+   * Loads a snapshot. Without force a running load is shared, e.g. by the first requests after the
+   * start. With force a new load is started, because a running load could miss a committed change.
+   */
+  public Mono<T> load(boolean force) {
+    synchronized (lock) {
+      if (runningLoad == null || force) {
+        long version = ++lastVersion;
+        long loadedAt = System.currentTimeMillis();
+        runningLoadVersion = version;
+        runningLoad =
+            loader
+                .apply(version)
+                .doOnNext(snapshot -> install(new Loaded<>(version, loadedAt, snapshot)))
+                .doFinally(signalType -> finishLoad(version))
+                .cache();
+      }
+
+      return runningLoad;
+    }
+  }
+
+  /** Tells the other instances to reload their snapshot. Errors are only logged. */
+  public Mono<Void> publishRebuild() {
+    if (redisTemplate == null) {
+      return Mono.empty();
+    }
+
+    return redisTemplate
+        .convertAndSend(rebuildChannel, instanceId)
+        .doOnError(ex -> log.warn("Couldn't publish rebuild of the {}", name, ex))
+        .onErrorResume(ex -> Mono.empty())
+        .then();
+  }
+
+  /**
+   * Runs the local rebuild for every rebuild published by another instance. A lost subscription is
+   * renewed.
+   */
+  public void subscribeToRebuilds(Supplier<Mono<?>> rebuildLocally) {
+    if (redisTemplate == null) {
+      return;
+    }
+
+    synchronized (lock) {
+      rebuildSubscription =
+          redisTemplate
+              .listenToChannel(rebuildChannel)
+              .filter(message -> !instanceId.equals(message.getMessage()))
+              .flatMap(message -> rebuildLocally.get().onErrorResume(ex -> Mono.empty()))
+              .doOnError(ex -> log.warn("Lost subscription to rebuilds of the {}", name, ex))
+              .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)))
+              .subscribe();
+    }
+  }
+
+  public void unsubscribeFromRebuilds() {
+    synchronized (lock) {
+      if (rebuildSubscription != null) {
+        rebuildSubscription.dispose();
+        rebuildSubscription = null;
+      }
+    }
+  }
+
+  private void install(Loaded<T> newSnapshot) {
+    Loaded<T> installedSnapshot =
+        loaded.accumulateAndGet(
+            newSnapshot,
+            (current, candidate) ->
+                current == null || candidate.version() > current.version() ? candidate : current);
+
+    if (installedSnapshot == newSnapshot) {
+      log.info(
+          "Loaded {} {} with {} entries",
+          name,
+          newSnapshot.version(),
+          size.applyAsInt(newSnapshot.snapshot()));
+    }
+  }
+
+  private void finishLoad(long version) {
+    synchronized (lock) {
+      if (runningLoadVersion == version) {
+        runningLoad = null;
+      }
+    }
+  }
+
+  private record Loaded<T>(long version, long loadedAt, T snapshot) {}
+}
@@ -14,7 +14,8 @@ public interface DatabaseCourtRepository extends R2dbcRepository<CourtDTO, Long>
   Flux<CourtDTO> findAllByOrderByCourttypeAscCourtlocationAsc();
 
   /*
-  The query gets all rows where searchStr is anywhere in the label.
+  The query gets all rows where searchStr is anywhere in the label. The label is built with the
+  same expression as the trigram index lookuptable_court_label_trgm_idx, so the LIKE can use it.
   The CASE statements are used to order the results into 3 priority classes:
 
   1. searchStr is start of label
@@ -26,19 +27,18 @@ public interface DatabaseCourtRepository extends R2dbcRepository<CourtDTO, Long>
   Within a priority class, ordering is alphabetical.
   */
   @Query(
-      "WITH label_added AS (SELECT *, "
-          + "                            UPPER(CONCAT(courttype, ' ', courtlocation)) AS label "
-          + "                     from lookuptable_court) "
-          + "SELECT *,"
-          + "       label, "
+      "SELECT *, "
           + "       CASE "
           + "           WHEN label LIKE UPPER(:searchStr||'%') THEN 1 "
           + "           WHEN label LIKE UPPER('% '||:searchStr||'%') THEN 2 "
           + "           WHEN label LIKE UPPER('%-'||:searchStr||'%') THEN 2 "
           + "           ELSE 3 "
           + "           END AS weight "
-          + "FROM label_added "
-          + "WHERE label LIKE UPPER('%'||:searchStr||'%') "
+          + "FROM (SELECT *, "
+          + "             UPPER(COALESCE(courttype, '') || ' ' || COALESCE(courtlocation, '')) AS label "
+          + "      FROM lookuptable_court "
+          + "      WHERE UPPER(COALESCE(courttype, '') || ' ' || COALESCE(courtlocation, '')) "
+          + "            LIKE UPPER('%'||:searchStr||'%')) AS matches "
           + "ORDER BY weight, label")
   Flux<CourtDTO> findBySearchStr(String searchStr);
 }
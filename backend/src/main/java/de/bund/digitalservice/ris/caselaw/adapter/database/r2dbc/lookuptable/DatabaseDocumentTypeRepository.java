@@ -13,21 +13,25 @@ public interface DatabaseDocumentTypeRepository extends R2dbcRepository<Document
 
   Flux<DocumentTypeDTO> findAllByDocumentTypeOrderByJurisShortcutAscLabelAsc(char documentType);
 
-  // see query explanation in CourtRepository, it's almost the same
+  @Query("SELECT * FROM lookuptable_documenttype WHERE id = ANY(:ids)")
+  Flux<DocumentTypeDTO> findAllByIds(Long[] ids);
+
+  // see query explanation in CourtRepository, it's almost the same. The label uses the expression
+  // of the trigram index lookuptable_documenttype_label_trgm_idx.
   @Query(
-      "WITH label_added AS (SELECT *, "
-          + "                            UPPER(CONCAT(juris_shortcut, ' ', label)) AS concat"
-          + "                     from lookuptable_documenttype) "
-          + "SELECT *,"
-          + "       concat, "
+      "SELECT *, "
           + "       CASE "
           + "           WHEN concat LIKE UPPER(:searchStr||'%') THEN 1 "
           + "           WHEN concat LIKE UPPER('% '||:searchStr||'%') THEN 2 "
           + "           WHEN concat LIKE UPPER('%-'||:searchStr||'%') THEN 2 "
           + "           ELSE 3 "
           + "           END AS weight "
-          + "FROM label_added "
-          + "WHERE concat LIKE UPPER('%'||:searchStr||'%') AND document_type = 'R' "
+          + "FROM (SELECT *, "
+          + "             UPPER(COALESCE(juris_shortcut, '') || ' ' || COALESCE(label, '')) AS concat "
+          + "      FROM lookuptable_documenttype "
+          + "      WHERE UPPER(COALESCE(juris_shortcut, '') || ' ' || COALESCE(label, '')) "
+          + "            LIKE UPPER('%'||:searchStr||'%') "
+          + "        AND document_type = 'R') AS matches "
           + "ORDER BY weight, concat")
   Flux<DocumentTypeDTO> findCaselawBySearchStr(String searchStr);
 }
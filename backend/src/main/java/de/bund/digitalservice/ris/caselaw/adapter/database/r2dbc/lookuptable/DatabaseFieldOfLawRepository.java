@@ -22,58 +22,25 @@ public interface DatabaseFieldOfLawRepository extends R2dbcRepository<FieldOfLaw
           + ") ORDER BY identifier")
   Flux<FieldOfLawDTO> findAllByParentIdentifierOrderByIdentifierAsc(String identifier);
 
+  // the paths of the descendants start with the path of the field of law, with the "C" collation
+  // they are greater than its path and less than its path with the last slash replaced by '0'
   @Query(
-      "WITH param_arrays(KEY, value) AS ( "
-          + "    VALUES ('search', :searchTerms)), "
-          + "     match_counts(id, contained_matches) AS "
-          + "         (SELECT id, COUNT(id) AS contained_matches "
-          + "          FROM "
-          + "              (SELECT DISTINCT id, "
-          + "                               LOWER(array_to_string(regexp_matches(CONCAT(identifier, ' ', text), array_to_string( "
-          + "                                       (SELECT value "
-          + "                                        FROM param_arrays "
-          + "                                        WHERE KEY = 'search'), '|'), 'gi'), '')) "
-          + "               FROM lookuptable_field_of_law) AS t "
-          + "          GROUP BY id) "
-          + "SELECT t.* "
-          + "FROM lookuptable_field_of_law t "
-          + "         JOIN match_counts mc ON t.id = mc.id "
-          + "WHERE mc.contained_matches = array_length( "
-          + "        (SELECT value "
-          + "         FROM param_arrays "
-          + "         WHERE KEY = 'search'), 1);")
-  Flux<FieldOfLawDTO> findBySearchTerms(String[] searchTerms);
+      "SELECT f.* FROM lookuptable_field_of_law parent "
+          + "JOIN lookuptable_field_of_law f "
+          + "  ON f.path > parent.path AND f.path < LEFT(parent.path, -1) || '0' "
+          + "WHERE parent.identifier = :identifier AND f.depth - parent.depth <= :depth "
+          + "ORDER BY f.path")
+  Flux<FieldOfLawDTO> findAllDescendantsByIdentifierOrderByPathAsc(String identifier, int depth);
 
-  @Query(
-      "SELECT sf.* FROM lookuptable_field_of_law sf WHERE sf.id IN ( "
-          + "SELECT n.field_of_law_id FROM lookuptable_field_of_law_norm n "
-          + "WHERE LOWER(CONCAT(n.abbreviation, ' ', n.single_norm_description)) LIKE LOWER('%'||:normStr||'%') "
-          + "OR LOWER(CONCAT(n.single_norm_description, ' ', n.abbreviation)) LIKE LOWER('%'||:normStr||'%'));")
-  Flux<FieldOfLawDTO> findByNormStr(String normStr);
+  Flux<FieldOfLawDTO> findAllByDepthLessThanEqualOrderByPathAsc(int depth);
 
   @Query(
-      "WITH param_arrays(KEY, value) AS ( "
-          + "    VALUES ('search', :searchTerms)), "
-          + "     match_counts(id, contained_matches) AS "
-          + "         (SELECT id, COUNT(id) AS contained_matches "
-          + "          FROM "
-          + "              (SELECT DISTINCT id, "
-          + "                               LOWER(array_to_string(regexp_matches(CONCAT(identifier, ' ', text), array_to_string( "
-          + "                                       (SELECT value "
-          + "                                        FROM param_arrays "
-          + "                                        WHERE KEY = 'search'), '|'), 'gi'), '')) "
-          + "               FROM lookuptable_field_of_law) AS t "
-          + "          GROUP BY id) "
-          + "SELECT DISTINCT t.* "
-          + "FROM lookuptable_field_of_law t "
-          + "         JOIN match_counts mc ON t.id = mc.id "
-          + "         JOIN lookuptable_field_of_law_norm n ON t.id = n.field_of_law_id "
-          + "WHERE mc.contained_matches = array_length( "
-          + "        (SELECT value "
-          + "         FROM param_arrays "
-          + "         WHERE KEY = 'search'), 1)"
-          + "  AND LOWER(CONCAT(n.single_norm_description, ' ', n.abbreviation)) LIKE LOWER('%'||:normStr||'%');")
-  Flux<FieldOfLawDTO> findByNormStrAndSearchTerms(String normStr, String[] searchTerms);
+      "SELECT ancestor.* FROM lookuptable_field_of_law f "
+          + "JOIN lookuptable_field_of_law ancestor "
+          + "  ON ancestor.identifier = ANY(string_to_array(LEFT(f.path, -1), '/')) "
+          + "WHERE f.identifier = :identifier "
+          + "ORDER BY ancestor.path")
+  Flux<FieldOfLawDTO> findAllAncestorsAndSelfByIdentifierOrderByPathAsc(String identifier);
 
   @Query(
       "SELECT * FROM lookuptable_field_of_law "
@@ -0,0 +1,30 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
+
+import java.util.UUID;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface DatabaseLookupTableImportJobRepository
+    extends R2dbcRepository<LookupTableImportJobDTO, UUID> {
+
+  /**
+   * Finishes the unfinished jobs of the table with the phase and the message. Has to be called
+   * while holding the import lock of the table, then these jobs were interrupted.
+   */
+  @Modifying
+  @Query(
+      "UPDATE lookup_table_import_job SET phase = $2, message = $3, finished_at = now() "
+          + "WHERE table_name = $1 AND finished_at IS NULL")
+  Mono<Integer> finishUnfinishedJobs(String tableName, String phase, String message);
+
+  /** Deletes the finished jobs which are not among the newest jobs. */
+  @Modifying
+  @Query(
+      "DELETE FROM lookup_table_import_job WHERE finished_at IS NOT NULL AND id NOT IN "
+          + "(SELECT id FROM lookup_table_import_job ORDER BY started_at DESC LIMIT $1)")
+  Mono<Integer> deleteFinishedJobsExceptNewest(int retainedJobs);
+}
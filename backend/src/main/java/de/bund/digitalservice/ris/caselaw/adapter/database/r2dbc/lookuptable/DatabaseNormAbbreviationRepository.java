@@ -11,7 +11,10 @@ public interface DatabaseNormAbbreviationRepository
   @Query("select * from norm_abbreviation limit :size")
   Flux<NormAbbreviationDTO> findAll(int size);
 
+  // the prefix search reads the range of the prefix in order from
+  // norm_abbreviation_abbreviation_c_idx. The order is the one of NormAbbreviationIndex.
   @Query(
-      "select * from norm_abbreviation where abbreviation like :query||'%' order by abbreviation limit :size offset :pageOffset")
+      "select * from norm_abbreviation where abbreviation collate \"C\" like :query||'%' "
+          + "order by abbreviation collate \"C\" limit :size offset :pageOffset")
   Flux<NormAbbreviationDTO> findBySearchQuery(String query, Integer size, Integer pageOffset);
 }
@@ -27,6 +27,8 @@ public class FieldOfLawDTO implements Persistable<Long> {
   String identifier;
   String text;
   String navigationTerm;
+  String path;
+  Integer depth;
   @Transient List<FieldOfLawDTO> linkedFieldsOfLaw;
   @Transient List<FieldOfLawKeywordDTO> keywords;
   @Transient List<NormDTO> norms;
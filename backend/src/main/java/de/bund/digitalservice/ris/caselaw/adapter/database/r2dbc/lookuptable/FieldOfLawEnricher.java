@@ -0,0 +1,131 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Adds the keywords, the norms and the linked fields of law to a page of fields of law. The page
+ * costs three queries independent of its size: one for the keywords, one for the norms and one for
+ * the links joined with the linked fields of law.
+ */
+@Component
+public class FieldOfLawEnricher {
+
+  private static final String SELECT_KEYWORDS =
+      "SELECT k.field_of_law_id, k.id, k.value "
+          + "FROM lookuptable_field_of_law_keyword k "
+          + "WHERE k.field_of_law_id = ANY(:ids) "
+          + "ORDER BY k.field_of_law_id, k.value";
+
+  private static final String SELECT_NORMS =
+      "SELECT n.field_of_law_id, n.id, n.abbreviation, n.single_norm_description "
+          + "FROM lookuptable_field_of_law_norm n "
+          + "WHERE n.field_of_law_id = ANY(:ids) "
+          + "ORDER BY n.field_of_law_id, n.abbreviation, n.single_norm_description";
+
+  private static final String SELECT_LINKED_FIELDS_OF_LAW =
+      "SELECT link.field_of_law_id, f.id, f.children_count, f.parent_id, f.identifier, f.text "
+          + "FROM lookuptable_field_of_law_link link "
+          + "JOIN lookuptable_field_of_law f ON f.id = link.linked_field_of_law_id "
+          + "WHERE link.field_of_law_id = ANY(:ids) "
+          + "ORDER BY link.field_of_law_id, link.id";
+
+  private final R2dbcEntityTemplate template;
+
+  public FieldOfLawEnricher(R2dbcEntityTemplate template) {
+    this.template = template;
+  }
+
+  /**
+   * Sets the keywords, norms and linked fields of law of all fields of law. Fields of law without
+   * them get empty lists. The keywords are ordered by value, the norms by abbreviation and
+   * description.
+   */
+  public Mono<List<FieldOfLawDTO>> enrich(List<FieldOfLawDTO> fieldsOfLaw) {
+    if (fieldsOfLaw.isEmpty()) {
+      return Mono.just(fieldsOfLaw);
+    }
+
+    Long[] ids =
+        fieldsOfLaw.stream()
+            .map(FieldOfLawDTO::getId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toArray(Long[]::new);
+
+    return Mono.zip(
+            findLinked(SELECT_KEYWORDS, ids, this::mapKeyword),
+            findLinked(SELECT_NORMS, ids, this::mapNorm),
+            findLinked(SELECT_LINKED_FIELDS_OF_LAW, ids, this::mapLinkedFieldOfLaw))
+        .map(
+            tuple -> {
+              for (FieldOfLawDTO fieldOfLaw : fieldsOfLaw) {
+                fieldOfLaw.setKeywords(
+                    new ArrayList<>(tuple.getT1().getOrDefault(fieldOfLaw.getId(), List.of())));
+                fieldOfLaw.setNorms(
+                    new ArrayList<>(tuple.getT2().getOrDefault(fieldOfLaw.getId(), List.of())));
+                fieldOfLaw.setLinkedFieldsOfLaw(
+                    new ArrayList<>(tuple.getT3().getOrDefault(fieldOfLaw.getId(), List.of())));
+              }
+              return fieldsOfLaw;
+            });
+  }
+
+  private <T> Mono<Map<Long, List<T>>> findLinked(
+      String sql, Long[] ids, BiFunction<Row, RowMetadata, T> rowMapper) {
+
+    return template
+        .getDatabaseClient()
+        .sql(sql)
+        .bind("ids", ids)
+        .map(
+            (row, metadata) ->
+                new LinkedRow<>(
+                    row.get("field_of_law_id", Long.class), rowMapper.apply(row, metadata)))
+        .all()
+        .collect(
+            HashMap::new,
+            (linkedRows, linkedRow) ->
+                linkedRows
+                    .computeIfAbsent(linkedRow.fieldOfLawId(), id -> new ArrayList<>())
+                    .add(linkedRow.value()));
+  }
+
+  private FieldOfLawKeywordDTO mapKeyword(Row row, RowMetadata metadata) {
+    return FieldOfLawKeywordDTO.builder()
+        .id(row.get("id", Long.class))
+        .fieldOfLawId(row.get("field_of_law_id", Long.class))
+        .value(row.get("value", String.class))
+        .build();
+  }
+
+  private NormDTO mapNorm(Row row, RowMetadata metadata) {
+    return NormDTO.builder()
+        .id(row.get("id", Long.class))
+        .fieldOfLawId(row.get("field_of_law_id", Long.class))
+        .abbreviation(row.get("abbreviation", String.class))
+        .singleNormDescription(row.get("single_norm_description", String.class))
+        .build();
+  }
+
+  private FieldOfLawDTO mapLinkedFieldOfLaw(Row row, RowMetadata metadata) {
+    return FieldOfLawDTO.builder()
+        .id(row.get("id", Long.class))
+        .childrenCount(row.get("children_count", Integer.class))
+        .parentId(row.get("parent_id", Long.class))
+        .identifier(row.get("identifier", String.class))
+        .text(row.get("text", String.class))
+        .build();
+  }
+
+  private record LinkedRow<T>(Long fieldOfLawId, T value) {}
+}
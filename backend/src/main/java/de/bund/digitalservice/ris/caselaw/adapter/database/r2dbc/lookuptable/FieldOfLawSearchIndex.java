@@ -0,0 +1,269 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
+
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldOfLawScore;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.Norm;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable inverted index for the search of the fields of law of a {@link FieldOfLawTree}.
+ *
+ * <p>The identifier and the text of a field of law are split into words at whitespace. A search
+ * term never contains whitespace, so it is contained in the identifier or text if and only if it is
+ * contained in one of the words. Every word has a posting list of its fields of law and all
+ * suffixes of all words are kept sorted, so the words containing a term are the range of suffixes
+ * starting with the term. The norms are indexed the same way, the words of a norm string only
+ * select the candidates which are then compared with the whole norm string.
+ *
+ * <p>A field of law matches if it contains all search terms and has a norm containing the norm
+ * string, both case-insensitive. The matches are scored with {@link FieldOfLawScore} and only the
+ * best matches up to the requested page are kept. Matches with the same score are ordered by the
+ * identifier.
+ */
+class FieldOfLawSearchIndex {
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private final String[] identifiers;
+  private final String[] texts;
+  private final List<List<Norm>> norms;
+  private final List<List<String>> normStrings;
+  private final WordIndex textWords;
+  private final WordIndex normWords;
+  private final BitSet nodesWithNorms;
+
+  FieldOfLawSearchIndex(String[] identifiers, String[] texts, List<List<Norm>> norms) {
+    int size = identifiers.length;
+    this.identifiers = identifiers;
+    this.texts = texts;
+    this.norms = norms;
+
+    List<List<String>> textWordsByNode = new ArrayList<>(size);
+    List<List<String>> normWordsByNode = new ArrayList<>(size);
+    List<List<String>> normStringsByNode = new ArrayList<>(size);
+    this.nodesWithNorms = new BitSet(size);
+    for (int node = 0; node < size; node++) {
+      textWordsByNode.add(words(concat(identifiers[node], texts[node] == null ? "" : texts[node])));
+
+      List<String> nodeNormWords = new ArrayList<>();
+      List<String> nodeNormStrings = new ArrayList<>();
+      for (Norm norm : norms.get(node)) {
+        String abbreviation = norm.abbreviation() == null ? "" : norm.abbreviation();
+        String description =
+            norm.singleNormDescription() == null ? "" : norm.singleNormDescription();
+        nodeNormWords.addAll(words(concat(abbreviation, description)));
+        nodeNormStrings.add(concat(abbreviation, description).toLowerCase());
+        nodeNormStrings.add(concat(description, abbreviation).toLowerCase());
+      }
+      if (!norms.get(node).isEmpty()) {
+        nodesWithNorms.set(node);
+      }
+      normWordsByNode.add(nodeNormWords);
+      normStringsByNode.add(nodeNormStrings);
+    }
+
+    this.normStrings = normStringsByNode;
+    this.textWords = new WordIndex(textWordsByNode);
+    this.normWords = new WordIndex(normWordsByNode);
+  }
+
+  /**
+   * Returns the best matches from the offset on, at most size. Without search terms or norm string
+   * only the other condition applies, without both nothing matches.
+   */
+  SearchResult search(String normStr, String[] searchTerms, int offset, int size) {
+    BitSet matches = matches(normStr, searchTerms);
+    int totalElements = matches.cardinality();
+    int limit = (int) Math.min((long) Math.max(offset, 0) + Math.max(size, 0), totalElements);
+    if (offset >= totalElements || limit <= 0) {
+      return new SearchResult(new int[0], new int[0], totalElements);
+    }
+
+    // min heap of the best matches, the score is in the upper bits and a lower node ranks higher
+    PriorityQueue<Long> best = new PriorityQueue<>(limit + 1);
+    for (int node = matches.nextSetBit(0); node >= 0; node = matches.nextSetBit(node + 1)) {
+      int score =
+          FieldOfLawScore.calculate(
+              identifiers[node], texts[node], norms.get(node), searchTerms, normStr);
+      best.add(((long) score << 32) | (Integer.MAX_VALUE - node));
+      if (best.size() > limit) {
+        best.poll();
+      }
+    }
+
+    long[] ranked = new long[best.size()];
+    for (int i = ranked.length - 1; i >= 0; i--) {
+      ranked[i] = best.poll();
+    }
+    int[] nodes = new int[ranked.length - offset];
+    int[] scores = new int[nodes.length];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = Integer.MAX_VALUE - (int) ranked[offset + i];
+      scores[i] = (int) (ranked[offset + i] >>> 32);
+    }
+    return new SearchResult(nodes, scores, totalElements);
+  }
+
+  private BitSet matches(String normStr, String[] searchTerms) {
+    BitSet matches = null;
+    if (searchTerms != null) {
+      for (String searchTerm : searchTerms) {
+        matches = and(matches, textWords.nodesContaining(searchTerm.toLowerCase()));
+      }
+    }
+    if (normStr != null) {
+      matches = and(matches, nodesWithNormContaining(normStr.toLowerCase()));
+    }
+    return matches == null ? new BitSet() : matches;
+  }
+
+  private BitSet nodesWithNormContaining(String normStr) {
+    BitSet candidates = (BitSet) nodesWithNorms.clone();
+    for (String word : words(normStr)) {
+      candidates.and(normWords.nodesContaining(word));
+    }
+
+    BitSet matches = new BitSet();
+    for (int node = candidates.nextSetBit(0); node >= 0; node = candidates.nextSetBit(node + 1)) {
+      if (normStrings.get(node).stream().anyMatch(normString -> normString.contains(normStr))) {
+        matches.set(node);
+      }
+    }
+    return matches;
+  }
+
+  private static BitSet and(BitSet matches, BitSet termMatches) {
+    if (matches == null) {
+      return termMatches;
+    }
+    matches.and(termMatches);
+    return matches;
+  }
+
+  private static String concat(String first, String second) {
+    return first + " " + second;
+  }
+
+  private static List<String> words(String value) {
+    return Arrays.stream(WHITESPACE.split(value.toLowerCase()))
+        .filter(word -> !word.isEmpty())
+        .toList();
+  }
+
+  record SearchResult(int[] nodes, int[] scores, int totalElements) {}
+
+  /** Posting lists of lowercase words and the sorted suffixes of all words. */
+  private static class WordIndex {
+    private final int nodeCount;
+    private final String[] words;
+    private final int[] firstPostings;
+    private final int[] postings;
+    private final int[] suffixWords;
+    private final int[] suffixOffsets;
+
+    WordIndex(List<List<String>> wordsByNode) {
+      this.nodeCount = wordsByNode.size();
+      Map<String, List<Integer>> nodesByWord = new HashMap<>();
+      for (int node = 0; node < nodeCount; node++) {
+        Set<String> nodeWords = new LinkedHashSet<>(wordsByNode.get(node));
+        for (String word : nodeWords) {
+          nodesByWord.computeIfAbsent(word, key -> new ArrayList<>()).add(node);
+        }
+      }
+
+      this.words = nodesByWord.keySet().stream().sorted().toArray(String[]::new);
+      this.firstPostings = new int[words.length + 1];
+      for (int i = 0; i < words.length; i++) {
+        firstPostings[i + 1] = firstPostings[i] + nodesByWord.get(words[i]).size();
+      }
+      this.postings = new int[firstPostings[words.length]];
+      int suffixCount = 0;
+      for (int i = 0; i < words.length; i++) {
+        List<Integer> nodes = nodesByWord.get(words[i]);
+        for (int j = 0; j < nodes.size(); j++) {
+          postings[firstPostings[i] + j] = nodes.get(j);
+        }
+        suffixCount += words[i].length();
+      }
+
+      Integer[] suffixes = new Integer[suffixCount];
+      int[] unsortedWords = new int[suffixCount];
+      int[] unsortedOffsets = new int[suffixCount];
+      int suffix = 0;
+      for (int i = 0; i < words.length; i++) {
+        for (int offset = 0; offset < words[i].length(); offset++) {
+          suffixes[suffix] = suffix;
+          unsortedWords[suffix] = i;
+          unsortedOffsets[suffix] = offset;
+          suffix++;
+        }
+      }
+      Arrays.sort(
+          suffixes,
+          (a, b) ->
+              compareSuffix(
+                  words[unsortedWords[a]],
+                  unsortedOffsets[a],
+                  words[unsortedWords[b]],
+                  unsortedOffsets[b]));
+      this.suffixWords = new int[suffixCount];
+      this.suffixOffsets = new int[suffixCount];
+      for (int i = 0; i < suffixCount; i++) {
+        suffixWords[i] = unsortedWords[suffixes[i]];
+        suffixOffsets[i] = unsortedOffsets[suffixes[i]];
+      }
+    }
+
+    /** Returns the nodes with a word containing the lowercase term. */
+    BitSet nodesContaining(String term) {
+      BitSet nodes = new BitSet(nodeCount);
+      BitSet visitedWords = new BitSet(words.length);
+      for (int i = lowerBound(term);
+          i < suffixWords.length && words[suffixWords[i]].startsWith(term, suffixOffsets[i]);
+          i++) {
+        int word = suffixWords[i];
+        if (!visitedWords.get(word)) {
+          visitedWords.set(word);
+          for (int posting = firstPostings[word]; posting < firstPostings[word + 1]; posting++) {
+            nodes.set(postings[posting]);
+          }
+        }
+      }
+      return nodes;
+    }
+
+    private int lowerBound(String term) {
+      int low = 0;
+      int high = suffixWords.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (compareSuffix(words[suffixWords[middle]], suffixOffsets[middle], term, 0) < 0) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    private static int compareSuffix(String a, int offsetA, String b, int offsetB) {
+      int lengthA = a.length() - offsetA;
+      int lengthB = b.length() - offsetB;
+      int length = Math.min(lengthA, lengthB);
+      for (int i = 0; i < length; i++) {
+        int comparison = Character.compare(a.charAt(offsetA + i), b.charAt(offsetB + i));
+        if (comparison != 0) {
+          return comparison;
+        }
+      }
+      return Integer.compare(lengthA, lengthB);
+    }
+  }
+}
@@ -0,0 +1,289 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawSearchIndex.SearchResult;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldOfLaw;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.Keyword;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.Norm;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Immutable in-memory tree of all fields of law with their keywords, norms and linked fields.
+ *
+ * <p>The nodes are kept in arrays sorted by the identifier. Every node knows the position of its
+ * parent, the children of all nodes are stored one after another in a single array, so the children
+ * of a node are a range of it and are ordered by the identifier like the database queries. The
+ * keywords, norms and identifiers of the linked fields are preassembled. The search uses a {@link
+ * FieldOfLawSearchIndex} over the same nodes.
+ *
+ * <p>Every returned field of law is a new object with an empty, modifiable list of children.
+ */
+public class FieldOfLawTree {
+  private static final int NO_PARENT = -1;
+
+  private static final Comparator<NormDTO> NORM_ORDER =
+      Comparator.comparing(NormDTO::getAbbreviation, Comparator.nullsLast(String::compareTo))
+          .thenComparing(
+              NormDTO::getSingleNormDescription, Comparator.nullsLast(String::compareTo));
+
+  private final FieldOfLawDTO[] nodes;
+  private final int[] parents;
+  private final int[] firstChildren;
+  private final int[] children;
+  private final int[] topLevelNodes;
+  private final Map<String, Integer> nodesByIdentifier;
+  private final List<List<Keyword>> keywords;
+  private final List<List<Norm>> norms;
+  private final List<List<String>> linkedFields;
+  private final FieldOfLawSearchIndex searchIndex;
+
+  private FieldOfLawTree(
+      FieldOfLawDTO[] nodes,
+      Collection<FieldOfLawKeywordDTO> keywordDTOs,
+      Collection<NormDTO> normDTOs,
+      Collection<FieldOfLawLinkDTO> linkDTOs) {
+
+    int size = nodes.length;
+    this.nodes = nodes;
+    this.nodesByIdentifier = new HashMap<>(size * 2);
+    Map<Long, Integer> nodesById = new HashMap<>(size * 2);
+    for (int i = 0; i < size; i++) {
+      nodesByIdentifier.put(nodes[i].getIdentifier(), i);
+      nodesById.put(nodes[i].getId(), i);
+    }
+
+    this.parents = new int[size];
+    int[] childrenCounts = new int[size];
+    int topLevelCount = 0;
+    for (int i = 0; i < size; i++) {
+      Integer parent =
+          nodes[i].getParentId() == null ? null : nodesById.get(nodes[i].getParentId());
+      parents[i] = parent == null ? NO_PARENT : parent;
+      if (parent == null) {
+        topLevelCount++;
+      } else {
+        childrenCounts[parent]++;
+      }
+    }
+
+    // the nodes are sorted, so filling the ranges in node order sorts the children
+    this.firstChildren = new int[size + 1];
+    for (int i = 0; i < size; i++) {
+      firstChildren[i + 1] = firstChildren[i] + childrenCounts[i];
+    }
+    this.children = new int[firstChildren[size]];
+    this.topLevelNodes = new int[topLevelCount];
+    int[] nextChildren = Arrays.copyOf(firstChildren, size);
+    int nextTopLevelNode = 0;
+    for (int i = 0; i < size; i++) {
+      if (parents[i] == NO_PARENT) {
+        topLevelNodes[nextTopLevelNode++] = i;
+      } else {
+        children[nextChildren[parents[i]]++] = i;
+      }
+    }
+
+    this.keywords =
+        groupByNode(
+            keywordDTOs,
+            FieldOfLawKeywordDTO::getFieldOfLawId,
+            Comparator.comparing(
+                FieldOfLawKeywordDTO::getValue, Comparator.nullsLast(String::compareTo)),
+            keywordDTO -> Keyword.builder().value(keywordDTO.getValue()).build(),
+            nodesById);
+    this.norms =
+        groupByNode(
+            normDTOs,
+            NormDTO::getFieldOfLawId,
+            NORM_ORDER,
+            normDTO ->
+                Norm.builder()
+                    .abbreviation(normDTO.getAbbreviation())
+                    .singleNormDescription(normDTO.getSingleNormDescription())
+                    .build(),
+            nodesById);
+    this.linkedFields =
+        groupByNode(
+            linkDTOs.stream()
+                .filter(linkDTO -> nodesById.containsKey(linkDTO.getLinkedFieldOfLawId()))
+                .toList(),
+            FieldOfLawLinkDTO::getFieldOfLawId,
+            Comparator.comparing(linkDTO -> nodesById.get(linkDTO.getLinkedFieldOfLawId())),
+            linkDTO -> nodes[nodesById.get(linkDTO.getLinkedFieldOfLawId())].getIdentifier(),
+            nodesById);
+
+    this.searchIndex =
+        new FieldOfLawSearchIndex(
+            Arrays.stream(nodes).map(FieldOfLawDTO::getIdentifier).toArray(String[]::new),
+            Arrays.stream(nodes).map(FieldOfLawDTO::getText).toArray(String[]::new),
+            norms);
+  }
+
+  public static FieldOfLawTree of(
+      Collection<FieldOfLawDTO> fieldOfLawDTOs,
+      Collection<FieldOfLawKeywordDTO> keywordDTOs,
+      Collection<NormDTO> normDTOs,
+      Collection<FieldOfLawLinkDTO> linkDTOs) {
+
+    FieldOfLawDTO[] nodes =
+        fieldOfLawDTOs.stream()
+            .filter(fieldOfLawDTO -> fieldOfLawDTO.getId() != null)
+            .filter(fieldOfLawDTO -> fieldOfLawDTO.getIdentifier() != null)
+            .sorted(Comparator.comparing(FieldOfLawDTO::getIdentifier))
+            .toArray(FieldOfLawDTO[]::new);
+
+    return new FieldOfLawTree(nodes, keywordDTOs, normDTOs, linkDTOs);
+  }
+
+  public Optional<FieldOfLaw> findByIdentifier(String identifier) {
+    Integer node = identifier == null ? null : nodesByIdentifier.get(identifier);
+    return node == null ? Optional.empty() : Optional.of(toFieldOfLaw(node));
+  }
+
+  /**
+   * Returns the field of law and all its ancestors, ordered from the top level field of law down to
+   * the field of law itself.
+   */
+  public List<FieldOfLaw> getAncestorsAndSelf(String identifier) {
+    Integer node = identifier == null ? null : nodesByIdentifier.get(identifier);
+    if (node == null) {
+      return List.of();
+    }
+
+    List<FieldOfLaw> fieldsOfLaw = new ArrayList<>();
+    for (int ancestor = node; ancestor != NO_PARENT; ancestor = parents[ancestor]) {
+      fieldsOfLaw.add(toFieldOfLaw(ancestor));
+    }
+    Collections.reverse(fieldsOfLaw);
+    return fieldsOfLaw;
+  }
+
+  public List<FieldOfLaw> getTopLevelNodes() {
+    return toFieldsOfLaw(topLevelNodes, 0, topLevelNodes.length);
+  }
+
+  public List<FieldOfLaw> getChildren(String identifier) {
+    Integer node = identifier == null ? null : nodesByIdentifier.get(identifier);
+    if (node == null) {
+      return List.of();
+    }
+    return toFieldsOfLaw(children, firstChildren[node], firstChildren[node + 1]);
+  }
+
+  /**
+   * Returns the children of the field of law, or the top level fields of law for a null identifier,
+   * with their descendants down to the given number of levels added as children.
+   */
+  public List<FieldOfLaw> getChildren(String identifier, int depth) {
+    if (identifier == null) {
+      return withDescendants(topLevelNodes, 0, topLevelNodes.length, depth);
+    }
+
+    Integer node = nodesByIdentifier.get(identifier);
+    if (node == null) {
+      return List.of();
+    }
+    return withDescendants(children, firstChildren[node], firstChildren[node + 1], depth);
+  }
+
+  /**
+   * Returns the page of the fields of law which contain all search terms and have a norm which
+   * contains the norm string, ordered by their score and the identifier.
+   */
+  public Page<FieldOfLaw> search(String normStr, String[] searchTerms, Pageable pageable) {
+    SearchResult result =
+        pageable.isPaged()
+            ? searchIndex.search(
+                normStr, searchTerms, (int) pageable.getOffset(), pageable.getPageSize())
+            : searchIndex.search(normStr, searchTerms, 0, Integer.MAX_VALUE);
+
+    List<FieldOfLaw> fieldsOfLaw = new ArrayList<>(result.nodes().length);
+    for (int i = 0; i < result.nodes().length; i++) {
+      fieldsOfLaw.add(
+          toFieldOfLaw(result.nodes()[i]).toBuilder().score(result.scores()[i]).build());
+    }
+    return new PageImpl<>(fieldsOfLaw, pageable, result.totalElements());
+  }
+
+  public int size() {
+    return nodes.length;
+  }
+
+  private List<FieldOfLaw> toFieldsOfLaw(int[] positions, int from, int to) {
+    List<FieldOfLaw> fieldsOfLaw = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      fieldsOfLaw.add(toFieldOfLaw(positions[i]));
+    }
+    return fieldsOfLaw;
+  }
+
+  private List<FieldOfLaw> withDescendants(int[] positions, int from, int to, int depth) {
+    List<FieldOfLaw> fieldsOfLaw = toFieldsOfLaw(positions, from, to);
+    if (depth > 1) {
+      for (int i = from; i < to; i++) {
+        int node = positions[i];
+        fieldsOfLaw
+            .get(i - from)
+            .children()
+            .addAll(
+                withDescendants(children, firstChildren[node], firstChildren[node + 1], depth - 1));
+      }
+    }
+    return fieldsOfLaw;
+  }
+
+  private FieldOfLaw toFieldOfLaw(int node) {
+    FieldOfLawDTO fieldOfLawDTO = nodes[node];
+    return FieldOfLaw.builder()
+        .id(fieldOfLawDTO.getId())
+        .childrenCount(fieldOfLawDTO.getChildrenCount())
+        .identifier(fieldOfLawDTO.getIdentifier())
+        .text(fieldOfLawDTO.getText())
+        .linkedFields(linkedFields.get(node))
+        .keywords(keywords.get(node))
+        .norms(norms.get(node))
+        .children(new ArrayList<>())
+        .build();
+  }
+
+  private <T, R> List<List<R>> groupByNode(
+      Collection<T> values,
+      Function<T, Long> fieldOfLawId,
+      Comparator<T> order,
+      Function<T, R> transformation,
+      Map<Long, Integer> nodesById) {
+
+    List<List<T>> valuesByNode = new ArrayList<>(nodes.length);
+    for (int i = 0; i < nodes.length; i++) {
+      valuesByNode.add(null);
+    }
+    for (T value : values) {
+      Integer node = nodesById.get(fieldOfLawId.apply(value));
+      if (node != null) {
+        if (valuesByNode.get(node) == null) {
+          valuesByNode.set(node, new ArrayList<>());
+        }
+        valuesByNode.get(node).add(value);
+      }
+    }
+
+    return valuesByNode.stream()
+        .map(
+            nodeValues ->
+                nodeValues == null
+                    ? List.<R>of()
+                    : nodeValues.stream().sorted(order).map(transformation).toList())
+        .toList();
+  }
+}
@@ -0,0 +1,117 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReloadableSnapshot;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Holds the {@link FieldOfLawTree} of all fields of law. The tree is built after the start and is
+ * rebuilt with {@link #rebuild()} after the fields of law are imported. The rebuild is published on
+ * a Redis channel, so all other instances rebuild their tree as well. If a message is lost, a tree
+ * older than the max age is rebuilt in the background while the old tree is still served.
+ */
+@Component
+@Slf4j
+public class FieldOfLawTreeCache {
+  private final DatabaseFieldOfLawRepository fieldOfLawRepository;
+  private final FieldOfLawKeywordRepository keywordRepository;
+  private final NormRepository normRepository;
+  private final FieldOfLawLinkRepository linkRepository;
+  private final boolean enabled;
+  private final ReloadableSnapshot<FieldOfLawTree> tree;
+  private final AtomicLong uncachedVersion = new AtomicLong();
+
+  public FieldOfLawTreeCache(
+      DatabaseFieldOfLawRepository fieldOfLawRepository,
+      FieldOfLawKeywordRepository keywordRepository,
+      NormRepository normRepository,
+      FieldOfLawLinkRepository linkRepository,
+      @Value("${field-of-law-tree-cache.enabled:true}") boolean enabled,
+      @Value("${field-of-law-tree-cache.max-age-millis:3600000}") long maxAgeMillis,
+      ObjectProvider<ReactiveStringRedisTemplate> redisTemplateProvider,
+      @Value("${field-of-law-tree-cache.rebuild-channel:field-of-law-tree-cache-rebuild}")
+          String rebuildChannel) {
+
+    this.fieldOfLawRepository = fieldOfLawRepository;
+    this.keywordRepository = keywordRepository;
+    this.normRepository = normRepository;
+    this.linkRepository = linkRepository;
+    this.enabled = enabled;
+    this.tree =
+        new ReloadableSnapshot<>(
+            "field of law tree",
+            version -> loadFromDatabase(),
+            FieldOfLawTree::size,
+            maxAgeMillis,
+            redisTemplateProvider.getIfAvailable(),
+            rebuildChannel);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public Mono<FieldOfLawTree> getTree() {
+    return tree.get();
+  }
+
+  /**
+   * Returns the version of the served tree. Without the cache the version only counts the rebuilds,
+   * so users of the fields of law still see when they were imported.
+   */
+  public long getVersion() {
+    return enabled ? tree.getVersion() : uncachedVersion.get();
+  }
+
+  /** Builds a new tree from the database. Has to be called after an import is committed. */
+  public Mono<Void> rebuild() {
+    return rebuildLocally().then(tree.publishRebuild());
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void buildAfterStart() {
+    if (enabled) {
+      getTree().subscribe(null, ex -> log.warn("Couldn't build the field of law tree", ex));
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void subscribeToRebuilds() {
+    tree.subscribeToRebuilds(this::rebuildLocally);
+  }
+
+  @PreDestroy
+  public void unsubscribeFromRebuilds() {
+    tree.unsubscribeFromRebuilds();
+  }
+
+  /** Loads a new tree, or only counts the version up if the cache is disabled. */
+  private Mono<FieldOfLawTree> rebuildLocally() {
+    return Mono.defer(
+        () -> {
+          if (enabled) {
+            return tree.load(true);
+          }
+
+          uncachedVersion.incrementAndGet();
+          return Mono.empty();
+        });
+  }
+
+  private Mono<FieldOfLawTree> loadFromDatabase() {
+    return Mono.zip(
+            fieldOfLawRepository.findAll().collectList(),
+            keywordRepository.findAll().collectList(),
+            normRepository.findAll().collectList(),
+            linkRepository.findAll().collectList())
+        .map(t -> FieldOfLawTree.of(t.getT1(), t.getT2(), t.getT3(), t.getT4()));
+  }
+}
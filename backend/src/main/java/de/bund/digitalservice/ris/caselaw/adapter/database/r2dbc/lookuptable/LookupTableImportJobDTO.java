@@ -0,0 +1,46 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
+
+import java.time.Instant;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("lookup_table_import_job")
+public class LookupTableImportJobDTO implements Persistable<UUID> {
+  @Id UUID id;
+
+  @Column("table_name")
+  String tableName;
+
+  String phase;
+
+  @Column("rows_processed")
+  long rowsProcessed;
+
+  @Column("started_at")
+  Instant startedAt;
+
+  @Column("finished_at")
+  Instant finishedAt;
+
+  String message;
+
+  @Transient private boolean newEntry;
+
+  @Override
+  @Transient
+  public boolean isNew() {
+    return this.newEntry || id == null;
+  }
+}
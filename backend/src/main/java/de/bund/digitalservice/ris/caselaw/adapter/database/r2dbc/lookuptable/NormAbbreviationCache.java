@@ -0,0 +1,73 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReloadableSnapshot;
+import de.bund.digitalservice.ris.caselaw.adapter.transformer.NormAbbreviationTransformer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Holds the {@link NormAbbreviationIndex} of all norm abbreviations. The index is built after the
+ * start. The norm abbreviations are migrated into the database from outside of the application, so
+ * the application doesn't know when they change. An index older than the max age is rebuilt in the
+ * background while the old index is still served, so changed norm abbreviations are served after
+ * the max age at the latest.
+ */
+@Component
+@Slf4j
+public class NormAbbreviationCache {
+  private final DatabaseNormAbbreviationRepository repository;
+  private final NormAbbreviationEnricher enricher;
+  private final boolean enabled;
+  private final ReloadableSnapshot<NormAbbreviationIndex> index;
+
+  public NormAbbreviationCache(
+      DatabaseNormAbbreviationRepository repository,
+      NormAbbreviationEnricher enricher,
+      @Value("${norm-abbreviation-cache.enabled:true}") boolean enabled,
+      @Value("${norm-abbreviation-cache.max-age-millis:3600000}") long maxAgeMillis) {
+
+    this.repository = repository;
+    this.enricher = enricher;
+    this.enabled = enabled;
+    this.index =
+        new ReloadableSnapshot<>(
+            "norm abbreviation index",
+            version -> loadFromDatabase(),
+            NormAbbreviationIndex::size,
+            maxAgeMillis,
+            null,
+            null);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public Mono<NormAbbreviationIndex> getIndex() {
+    return index.get();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void buildAfterStart() {
+    if (enabled) {
+      getIndex().subscribe(null, ex -> log.warn("Couldn't build the norm abbreviation index", ex));
+    }
+  }
+
+  private Mono<NormAbbreviationIndex> loadFromDatabase() {
+    return repository
+        .findAll()
+        .collectList()
+        .flatMap(enricher::enrichAll)
+        .map(
+            normAbbreviations ->
+                NormAbbreviationIndex.of(
+                    normAbbreviations.stream()
+                        .map(NormAbbreviationTransformer::transformDTO)
+                        .toList()));
+  }
+}
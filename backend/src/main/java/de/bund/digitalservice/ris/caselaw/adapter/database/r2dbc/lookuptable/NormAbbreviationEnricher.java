@@ -0,0 +1,141 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Adds the document types with their category label and the regions to a page of norm
+ * abbreviations. The page costs two queries independent of its size: one for the document types
+ * joined with their categories and one for the regions. The same two queries without a filter load
+ * the linked values of the whole table for the {@link NormAbbreviationCache}.
+ */
+@Component
+public class NormAbbreviationEnricher {
+
+  private static final String SELECT_DOCUMENT_TYPES =
+      "SELECT link.norm_abbreviation_id, dt.id, dt.abbreviation, dt.label, dt.multiple, "
+          + "  dt.super_label_1, dt.super_label_2, dt.document_category_id, "
+          + "  dc.label AS category_label "
+          + "FROM norm_abbreviation_document_type link "
+          + "JOIN document_type dt ON dt.id = link.document_type_id "
+          + "LEFT JOIN document_category dc ON dc.id = dt.document_category_id ";
+
+  private static final String ORDER_DOCUMENT_TYPES =
+      "ORDER BY link.norm_abbreviation_id, link.document_type_id";
+
+  private static final String SELECT_REGIONS =
+      "SELECT link.norm_abbreviation_id, r.id, r.code, r.label "
+          + "FROM norm_abbreviation_region link "
+          + "JOIN region r ON r.id = link.region_id ";
+
+  private static final String ORDER_REGIONS = "ORDER BY link.norm_abbreviation_id, link.region_id";
+
+  private static final String OF_IDS = "WHERE link.norm_abbreviation_id = ANY(:ids) ";
+
+  private final R2dbcEntityTemplate template;
+
+  public NormAbbreviationEnricher(R2dbcEntityTemplate template) {
+    this.template = template;
+  }
+
+  /**
+   * Sets the document types and regions of all norm abbreviations. Norm abbreviations without
+   * linked document types or regions get empty lists.
+   */
+  public Mono<List<NormAbbreviationDTO>> enrich(List<NormAbbreviationDTO> normAbbreviations) {
+    if (normAbbreviations.isEmpty()) {
+      return Mono.just(normAbbreviations);
+    }
+
+    UUID[] ids = normAbbreviations.stream().map(NormAbbreviationDTO::getId).toArray(UUID[]::new);
+
+    return Mono.zip(
+            findLinked(
+                SELECT_DOCUMENT_TYPES + OF_IDS + ORDER_DOCUMENT_TYPES, ids, this::mapDocumentType),
+            findLinked(SELECT_REGIONS + OF_IDS + ORDER_REGIONS, ids, this::mapRegion))
+        .map(tuple -> setLinkedValues(normAbbreviations, tuple.getT1(), tuple.getT2()));
+  }
+
+  /**
+   * Like {@link #enrich(List)} for all norm abbreviations of the table, without binding their ids.
+   */
+  public Mono<List<NormAbbreviationDTO>> enrichAll(List<NormAbbreviationDTO> normAbbreviations) {
+    return Mono.zip(
+            findLinked(SELECT_DOCUMENT_TYPES + ORDER_DOCUMENT_TYPES, null, this::mapDocumentType),
+            findLinked(SELECT_REGIONS + ORDER_REGIONS, null, this::mapRegion))
+        .map(tuple -> setLinkedValues(normAbbreviations, tuple.getT1(), tuple.getT2()));
+  }
+
+  private List<NormAbbreviationDTO> setLinkedValues(
+      List<NormAbbreviationDTO> normAbbreviations,
+      Map<UUID, List<DocumentTypeNewDTO>> documentTypes,
+      Map<UUID, List<RegionDTO>> regions) {
+
+    for (NormAbbreviationDTO normAbbreviation : normAbbreviations) {
+      normAbbreviation.setDocumentTypes(
+          documentTypes.getOrDefault(normAbbreviation.getId(), new ArrayList<>()));
+      normAbbreviation.setRegions(
+          regions.getOrDefault(normAbbreviation.getId(), new ArrayList<>()));
+    }
+
+    return normAbbreviations;
+  }
+
+  private <T> Mono<Map<UUID, List<T>>> findLinked(
+      String sql, UUID[] ids, BiFunction<Row, RowMetadata, T> rowMapper) {
+
+    GenericExecuteSpec spec = template.getDatabaseClient().sql(sql);
+    if (ids != null) {
+      spec = spec.bind("ids", ids);
+    }
+
+    return spec.map(
+            (row, metadata) ->
+                new LinkedRow<>(
+                    row.get("norm_abbreviation_id", UUID.class), rowMapper.apply(row, metadata)))
+        .all()
+        .collect(
+            HashMap::new,
+            (linkedRows, linkedRow) ->
+                linkedRows
+                    .computeIfAbsent(linkedRow.normAbbreviationId(), id -> new ArrayList<>())
+                    .add(linkedRow.value()));
+  }
+
+  private DocumentTypeNewDTO mapDocumentType(Row row, RowMetadata metadata) {
+    return DocumentTypeNewDTO.builder()
+        .id(row.get("id", UUID.class))
+        .abbreviation(row.get("abbreviation", String.class))
+        .label(row.get("label", String.class))
+        .multiple(Boolean.TRUE.equals(row.get("multiple", Boolean.class)))
+        .superLabel1(row.get("super_label_1", String.class))
+        .superLabel2(row.get("super_label_2", String.class))
+        .documentCategoryId(row.get("document_category_id", UUID.class))
+        .categoryLabel(toCharacter(row.get("category_label", String.class)))
+        .build();
+  }
+
+  private RegionDTO mapRegion(Row row, RowMetadata metadata) {
+    return RegionDTO.builder()
+        .id(row.get("id", UUID.class))
+        .code(row.get("code", String.class))
+        .label(row.get("label", String.class))
+        .build();
+  }
+
+  private static Character toCharacter(String value) {
+    return value == null || value.isEmpty() ? null : value.charAt(0);
+  }
+
+  private record LinkedRow<T>(UUID normAbbreviationId, T value) {}
+}
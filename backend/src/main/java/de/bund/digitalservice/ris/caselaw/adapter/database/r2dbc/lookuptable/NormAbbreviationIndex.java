@@ -0,0 +1,229 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
+
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.DocumentTypeNew;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.NormAbbreviation;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.Region;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Immutable in-memory index of the preassembled norm abbreviations with their document types and
+ * regions.
+ *
+ * <p>The entries are kept in an array sorted by the code points of the abbreviation, the order of
+ * the "C" collation of the database search. All abbreviations with a prefix form a range which is
+ * found with a binary search and is already in the order of the result. The ids are kept in sorted
+ * arrays of primitives. Equal document types, regions and lists of them are shared by all entries.
+ *
+ * <p>Unlike the database search the prefix is matched literally, '%' and '_' are no wildcards.
+ */
+public class NormAbbreviationIndex {
+  private final NormAbbreviation[] entries;
+  private final String[] abbreviations;
+  private final long[] idMostSignificantBits;
+  private final long[] idLeastSignificantBits;
+  private final int[] entriesById;
+
+  private NormAbbreviationIndex(NormAbbreviation[] entries) {
+    int size = entries.length;
+    this.entries = entries;
+    this.abbreviations = new String[size];
+    for (int i = 0; i < size; i++) {
+      abbreviations[i] = entries[i].abbreviation();
+    }
+
+    this.entriesById =
+        sortedPositions(size, (a, b) -> compareIds(entries[a].id(), entries[b].id()));
+    this.idMostSignificantBits = new long[size];
+    this.idLeastSignificantBits = new long[size];
+    for (int i = 0; i < size; i++) {
+      UUID id = entries[entriesById[i]].id();
+      idMostSignificantBits[i] = id.getMostSignificantBits();
+      idLeastSignificantBits[i] = id.getLeastSignificantBits();
+    }
+  }
+
+  public static NormAbbreviationIndex of(Collection<NormAbbreviation> normAbbreviations) {
+    Map<Object, Object> sharedValues = new HashMap<>();
+    NormAbbreviation[] entries =
+        normAbbreviations.stream()
+            .filter(entry -> entry.id() != null && entry.abbreviation() != null)
+            .map(entry -> compact(entry, sharedValues))
+            .sorted(
+                Comparator.comparing(
+                    NormAbbreviation::abbreviation, NormAbbreviationIndex::compareCodePoints))
+            .toArray(NormAbbreviation[]::new);
+
+    return new NormAbbreviationIndex(entries);
+  }
+
+  public Optional<NormAbbreviation> findById(UUID id) {
+    if (id == null) {
+      return Optional.empty();
+    }
+
+    int low = 0;
+    int high = entriesById.length - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison =
+          compareIds(
+              idMostSignificantBits[middle],
+              idLeastSignificantBits[middle],
+              id.getMostSignificantBits(),
+              id.getLeastSignificantBits());
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return Optional.of(entries[entriesById[middle]]);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Returns a page of the norm abbreviations which start with the query, ordered by the code
+   * points. Without size all matches after the offset are returned.
+   */
+  public List<NormAbbreviation> search(String query, Integer size, Integer offset) {
+    if (query == null) {
+      return List.of();
+    }
+
+    int from = lowerBound(query);
+    int to = endOfPrefixRange(from, query);
+    int matchCount = to - from;
+    int skip = offset == null ? 0 : Math.max(offset, 0);
+    int limit = size == null ? matchCount : Math.max(size, 0);
+    if (skip >= matchCount || limit == 0) {
+      return List.of();
+    }
+
+    int pageStart = from + skip;
+    return List.of(
+        Arrays.copyOfRange(entries, pageStart, pageStart + Math.min(limit, matchCount - skip)));
+  }
+
+  public int size() {
+    return entries.length;
+  }
+
+  private int lowerBound(String query) {
+    int low = 0;
+    int high = abbreviations.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (compareCodePoints(abbreviations[middle], query) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /** All abbreviations from the lower bound on which start with the query form a range. */
+  private int endOfPrefixRange(int from, String query) {
+    int low = from;
+    int high = abbreviations.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (abbreviations[middle].startsWith(query)) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /** Compares like the "C" collation of the database, by the code points instead of the chars. */
+  private static int compareCodePoints(String a, String b) {
+    int i = 0;
+    int j = 0;
+    while (i < a.length() && j < b.length()) {
+      int codePointA = a.codePointAt(i);
+      int codePointB = b.codePointAt(j);
+      if (codePointA != codePointB) {
+        return Integer.compare(codePointA, codePointB);
+      }
+      i += Character.charCount(codePointA);
+      j += Character.charCount(codePointB);
+    }
+    return Integer.compare(a.length() - i, b.length() - j);
+  }
+
+  private static int[] sortedPositions(int size, Comparator<Integer> comparator) {
+    Integer[] positions = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      positions[i] = i;
+    }
+    Arrays.sort(positions, comparator);
+    return Arrays.stream(positions).mapToInt(Integer::intValue).toArray();
+  }
+
+  private static int compareIds(UUID a, UUID b) {
+    return compareIds(
+        a.getMostSignificantBits(),
+        a.getLeastSignificantBits(),
+        b.getMostSignificantBits(),
+        b.getLeastSignificantBits());
+  }
+
+  private static int compareIds(
+      long mostSignificantBitsA,
+      long leastSignificantBitsA,
+      long mostSignificantBitsB,
+      long leastSignificantBitsB) {
+
+    int comparison = Long.compare(mostSignificantBitsA, mostSignificantBitsB);
+    return comparison != 0
+        ? comparison
+        : Long.compare(leastSignificantBitsA, leastSignificantBitsB);
+  }
+
+  private static NormAbbreviation compact(
+      NormAbbreviation normAbbreviation, Map<Object, Object> sharedValues) {
+
+    List<DocumentTypeNew> documentTypes = normAbbreviation.documentTypes();
+    if (documentTypes != null) {
+      documentTypes =
+          share(
+              documentTypes.stream()
+                  .map(documentType -> share(documentType, sharedValues))
+                  .toList(),
+              sharedValues);
+    }
+    List<Region> regions = normAbbreviation.regions();
+    if (regions != null) {
+      regions =
+          share(regions.stream().map(region -> share(region, sharedValues)).toList(), sharedValues);
+    }
+
+    return new NormAbbreviation(
+        normAbbreviation.id(),
+        normAbbreviation.abbreviation(),
+        normAbbreviation.decisionDate(),
+        normAbbreviation.documentId(),
+        normAbbreviation.documentNumber(),
+        share(normAbbreviation.officialLetterAbbreviation(), sharedValues),
+        normAbbreviation.officialLongTitle(),
+        normAbbreviation.officialShortTitle(),
+        normAbbreviation.source(),
+        documentTypes,
+        regions);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T share(T value, Map<Object, Object> sharedValues) {
+    return value == null ? null : (T) sharedValues.computeIfAbsent(value, key -> key);
+  }
+}
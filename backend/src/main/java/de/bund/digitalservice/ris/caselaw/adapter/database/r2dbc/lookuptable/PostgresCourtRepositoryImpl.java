@@ -1,22 +1,38 @@
 package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
 
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataCache;
 import de.bund.digitalservice.ris.caselaw.adapter.transformer.CourtTransformer;
 import de.bund.digitalservice.ris.caselaw.domain.lookuptable.court.Court;
 import de.bund.digitalservice.ris.caselaw.domain.lookuptable.court.CourtRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 
 @Repository
 public class PostgresCourtRepositoryImpl implements CourtRepository {
   private final DatabaseCourtRepository repository;
+  private final ReferenceDataCache referenceDataCache;
+  private final boolean inMemorySearch;
 
-  public PostgresCourtRepositoryImpl(DatabaseCourtRepository repository) {
+  public PostgresCourtRepositoryImpl(
+      DatabaseCourtRepository repository,
+      ReferenceDataCache referenceDataCache,
+      @Value("${lookup-table.search.in-memory:true}") boolean inMemorySearch) {
     this.repository = repository;
+    this.referenceDataCache = referenceDataCache;
+    this.inMemorySearch = inMemorySearch;
   }
 
   @Override
   public Flux<Court> findBySearchStr(String searchString) {
-    return repository.findBySearchStr(searchString).map(CourtTransformer::transformDTO);
+    if (!inMemorySearch) {
+      return repository.findBySearchStr(searchString).map(CourtTransformer::transformDTO);
+    }
+
+    return referenceDataCache
+        .getSnapshot()
+        .flatMapIterable(snapshot -> snapshot.searchCourts(searchString))
+        .map(CourtTransformer::transformDTO);
   }
 
   @Override
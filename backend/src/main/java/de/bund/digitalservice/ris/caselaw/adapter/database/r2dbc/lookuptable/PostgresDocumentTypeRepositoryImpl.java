@@ -1,23 +1,39 @@
 package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
 
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataCache;
 import de.bund.digitalservice.ris.caselaw.adapter.transformer.DocumentTypeTransformer;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentTypeRepository;
 import de.bund.digitalservice.ris.caselaw.domain.lookuptable.documenttype.DocumentType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 
 @Repository
 public class PostgresDocumentTypeRepositoryImpl implements DocumentTypeRepository {
   private final DatabaseDocumentTypeRepository repository;
+  private final ReferenceDataCache referenceDataCache;
+  private final boolean inMemorySearch;
 
-  public PostgresDocumentTypeRepositoryImpl(DatabaseDocumentTypeRepository repository) {
+  public PostgresDocumentTypeRepositoryImpl(
+      DatabaseDocumentTypeRepository repository,
+      ReferenceDataCache referenceDataCache,
+      @Value("${lookup-table.search.in-memory:true}") boolean inMemorySearch) {
     this.repository = repository;
+    this.referenceDataCache = referenceDataCache;
+    this.inMemorySearch = inMemorySearch;
   }
 
   @Override
   public Flux<DocumentType> findCaselawBySearchStr(String searchString) {
-    return repository
-        .findCaselawBySearchStr(searchString)
+    if (!inMemorySearch) {
+      return repository
+          .findCaselawBySearchStr(searchString)
+          .map(DocumentTypeTransformer::transformDTO);
+    }
+
+    return referenceDataCache
+        .getSnapshot()
+        .flatMapIterable(snapshot -> snapshot.searchCaselawDocumentTypes(searchString))
         .map(DocumentTypeTransformer::transformDTO);
   }
 
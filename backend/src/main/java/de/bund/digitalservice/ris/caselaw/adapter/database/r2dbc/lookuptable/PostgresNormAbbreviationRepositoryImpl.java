@@ -5,92 +5,81 @@ import de.bund.digitalservice.ris.caselaw.domain.lookuptable.NormAbbreviation;
 import de.bund.digitalservice.ris.caselaw.domain.lookuptable.NormAbbreviationRepository;
 import java.util.List;
 import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
+@Slf4j
 public class PostgresNormAbbreviationRepositoryImpl implements NormAbbreviationRepository {
   private final DatabaseNormAbbreviationRepository repository;
-  private final DatabaseDocumentTypeNewRepository documentTypeRepository;
-  private final DatabaseNormAbbreviationDocumentTypeRepository
-      normAbbreviationDocumentTypeRepository;
-  private final DatabaseRegionRepository regionRepository;
-  private final DatabaseNormAbbreviationRegionRepository normAbbreviationRegionRepository;
-  private final DatabaseDocumentCategoryRepository documentCategoryRepository;
+  private final NormAbbreviationEnricher enricher;
+  private final NormAbbreviationCache cache;
 
   public PostgresNormAbbreviationRepositoryImpl(
       DatabaseNormAbbreviationRepository repository,
-      DatabaseDocumentTypeNewRepository documentTypeRepository,
-      DatabaseNormAbbreviationDocumentTypeRepository normAbbreviationDocumentTypeRepository,
-      DatabaseRegionRepository regionRepository,
-      DatabaseNormAbbreviationRegionRepository normAbbreviationRegionRepository,
-      DatabaseDocumentCategoryRepository documentCategoryRepository) {
+      NormAbbreviationEnricher enricher,
+      NormAbbreviationCache cache) {
 
     this.repository = repository;
-    this.documentTypeRepository = documentTypeRepository;
-    this.normAbbreviationDocumentTypeRepository = normAbbreviationDocumentTypeRepository;
-    this.regionRepository = regionRepository;
-    this.normAbbreviationRegionRepository = normAbbreviationRegionRepository;
-    this.documentCategoryRepository = documentCategoryRepository;
+    this.enricher = enricher;
+    this.cache = cache;
   }
 
+  /**
+   * Finds the norm abbreviation in the index of the cache. A norm abbreviation which was migrated
+   * after the index was loaded, or which can't be found because the index couldn't be loaded, is
+   * read from the database.
+   */
   @Override
   public Mono<NormAbbreviation> findById(UUID id) {
-    return repository
-        .findById(id)
-        .flatMap(this::injectAdditionalInformation)
-        .map(NormAbbreviationTransformer::transformDTO);
+    if (cache.isEnabled()) {
+      return cache
+          .getIndex()
+          .flatMap(index -> Mono.justOrEmpty(index.findById(id)))
+          .onErrorResume(
+              ex -> {
+                log.warn("Couldn't load the norm abbreviation index, read from the database", ex);
+                return Mono.empty();
+              })
+          .switchIfEmpty(Mono.defer(() -> findByIdInDatabase(id)));
+    }
+
+    return findByIdInDatabase(id);
   }
 
   @Override
   public Flux<NormAbbreviation> findBySearchQuery(String query, Integer size, Integer pageOffset) {
-    return repository
-        .findBySearchQuery(query, size, pageOffset)
-        .flatMapSequential(this::injectAdditionalInformation)
-        .map(NormAbbreviationTransformer::transformDTO);
-  }
-
-  private Mono<NormAbbreviationDTO> injectAdditionalInformation(
-      NormAbbreviationDTO normAbbreviationDTO) {
-    Mono<List<DocumentTypeNewDTO>> documentTypes =
-        normAbbreviationDocumentTypeRepository
-            .findAllByNormAbbreviationId(normAbbreviationDTO.getId())
-            .flatMapSequential(
-                normAbbreviationDocumentTypeDTO ->
-                    documentTypeRepository
-                        .findById(normAbbreviationDocumentTypeDTO.getDocumentTypeId())
-                        .flatMap(this::injectCategoryLabel))
-            .collectList();
-    Mono<List<RegionDTO>> regions =
-        normAbbreviationRegionRepository
-            .findAllByNormAbbreviationId(normAbbreviationDTO.getId())
-            .flatMapSequential(
-                normAbbreviationRegionDTO ->
-                    regionRepository.findById(normAbbreviationRegionDTO.getRegionId()))
-            .collectList();
-
-    return Mono.zip(documentTypes, regions)
-        .map(
-            tuple -> {
-              normAbbreviationDTO.setDocumentTypes(tuple.getT1());
-              normAbbreviationDTO.setRegions(tuple.getT2());
+    if (cache.isEnabled()) {
+      return cache
+          .getIndex()
+          .map(index -> index.search(query, size, pageOffset))
+          .onErrorResume(
+              ex -> {
+                log.warn("Couldn't load the norm abbreviation index, search in the database", ex);
+                return searchInDatabase(query, size, pageOffset).collectList();
+              })
+          .flatMapIterable(normAbbreviations -> normAbbreviations);
+    }
 
-              return normAbbreviationDTO;
-            });
+    return searchInDatabase(query, size, pageOffset);
   }
 
-  private Mono<DocumentTypeNewDTO> injectCategoryLabel(DocumentTypeNewDTO documentTypeNewDTO) {
-    if (documentTypeNewDTO == null || documentTypeNewDTO.getDocumentCategoryId() == null) {
-      return Mono.just(documentTypeNewDTO);
-    }
+  private Mono<NormAbbreviation> findByIdInDatabase(UUID id) {
+    return repository
+        .findById(id)
+        .flatMap(normAbbreviationDTO -> enricher.enrich(List.of(normAbbreviationDTO)))
+        .map(normAbbreviationDTOs -> normAbbreviationDTOs.get(0))
+        .map(NormAbbreviationTransformer::transformDTO);
+  }
 
-    return documentCategoryRepository
-        .findById(documentTypeNewDTO.getDocumentCategoryId())
-        .map(
-            documentCategoryDTO -> {
-              documentTypeNewDTO.setCategoryLabel(documentCategoryDTO.getLabel());
-              return documentTypeNewDTO;
-            });
+  private Flux<NormAbbreviation> searchInDatabase(String query, Integer size, Integer pageOffset) {
+    return repository
+        .findBySearchQuery(query, size, pageOffset)
+        .collectList()
+        .flatMap(enricher::enrich)
+        .flatMapIterable(normAbbreviationDTOs -> normAbbreviationDTOs)
+        .map(NormAbbreviationTransformer::transformDTO);
   }
 }
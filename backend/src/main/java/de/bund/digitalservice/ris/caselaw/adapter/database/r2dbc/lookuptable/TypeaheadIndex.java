@@ -0,0 +1,174 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Immutable in-memory index for the typeahead search in the labels of lookup table entries. The
+ * index is a sorted array of all suffixes of the upper case labels, so all occurrences of a search
+ * string are found with a binary search.
+ *
+ * <p>The result is ordered like the database search: first the entries whose label starts with the
+ * search string, then the entries with a word in the label which starts with the search string (a
+ * word starts after a space or a dash) and last all other entries which contain the search string.
+ * Within these classes the entries are ordered alphabetically by label.
+ */
+public class TypeaheadIndex<T> {
+  private static final int LABEL_PREFIX = 0;
+  private static final int WORD_START = 1;
+  private static final int INFIX = 2;
+
+  // entries and labels are ordered alphabetically, so the position is the alphabetical rank
+  private final List<T> entries;
+  private final String[] labels;
+  private final int[] suffixEntries;
+  private final int[] suffixOffsets;
+
+  private TypeaheadIndex(
+      List<T> entries, String[] labels, int[] suffixEntries, int[] suffixOffsets) {
+    this.entries = entries;
+    this.labels = labels;
+    this.suffixEntries = suffixEntries;
+    this.suffixOffsets = suffixOffsets;
+  }
+
+  public static <T> TypeaheadIndex<T> of(List<T> entries, Function<T, String> labelExtractor) {
+    Collator collator = Collator.getInstance(Locale.GERMAN);
+    List<LabeledEntry<T>> labeledEntries =
+        entries.stream()
+            .map(entry -> new LabeledEntry<>(entry, toUpperCase(labelExtractor.apply(entry))))
+            .sorted(Comparator.comparing(LabeledEntry::label, collator))
+            .toList();
+
+    String[] labels = labeledEntries.stream().map(LabeledEntry::label).toArray(String[]::new);
+
+    int suffixCount = Arrays.stream(labels).mapToInt(String::length).sum();
+    Integer[] suffixes = new Integer[suffixCount];
+    int[] entryOfSuffix = new int[suffixCount];
+    int[] offsetOfSuffix = new int[suffixCount];
+    int suffix = 0;
+    for (int entry = 0; entry < labels.length; entry++) {
+      for (int offset = 0; offset < labels[entry].length(); offset++) {
+        suffixes[suffix] = suffix;
+        entryOfSuffix[suffix] = entry;
+        offsetOfSuffix[suffix] = offset;
+        suffix++;
+      }
+    }
+
+    Arrays.sort(
+        suffixes,
+        (a, b) ->
+            compareSuffixes(
+                labels[entryOfSuffix[a]],
+                offsetOfSuffix[a],
+                labels[entryOfSuffix[b]],
+                offsetOfSuffix[b]));
+
+    int[] suffixEntries = new int[suffixCount];
+    int[] suffixOffsets = new int[suffixCount];
+    for (int i = 0; i < suffixCount; i++) {
+      suffixEntries[i] = entryOfSuffix[suffixes[i]];
+      suffixOffsets[i] = offsetOfSuffix[suffixes[i]];
+    }
+
+    return new TypeaheadIndex<>(
+        labeledEntries.stream().map(LabeledEntry::entry).toList(),
+        labels,
+        suffixEntries,
+        suffixOffsets);
+  }
+
+  /** Returns all entries whose label contains the search string, ignoring the case. */
+  public List<T> search(String searchString) {
+    String query = toUpperCase(searchString);
+    if (query.isEmpty()) {
+      return entries;
+    }
+
+    int[] matchClasses = new int[entries.size()];
+    Arrays.fill(matchClasses, -1);
+    for (int i = lowerBound(query); i < suffixEntries.length && startsWith(i, query); i++) {
+      int entry = suffixEntries[i];
+      int matchClass = matchClass(labels[entry], suffixOffsets[i]);
+      if (matchClasses[entry] == -1 || matchClass < matchClasses[entry]) {
+        matchClasses[entry] = matchClass;
+      }
+    }
+
+    List<T> result = new ArrayList<>();
+    for (int matchClass = LABEL_PREFIX; matchClass <= INFIX; matchClass++) {
+      for (int entry = 0; entry < matchClasses.length; entry++) {
+        if (matchClasses[entry] == matchClass) {
+          result.add(entries.get(entry));
+        }
+      }
+    }
+    return result;
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  private int lowerBound(String query) {
+    int low = 0;
+    int high = suffixEntries.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (compareSuffixes(labels[suffixEntries[middle]], suffixOffsets[middle], query, 0) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private boolean startsWith(int suffix, String query) {
+    return labels[suffixEntries[suffix]].startsWith(query, suffixOffsets[suffix]);
+  }
+
+  private static int matchClass(String label, int offset) {
+    if (offset == 0) {
+      return LABEL_PREFIX;
+    }
+
+    char previous = label.charAt(offset - 1);
+    return previous == ' ' || previous == '-' ? WORD_START : INFIX;
+  }
+
+  private static int compareSuffixes(String a, int offsetA, String b, int offsetB) {
+    int lengthA = a.length() - offsetA;
+    int lengthB = b.length() - offsetB;
+    int length = Math.min(lengthA, lengthB);
+    for (int i = 0; i < length; i++) {
+      char charA = a.charAt(offsetA + i);
+      char charB = b.charAt(offsetB + i);
+      if (charA != charB) {
+        return charA - charB;
+      }
+    }
+    return lengthA - lengthB;
+  }
+
+  /** Upper case per character like the database, so a label keeps its length (e.g. 'ß'). */
+  private static String toUpperCase(String value) {
+    if (value == null) {
+      return "";
+    }
+
+    char[] chars = value.toCharArray();
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = Character.toUpperCase(chars[i]);
+    }
+    return new String(chars);
+  }
+
+  private record LabeledEntry<T>(T entry, String label) {}
+}
@@ -0,0 +1,15 @@
+package de.bund.digitalservice.ris.caselaw.adapter.transformer;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateDTO;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.state.State;
+
+public class StateTransformer {
+  private StateTransformer() {}
+
+  public static State transformDTO(StateDTO stateDTO) {
+    return State.builder()
+        .jurisShortcut(stateDTO.getJurisshortcut())
+        .label(stateDTO.getLabel())
+        .build();
+  }
+}
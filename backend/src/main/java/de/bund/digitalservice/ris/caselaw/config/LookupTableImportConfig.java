@@ -0,0 +1,22 @@
+package de.bund.digitalservice.ris.caselaw.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class LookupTableImportConfig {
+  /**
+   * Bounded scheduler for the blocking work of the lookup table imports: reading the uploaded files
+   * and the JPA writes. It keeps the imports away from the event loop and from the shared bounded
+   * elastic scheduler.
+   */
+  @Bean(destroyMethod = "dispose")
+  public Scheduler lookupTableImportScheduler(
+      @Value("${lookup-table-import.threads:2}") int threads,
+      @Value("${lookup-table-import.queue-size:16}") int queueSize) {
+    return Schedulers.newBoundedElastic(threads, queueSize, "lookup-table-import");
+  }
+}
@@ -0,0 +1,12 @@
+package de.bund.digitalservice.ris.caselaw.domain;
+
+/**
+ * Usage of the document numbers of a documentation center in a year.
+ *
+ * @param documentationCenterAbbreviation abbreviation of the documentation center
+ * @param year year of the document numbers
+ * @param reservedNumbers numbers which are handed out or reserved by an instance
+ * @param remainingNumbers numbers which can still be reserved
+ */
+public record DocumentNumberCapacity(
+    String documentationCenterAbbreviation, int year, int reservedNumbers, int remainingNumbers) {}
@@ -1,7 +1,10 @@
 package de.bund.digitalservice.ris.caselaw.domain;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface DocumentNumberService {
   Mono<String> generateNextDocumentNumber(DocumentUnitCreationInfo documentUnitCreationInfo);
+
+  Flux<DocumentNumberCapacity> getCapacities();
 }
@@ -0,0 +1,38 @@
+package de.bund.digitalservice.ris.caselaw.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the list of document units. The list is ordered by creation timestamp and id
+ * (both descending), so the values of the last returned entry identify where the next slice starts.
+ * Clients only see the opaque encoded form.
+ */
+public record DocumentUnitListCursor(Instant creationTimestamp, Long id) {
+  private static final char SEPARATOR = '|';
+
+  public String encode() {
+    String plain = creationTimestamp.toString() + SEPARATOR + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static DocumentUnitListCursor decode(String cursor) {
+    String plain = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    int separatorIndex = plain.lastIndexOf(SEPARATOR);
+    if (separatorIndex < 0) {
+      throw new IllegalArgumentException("Document unit list cursor has no separator");
+    }
+
+    try {
+      return new DocumentUnitListCursor(
+          Instant.parse(plain.substring(0, separatorIndex)),
+          Long.parseLong(plain.substring(separatorIndex + 1)));
+    } catch (DateTimeParseException | NumberFormatException ex) {
+      throw new IllegalArgumentException("Couldn't parse document unit list cursor", ex);
+    }
+  }
+}
@@ -0,0 +1,8 @@
+package de.bund.digitalservice.ris.caselaw.domain;
+
+import java.util.List;
+import lombok.Builder;
+
+@Builder(toBuilder = true)
+public record DocumentUnitListSlice(
+    List<DocumentUnitListEntry> content, String nextCursor, Long estimatedTotal) {}
@@ -1,6 +1,7 @@
 package de.bund.digitalservice.ris.caselaw.domain;
 
 import java.util.UUID;
+import java.util.function.UnaryOperator;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.NoRepositoryBean;
 import reactor.core.publisher.Flux;
@@ -13,12 +14,20 @@ public interface DocumentUnitRepository {
 
   Mono<DocumentUnit> findByUuid(UUID uuid);
 
+  Mono<Long> findVersionByDocumentNumber(String documentNumber);
+
   Mono<DocumentUnit> createNewDocumentUnit(String documentNumber, User user);
 
   Mono<DocumentUnit> createNewDocumentUnit(String documentNumber);
 
   Mono<DocumentUnit> save(DocumentUnit documentUnit);
 
+  /**
+   * Loads the stored document unit once, applies the patch to it and saves the result against the
+   * loaded state. The uuid and the document number of the stored document unit are kept.
+   */
+  Mono<DocumentUnit> patch(UUID documentUnitUuid, UnaryOperator<DocumentUnit> patch);
+
   Mono<DocumentUnit> attachFile(
       UUID documentUnitUuid, String fileUuid, String type, String fileName);
 
@@ -37,6 +46,10 @@ public interface DocumentUnitRepository {
 
   Flux<DocumentUnitListEntry> findAll(Pageable pageable);
 
+  Mono<DocumentUnitListSlice> findAllByCursor(DocumentUnitListCursor cursor, int size);
+
+  Mono<Long> estimateCountByDataSource(DataSource dataSource);
+
   Flux<ProceedingDecision> findAllLinkedDocumentUnitsByParentDocumentUnitId(
       UUID parentDocumentUnitUuid);
 
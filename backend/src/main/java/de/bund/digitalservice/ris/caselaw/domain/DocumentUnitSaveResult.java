@@ -0,0 +1,7 @@
+package de.bund.digitalservice.ris.caselaw.domain;
+
+/**
+ * Result of a save of a document unit. A buffered save contains the document unit as it was sent,
+ * it isn't persisted yet and has no new version.
+ */
+public record DocumentUnitSaveResult(DocumentUnit documentUnit, boolean buffered) {}
@@ -5,13 +5,13 @@ import static de.bund.digitalservice.ris.caselaw.domain.ServiceUtils.byteBufferT
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import lombok.extern.slf4j.Slf4j;
@@ -32,7 +32,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
 import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
@@ -43,11 +42,13 @@ import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 @Service
 @Slf4j
 public class DocumentUnitService {
+  private static final int MAX_LIST_SLICE_SIZE = 100;
 
   private final DocumentUnitRepository repository;
   private final DocumentNumberService documentNumberService;
   private final S3AsyncClient s3AsyncClient;
   private final EmailPublishService publishService;
+  private final DocumentUnitWriteBehindBuffer writeBehindBuffer;
 
   @Value("${otc.obs.bucket-name}")
   private String bucketName;
@@ -56,12 +57,14 @@ public class DocumentUnitService {
       DocumentUnitRepository repository,
       DocumentNumberService documentNumberService,
       S3AsyncClient s3AsyncClient,
-      EmailPublishService publishService) {
+      EmailPublishService publishService,
+      DocumentUnitWriteBehindBuffer writeBehindBuffer) {
 
     this.repository = repository;
     this.documentNumberService = documentNumberService;
     this.s3AsyncClient = s3AsyncClient;
     this.publishService = publishService;
+    this.writeBehindBuffer = writeBehindBuffer;
   }
 
   public Mono<DocumentUnit> generateNewDocumentUnit(
@@ -73,7 +76,6 @@ public class DocumentUnitService {
             tuple ->
                 repository
                     .createNewDocumentUnit(tuple.getT1(), tuple.getT2())
-                    .retryWhen(Retry.backoff(5, Duration.ofSeconds(2)).jitter(0.75))
                     .doOnError(ex -> log.error("Couldn't create empty doc unit", ex)));
   }
 
@@ -82,7 +84,6 @@ public class DocumentUnitService {
     return documentNumberService
         .generateNextDocumentNumber(documentUnitCreationInfo)
         .flatMap(repository::createNewDocumentUnit)
-        .retryWhen(Retry.backoff(5, Duration.ofSeconds(2)).jitter(0.75))
         .doOnError(ex -> log.error("Couldn't create empty doc unit", ex));
   }
 
@@ -98,6 +99,9 @@ public class DocumentUnitService {
 
     return putObjectIntoBucket(fileUuid, byteBuffer, httpHeaders)
         .doOnNext(putObjectResponse -> log.debug("generate doc unit for {}", fileUuid))
+        .flatMap(
+            putObjectResponse ->
+                writeBehindBuffer.flush(documentUnitUuid).thenReturn(putObjectResponse))
         .flatMap(putObjectResponse -> repository.findByUuid(documentUnitUuid))
         .doOnNext(
             documentUnit ->
@@ -111,8 +115,9 @@ public class DocumentUnitService {
   }
 
   public Mono<DocumentUnit> removeFileFromDocumentUnit(UUID documentUnitId) {
-    return repository
-        .findByUuid(documentUnitId)
+    return writeBehindBuffer
+        .flush(documentUnitId)
+        .then(Mono.defer(() -> repository.findByUuid(documentUnitId)))
         .flatMap(
             documentUnit -> {
               var fileUuid = documentUnit.s3path();
@@ -179,6 +184,10 @@ public class DocumentUnitService {
         .flatMap(Function.identity());
   }
 
+  /**
+   * Lists the persisted document units. Saves which are buffered by the write-behind buffer are not
+   * written for the list, so it can show an older state of a document unit for the window.
+   */
   public Mono<Page<DocumentUnitListEntry>> getAll(Pageable pageable) {
     return repository
         .findAll(
@@ -191,19 +200,59 @@ public class DocumentUnitService {
         .map(tuple -> new PageImpl<>(tuple.getT1(), pageable, tuple.getT2()));
   }
 
+  public Mono<DocumentUnitListSlice> getAllByCursor(
+      String cursor, int size, boolean withEstimatedTotal) {
+    if (size < 1 || size > MAX_LIST_SLICE_SIZE) {
+      return Mono.error(
+          new ResponseStatusException(
+              HttpStatus.BAD_REQUEST, "Slice size must be between 1 and " + MAX_LIST_SLICE_SIZE));
+    }
+
+    DocumentUnitListCursor listCursor = null;
+    if (cursor != null && !cursor.isBlank()) {
+      try {
+        listCursor = DocumentUnitListCursor.decode(cursor);
+      } catch (IllegalArgumentException ex) {
+        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor"));
+      }
+    }
+
+    DocumentUnitListCursor finalListCursor = listCursor;
+    Mono<DocumentUnitListSlice> slice = repository.findAllByCursor(finalListCursor, size);
+    if (!withEstimatedTotal) {
+      return slice;
+    }
+
+    return slice.zipWith(
+        repository.estimateCountByDataSource(DataSource.NEURIS),
+        (listSlice, estimatedTotal) ->
+            listSlice.toBuilder().estimatedTotal(estimatedTotal).build());
+  }
+
   public Mono<DocumentUnit> getByDocumentNumber(String documentNumber) {
-    return repository.findByDocumentNumber(documentNumber);
+    return writeBehindBuffer
+        .flushByDocumentNumber(documentNumber)
+        .then(Mono.defer(() -> repository.findByDocumentNumber(documentNumber)));
+  }
+
+  public Mono<Long> getVersionByDocumentNumber(String documentNumber) {
+    return writeBehindBuffer
+        .flushByDocumentNumber(documentNumber)
+        .then(Mono.defer(() -> repository.findVersionByDocumentNumber(documentNumber)));
   }
 
   public Mono<DocumentUnit> getByUuid(UUID documentUnitUuid) {
-    return repository.findByUuid(documentUnitUuid);
+    return writeBehindBuffer
+        .flush(documentUnitUuid)
+        .then(Mono.defer(() -> repository.findByUuid(documentUnitUuid)));
   }
 
   public Mono<String> deleteByUuid(UUID documentUnitUuid) {
     AtomicInteger documentUnitsThisOneIsAChildOf = new AtomicInteger();
 
-    return repository
-        .countLinksByChildDocumentUnitUuid(documentUnitUuid)
+    return writeBehindBuffer
+        .flush(documentUnitUuid)
+        .then(Mono.defer(() -> repository.countLinksByChildDocumentUnitUuid(documentUnitUuid)))
         .flatMap(
             count -> {
               documentUnitsThisOneIsAChildOf.set(count.intValue());
@@ -261,15 +310,33 @@ public class DocumentUnitService {
             });
   }
 
-  public Mono<DocumentUnit> updateDocumentUnit(DocumentUnit documentUnit) {
-    return repository
+  /**
+   * Saves the document unit and returns the saved state. If the save is buffered by the
+   * write-behind buffer, the result contains the buffered document unit, which is not persisted
+   * yet.
+   */
+  public Mono<DocumentUnitSaveResult> updateDocumentUnit(DocumentUnit documentUnit) {
+    return writeBehindBuffer
         .save(documentUnit)
         .doOnError(ex -> log.error("Couldn't update the DocumentUnit", ex));
   }
 
+  /**
+   * Loads the document unit, applies the patch and saves the result. Only the changed columns and
+   * child rows are written, the uuid and the document number can't be changed by the patch.
+   */
+  public Mono<DocumentUnit> patchDocumentUnit(
+      UUID documentUnitUuid, UnaryOperator<DocumentUnit> patch) {
+    return writeBehindBuffer
+        .flush(documentUnitUuid)
+        .then(Mono.defer(() -> repository.patch(documentUnitUuid, patch)))
+        .doOnError(ex -> log.error("Couldn't patch the DocumentUnit", ex));
+  }
+
   public Mono<MailResponse> publishAsEmail(UUID documentUnitUuid, String receiverAddress) {
-    return repository
-        .findByUuid(documentUnitUuid)
+    return writeBehindBuffer
+        .flush(documentUnitUuid)
+        .then(Mono.defer(() -> repository.findByUuid(documentUnitUuid)))
         .flatMap(documentUnit -> publishService.publish(documentUnit, receiverAddress));
   }
 
@@ -287,6 +354,10 @@ public class DocumentUnitService {
         .map(tuple -> new PageImpl<>(tuple.getT1(), pageable, tuple.getT2()));
   }
 
+  /**
+   * Creates the document unit of the proceeding decision and links it to the parent. The child is
+   * saved directly and not by the write-behind buffer, so it is written within the transaction.
+   */
   @Transactional(transactionManager = "connectionFactoryTransactionManager")
   public Flux<ProceedingDecision> createProceedingDecision(
       UUID parentDocumentUnitUuid, ProceedingDecision proceedingDecision) {
@@ -294,7 +365,7 @@ public class DocumentUnitService {
     return generateNewDocumentUnit(new DocumentUnitCreationInfo("KO", "RE"))
         .flatMap(
             childDocumentUnit ->
-                updateDocumentUnit(
+                repository.save(
                     enrichNewDocumentUnitWithData(childDocumentUnit, proceedingDecision)))
         .flatMap(
             childDocumentUnit ->
@@ -0,0 +1,329 @@
+package de.bund.digitalservice.ris.caselaw.domain;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Optional write-behind buffer for the saves of document units. The editor saves a document unit
+ * every few seconds, so a buffered save is replaced by every following save within the window and
+ * only the latest state of the document unit is written.
+ *
+ * <p>Every read of a single document unit has to call {@link #flush(UUID)} first, so it never sees
+ * an older state than the last save. Lists of document units are read from the database and can
+ * show an older state for the window. The number of buffered document units is limited. If the
+ * limit is reached, the save is written directly. On shutdown all buffered saves are written.
+ *
+ * <p>The buffered saves are held in the memory of the instance, so the buffer may only be active
+ * while no other instance writes document units. The adapter deactivates the buffer as soon as
+ * another instance starts and suspends the new instance until all buffered saves are written.
+ *
+ * <p>If the write of a buffered save fails, the document unit is marked as failed and its next save
+ * is written directly, so the client gets the error or the persisted state.
+ */
+@Component
+@Slf4j
+public class DocumentUnitWriteBehindBuffer implements MeterBinder {
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+  private final DocumentUnitRepository repository;
+  private final boolean enabled;
+  private volatile boolean active;
+  private volatile Sinks.Empty<Void> suspension;
+  private final Duration window;
+  private final int maximumSize;
+  private final Map<UUID, PendingSave> pendingSaves = new HashMap<>();
+  private final Map<UUID, RunningWrite> runningWrites = new HashMap<>();
+  private final Set<UUID> failedWrites = new HashSet<>();
+  private final Object lock = new Object();
+  private final AtomicLong coalescedSaves = new AtomicLong();
+  private final AtomicLong writtenSaves = new AtomicLong();
+  private final AtomicLong failedSaves = new AtomicLong();
+
+  public DocumentUnitWriteBehindBuffer(
+      DocumentUnitRepository repository,
+      @Value("${document-unit-write-behind.enabled:false}") boolean enabled,
+      @Value("${document-unit-write-behind.window-millis:5000}") long windowMillis,
+      @Value("${document-unit-write-behind.maximum-size:500}") int maximumSize) {
+
+    this.repository = repository;
+    this.enabled = enabled;
+    this.active = enabled;
+    this.window = Duration.ofMillis(windowMillis);
+    this.maximumSize = maximumSize;
+  }
+
+  /**
+   * Buffers the save of the document unit and returns the buffered document unit, which is not
+   * persisted yet. A save which is already buffered for the same uuid is replaced. If the buffer is
+   * disabled or full, or the last buffered save of the document unit failed, the document unit is
+   * written directly and the saved document unit is returned.
+   */
+  public Mono<DocumentUnitSaveResult> save(DocumentUnit documentUnit) {
+    UUID uuid = documentUnit.uuid();
+    if (!enabled || uuid == null) {
+      return written(repository.save(documentUnit));
+    }
+
+    Sinks.Empty<Void> currentSuspension = suspension;
+    if (currentSuspension != null) {
+      return currentSuspension.asMono().then(Mono.defer(() -> save(documentUnit)));
+    }
+
+    synchronized (lock) {
+      if (!active) {
+        // a save which is still buffered from before the deactivation is replaced
+        PendingSave pendingSave = pendingSaves.remove(uuid);
+        if (pendingSave != null) {
+          pendingSave.timer().dispose();
+          coalescedSaves.incrementAndGet();
+        }
+        return written(write(uuid, documentUnit, false));
+      }
+
+      if (failedWrites.remove(uuid)) {
+        return written(write(uuid, documentUnit, false));
+      }
+
+      PendingSave pendingSave = pendingSaves.get(uuid);
+      if (pendingSave != null) {
+        pendingSaves.put(uuid, new PendingSave(documentUnit, pendingSave.timer()));
+        coalescedSaves.incrementAndGet();
+        return Mono.just(new DocumentUnitSaveResult(documentUnit, true));
+      }
+
+      if (pendingSaves.size() < maximumSize) {
+        Disposable timer = Mono.delay(window).flatMap(ignored -> flush(uuid)).subscribe();
+        pendingSaves.put(uuid, new PendingSave(documentUnit, timer));
+        return Mono.just(new DocumentUnitSaveResult(documentUnit, true));
+      }
+
+      return written(write(uuid, documentUnit, false));
+    }
+  }
+
+  /**
+   * Writes the buffered save of the document unit and waits for the running write of it. Errors of
+   * the write mark the document unit as failed, so the read afterwards gets the stored state and
+   * the next save gets the result of a direct write.
+   */
+  public Mono<Void> flush(UUID uuid) {
+    if (!enabled || uuid == null) {
+      return Mono.empty();
+    }
+
+    return Mono.defer(
+        () -> {
+          Sinks.Empty<Void> currentSuspension = suspension;
+          if (currentSuspension != null) {
+            return currentSuspension.asMono().then(flush(uuid));
+          }
+
+          synchronized (lock) {
+            PendingSave pendingSave = pendingSaves.remove(uuid);
+            if (pendingSave != null) {
+              pendingSave.timer().dispose();
+              write(uuid, pendingSave.documentUnit(), true);
+            }
+
+            RunningWrite runningWrite = runningWrites.get(uuid);
+            return runningWrite == null ? Mono.empty() : runningWrite.completion();
+          }
+        });
+  }
+
+  public Mono<Void> flushByDocumentNumber(String documentNumber) {
+    if (!enabled) {
+      return Mono.empty();
+    }
+
+    return Mono.defer(
+        () -> {
+          Sinks.Empty<Void> currentSuspension = suspension;
+          if (currentSuspension != null) {
+            return currentSuspension.asMono().then(flushByDocumentNumber(documentNumber));
+          }
+
+          Set<UUID> uuids = new HashSet<>();
+          synchronized (lock) {
+            pendingSaves.forEach(
+                (uuid, pendingSave) -> {
+                  if (Objects.equals(pendingSave.documentUnit().documentNumber(), documentNumber)) {
+                    uuids.add(uuid);
+                  }
+                });
+            runningWrites.forEach(
+                (uuid, runningWrite) -> {
+                  if (Objects.equals(runningWrite.documentNumber(), documentNumber)) {
+                    uuids.add(uuid);
+                  }
+                });
+          }
+
+          return Flux.fromIterable(uuids).flatMap(this::flush).then();
+        });
+  }
+
+  /**
+   * Lets the saves be buffered again after {@link #deactivate()}. Has no effect if the buffer is
+   * disabled.
+   */
+  public void activate() {
+    active = enabled;
+  }
+
+  /**
+   * Writes the following saves directly. Saves which are buffered already are still written after
+   * their window and flushed by the reads, unless a following save replaces them.
+   */
+  public void deactivate() {
+    active = false;
+  }
+
+  /**
+   * Lets the saves and the reads of single document units wait until {@link #resume()}, e.g. while
+   * another instance still holds buffered saves. The buffer is deactivated.
+   */
+  public void suspend() {
+    active = false;
+    synchronized (lock) {
+      if (suspension == null) {
+        suspension = Sinks.empty();
+      }
+    }
+  }
+
+  /** Lets the saves and reads which wait since {@link #suspend()} continue. */
+  public void resume() {
+    Sinks.Empty<Void> currentSuspension;
+    synchronized (lock) {
+      currentSuspension = suspension;
+      suspension = null;
+    }
+    if (currentSuspension != null) {
+      currentSuspension.tryEmitEmpty();
+    }
+  }
+
+  /** Writes all buffered saves and waits for all running writes. */
+  public Mono<Void> flushAll() {
+    if (!enabled) {
+      return Mono.empty();
+    }
+
+    return Mono.defer(
+        () -> {
+          Set<UUID> uuids = new HashSet<>();
+          synchronized (lock) {
+            uuids.addAll(pendingSaves.keySet());
+            uuids.addAll(runningWrites.keySet());
+          }
+
+          return Flux.fromIterable(uuids).flatMap(this::flush).then();
+        });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    int pendingSaveCount;
+    synchronized (lock) {
+      pendingSaveCount = pendingSaves.size();
+    }
+
+    if (pendingSaveCount > 0) {
+      log.info("Write {} buffered document unit saves before shutdown", pendingSaveCount);
+    }
+    flushAll().block(SHUTDOWN_TIMEOUT);
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    FunctionCounter.builder("documentunit.write.behind.saves", coalescedSaves, AtomicLong::get)
+        .description("Saves of document units which replaced a buffered save")
+        .tag("result", "coalesced")
+        .register(registry);
+    FunctionCounter.builder("documentunit.write.behind.saves", writtenSaves, AtomicLong::get)
+        .description("Saves of document units which were written to the database")
+        .tag("result", "written")
+        .register(registry);
+    FunctionCounter.builder("documentunit.write.behind.saves", failedSaves, AtomicLong::get)
+        .description("Buffered saves of document units which couldn't be written")
+        .tag("result", "failed")
+        .register(registry);
+    Gauge.builder("documentunit.write.behind.pending", this, buffer -> buffer.pendingSize())
+        .description("Buffered saves of document units which are not written yet")
+        .register(registry);
+  }
+
+  private int pendingSize() {
+    synchronized (lock) {
+      return pendingSaves.size();
+    }
+  }
+
+  /**
+   * Starts the write after the running write of the same document unit, so the writes of a document
+   * unit keep their order. A failed write of a buffered save marks the document unit as failed. Has
+   * to be called while holding the lock.
+   */
+  private Mono<DocumentUnit> write(UUID uuid, DocumentUnit documentUnit, boolean buffered) {
+    RunningWrite previousWrite = runningWrites.get(uuid);
+    Mono<DocumentUnit> write =
+        (previousWrite == null ? Mono.<Void>empty() : previousWrite.completion())
+            .then(Mono.defer(() -> repository.save(documentUnit)))
+            .doOnSuccess(savedDocumentUnit -> writtenSaves.incrementAndGet())
+            .cache();
+
+    RunningWrite runningWrite =
+        new RunningWrite(
+            documentUnit.documentNumber(), write.then().onErrorResume(ex -> Mono.empty()));
+    runningWrites.put(uuid, runningWrite);
+    write.subscribe(
+        savedDocumentUnit -> {},
+        ex -> {
+          if (buffered) {
+            log.error("Couldn't write the buffered save of the DocumentUnit {}", uuid, ex);
+            failedSaves.incrementAndGet();
+          }
+          removeRunningWrite(uuid, runningWrite, buffered);
+        },
+        () -> removeRunningWrite(uuid, runningWrite, false));
+
+    return write;
+  }
+
+  private static Mono<DocumentUnitSaveResult> written(Mono<DocumentUnit> write) {
+    return write.map(savedDocumentUnit -> new DocumentUnitSaveResult(savedDocumentUnit, false));
+  }
+
+  private void removeRunningWrite(UUID uuid, RunningWrite runningWrite, boolean failed) {
+    synchronized (lock) {
+      runningWrites.remove(uuid, runningWrite);
+      if (failed) {
+        failedWrites.add(uuid);
+      }
+    }
+  }
+
+  private record PendingSave(DocumentUnit documentUnit, Disposable timer) {}
+
+  private record RunningWrite(String documentNumber, Mono<Void> completion) {}
+}
@@ -3,6 +3,7 @@ package de.bund.digitalservice.ris.caselaw.domain;
 import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldOfLaw;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.NoRepositoryBean;
 import reactor.core.publisher.Flux;
@@ -16,7 +17,18 @@ public interface FieldOfLawRepository {
 
   Mono<FieldOfLaw> findByIdentifier(String identifier);
 
-  Mono<FieldOfLaw> findParentByChild(FieldOfLaw child);
+  /**
+   * Returns the field of law and all its ancestors, ordered from the top level field of law down to
+   * the field of law itself.
+   */
+  Flux<FieldOfLaw> findAncestorsAndSelf(String identifier);
+
+  /**
+   * Returns the children of the field of law, or the top level fields of law for a null identifier.
+   * Their descendants down to the given number of levels are added as children, with a depth of one
+   * only the children are returned.
+   */
+  Flux<FieldOfLaw> findChildrenWithDescendants(String identifier, int depth);
 
   Flux<FieldOfLaw> findAllByOrderByIdentifierAsc(Pageable pageable);
 
@@ -28,11 +40,13 @@ public interface FieldOfLawRepository {
 
   Mono<Long> count();
 
-  Flux<FieldOfLaw> findBySearchTerms(String[] searchTerms);
-
-  Flux<FieldOfLaw> findByNormStr(String normStr);
-
-  Flux<FieldOfLaw> findByNormStrAndSearchTerms(String normStr, String[] searchTerms);
+  /**
+   * Returns the page of the fields of law which contain all search terms and have a norm which
+   * contains the norm string, ordered by their score. Without search terms or norm string only the
+   * other condition applies.
+   */
+  Mono<Page<FieldOfLaw>> searchAndOrderByScore(
+      String normStr, String[] searchTerms, Pageable pageable);
 
   Flux<FieldOfLaw> getAllLimitedOrderByIdentifierLength();
 
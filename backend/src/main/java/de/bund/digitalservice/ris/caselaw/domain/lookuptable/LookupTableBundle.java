@@ -0,0 +1,20 @@
+package de.bund.digitalservice.ris.caselaw.domain.lookuptable;
+
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.court.Court;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.documenttype.DocumentType;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldOfLaw;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.state.State;
+import java.util.List;
+import lombok.Builder;
+
+/**
+ * All courts, caselaw document types, states and top level fields of law for the search in the
+ * client. The version is a hash of the content.
+ */
+@Builder(toBuilder = true)
+public record LookupTableBundle(
+    String version,
+    List<Court> courts,
+    List<DocumentType> documentTypes,
+    List<State> states,
+    List<FieldOfLaw> fieldsOfLaw) {}
@@ -0,0 +1,68 @@
+package de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw;
+
+import java.util.List;
+
+/**
+ * Scores a field of law for the search. The identifier and the text are scored for every search
+ * term, the norms for the norm string. A higher score ranks the field of law higher.
+ */
+public class FieldOfLawScore {
+  private FieldOfLawScore() {}
+
+  public static int calculate(FieldOfLaw fieldOfLaw, String[] searchTerms, String normStr) {
+    return calculate(
+        fieldOfLaw.identifier(), fieldOfLaw.text(), fieldOfLaw.norms(), searchTerms, normStr);
+  }
+
+  public static int calculate(
+      String identifier, String text, List<Norm> norms, String[] searchTerms, String normStr) {
+
+    int score = 0;
+    if (searchTerms != null) {
+      for (String searchTerm : searchTerms) {
+        score += getScoreContributionFromSearchTerm(identifier, text, searchTerm);
+      }
+    }
+    if (normStr != null && norms != null) {
+      score += getScoreContributionFromNormStr(norms, normStr);
+    }
+    return score;
+  }
+
+  private static int getScoreContributionFromSearchTerm(
+      String identifier, String text, String searchTerm) {
+
+    int score = 0;
+    searchTerm = searchTerm.toLowerCase();
+    identifier = identifier == null ? "" : identifier.toLowerCase();
+    text = text == null ? "" : text.toLowerCase();
+
+    if (identifier.equals(searchTerm)) score += 8;
+    if (identifier.startsWith(searchTerm)) score += 5;
+    if (identifier.contains(searchTerm)) score += 2;
+
+    if (text.startsWith(searchTerm)) score += 5;
+    // split by whitespace and hyphen to get words
+    for (String textPart : text.split("[\\s-]+")) {
+      if (textPart.equals(searchTerm)) score += 4;
+      if (textPart.startsWith(searchTerm)) score += 3;
+      if (textPart.contains(searchTerm)) score += 1;
+    }
+    return score;
+  }
+
+  private static int getScoreContributionFromNormStr(List<Norm> norms, String normStr) {
+    int score = 0;
+    normStr = normStr.toLowerCase();
+    for (Norm norm : norms) {
+      String abbreviation = norm.abbreviation() == null ? "" : norm.abbreviation().toLowerCase();
+      String description =
+          norm.singleNormDescription() == null ? "" : norm.singleNormDescription().toLowerCase();
+      String normText = description + " " + abbreviation;
+      if (description.equals(normStr)) score += 8;
+      if (description.startsWith(normStr)) score += 5;
+      if (normText.contains(normStr)) score += 5;
+    }
+    return score;
+  }
+}
@@ -0,0 +1,6 @@
+package de.bund.digitalservice.ris.caselaw.domain.lookuptable.state;
+
+import lombok.Builder;
+
+@Builder
+public record State(String jurisShortcut, String label) {}
@@ -0,0 +1,2 @@
+CREATE INDEX
+  IF NOT EXISTS doc_unit_data_source_creationtimestamp_id_idx ON doc_unit (data_source, creationtimestamp DESC, id DESC);
@@ -0,0 +1,17 @@
+-- the version is added in steps, so the doc_unit table isn't rewritten under an exclusive lock:
+-- the column is added without default and the default of the sequence only applies to new rows.
+-- The existing rows are filled by V0.79, the column is set to NOT NULL by V0.80 and V0.81.
+CREATE SEQUENCE
+  IF NOT EXISTS doc_unit_version_seq;
+
+ALTER TABLE
+  doc_unit
+ADD COLUMN IF NOT EXISTS
+  version BIGINT;
+
+ALTER TABLE
+  doc_unit
+ALTER COLUMN
+  version
+SET DEFAULT
+  nextval('doc_unit_version_seq');
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS
+  document_number_office_counter (
+    id BIGSERIAL NOT NULL PRIMARY KEY,
+    documentation_center_abbreviation VARCHAR(255) NOT NULL,
+    year INT NOT NULL,
+    next_number INT NOT NULL,
+    UNIQUE (documentation_center_abbreviation, year)
+  );
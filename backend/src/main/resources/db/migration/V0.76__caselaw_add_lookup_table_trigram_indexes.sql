@@ -0,0 +1,17 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX
+  IF NOT EXISTS lookuptable_court_label_trgm_idx ON lookuptable_court USING gin (
+    UPPER(COALESCE(courttype, '') || ' ' || COALESCE(courtlocation, '')) gin_trgm_ops
+  );
+
+CREATE INDEX
+  IF NOT EXISTS lookuptable_documenttype_label_trgm_idx ON lookuptable_documenttype USING gin (
+    UPPER(COALESCE(juris_shortcut, '') || ' ' || COALESCE(label, '')) gin_trgm_ops
+  );
+
+-- the search of the norm abbreviations is a prefix search. A trigram index can't be used for
+-- prefixes shorter than three characters, the btree with text_pattern_ops finds the range of every
+-- prefix.
+CREATE INDEX
+  IF NOT EXISTS norm_abbreviation_abbreviation_pattern_idx ON norm_abbreviation (abbreviation text_pattern_ops);
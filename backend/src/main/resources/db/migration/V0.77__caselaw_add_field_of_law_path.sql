@@ -0,0 +1,41 @@
+-- the path of a field of law is the identifier of every ancestor and its own identifier, each
+-- followed by a slash, e.g. 'AR/AR-01/AR-01-01/'. All paths of a subtree start with the path of
+-- its root, with the "C" collation they form one range of the btree index.
+ALTER TABLE
+  lookuptable_field_of_law
+ADD COLUMN IF NOT EXISTS
+  path TEXT COLLATE "C",
+ADD COLUMN IF NOT EXISTS
+  depth INTEGER;
+
+WITH RECURSIVE
+  paths AS (
+    SELECT
+      id,
+      identifier || '/' AS path,
+      1 AS depth
+    FROM
+      lookuptable_field_of_law
+    WHERE
+      parent_id IS NULL
+    UNION ALL
+    SELECT
+      child.id,
+      paths.path || child.identifier || '/',
+      paths.depth + 1
+    FROM
+      lookuptable_field_of_law child
+      JOIN paths ON child.parent_id = paths.id
+  )
+UPDATE
+  lookuptable_field_of_law
+SET
+  path = paths.path,
+  depth = paths.depth
+FROM
+  paths
+WHERE
+  lookuptable_field_of_law.id = paths.id;
+
+CREATE INDEX
+  IF NOT EXISTS lookuptable_field_of_law_path_idx ON lookuptable_field_of_law (path);
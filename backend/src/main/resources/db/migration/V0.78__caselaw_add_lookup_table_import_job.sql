@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS
+  lookup_table_import_job (
+    id UUID NOT NULL PRIMARY KEY,
+    table_name VARCHAR(255) NOT NULL,
+    phase VARCHAR(32) NOT NULL,
+    rows_processed BIGINT NOT NULL,
+    started_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    finished_at TIMESTAMP WITH TIME ZONE,
+    message TEXT
+  );
+
+CREATE INDEX IF NOT EXISTS
+  lookup_table_import_job_started_at_idx ON lookup_table_import_job (started_at);
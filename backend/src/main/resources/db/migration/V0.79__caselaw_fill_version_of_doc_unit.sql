@@ -0,0 +1,6 @@
+UPDATE
+  doc_unit
+SET
+  version = nextval('doc_unit_version_seq')
+WHERE
+  version IS NULL;
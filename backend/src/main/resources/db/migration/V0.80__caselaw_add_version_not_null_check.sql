@@ -0,0 +1,5 @@
+-- the check isn't validated here, so adding it doesn't scan the table under an exclusive lock
+ALTER TABLE
+  doc_unit
+ADD CONSTRAINT
+  doc_unit_version_not_null CHECK (version IS NOT NULL) NOT VALID;
@@ -0,0 +1,17 @@
+-- the validation of the check doesn't block reads and writes of other transactions while it scans
+-- the table. With the validated check, SET NOT NULL doesn't scan the table again.
+ALTER TABLE
+  doc_unit
+VALIDATE CONSTRAINT
+  doc_unit_version_not_null;
+
+ALTER TABLE
+  doc_unit
+ALTER COLUMN
+  version
+SET NOT NULL;
+
+ALTER TABLE
+  doc_unit
+DROP CONSTRAINT
+  doc_unit_version_not_null;
@@ -0,0 +1,44 @@
+-- the counters of the documentation centers were started after the shared counter, which could
+-- lag behind the numbers handed out by other instances. Every counter is moved after the highest
+-- number of its documentation center and year, and the shared counter after every counter.
+UPDATE
+  document_number_office_counter
+SET
+  next_number = GREATEST(next_number, highest.number + 1)
+FROM
+  (
+    SELECT
+      counter.id,
+      MAX(RIGHT(doc_unit.documentnumber, 5)::int) AS number
+    FROM
+      document_number_office_counter counter
+      JOIN doc_unit ON doc_unit.documentnumber LIKE counter.documentation_center_abbreviation || '%'
+      AND doc_unit.documentnumber ~ '[0-9]{9}$'
+      AND SUBSTRING(
+        doc_unit.documentnumber
+        FROM
+          LENGTH(doc_unit.documentnumber) - 8 FOR 4
+      ) = counter.year::text
+    GROUP BY
+      counter.id
+  ) highest
+WHERE
+  document_number_office_counter.id = highest.id;
+
+UPDATE
+  document_number_counter
+SET
+  nextnumber = GREATEST(nextnumber, highest.next_number)
+FROM
+  (
+    SELECT
+      year,
+      MAX(next_number) AS next_number
+    FROM
+      document_number_office_counter
+    GROUP BY
+      year
+  ) highest
+WHERE
+  document_number_counter.id = 1
+  AND document_number_counter.currentyear = highest.year;
@@ -0,0 +1,7 @@
+-- the norm abbreviations are searched and ordered by the "C" collation, the order of the code
+-- points, which the in-memory norm abbreviation index uses as well. A btree of this collation finds
+-- the range of every prefix and returns it in order, so the search stops at the limit.
+DROP INDEX IF EXISTS norm_abbreviation_abbreviation_pattern_idx;
+
+CREATE INDEX
+  IF NOT EXISTS norm_abbreviation_abbreviation_c_idx ON norm_abbreviation (abbreviation COLLATE "C");
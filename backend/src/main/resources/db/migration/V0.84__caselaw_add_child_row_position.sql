@@ -0,0 +1,144 @@
+-- the rows of the child tables get the position of their value in the list of the document unit.
+-- The positions only have to ascend, so a value inserted before the first or after the last value
+-- needs no update of the other rows. The existing rows keep the order of their ids. Rows without a
+-- position are read after all other rows in the order of their ids.
+ALTER TABLE
+  file_number
+ADD COLUMN
+  IF NOT EXISTS position integer;
+
+UPDATE
+  file_number
+SET
+  position = numbered.position
+FROM
+  (
+    SELECT
+      id,
+      ROW_NUMBER() OVER (
+        PARTITION BY
+          document_unit_id,
+          is_deviating
+        ORDER BY
+          id
+      ) AS position
+    FROM
+      file_number
+  ) numbered
+WHERE
+  file_number.id = numbered.id;
+
+CREATE INDEX
+  IF NOT EXISTS file_number_document_unit_id_position_idx ON file_number (document_unit_id, position, id);
+
+ALTER TABLE
+  deviating_ecli
+ADD COLUMN
+  IF NOT EXISTS position integer;
+
+UPDATE
+  deviating_ecli
+SET
+  position = numbered.position
+FROM
+  (
+    SELECT
+      id,
+      ROW_NUMBER() OVER (
+        PARTITION BY
+          document_unit_id
+        ORDER BY
+          id
+      ) AS position
+    FROM
+      deviating_ecli
+  ) numbered
+WHERE
+  deviating_ecli.id = numbered.id;
+
+CREATE INDEX
+  IF NOT EXISTS deviating_ecli_document_unit_id_position_idx ON deviating_ecli (document_unit_id, position, id);
+
+ALTER TABLE
+  deviating_decision_date
+ADD COLUMN
+  IF NOT EXISTS position integer;
+
+UPDATE
+  deviating_decision_date
+SET
+  position = numbered.position
+FROM
+  (
+    SELECT
+      id,
+      ROW_NUMBER() OVER (
+        PARTITION BY
+          document_unit_id
+        ORDER BY
+          id
+      ) AS position
+    FROM
+      deviating_decision_date
+  ) numbered
+WHERE
+  deviating_decision_date.id = numbered.id;
+
+CREATE INDEX
+  IF NOT EXISTS deviating_decision_date_document_unit_id_position_idx ON deviating_decision_date (document_unit_id, position, id);
+
+ALTER TABLE
+  incorrect_court
+ADD COLUMN
+  IF NOT EXISTS position integer;
+
+UPDATE
+  incorrect_court
+SET
+  position = numbered.position
+FROM
+  (
+    SELECT
+      id,
+      ROW_NUMBER() OVER (
+        PARTITION BY
+          document_unit_id
+        ORDER BY
+          id
+      ) AS position
+    FROM
+      incorrect_court
+  ) numbered
+WHERE
+  incorrect_court.id = numbered.id;
+
+CREATE INDEX
+  IF NOT EXISTS incorrect_court_document_unit_id_position_idx ON incorrect_court (document_unit_id, position, id);
+
+ALTER TABLE
+  document_unit_norm
+ADD COLUMN
+  IF NOT EXISTS position integer;
+
+UPDATE
+  document_unit_norm
+SET
+  position = numbered.position
+FROM
+  (
+    SELECT
+      id,
+      ROW_NUMBER() OVER (
+        PARTITION BY
+          document_unit_id
+        ORDER BY
+          id
+      ) AS position
+    FROM
+      document_unit_norm
+  ) numbered
+WHERE
+  document_unit_norm.id = numbered.id;
+
+CREATE INDEX
+  IF NOT EXISTS document_unit_norm_document_unit_id_position_idx ON document_unit_norm (document_unit_id, position, id);
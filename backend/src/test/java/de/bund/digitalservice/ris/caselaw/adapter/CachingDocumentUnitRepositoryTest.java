@@ -0,0 +1,71 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.PostgresDocumentUnitRepositoryImpl;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnit;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(SpringExtension.class)
+@Import(CachingDocumentUnitRepository.class)
+class CachingDocumentUnitRepositoryTest {
+  private static final UUID TEST_UUID = UUID.fromString("88888888-4444-4444-4444-121212121212");
+
+  @Autowired private CachingDocumentUnitRepository cachingRepository;
+
+  @MockBean private PostgresDocumentUnitRepositoryImpl repository;
+  @MockBean private DocumentUnitCache cache;
+
+  @Test
+  void testFindByUuid_shouldReadThroughTheCache() {
+    DocumentUnit documentUnit = DocumentUnit.builder().uuid(TEST_UUID).build();
+    when(cache.getByUuid(eq(TEST_UUID), any())).thenReturn(Mono.just(documentUnit));
+
+    StepVerifier.create(cachingRepository.findByUuid(TEST_UUID))
+        .expectNext(documentUnit)
+        .verifyComplete();
+
+    verify(repository, never()).findByUuid(TEST_UUID);
+  }
+
+  @Test
+  void testSave_shouldInvalidateAfterTheSave() {
+    DocumentUnit documentUnit = DocumentUnit.builder().uuid(TEST_UUID).build();
+    when(repository.save(documentUnit)).thenReturn(Mono.just(documentUnit));
+    when(cache.invalidate(TEST_UUID)).thenReturn(Mono.empty());
+
+    StepVerifier.create(cachingRepository.save(documentUnit))
+        .expectNext(documentUnit)
+        .verifyComplete();
+
+    InOrder inOrder = inOrder(repository, cache);
+    inOrder.verify(repository).save(documentUnit);
+    inOrder.verify(cache).invalidate(TEST_UUID);
+  }
+
+  @Test
+  void testUnlinkDocumentUnits_shouldInvalidateParent() {
+    UUID childUuid = UUID.randomUUID();
+    when(repository.unlinkDocumentUnits(TEST_UUID, childUuid)).thenReturn(Mono.empty());
+    when(cache.invalidate(TEST_UUID)).thenReturn(Mono.empty());
+
+    StepVerifier.create(cachingRepository.unlinkDocumentUnits(TEST_UUID, childUuid))
+        .verifyComplete();
+
+    verify(cache).invalidate(TEST_UUID);
+  }
+}
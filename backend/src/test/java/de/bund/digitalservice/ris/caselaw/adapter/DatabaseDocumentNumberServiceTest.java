@@ -0,0 +1,180 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseDocumentNumberOfficeCounterRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentNumberOfficeCounterDTO;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentNumberCapacity;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitCreationInfo;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+class DatabaseDocumentNumberServiceTest {
+  private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+  private static final DocumentUnitCreationInfo CREATION_INFO =
+      new DocumentUnitCreationInfo("KO", "RE");
+
+  private final AtomicReference<Instant> now =
+      new AtomicReference<>(Instant.parse("2023-06-01T10:00:00Z"));
+  private final Map<String, DocumentNumberOfficeCounterDTO> counters = new HashMap<>();
+  private final AtomicInteger databaseYear = new AtomicInteger(2023);
+
+  private DatabaseDocumentNumberOfficeCounterRepository repository;
+  private Clock clock;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(DatabaseDocumentNumberOfficeCounterRepository.class);
+    when(repository.reserveBlock(anyString(), anyInt()))
+        .thenAnswer(
+            invocation -> reserveBlock(invocation.getArgument(0), invocation.getArgument(1)));
+
+    clock = mock(Clock.class);
+    when(clock.getZone()).thenReturn(ZONE);
+    when(clock.instant()).thenAnswer(invocation -> now.get());
+  }
+
+  @Test
+  void testGenerateNextDocumentNumber_shouldHandOutTheNumbersOfABlockInOrder() {
+    DatabaseDocumentNumberService service = new DatabaseDocumentNumberService(repository, 3, clock);
+
+    List<String> documentNumbers =
+        Flux.range(0, 4)
+            .concatMap(index -> service.generateNextDocumentNumber(CREATION_INFO))
+            .collectList()
+            .block();
+
+    assertThat(documentNumbers)
+        .containsExactly("KORE202300001", "KORE202300002", "KORE202300003", "KORE202300004");
+    verify(repository, times(2)).reserveBlock("KO", 3);
+  }
+
+  @Test
+  void testGenerateNextDocumentNumber_withNewYear_shouldStartAgainWithOne() {
+    DatabaseDocumentNumberService service =
+        new DatabaseDocumentNumberService(repository, 10, clock);
+    service.generateNextDocumentNumber(CREATION_INFO).block();
+    service.generateNextDocumentNumber(CREATION_INFO).block();
+
+    now.set(Instant.parse("2024-01-01T00:30:00Z"));
+    databaseYear.set(2024);
+
+    assertThat(service.generateNextDocumentNumber(CREATION_INFO).block())
+        .isEqualTo("KORE202400001");
+    assertThat(service.generateNextDocumentNumber(CREATION_INFO).block())
+        .isEqualTo("KORE202400002");
+  }
+
+  @Test
+  void testGenerateNextDocumentNumber_shouldCountPerDocumentationCenter() {
+    DatabaseDocumentNumberService service =
+        new DatabaseDocumentNumberService(repository, 10, clock);
+
+    assertThat(service.generateNextDocumentNumber(CREATION_INFO).block())
+        .isEqualTo("KORE202300001");
+    assertThat(
+            service.generateNextDocumentNumber(new DocumentUnitCreationInfo("BGH", "RE")).block())
+        .isEqualTo("BGHRE202300001");
+    assertThat(service.generateNextDocumentNumber(CREATION_INFO).block())
+        .isEqualTo("KORE202300002");
+    verify(repository).reserveBlock(eq("BGH"), anyInt());
+  }
+
+  @Test
+  void testGenerateNextDocumentNumber_withoutNumbersLeft_shouldFail() {
+    counters.put(
+        "KO2023",
+        DocumentNumberOfficeCounterDTO.builder()
+            .documentationCenterAbbreviation("KO")
+            .year(2023)
+            .nextNumber(99_999)
+            .build());
+    DatabaseDocumentNumberService service = new DatabaseDocumentNumberService(repository, 1, clock);
+
+    assertThat(service.generateNextDocumentNumber(CREATION_INFO).block())
+        .isEqualTo("KORE202399999");
+    StepVerifier.create(service.generateNextDocumentNumber(CREATION_INFO))
+        .expectError(IllegalStateException.class)
+        .verify();
+  }
+
+  @Test
+  void testGetCapacities_shouldReturnTheRemainingNumbers() {
+    when(repository.findAllOrderedByYearAndDocumentationCenter())
+        .thenReturn(
+            Flux.just(
+                DocumentNumberOfficeCounterDTO.builder()
+                    .documentationCenterAbbreviation("KO")
+                    .year(2023)
+                    .nextNumber(121)
+                    .build()));
+    DatabaseDocumentNumberService service =
+        new DatabaseDocumentNumberService(repository, 10, clock);
+
+    StepVerifier.create(service.getCapacities())
+        .expectNext(new DocumentNumberCapacity("KO", 2023, 120, 99_879))
+        .verifyComplete();
+  }
+
+  @Test
+  void testGenerateNextDocumentNumber_withConcurrentInstances_shouldNeverRepeatANumber() {
+    List<DatabaseDocumentNumberService> services =
+        List.of(
+            new DatabaseDocumentNumberService(repository, 10, clock),
+            new DatabaseDocumentNumberService(repository, 10, clock),
+            new DatabaseDocumentNumberService(repository, 10, clock));
+
+    List<String> documentNumbers =
+        Flux.range(0, 5000)
+            .parallel(8)
+            .runOn(Schedulers.parallel())
+            .flatMap(
+                index ->
+                    services.get(index % services.size()).generateNextDocumentNumber(CREATION_INFO))
+            .sequential()
+            .collectList()
+            .block();
+
+    assertThat(documentNumbers).hasSize(5000).doesNotHaveDuplicates();
+  }
+
+  private Mono<DocumentNumberOfficeCounterDTO> reserveBlock(
+      String documentationCenterAbbreviation, int blockSize) {
+    return Mono.fromSupplier(
+        () -> {
+          synchronized (counters) {
+            int year = databaseYear.get();
+            DocumentNumberOfficeCounterDTO counter =
+                counters.computeIfAbsent(
+                    documentationCenterAbbreviation + year,
+                    key ->
+                        DocumentNumberOfficeCounterDTO.builder()
+                            .documentationCenterAbbreviation(documentationCenterAbbreviation)
+                            .year(year)
+                            .nextNumber(1)
+                            .build());
+            counter.setNextNumber(counter.getNextNumber() + blockSize);
+            return counter.toBuilder().build();
+          }
+        });
+  }
+}
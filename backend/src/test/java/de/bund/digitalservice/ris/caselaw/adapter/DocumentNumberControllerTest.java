@@ -0,0 +1,79 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import static de.bund.digitalservice.ris.caselaw.Utils.getMockLogin;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockOidcLogin;
+
+import de.bund.digitalservice.ris.caselaw.domain.DocumentNumberCapacity;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentNumberService;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+@ExtendWith(SpringExtension.class)
+@WebFluxTest(controllers = DocumentNumberController.class)
+@WithMockUser
+class DocumentNumberControllerTest {
+  @Autowired private WebTestClient webClient;
+
+  @MockBean private DocumentNumberService service;
+
+  @Test
+  void testGetCapacities() {
+    when(service.getCapacities())
+        .thenReturn(
+            Flux.just(
+                new DocumentNumberCapacity("KO", 2023, 120, 99879),
+                new DocumentNumberCapacity("BGH", 2022, 99999, 0)));
+
+    webClient
+        .mutateWith(csrf())
+        .mutateWith(getMockLogin())
+        .get()
+        .uri("/api/v1/caselaw/documentnumbers/capacity")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$[0].documentationCenterAbbreviation")
+        .isEqualTo("KO")
+        .jsonPath("$[0].remainingNumbers")
+        .isEqualTo(99879)
+        .jsonPath("$[1].year")
+        .isEqualTo(2022)
+        .jsonPath("$[1].remainingNumbers")
+        .isEqualTo(0);
+  }
+
+  @Test
+  void testGetCapacities_withoutCapacityGroup_shouldBeForbidden() {
+    webClient
+        .mutateWith(csrf())
+        .mutateWith(
+            mockOidcLogin()
+                .idToken(
+                    token ->
+                        token.claims(
+                            claims -> {
+                              claims.put("groups", Collections.singletonList("/caselaw/BGH"));
+                              claims.put("name", "testUser");
+                            })))
+        .get()
+        .uri("/api/v1/caselaw/documentnumbers/capacity")
+        .exchange()
+        .expectStatus()
+        .isForbidden();
+
+    verify(service, never()).getCapacities();
+  }
+}
@@ -0,0 +1,223 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnit;
+import de.bund.digitalservice.ris.caselaw.domain.ProceedingDecision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.ReactiveSubscription.ChannelMessage;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class DocumentUnitCacheTest {
+  private static final UUID TEST_UUID = UUID.fromString("88888888-4444-4444-4444-121212121212");
+
+  private ReactiveStringRedisTemplate redisTemplate;
+  private DocumentUnitCache cache;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    redisTemplate = mock(ReactiveStringRedisTemplate.class);
+    ObjectProvider<ReactiveStringRedisTemplate> redisTemplateProvider = mock(ObjectProvider.class);
+    when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+
+    cache =
+        new DocumentUnitCache(redisTemplateProvider, 100, Duration.ofMinutes(10), "test-channel");
+  }
+
+  @Test
+  void testGetByUuid_shouldLoadOnlyOnce() {
+    AtomicInteger loads = new AtomicInteger();
+    Supplier<Mono<DocumentUnit>> loader = countingLoader(TEST_UUID, "ABCD202300001", loads);
+
+    StepVerifier.create(cache.getByUuid(TEST_UUID, loader)).expectNextCount(1).verifyComplete();
+    StepVerifier.create(cache.getByUuid(TEST_UUID, loader)).expectNextCount(1).verifyComplete();
+    StepVerifier.create(cache.getByDocumentNumber("ABCD202300001", loader))
+        .expectNextCount(1)
+        .verifyComplete();
+
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  void testInvalidate_shouldEvictAndPublish() {
+    when(redisTemplate.convertAndSend("test-channel", TEST_UUID.toString()))
+        .thenReturn(Mono.just(1L));
+    AtomicInteger loads = new AtomicInteger();
+    Supplier<Mono<DocumentUnit>> loader = countingLoader(TEST_UUID, "ABCD202300001", loads);
+
+    cache.getByUuid(TEST_UUID, loader).block();
+    StepVerifier.create(cache.invalidate(TEST_UUID)).verifyComplete();
+    cache.getByUuid(TEST_UUID, loader).block();
+
+    assertThat(loads).hasValue(2);
+    verify(redisTemplate).convertAndSend("test-channel", TEST_UUID.toString());
+  }
+
+  @Test
+  void testInvalidate_withinTransaction_shouldEvictAfterTheCommit() {
+    when(redisTemplate.convertAndSend("test-channel", TEST_UUID.toString()))
+        .thenReturn(Mono.just(1L));
+    AtomicInteger loads = new AtomicInteger();
+    Supplier<Mono<DocumentUnit>> loader = countingLoader(TEST_UUID, "ABCD202300001", loads);
+    TransactionalOperator transactionalOperator =
+        TransactionalOperator.create(new NoOpTransactionManager());
+
+    cache.getByUuid(TEST_UUID, loader).block();
+    StepVerifier.create(
+            cache
+                .invalidate(TEST_UUID)
+                .then(Mono.defer(() -> cache.getByUuid(TEST_UUID, loader)))
+                .as(transactionalOperator::transactional))
+        .expectNextCount(1)
+        .verifyComplete();
+    assertThat(loads).hasValue(1);
+
+    cache.getByUuid(TEST_UUID, loader).block();
+
+    assertThat(loads).hasValue(2);
+    verify(redisTemplate).convertAndSend("test-channel", TEST_UUID.toString());
+  }
+
+  @Test
+  void testInvalidate_withPublishError_shouldStillComplete() {
+    when(redisTemplate.convertAndSend("test-channel", TEST_UUID.toString()))
+        .thenReturn(Mono.error(new IllegalStateException("redis down")));
+
+    StepVerifier.create(cache.invalidate(TEST_UUID)).verifyComplete();
+  }
+
+  @Test
+  void testInvalidate_duringLoad_shouldNotCacheTheLoadedDocumentUnit() {
+    when(redisTemplate.convertAndSend("test-channel", TEST_UUID.toString()))
+        .thenReturn(Mono.just(1L));
+    Sinks.One<DocumentUnit> slowLoad = Sinks.one();
+    AtomicInteger loads = new AtomicInteger();
+
+    Mono<DocumentUnit> documentUnit = cache.getByUuid(TEST_UUID, slowLoad::asMono);
+    StepVerifier.create(documentUnit)
+        .then(() -> cache.invalidate(TEST_UUID).block())
+        .then(() -> slowLoad.tryEmitValue(DocumentUnit.builder().uuid(TEST_UUID).build()))
+        .expectNextCount(1)
+        .verifyComplete();
+    cache.getByUuid(TEST_UUID, countingLoader(TEST_UUID, "ABCD202300001", loads)).block();
+
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  void testInvalidate_ofProceedingDecision_shouldEvictParent() {
+    UUID childUuid = UUID.randomUUID();
+    when(redisTemplate.convertAndSend("test-channel", childUuid.toString()))
+        .thenReturn(Mono.just(1L));
+    AtomicInteger loads = new AtomicInteger();
+    Supplier<Mono<DocumentUnit>> loader =
+        () -> {
+          loads.incrementAndGet();
+          return Mono.just(
+              DocumentUnit.builder()
+                  .uuid(TEST_UUID)
+                  .proceedingDecisions(
+                      List.of(ProceedingDecision.builder().uuid(childUuid).build()))
+                  .build());
+        };
+
+    cache.getByUuid(TEST_UUID, loader).block();
+    cache.invalidate(childUuid).block();
+    cache.getByUuid(TEST_UUID, loader).block();
+
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void testRemoteInvalidation_shouldEvict() {
+    doReturn(Flux.just(new ChannelMessage<>("test-channel", TEST_UUID.toString())))
+        .when(redisTemplate)
+        .listenToChannel("test-channel");
+    AtomicInteger loads = new AtomicInteger();
+    Supplier<Mono<DocumentUnit>> loader = countingLoader(TEST_UUID, "ABCD202300001", loads);
+
+    cache.getByUuid(TEST_UUID, loader).block();
+    cache.subscribeToInvalidations();
+    cache.getByUuid(TEST_UUID, loader).block();
+    cache.unsubscribeFromInvalidations();
+
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void testBindTo_shouldExportHitsAndMisses() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    cache.bindTo(registry);
+    Supplier<Mono<DocumentUnit>> loader =
+        countingLoader(TEST_UUID, "ABCD202300001", new AtomicInteger());
+
+    cache.getByUuid(TEST_UUID, loader).block();
+    cache.getByUuid(TEST_UUID, loader).block();
+
+    assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count())
+        .isEqualTo(1);
+    assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count())
+        .isEqualTo(1);
+  }
+
+  private static Supplier<Mono<DocumentUnit>> countingLoader(
+      UUID uuid, String documentNumber, AtomicInteger loads) {
+    return () -> {
+      loads.incrementAndGet();
+      return Mono.just(DocumentUnit.builder().uuid(uuid).documentNumber(documentNumber).build());
+    };
+  }
+
+  private static class NoOpTransactionManager extends AbstractReactiveTransactionManager {
+    @Override
+    protected @NonNull Object doGetTransaction(
+        @NonNull TransactionSynchronizationManager synchronizationManager) {
+      return new Object();
+    }
+
+    @Override
+    protected @NonNull Mono<Void> doBegin(
+        @NonNull TransactionSynchronizationManager synchronizationManager,
+        @NonNull Object transaction,
+        @NonNull TransactionDefinition definition) {
+      return Mono.empty();
+    }
+
+    @Override
+    protected @NonNull Mono<Void> doCommit(
+        @NonNull TransactionSynchronizationManager synchronizationManager,
+        @NonNull GenericReactiveTransaction status) {
+      return Mono.empty();
+    }
+
+    @Override
+    protected @NonNull Mono<Void> doRollback(
+        @NonNull TransactionSynchronizationManager synchronizationManager,
+        @NonNull GenericReactiveTransaction status) {
+      return Mono.empty();
+    }
+  }
+}
@@ -3,7 +3,9 @@ package de.bund.digitalservice.ris.caselaw.adapter;
 import static de.bund.digitalservice.ris.caselaw.Utils.getMockLogin;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -14,10 +16,12 @@ import de.bund.digitalservice.ris.caselaw.adapter.transformer.DocumentUnitTransf
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnit;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitCreationInfo;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitPublishException;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitSaveResult;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitService;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentationOffice;
 import de.bund.digitalservice.ris.caselaw.domain.ProceedingDecision;
 import de.bund.digitalservice.ris.caselaw.domain.PublishState;
+import de.bund.digitalservice.ris.caselaw.domain.Texts;
 import de.bund.digitalservice.ris.caselaw.domain.User;
 import de.bund.digitalservice.ris.caselaw.domain.XmlMail;
 import de.bund.digitalservice.ris.caselaw.domain.XmlMailResponse;
@@ -26,6 +30,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -173,6 +178,21 @@ class DocumentUnitControllerTest {
     verify(service).getAll(PageRequest.of(0, 10));
   }
 
+  @Test
+  void testGetAllByCursor() {
+    when(service.getAllByCursor("cursor", 10, true)).thenReturn(Mono.empty());
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/documentunits/list?cursor=cursor&sz=10&estimateTotal=true")
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    verify(service).getAllByCursor("cursor", 10, true);
+  }
+
   @Test
   void testGetByDocumentnumber() {
     when(service.getByDocumentNumber("ABCD202200001")).thenReturn(Mono.empty());
@@ -188,6 +208,67 @@ class DocumentUnitControllerTest {
     verify(service).getByDocumentNumber("ABCD202200001");
   }
 
+  @Test
+  void testGetByDocumentNumber_shouldReturnETagOfVersion() {
+    when(service.getByDocumentNumber("ABCD202200001"))
+        .thenReturn(
+            Mono.just(DocumentUnit.builder().documentNumber("ABCD202200001").version(42L).build()));
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/documentunits/ABCD202200001")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(HttpHeaders.ETAG, "\"42\"");
+
+    verify(service, never()).getVersionByDocumentNumber(anyString());
+  }
+
+  @Test
+  void testGetByDocumentNumber_withMatchingIfNoneMatch_shouldReturnNotModified() {
+    when(service.getVersionByDocumentNumber("ABCD202200001")).thenReturn(Mono.just(42L));
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/documentunits/ABCD202200001")
+        .header(HttpHeaders.IF_NONE_MATCH, "\"41\", W/\"42\"")
+        .exchange()
+        .expectStatus()
+        .isNotModified()
+        .expectHeader()
+        .valueEquals(HttpHeaders.ETAG, "\"42\"")
+        .expectBody()
+        .isEmpty();
+
+    verify(service, never()).getByDocumentNumber(anyString());
+  }
+
+  @Test
+  void testGetByDocumentNumber_withOutdatedIfNoneMatch_shouldReturnDocumentUnit() {
+    when(service.getVersionByDocumentNumber("ABCD202200001")).thenReturn(Mono.just(43L));
+    when(service.getByDocumentNumber("ABCD202200001"))
+        .thenReturn(
+            Mono.just(DocumentUnit.builder().documentNumber("ABCD202200001").version(43L).build()));
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/documentunits/ABCD202200001")
+        .header(HttpHeaders.IF_NONE_MATCH, "\"42\"")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(HttpHeaders.ETAG, "\"43\"")
+        .expectBody()
+        .jsonPath("$.documentNumber")
+        .isEqualTo("ABCD202200001");
+  }
+
   @Test
   void testGetByUuid_withInvalidUuid() {
     webClient
@@ -231,7 +312,8 @@ class DocumentUnitControllerTest {
     documentUnitDTO.setDocumentnumber("ABCD202200001");
     documentUnitDTO.setUuid(TEST_UUID);
     DocumentUnit documentUnit = DocumentUnitTransformer.transformDTO(documentUnitDTO);
-    when(service.updateDocumentUnit(documentUnit)).thenReturn(Mono.empty());
+    when(service.updateDocumentUnit(documentUnit))
+        .thenReturn(Mono.just(new DocumentUnitSaveResult(documentUnit, false)));
     webClient
         .mutateWith(csrf())
         .put()
@@ -244,6 +326,26 @@ class DocumentUnitControllerTest {
     verify(service).updateDocumentUnit(documentUnit);
   }
 
+  @Test
+  void testUpdateByUuid_withBufferedSave_shouldReturnAccepted() {
+    DocumentUnit documentUnit =
+        DocumentUnit.builder().uuid(TEST_UUID).documentNumber("ABCD202200001").build();
+    when(service.updateDocumentUnit(documentUnit))
+        .thenReturn(Mono.just(new DocumentUnitSaveResult(documentUnit, true)));
+    webClient
+        .mutateWith(csrf())
+        .put()
+        .uri("/api/v1/caselaw/documentunits/" + TEST_UUID)
+        .header(HttpHeaders.CONTENT_TYPE, "application/json")
+        .bodyValue(documentUnit)
+        .exchange()
+        .expectStatus()
+        .isAccepted()
+        .expectBody()
+        .jsonPath("uuid")
+        .isEqualTo(TEST_UUID.toString());
+  }
+
   @Test
   void testUpdateByUuid_withInvalidUuid() {
     DocumentUnitDTO documentUnitDTO = new DocumentUnitDTO();
@@ -259,6 +361,124 @@ class DocumentUnitControllerTest {
         .is4xxClientError();
   }
 
+  @Test
+  void testPatchByUuid_shouldApplyTheMergePatch() {
+    DocumentUnit storedDocumentUnit =
+        DocumentUnit.builder()
+            .uuid(TEST_UUID)
+            .documentNumber("ABCD202200001")
+            .texts(Texts.builder().headline("old headline").tenor("tenor").build())
+            .build();
+    when(service.patchDocumentUnit(eq(TEST_UUID), any()))
+        .thenAnswer(
+            invocation ->
+                Mono.just(
+                    invocation
+                        .<UnaryOperator<DocumentUnit>>getArgument(1)
+                        .apply(storedDocumentUnit)));
+
+    webClient
+        .mutateWith(csrf())
+        .patch()
+        .uri("/api/v1/caselaw/documentunits/" + TEST_UUID)
+        .header(HttpHeaders.CONTENT_TYPE, "application/merge-patch+json")
+        .bodyValue("{\"texts\":{\"headline\":\"new headline\",\"tenor\":null}}")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.documentNumber")
+        .isEqualTo("ABCD202200001")
+        .jsonPath("$.texts.headline")
+        .isEqualTo("new headline")
+        .jsonPath("$.texts.tenor")
+        .doesNotExist();
+  }
+
+  @Test
+  void testPatchByUuid_withPatchWhichIsNoObject_shouldReturnUnprocessableEntity() {
+    webClient
+        .mutateWith(csrf())
+        .patch()
+        .uri("/api/v1/caselaw/documentunits/" + TEST_UUID)
+        .header(HttpHeaders.CONTENT_TYPE, "application/merge-patch+json")
+        .bodyValue("[]")
+        .exchange()
+        .expectStatus()
+        .isEqualTo(422);
+    verify(service, never()).patchDocumentUnit(any(), any());
+  }
+
+  @Test
+  void testPatchByUuid_withPatchOfTheDocumentNumber_shouldReturnUnprocessableEntity() {
+    webClient
+        .mutateWith(csrf())
+        .patch()
+        .uri("/api/v1/caselaw/documentunits/" + TEST_UUID)
+        .header(HttpHeaders.CONTENT_TYPE, "application/merge-patch+json")
+        .bodyValue("{\"documentNumber\":\"XXRE202200001\"}")
+        .exchange()
+        .expectStatus()
+        .isEqualTo(422);
+    verify(service, never()).patchDocumentUnit(any(), any());
+  }
+
+  @Test
+  void testPatchByUuid_withPatchOfTheKeywords_shouldReturnUnprocessableEntity() {
+    webClient
+        .mutateWith(csrf())
+        .patch()
+        .uri("/api/v1/caselaw/documentunits/" + TEST_UUID)
+        .header(HttpHeaders.CONTENT_TYPE, "application/merge-patch+json")
+        .bodyValue("{\"contentRelatedIndexing\":{\"keywords\":[\"keyword\"]}}")
+        .exchange()
+        .expectStatus()
+        .isEqualTo(422)
+        .expectBody()
+        .jsonPath("detail")
+        .isEqualTo("The member contentRelatedIndexing.keywords can't be patched");
+    verify(service, never()).patchDocumentUnit(any(), any());
+  }
+
+  @Test
+  void testPatchByUuid_withPatchResultingInAnInvalidDocumentUnit_shouldReturnUnprocessableEntity() {
+    DocumentUnit storedDocumentUnit =
+        DocumentUnit.builder().uuid(TEST_UUID).documentNumber("ABCD202200001").build();
+    when(service.patchDocumentUnit(eq(TEST_UUID), any()))
+        .thenAnswer(
+            invocation ->
+                Mono.fromCallable(
+                    () ->
+                        invocation
+                            .<UnaryOperator<DocumentUnit>>getArgument(1)
+                            .apply(storedDocumentUnit)));
+
+    webClient
+        .mutateWith(csrf())
+        .patch()
+        .uri("/api/v1/caselaw/documentunits/" + TEST_UUID)
+        .header(HttpHeaders.CONTENT_TYPE, "application/merge-patch+json")
+        .bodyValue("{\"coreData\":{\"decisionDate\":\"2999-01-01T00:00:00Z\"}}")
+        .exchange()
+        .expectStatus()
+        .isEqualTo(422);
+  }
+
+  @Test
+  void testPatchByUuid_withUnknownUuid_shouldReturnNotFound() {
+    when(service.patchDocumentUnit(eq(TEST_UUID), any())).thenReturn(Mono.empty());
+
+    webClient
+        .mutateWith(csrf())
+        .patch()
+        .uri("/api/v1/caselaw/documentunits/" + TEST_UUID)
+        .header(HttpHeaders.CONTENT_TYPE, "application/merge-patch+json")
+        .bodyValue("{}")
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+  }
+
   @Test
   void testPublishAsEmail() {
     when(service.publishAsEmail(TEST_UUID, RECEIVER_ADDRESS))
@@ -0,0 +1,108 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseAdvisoryLocks;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseAdvisoryLocks.Lock;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitWriteBehindBuffer;
+import io.r2dbc.spi.Connection;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import reactor.core.publisher.Mono;
+
+class DocumentUnitWriteBehindGuardTest {
+  private final DatabaseAdvisoryLocks locks = mock(DatabaseAdvisoryLocks.class);
+  private final DocumentUnitWriteBehindBuffer writeBehindBuffer =
+      mock(DocumentUnitWriteBehindBuffer.class);
+  private final DocumentUnitWriteBehindGuard guard =
+      new DocumentUnitWriteBehindGuard(locks, writeBehindBuffer, 10, 10);
+  private final Connection connection = mock(Connection.class);
+  private final Lock exclusiveLock = new Lock(connection, DocumentUnitWriteBehindGuard.LOCK_NAME);
+  private final Lock sharedLock =
+      new Lock(connection, DocumentUnitWriteBehindGuard.LOCK_NAME, true);
+
+  @Test
+  void testAcquireLock_withLockOfAnotherInstance_shouldSuspendTheBufferUntilTheLockIsShared() {
+    when(locks.tryAcquire(DocumentUnitWriteBehindGuard.LOCK_NAME)).thenReturn(Mono.empty());
+    when(locks.acquireShared(DocumentUnitWriteBehindGuard.LOCK_NAME))
+        .thenReturn(Mono.just(sharedLock));
+    when(locks.tryUpgrade(sharedLock)).thenReturn(Mono.empty());
+    when(locks.release(sharedLock)).thenReturn(Mono.empty());
+
+    guard.acquireLock();
+
+    InOrder inOrder = inOrder(writeBehindBuffer);
+    inOrder.verify(writeBehindBuffer).suspend();
+    inOrder.verify(writeBehindBuffer, timeout(1000)).resume();
+    verify(writeBehindBuffer, never()).activate();
+    guard.releaseLock();
+    verify(locks).release(sharedLock);
+  }
+
+  @Test
+  void testAcquireLock_withSharedLockReleasedByAnotherInstance_shouldActivateTheBuffer() {
+    when(locks.tryAcquire(DocumentUnitWriteBehindGuard.LOCK_NAME)).thenReturn(Mono.empty());
+    when(locks.acquireShared(DocumentUnitWriteBehindGuard.LOCK_NAME))
+        .thenReturn(Mono.just(sharedLock));
+    when(locks.tryUpgrade(sharedLock))
+        .thenReturn(Mono.empty(), Mono.empty(), Mono.just(exclusiveLock));
+    when(locks.hasWaiters(exclusiveLock)).thenReturn(Mono.just(false));
+    when(locks.release(exclusiveLock)).thenReturn(Mono.empty());
+
+    guard.acquireLock();
+
+    verify(writeBehindBuffer, timeout(1000)).activate();
+    guard.releaseLock();
+    verify(locks).release(exclusiveLock);
+  }
+
+  @Test
+  void testAcquireLock_withWaitingInstance_shouldWriteTheBufferedSavesBeforeTheLockIsShared() {
+    when(locks.tryAcquire(DocumentUnitWriteBehindGuard.LOCK_NAME))
+        .thenReturn(Mono.just(exclusiveLock));
+    when(locks.hasWaiters(exclusiveLock)).thenReturn(Mono.just(false), Mono.just(true));
+    when(writeBehindBuffer.flushAll()).thenReturn(Mono.empty());
+    when(locks.downgrade(exclusiveLock)).thenReturn(Mono.just(sharedLock));
+    when(locks.tryUpgrade(sharedLock)).thenReturn(Mono.empty());
+    when(locks.release(sharedLock)).thenReturn(Mono.empty());
+
+    guard.acquireLock();
+
+    InOrder inOrder = inOrder(writeBehindBuffer, locks);
+    inOrder.verify(writeBehindBuffer, timeout(1000)).deactivate();
+    inOrder.verify(writeBehindBuffer).flushAll();
+    inOrder.verify(locks).downgrade(exclusiveLock);
+    inOrder.verify(writeBehindBuffer, timeout(1000)).resume();
+    guard.releaseLock();
+    verify(locks).release(sharedLock);
+  }
+
+  @Test
+  void testReleaseLock_shouldWriteTheBufferedSavesBeforeTheLockIsReleased() {
+    when(locks.tryAcquire(DocumentUnitWriteBehindGuard.LOCK_NAME))
+        .thenReturn(Mono.just(exclusiveLock));
+    when(locks.hasWaiters(exclusiveLock)).thenReturn(Mono.just(false));
+    when(locks.release(exclusiveLock)).thenReturn(Mono.empty());
+    guard.acquireLock();
+
+    guard.releaseLock();
+
+    InOrder inOrder = inOrder(writeBehindBuffer, locks);
+    inOrder.verify(writeBehindBuffer).shutdown();
+    inOrder.verify(locks).release(exclusiveLock);
+  }
+
+  @Test
+  void testReleaseLock_withoutLock_shouldOnlyWriteTheBufferedSaves() {
+    guard.releaseLock();
+
+    verify(writeBehindBuffer).shutdown();
+    verify(locks, never()).release(any());
+  }
+}
@@ -75,6 +75,21 @@ class FieldOfLawControllerTest {
     verify(service, times(1)).getChildrenOfFieldOfLaw("root");
   }
 
+  @Test
+  void testGetDescendantsOfFieldOfLaw() {
+    when(service.getDescendantsOfFieldOfLaw("root", 3)).thenReturn(Flux.empty());
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/fieldsoflaw/root/descendants?depth=3")
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    verify(service, times(1)).getDescendantsOfFieldOfLaw("root", 3);
+  }
+
   @Test
   void testGetTreeForFieldOfLaw() {
     when(service.getTreeForFieldOfLaw("root")).thenReturn(Mono.empty());
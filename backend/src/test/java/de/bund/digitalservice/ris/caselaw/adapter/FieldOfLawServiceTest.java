@@ -1,7 +1,6 @@
 package de.bund.digitalservice.ris.caselaw.adapter;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -36,6 +35,8 @@ class FieldOfLawServiceTest {
 
   @MockBean FieldOfLawRepository repository;
 
+  @MockBean DocumentUnitCache documentUnitCache;
+
   @Test
   void testGetFieldsOfLaw_withoutQuery_shouldntCallRepository() {
     Pageable pageable = Pageable.unpaged();
@@ -76,7 +77,8 @@ class FieldOfLawServiceTest {
   void testGetFieldsOfLaw_withQuery_shouldCallRepository() {
     Pageable pageable = PageRequest.of(0, 10);
     String[] searchTerms = new String[] {"test"};
-    when(repository.findBySearchTerms(searchTerms)).thenReturn(Flux.empty());
+    when(repository.searchAndOrderByScore(null, searchTerms, pageable))
+        .thenReturn(Mono.just(new PageImpl<>(List.of(), pageable, 0)));
 
     StepVerifier.create(service.getFieldsOfLawBySearchQuery(Optional.of("test"), pageable))
         .consumeNextWith(
@@ -86,7 +88,7 @@ class FieldOfLawServiceTest {
             })
         .verifyComplete();
 
-    verify(repository, times(1)).findBySearchTerms(searchTerms);
+    verify(repository, times(1)).searchAndOrderByScore(null, searchTerms, pageable);
     verify(repository, never()).findAllByOrderByIdentifierAsc(pageable);
   }
 
@@ -95,7 +97,8 @@ class FieldOfLawServiceTest {
       testGetFieldsOfLaw_withQueryWithWhitespaceAtTheStartAndTheEnd_shouldCallRepositoryWithTrimmedSearchString() {
     Pageable pageable = PageRequest.of(0, 10);
     String[] searchTerms = new String[] {"test"};
-    when(repository.findBySearchTerms(searchTerms)).thenReturn(Flux.empty());
+    when(repository.searchAndOrderByScore(null, searchTerms, pageable))
+        .thenReturn(Mono.just(new PageImpl<>(List.of(), pageable, 0)));
 
     StepVerifier.create(service.getFieldsOfLawBySearchQuery(Optional.of(" test  \t"), pageable))
         .consumeNextWith(
@@ -105,7 +108,7 @@ class FieldOfLawServiceTest {
             })
         .verifyComplete();
 
-    verify(repository, times(1)).findBySearchTerms(searchTerms);
+    verify(repository, times(1)).searchAndOrderByScore(null, searchTerms, pageable);
     verify(repository, never()).findAllByOrderByIdentifierAsc(pageable);
   }
 
@@ -139,36 +142,55 @@ class FieldOfLawServiceTest {
     verify(repository, never()).getTopLevelNodes();
   }
 
+  @Test
+  void testGetDescendantsOfFieldOfLaw_withNumberIsRoot_shouldCallRepositoryWithoutIdentifier() {
+    when(repository.findChildrenWithDescendants(null, 3)).thenReturn(Flux.empty());
+
+    StepVerifier.create(service.getDescendantsOfFieldOfLaw("root", 3)).verifyComplete();
+
+    verify(repository, times(1)).findChildrenWithDescendants(null, 3);
+  }
+
+  @Test
+  void testGetDescendantsOfFieldOfLaw_withDepthBelowOne_shouldReturnTheChildren() {
+    when(repository.findChildrenWithDescendants("test", 1)).thenReturn(Flux.empty());
+
+    StepVerifier.create(service.getDescendantsOfFieldOfLaw("test", 0)).verifyComplete();
+
+    verify(repository, times(1)).findChildrenWithDescendants("test", 1);
+  }
+
   @Test
   void testGetTreeForFieldOfLaw_withFieldNumberDoesntExist() {
-    when(repository.findByIdentifier("test")).thenReturn(Mono.empty());
+    when(repository.findAncestorsAndSelf("test")).thenReturn(Flux.empty());
 
     StepVerifier.create(service.getTreeForFieldOfLaw("test")).verifyComplete();
 
-    verify(repository, times(1)).findByIdentifier("test");
-    verify(repository, never()).findParentByChild(any(FieldOfLaw.class));
+    verify(repository, times(1)).findAncestorsAndSelf("test");
   }
 
   @Test
   void testGetTreeForFieldOfLaw_withFieldNumberAtTopLevel() {
-    FieldOfLaw child = FieldOfLaw.builder().identifier("test").build();
-    when(repository.findByIdentifier("test")).thenReturn(Mono.just(child));
-    when(repository.findParentByChild(child)).thenReturn(Mono.empty());
+    FieldOfLaw child = FieldOfLaw.builder().identifier("test").children(new ArrayList<>()).build();
+    when(repository.findAncestorsAndSelf("test")).thenReturn(Flux.just(child));
 
-    StepVerifier.create(service.getTreeForFieldOfLaw("test")).verifyComplete();
+    StepVerifier.create(service.getTreeForFieldOfLaw("test"))
+        .consumeNextWith(
+            result -> {
+              assertThat(result.identifier()).isEqualTo("test");
+              assertThat(result.children()).isEmpty();
+            })
+        .verifyComplete();
 
-    verify(repository, times(1)).findByIdentifier("test");
-    verify(repository, times(1)).findParentByChild(child);
+    verify(repository, times(1)).findAncestorsAndSelf("test");
   }
 
   @Test
   void testGetTreeForFieldOfLaw_withFieldNumberAtSecondLevel() {
-    FieldOfLaw child = FieldOfLaw.builder().identifier("child").build();
-    when(repository.findByIdentifier("child")).thenReturn(Mono.just(child));
+    FieldOfLaw child = FieldOfLaw.builder().identifier("child").children(new ArrayList<>()).build();
     FieldOfLaw parent =
         FieldOfLaw.builder().identifier("parent").children(new ArrayList<>()).build();
-    when(repository.findParentByChild(child)).thenReturn(Mono.just(parent));
-    when(repository.findParentByChild(parent)).thenReturn(Mono.just(parent));
+    when(repository.findAncestorsAndSelf("child")).thenReturn(Flux.just(parent, child));
 
     StepVerifier.create(service.getTreeForFieldOfLaw("child"))
         .consumeNextWith(
@@ -178,8 +200,7 @@ class FieldOfLawServiceTest {
             })
         .verifyComplete();
 
-    verify(repository, times(1)).findByIdentifier("child");
-    verify(repository, times(1)).findParentByChild(child);
+    verify(repository, times(1)).findAncestorsAndSelf("child");
   }
 
   @Test
@@ -201,13 +222,36 @@ class FieldOfLawServiceTest {
     Pageable pageable = PageRequest.of(0, 10);
     PageImpl<FieldOfLaw> page = new PageImpl<>(List.of(expectedFieldOfLaw), pageable, 1);
 
-    when(repository.findBySearchTerms(searchTerms)).thenReturn(Flux.just(expectedFieldOfLaw));
+    when(repository.searchAndOrderByScore(null, searchTerms, pageable)).thenReturn(Mono.just(page));
 
     StepVerifier.create(service.getFieldsOfLawBySearchQuery(Optional.of(searchString), pageable))
         .consumeNextWith(fieldOfLawPage -> assertThat(fieldOfLawPage).isEqualTo(page))
         .verifyComplete();
 
-    verify(repository).findBySearchTerms(searchTerms);
+    verify(repository).searchAndOrderByScore(null, searchTerms, pageable);
+  }
+
+  @Test
+  void testGetFieldsOfLaw_withNormString_shouldCallRepositoryWithNormStringAndSearchTerms() {
+    Pageable pageable = PageRequest.of(0, 10);
+    when(repository.searchAndOrderByScore("§ 12 BGB", new String[] {"first", "second"}, pageable))
+        .thenReturn(Mono.just(new PageImpl<>(List.of(), pageable, 0)));
+    when(repository.searchAndOrderByScore("§ 12 BGB", null, pageable))
+        .thenReturn(Mono.just(new PageImpl<>(List.of(), pageable, 0)));
+
+    StepVerifier.create(
+            service.getFieldsOfLawBySearchQuery(
+                Optional.of("norm:\"§12 BGB\" first  second"), pageable))
+        .expectNextCount(1)
+        .verifyComplete();
+    StepVerifier.create(
+            service.getFieldsOfLawBySearchQuery(Optional.of("norm: \"§12 BGB\""), pageable))
+        .expectNextCount(1)
+        .verifyComplete();
+
+    verify(repository)
+        .searchAndOrderByScore("§ 12 BGB", new String[] {"first", "second"}, pageable);
+    verify(repository).searchAndOrderByScore("§ 12 BGB", null, pageable);
   }
 
   @Test
@@ -0,0 +1,54 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+class JsonMergePatchTest {
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void testApply_shouldReplaceChangedMembersAndRemoveNullMembers() throws Exception {
+    JsonNode target = json("{\"a\":\"b\",\"c\":{\"d\":\"e\",\"f\":\"g\"}}");
+
+    JsonNode result = JsonMergePatch.apply(target, json("{\"a\":\"z\",\"c\":{\"f\":null}}"));
+
+    assertThat(result).isEqualTo(json("{\"a\":\"z\",\"c\":{\"d\":\"e\"}}"));
+  }
+
+  @Test
+  void testApply_shouldReplaceArraysAsAWhole() throws Exception {
+    JsonNode result = JsonMergePatch.apply(json("{\"a\":[1,2,3]}"), json("{\"a\":[4]}"));
+
+    assertThat(result).isEqualTo(json("{\"a\":[4]}"));
+  }
+
+  @Test
+  void testApply_withObjectForScalarMember_shouldCreateObject() throws Exception {
+    JsonNode result = JsonMergePatch.apply(json("{\"a\":\"b\"}"), json("{\"a\":{\"c\":null}}"));
+
+    assertThat(result).isEqualTo(json("{\"a\":{}}"));
+  }
+
+  @Test
+  void testApply_withPatchWhichIsNoObject_shouldReplaceTarget() throws Exception {
+    JsonNode result = JsonMergePatch.apply(json("{\"a\":\"b\"}"), json("[\"c\"]"));
+
+    assertThat(result).isEqualTo(json("[\"c\"]"));
+  }
+
+  @Test
+  void testApply_shouldNotChangeTheTarget() throws Exception {
+    JsonNode target = json("{\"a\":\"b\"}");
+
+    JsonMergePatch.apply(target, json("{\"a\":null}"));
+
+    assertThat(target).isEqualTo(json("{\"a\":\"b\"}"));
+  }
+
+  private JsonNode json(String content) throws Exception {
+    return objectMapper.readTree(content);
+  }
+}
@@ -5,6 +5,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import de.bund.digitalservice.ris.caselaw.domain.KeywordRepository;
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,6 +23,8 @@ class KeywordServiceTest {
 
   @MockBean KeywordRepository repository;
 
+  @MockBean DocumentUnitCache documentUnitCache;
+
   @Test
   void testGetAllKeywordsForDocumentUnit_shouldReturnList() {
     UUID documentUnitUuid = UUID.randomUUID();
@@ -35,23 +38,30 @@ class KeywordServiceTest {
   @Test
   void testAddKeywordToDocumentUnit_shouldReturnList() {
     UUID documentUnitUuid = UUID.randomUUID();
-    when(repository.addKeywordToDocumentUnit(documentUnitUuid, "test")).thenReturn(Mono.empty());
+    when(repository.addKeywordToDocumentUnit(documentUnitUuid, "test"))
+        .thenReturn(Mono.just(List.of("test")));
+    when(documentUnitCache.invalidate(documentUnitUuid)).thenReturn(Mono.empty());
 
     StepVerifier.create(service.addKeywordToDocumentUnit(documentUnitUuid, "test"))
+        .expectNext(List.of("test"))
         .verifyComplete();
 
     verify(repository, times(1)).addKeywordToDocumentUnit(documentUnitUuid, "test");
+    verify(documentUnitCache, times(1)).invalidate(documentUnitUuid);
   }
 
   @Test
   void testDeleteKeywordFromDocumentUnit_shouldReturnList() {
     UUID documentUnitUuid = UUID.randomUUID();
     when(repository.deleteKeywordFromDocumentUnit(documentUnitUuid, "test"))
-        .thenReturn(Mono.empty());
+        .thenReturn(Mono.just(List.of()));
+    when(documentUnitCache.invalidate(documentUnitUuid)).thenReturn(Mono.empty());
 
     StepVerifier.create(service.deleteKeywordFromDocumentUnit(documentUnitUuid, "test"))
+        .expectNext(List.of())
         .verifyComplete();
 
     verify(repository, times(1)).deleteKeywordFromDocumentUnit(documentUnitUuid, "test");
+    verify(documentUnitCache, times(1)).invalidate(documentUnitUuid);
   }
 }
@@ -0,0 +1,128 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.bund.digitalservice.ris.caselaw.adapter.LookupTableBundleService.SerializedBundle;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataCache;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataSnapshot;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.CourtDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DocumentTypeDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawTreeCache;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateDTO;
+import de.bund.digitalservice.ris.caselaw.domain.FieldOfLawRepository;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.LookupTableBundle;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldOfLaw;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class LookupTableBundleServiceTest {
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private ReferenceDataCache referenceDataCache;
+  private FieldOfLawTreeCache fieldOfLawTreeCache;
+  private FieldOfLawRepository fieldOfLawRepository;
+  private LookupTableBundleService service;
+
+  @BeforeEach
+  void setUp() {
+    referenceDataCache = mock(ReferenceDataCache.class);
+    fieldOfLawTreeCache = mock(FieldOfLawTreeCache.class);
+    fieldOfLawRepository = mock(FieldOfLawRepository.class);
+    when(fieldOfLawRepository.getTopLevelNodes())
+        .thenReturn(Flux.just(FieldOfLaw.builder().identifier("AR").build()));
+    service =
+        new LookupTableBundleService(
+            referenceDataCache, fieldOfLawTreeCache, fieldOfLawRepository, objectMapper);
+  }
+
+  @Test
+  void testGetBundle_shouldContainAllLookupTablesAndTheCompressedJson() throws IOException {
+    when(referenceDataCache.getSnapshot()).thenReturn(Mono.just(snapshot(1, "Berlin")));
+
+    SerializedBundle bundle = service.getBundle().block();
+
+    LookupTableBundle content = objectMapper.readValue(bundle.json(), LookupTableBundle.class);
+    assertThat(content.version()).isEqualTo(bundle.version()).hasSize(32);
+    assertThat(content.courts()).extracting("label").containsExactly("AG Berlin");
+    assertThat(content.documentTypes()).extracting("jurisShortcut").containsExactly("Ur");
+    assertThat(content.states()).extracting("jurisShortcut").containsExactly("BW");
+    assertThat(content.fieldsOfLaw()).extracting("identifier").containsExactly("AR");
+    try (GZIPInputStream inputStream =
+        new GZIPInputStream(new ByteArrayInputStream(bundle.gzipJson()))) {
+      assertThat(inputStream.readAllBytes()).isEqualTo(bundle.json());
+    }
+  }
+
+  @Test
+  void testGetBundle_shouldBuildOnlyOncePerSnapshot() {
+    when(referenceDataCache.getSnapshot()).thenReturn(Mono.just(snapshot(1, "Berlin")));
+
+    SerializedBundle first = service.getBundle().block();
+    SerializedBundle second = service.getBundle().block();
+
+    assertThat(second).isSameAs(first);
+    verify(fieldOfLawRepository, times(1)).getTopLevelNodes();
+  }
+
+  @Test
+  void testGetBundle_withNewFieldOfLawTree_shouldBuildAgain() {
+    when(referenceDataCache.getSnapshot()).thenReturn(Mono.just(snapshot(1, "Berlin")));
+    when(fieldOfLawTreeCache.getVersion()).thenReturn(1L);
+    SerializedBundle first = service.getBundle().block();
+
+    when(fieldOfLawRepository.getTopLevelNodes())
+        .thenReturn(Flux.just(FieldOfLaw.builder().identifier("SR").build()));
+    when(fieldOfLawTreeCache.getVersion()).thenReturn(2L);
+    SerializedBundle second = service.getBundle().block();
+
+    assertThat(second.version()).isNotEqualTo(first.version());
+    verify(fieldOfLawRepository, times(2)).getTopLevelNodes();
+  }
+
+  @Test
+  void testGetBundle_shouldOnlyChangeTheVersionWithTheContent() {
+    when(referenceDataCache.getSnapshot()).thenReturn(Mono.just(snapshot(1, "Berlin")));
+    SerializedBundle first = service.getBundle().block();
+
+    when(referenceDataCache.getSnapshot()).thenReturn(Mono.just(snapshot(2, "Berlin")));
+    SerializedBundle sameContent = service.getBundle().block();
+
+    when(referenceDataCache.getSnapshot()).thenReturn(Mono.just(snapshot(3, "Bonn")));
+    SerializedBundle changedContent = service.getBundle().block();
+
+    assertThat(sameContent).isNotSameAs(first);
+    assertThat(sameContent.version()).isEqualTo(first.version());
+    assertThat(changedContent.version()).isNotEqualTo(first.version());
+  }
+
+  private static ReferenceDataSnapshot snapshot(long version, String courtLocation) {
+    return new ReferenceDataSnapshot(
+        version,
+        List.of(CourtDTO.builder().id(1L).courttype("AG").courtlocation(courtLocation).build()),
+        List.of(StateDTO.builder().id(1L).jurisshortcut("BW").label("Ba-Wü").build()),
+        List.of(
+            DocumentTypeDTO.builder()
+                .id(1L)
+                .jurisShortcut("Ur")
+                .label("Urteil")
+                .documentType('R')
+                .build(),
+            DocumentTypeDTO.builder()
+                .id(2L)
+                .jurisShortcut("Ve")
+                .label("Verordnung")
+                .documentType('N')
+                .build()),
+        List.of());
+  }
+}
@@ -5,25 +5,37 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
 
+import de.bund.digitalservice.ris.caselaw.adapter.LookupTableBundleService.SerializedBundle;
 import de.bund.digitalservice.ris.caselaw.domain.LookupTableService;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @ExtendWith(SpringExtension.class)
 @WebFluxTest(controllers = LookupTableController.class)
 @WithMockUser
 class LookupTableControllerTest {
+  private static final SerializedBundle BUNDLE =
+      new SerializedBundle(
+          "abc",
+          "{\"version\":\"abc\"}".getBytes(StandardCharsets.UTF_8),
+          new byte[] {31, -117, 8});
+
   @Autowired private WebTestClient webClient;
 
   @MockBean private LookupTableService service;
+  @MockBean private LookupTableBundleService bundleService;
 
   @Test
   void testGetDocumentTypes() {
@@ -54,4 +66,141 @@ class LookupTableControllerTest {
 
     verify(service, times(1)).getCourts(Optional.empty());
   }
+
+  @Test
+  void testGetBundle_withGzip_shouldReturnTheCompressedBundle() {
+    when(bundleService.getBundle()).thenReturn(Mono.just(BUNDLE));
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/lookuptable/bundle")
+        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(HttpHeaders.ETAG, "\"abc-gzip\"")
+        .expectHeader()
+        .valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+        .expectHeader()
+        .cacheControl(CacheControl.noCache())
+        .expectBody(byte[].class)
+        .isEqualTo(BUNDLE.gzipJson());
+  }
+
+  @Test
+  void testGetBundle_withoutGzip_shouldReturnTheJson() {
+    when(bundleService.getBundle()).thenReturn(Mono.just(BUNDLE));
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/lookuptable/bundle")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(HttpHeaders.ETAG, "\"abc\"")
+        .expectHeader()
+        .doesNotExist(HttpHeaders.CONTENT_ENCODING)
+        .expectBody(String.class)
+        .isEqualTo("{\"version\":\"abc\"}");
+  }
+
+  @Test
+  void testGetBundle_withRefusedGzip_shouldReturnTheJson() {
+    when(bundleService.getBundle()).thenReturn(Mono.just(BUNDLE));
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/lookuptable/bundle")
+        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate, *;q=0.5")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(HttpHeaders.ETAG, "\"abc\"")
+        .expectHeader()
+        .doesNotExist(HttpHeaders.CONTENT_ENCODING)
+        .expectBody(String.class)
+        .isEqualTo("{\"version\":\"abc\"}");
+  }
+
+  @Test
+  void testGetBundle_withWildcardEncoding_shouldReturnTheCompressedBundle() {
+    when(bundleService.getBundle()).thenReturn(Mono.just(BUNDLE));
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/lookuptable/bundle")
+        .header(HttpHeaders.ACCEPT_ENCODING, "br, *;q=0.1")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(HttpHeaders.ETAG, "\"abc-gzip\"")
+        .expectBody(byte[].class)
+        .isEqualTo(BUNDLE.gzipJson());
+  }
+
+  @Test
+  void testGetBundle_withMatchingETag_shouldReturnNotModified() {
+    when(bundleService.getBundle()).thenReturn(Mono.just(BUNDLE));
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/lookuptable/bundle")
+        .header(HttpHeaders.IF_NONE_MATCH, "W/\"abc\"")
+        .exchange()
+        .expectStatus()
+        .isNotModified()
+        .expectHeader()
+        .valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+        .expectBody()
+        .isEmpty();
+  }
+
+  @Test
+  void testGetBundle_withETagOfTheOtherEncoding_shouldReturnTheBundle() {
+    when(bundleService.getBundle()).thenReturn(Mono.just(BUNDLE));
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/lookuptable/bundle")
+        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\"")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(byte[].class)
+        .isEqualTo(BUNDLE.gzipJson());
+  }
+
+  @Test
+  void testGetBundleOfVersion_shouldBeCachedLongOnlyForTheCurrentVersion() {
+    when(bundleService.getBundle()).thenReturn(Mono.just(BUNDLE));
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/lookuptable/bundle/abc")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=31536000, private, immutable");
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/lookuptable/bundle/old")
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+  }
 }
@@ -0,0 +1,178 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.bund.digitalservice.ris.caselaw.adapter.LookupTableImportJob.Phase;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseAdvisoryLocks;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseAdvisoryLocks.Lock;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseLookupTableImportJobRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.LookupTableImportJobDTO;
+import io.r2dbc.spi.Connection;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+class LookupTableImportJobServiceTest {
+  private final DatabaseAdvisoryLocks locks = mock(DatabaseAdvisoryLocks.class);
+  private final DatabaseLookupTableImportJobRepository jobRepository =
+      mock(DatabaseLookupTableImportJobRepository.class);
+  private final LookupTableImportJobService service =
+      new LookupTableImportJobService(
+          locks, jobRepository, Schedulers.immediate(), 100, Duration.ofMinutes(1));
+
+  @BeforeEach
+  void setUp() {
+    when(locks.tryAcquire(anyString()))
+        .thenAnswer(
+            invocation -> Mono.just(new Lock(mock(Connection.class), invocation.getArgument(0))));
+    when(locks.release(any())).thenReturn(Mono.empty());
+    when(jobRepository.finishUnfinishedJobs(anyString(), anyString(), anyString()))
+        .thenReturn(Mono.just(0));
+    when(jobRepository.save(any(LookupTableImportJobDTO.class)))
+        .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    when(jobRepository.deleteFinishedJobsExceptNewest(100)).thenReturn(Mono.just(0));
+  }
+
+  @Test
+  void testSubmit_shouldReturnTheJobAndImportTheUploadInTheBackground() {
+    Sinks.One<String> result = Sinks.one();
+    AtomicReference<String> uploadedXml = new AtomicReference<>();
+    AtomicReference<Path> uploadedFile = new AtomicReference<>();
+
+    LookupTableImportJob job =
+        service
+            .submit(
+                "court",
+                xml("<juris-table/>"),
+                (file, runningJob) -> {
+                  uploadedFile.set(file);
+                  uploadedXml.set(readString(file));
+                  runningJob.addRowsProcessed(5);
+                  return result.asMono();
+                })
+            .block();
+
+    assertThat(job).isNotNull();
+    assertThat(job.getPhase()).isEqualTo(Phase.IMPORTING);
+    assertThat(job.getRowsProcessed()).isEqualTo(5);
+    assertThat(uploadedXml.get()).isEqualTo("<juris-table/>");
+    assertThat(service.getJob(job.getId()).block()).isSameAs(job);
+    verify(jobRepository)
+        .finishUnfinishedJobs("court", Phase.FAILED.name(), "The import was interrupted");
+
+    result.tryEmitValue("Successfully imported the court lookup table");
+
+    assertThat(job.getPhase()).isEqualTo(Phase.COMPLETED);
+    assertThat(job.getMessage()).isEqualTo("Successfully imported the court lookup table");
+    assertThat(job.getFinishedAt()).isNotNull();
+    assertThat(uploadedFile.get()).doesNotExist();
+
+    ArgumentCaptor<LookupTableImportJobDTO> captor =
+        ArgumentCaptor.forClass(LookupTableImportJobDTO.class);
+    InOrder inOrder = inOrder(jobRepository, locks);
+    inOrder.verify(jobRepository, times(2)).save(captor.capture());
+    inOrder.verify(locks).release(any());
+    assertThat(captor.getAllValues().get(0).isNewEntry()).isTrue();
+    assertThat(captor.getAllValues().get(1).getPhase()).isEqualTo("COMPLETED");
+    assertThat(captor.getAllValues().get(1).getRowsProcessed()).isEqualTo(5);
+  }
+
+  @Test
+  void testGetJob_ofAnotherInstance_shouldReadTheStoredJob() {
+    UUID id = UUID.randomUUID();
+    when(jobRepository.findById(id))
+        .thenReturn(
+            Mono.just(
+                LookupTableImportJobDTO.builder()
+                    .id(id)
+                    .tableName("court")
+                    .phase("IMPORTING")
+                    .rowsProcessed(42)
+                    .startedAt(Instant.now())
+                    .build()));
+
+    StepVerifier.create(service.getJob(id))
+        .consumeNextWith(
+            job -> {
+              assertThat(job.getId()).isEqualTo(id);
+              assertThat(job.getTable()).isEqualTo("court");
+              assertThat(job.getPhase()).isEqualTo(Phase.IMPORTING);
+              assertThat(job.getRowsProcessed()).isEqualTo(42);
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void testSubmit_whileAnImportOfTheTableIsRunning_shouldReturnAConflict() {
+    Sinks.One<String> result = Sinks.one();
+    when(locks.tryAcquire("court")).thenReturn(Mono.empty());
+
+    StepVerifier.create(
+            service.submit("court", xml("<juris-table/>"), (file, job) -> result.asMono()))
+        .expectErrorSatisfies(
+            e ->
+                assertThat(e)
+                    .isInstanceOf(ResponseStatusException.class)
+                    .extracting(error -> ((ResponseStatusException) error).getStatusCode())
+                    .isEqualTo(HttpStatus.CONFLICT))
+        .verify();
+
+    StepVerifier.create(
+            service.submit("state", xml("<juris-table/>"), (file, job) -> result.asMono()))
+        .expectNextCount(1)
+        .verifyComplete();
+  }
+
+  @Test
+  void testSubmit_withAFailingImport_shouldFailTheJobAndReleaseTheLock() {
+    Sinks.One<String> result = Sinks.one();
+    LookupTableImportJob job =
+        service
+            .submit("court", xml("<juris-table/>"), (file, runningJob) -> result.asMono())
+            .block();
+
+    result.tryEmitError(new IllegalStateException("database is gone"));
+
+    assertThat(job.getPhase()).isEqualTo(Phase.FAILED);
+    assertThat(job.getMessage()).isEqualTo("Could not import the court lookup table");
+    verify(locks).release(any());
+  }
+
+  private static Flux<DataBuffer> xml(String xml) {
+    return Flux.just(
+        DefaultDataBufferFactory.sharedInstance.wrap(xml.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static String readString(Path file) {
+    try {
+      return Files.readString(file);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -1,12 +1,13 @@
 package de.bund.digitalservice.ris.caselaw.adapter;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
 
-import java.nio.ByteBuffer;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,9 +27,12 @@ class LookupTableImporterControllerTest {
 
   @MockBean private LookupTableImporterService service;
 
+  @MockBean private LookupTableImportJobService jobService;
+
   @Test
   void testImportDocumentTypeLookupTable() {
-    when(service.importDocumentTypeLookupTable(any(ByteBuffer.class))).thenReturn(Mono.empty());
+    LookupTableImportJob job = new LookupTableImportJob("document type");
+    when(jobService.submit(eq("document type"), any(), any())).thenReturn(Mono.just(job));
 
     webClient
         .mutateWith(csrf())
@@ -37,14 +41,18 @@ class LookupTableImporterControllerTest {
         .bodyValue(BodyInserters.fromValue(new byte[] {}))
         .exchange()
         .expectStatus()
-        .isOk();
+        .isAccepted()
+        .expectBody()
+        .jsonPath("$.id")
+        .isEqualTo(job.getId().toString());
 
-    verify(service, times(1)).importDocumentTypeLookupTable(any(ByteBuffer.class));
+    verify(jobService, times(1)).submit(eq("document type"), any(), any());
   }
 
   @Test
   void testImportCourtLookupTable() {
-    when(service.importCourtLookupTable(any(ByteBuffer.class))).thenReturn(Mono.empty());
+    LookupTableImportJob job = new LookupTableImportJob("court");
+    when(jobService.submit(eq("court"), any(), any())).thenReturn(Mono.just(job));
 
     webClient
         .mutateWith(csrf())
@@ -53,14 +61,18 @@ class LookupTableImporterControllerTest {
         .bodyValue(BodyInserters.fromValue(new byte[] {}))
         .exchange()
         .expectStatus()
-        .isOk();
+        .isAccepted()
+        .expectBody()
+        .jsonPath("$.id")
+        .isEqualTo(job.getId().toString());
 
-    verify(service, times(1)).importCourtLookupTable(any(ByteBuffer.class));
+    verify(jobService, times(1)).submit(eq("court"), any(), any());
   }
 
   @Test
   void testImportStateLookupTable() {
-    when(service.importStateLookupTable(any(ByteBuffer.class))).thenReturn(Mono.empty());
+    LookupTableImportJob job = new LookupTableImportJob("state");
+    when(jobService.submit(eq("state"), any(), any())).thenReturn(Mono.just(job));
 
     webClient
         .mutateWith(csrf())
@@ -69,14 +81,18 @@ class LookupTableImporterControllerTest {
         .bodyValue(BodyInserters.fromValue(new byte[] {}))
         .exchange()
         .expectStatus()
-        .isOk();
+        .isAccepted()
+        .expectBody()
+        .jsonPath("$.id")
+        .isEqualTo(job.getId().toString());
 
-    verify(service, times(1)).importStateLookupTable(any(ByteBuffer.class));
+    verify(jobService, times(1)).submit(eq("state"), any(), any());
   }
 
   @Test
   void testImportFieldOfLawLookupTable() {
-    when(service.importFieldOfLawLookupTable(any(ByteBuffer.class))).thenReturn(Mono.empty());
+    LookupTableImportJob job = new LookupTableImportJob("fieldOfLaw");
+    when(jobService.submit(eq("fieldOfLaw"), any(), any())).thenReturn(Mono.just(job));
 
     webClient
         .mutateWith(csrf())
@@ -85,8 +101,46 @@ class LookupTableImporterControllerTest {
         .bodyValue(BodyInserters.fromValue(new byte[] {}))
         .exchange()
         .expectStatus()
-        .isOk();
+        .isAccepted()
+        .expectBody()
+        .jsonPath("$.id")
+        .isEqualTo(job.getId().toString());
+
+    verify(jobService, times(1)).submit(eq("fieldOfLaw"), any(), any());
+  }
+
+  @Test
+  void testGetImportJob() {
+    LookupTableImportJob job = new LookupTableImportJob("court");
+    job.addRowsProcessed(3);
+    when(jobService.getJob(job.getId())).thenReturn(Mono.just(job));
 
-    verify(service, times(1)).importFieldOfLawLookupTable(any(ByteBuffer.class));
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/lookuptableimporter/jobs/" + job.getId())
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.table")
+        .isEqualTo("court")
+        .jsonPath("$.phase")
+        .isEqualTo("UPLOADING")
+        .jsonPath("$.rowsProcessed")
+        .isEqualTo(3);
+  }
+
+  @Test
+  void testGetImportJob_withUnknownId_shouldReturnNotFound() {
+    when(jobService.getJob(any())).thenReturn(Mono.empty());
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/lookuptableimporter/jobs/" + UUID.randomUUID())
+        .exchange()
+        .expectStatus()
+        .isNotFound();
   }
 }
@@ -0,0 +1,93 @@
+package de.bund.digitalservice.ris.caselaw.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldOfLawXml;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.state.StateXML;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+class LookupTableXmlReaderTest {
+  @TempDir Path tempDir;
+
+  @Test
+  void testNextBatch_shouldReadTheRecordsInBatches() throws IOException {
+    Path file =
+        write(
+            """
+            <?xml version="1.0"?>
+            <juris-table>
+                <juris-sachg id="1">
+                    <sachgebiet>TS-01</sachgebiet>
+                    <norm>
+                        <normabk>normabk 1</normabk>
+                    </norm>
+                    <schlagwort>schlagwort 1</schlagwort>
+                </juris-sachg>
+                <juris-sachg id="2"><sachgebiet>TS-01-01</sachgebiet></juris-sachg>
+                <juris-sachg id="3">
+                    <sachgebiet>TS-02</sachgebiet>
+                </juris-sachg>
+            </juris-table>
+            """);
+
+    try (LookupTableXmlReader<FieldOfLawXml> reader =
+        new LookupTableXmlReader<>(file, "juris-sachg", FieldOfLawXml.class)) {
+      List<FieldOfLawXml> firstBatch = reader.nextBatch(2);
+      List<FieldOfLawXml> secondBatch = reader.nextBatch(2);
+
+      assertThat(firstBatch).extracting("id").containsExactly(1L, 2L);
+      assertThat(firstBatch).extracting("identifier").containsExactly("TS-01", "TS-01-01");
+      assertThat(firstBatch.get(0).getKeywords()).containsExactly("schlagwort 1");
+      assertThat(firstBatch.get(0).getNorms())
+          .extracting("abbreviation")
+          .containsExactly("normabk 1");
+      assertThat(secondBatch).extracting("identifier").containsExactly("TS-02");
+      assertThat(reader.nextBatch(2)).isEmpty();
+    }
+  }
+
+  @Test
+  void testRead_shouldEmitAllRecords() throws IOException {
+    Path file =
+        write(
+            """
+            <?xml version="1.0"?>
+            <juris-table>
+                <juris-buland id="3" aendkz="A" version="1.0">
+                    <jurisabk>BW</jurisabk>
+                </juris-buland>
+                <juris-buland id="4">
+                    <jurisabk>BY</jurisabk>
+                </juris-buland>
+            </juris-table>
+            """);
+
+    StepVerifier.create(
+            LookupTableXmlReader.read(file, "juris-buland", StateXML.class, Schedulers.immediate()))
+        .consumeNextWith(stateXML -> assertThat(stateXML.getJurisShortcut()).isEqualTo("BW"))
+        .consumeNextWith(stateXML -> assertThat(stateXML.getJurisShortcut()).isEqualTo("BY"))
+        .verifyComplete();
+  }
+
+  @Test
+  void testNext_withMalformedXml_shouldThrowAnIOException() throws IOException {
+    Path file = write("<juris-table><juris-buland id=\"3\"></juris-table>");
+
+    try (LookupTableXmlReader<StateXML> reader =
+        new LookupTableXmlReader<>(file, "juris-buland", StateXML.class)) {
+      assertThatThrownBy(reader::next).isInstanceOf(IOException.class);
+    }
+  }
+
+  private Path write(String xml) throws IOException {
+    return Files.writeString(tempDir.resolve("lookup-table.xml"), xml);
+  }
+}
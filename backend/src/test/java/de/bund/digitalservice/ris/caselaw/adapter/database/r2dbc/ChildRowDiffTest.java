@@ -0,0 +1,138 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class ChildRowDiffTest {
+  private record Row(Long id, String value, Integer position) {}
+
+  @Test
+  void testOf_withUnchangedValues_shouldWriteNothing() {
+    List<Row> storedRows = rows("a", "b", "c");
+
+    ChildRowDiff<Row> diff = diff(storedRows, List.of("a", "b", "c"));
+
+    assertThat(diff.isEmpty()).isTrue();
+    assertThat(diff.rows()).isEqualTo(storedRows);
+  }
+
+  @Test
+  void testOf_withRemovedFirstValue_shouldOnlyDeleteItsRow() {
+    List<Row> storedRows = rows("a", "b", "c");
+
+    ChildRowDiff<Row> diff = diff(storedRows, List.of("b", "c"));
+
+    assertThat(diff.toDelete()).containsExactly(storedRows.get(0));
+    assertThat(diff.toUpdate()).isEmpty();
+    assertThat(diff.toInsert()).isEmpty();
+    assertThat(diff.rows()).containsExactly(storedRows.get(1), storedRows.get(2));
+  }
+
+  @Test
+  void testOf_withAppendedValue_shouldOnlyInsertOneRow() {
+    ChildRowDiff<Row> diff = diff(rows("a", "b"), List.of("a", "b", "c"));
+
+    assertThat(diff.rowsWritten()).isEqualTo(1);
+    assertThat(diff.toInsert()).containsExactly(new Row(null, "c", 3));
+  }
+
+  @Test
+  void testOf_withChangedValue_shouldOnlyUpdateItsRow() {
+    ChildRowDiff<Row> diff = diff(rows("a", "b", "c"), List.of("a", "x", "c"));
+
+    assertThat(diff.rowsWritten()).isEqualTo(1);
+    assertThat(diff.toUpdate()).containsExactly(new Row(2L, "x", 2));
+    assertThat(diff.rows()).extracting(Row::value).containsExactly("a", "x", "c");
+  }
+
+  @Test
+  void testOf_withValueInsertedAtTheHead_shouldOnlyInsertOneRowBeforeTheOthers() {
+    List<Row> storedRows = rows("b", "c");
+
+    ChildRowDiff<Row> diff = diff(storedRows, List.of("a", "b", "c"));
+
+    assertThat(diff.rowsWritten()).isEqualTo(1);
+    assertThat(diff.toInsert()).containsExactly(new Row(null, "a", 0));
+    assertThat(diff.rows())
+        .containsExactly(new Row(null, "a", 0), storedRows.get(0), storedRows.get(1));
+  }
+
+  @Test
+  void testOf_withValueInsertedIntoAGap_shouldOnlyInsertOneRow() {
+    List<Row> storedRows = List.of(new Row(1L, "a", 1), new Row(3L, "c", 3));
+
+    ChildRowDiff<Row> diff = diff(storedRows, List.of("a", "b", "c"));
+
+    assertThat(diff.rowsWritten()).isEqualTo(1);
+    assertThat(diff.toInsert()).containsExactly(new Row(null, "b", 2));
+  }
+
+  @Test
+  void testOf_withValueInsertedBetweenAdjacentRows_shouldShiftTheFollowingRows() {
+    ChildRowDiff<Row> diff = diff(rows("a", "c", "d"), List.of("a", "b", "c", "d"));
+
+    assertThat(diff.toInsert()).containsExactly(new Row(null, "b", 2));
+    assertThat(diff.toUpdate()).containsExactly(new Row(2L, "c", 3), new Row(3L, "d", 4));
+    assertThat(diff.toDelete()).isEmpty();
+  }
+
+  @Test
+  void testOf_withMovedValue_shouldKeepTheOrder() {
+    ChildRowDiff<Row> diff = diff(rows("a", "b", "c"), List.of("c", "a", "b"));
+
+    assertThat(diff.rowsWritten()).isEqualTo(2);
+    assertThat(diff.rows()).extracting(Row::value).containsExactly("c", "a", "b");
+    assertThat(diff.rows()).extracting(Row::position).isSorted();
+  }
+
+  @Test
+  void testOf_withStoredRowsWithoutPosition_shouldGiveThemAPosition() {
+    List<Row> storedRows = List.of(new Row(1L, "a", null), new Row(2L, "b", null));
+
+    ChildRowDiff<Row> diff = diff(storedRows, List.of("a", "b"));
+
+    assertThat(diff.toUpdate()).containsExactly(new Row(1L, "a", 0), new Row(2L, "b", 1));
+    assertThat(diff.toInsert()).isEmpty();
+  }
+
+  @Test
+  void testOf_withoutStoredRows_shouldInsertAllValues() {
+    ChildRowDiff<Row> diff = diff(null, List.of("a", "b"));
+
+    assertThat(diff.toInsert()).containsExactly(new Row(null, "a", 0), new Row(null, "b", 1));
+    assertThat(diff.toDelete()).isEmpty();
+  }
+
+  @Test
+  void testOf_withoutValues_shouldDeleteAllRows() {
+    List<Row> storedRows = rows("a", "b");
+
+    ChildRowDiff<Row> diff = diff(storedRows, List.of());
+
+    assertThat(diff.toDelete()).isEqualTo(storedRows);
+    assertThat(diff.toUpdate()).isEmpty();
+    assertThat(diff.toInsert()).isEmpty();
+    assertThat(diff.rows()).isEmpty();
+  }
+
+  private static List<Row> rows(String... values) {
+    return Stream.iterate(1L, id -> id + 1)
+        .limit(values.length)
+        .map(id -> new Row(id, values[id.intValue() - 1], id.intValue()))
+        .toList();
+  }
+
+  private static ChildRowDiff<Row> diff(List<Row> storedRows, List<String> values) {
+    return ChildRowDiff.of(
+        storedRows,
+        values,
+        Row::value,
+        (row, value) -> new Row(row.id(), value, row.position()),
+        value -> new Row(null, value, null),
+        Row::position,
+        (row, position) -> new Row(row.id(), row.value(), position));
+  }
+}
@@ -0,0 +1,283 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseDocumentTypeRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseFieldOfLawRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DocumentTypeDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.proceedingdecision.DatabaseProceedingDecisionLinkRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.proceedingdecision.ProceedingDecisionLinkDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.transformer.DocumentUnitTransformer;
+import de.bund.digitalservice.ris.caselaw.config.FlywayConfig;
+import de.bund.digitalservice.ris.caselaw.config.PostgresConfig;
+import de.bund.digitalservice.ris.caselaw.domain.DataSource;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnit;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitRepository;
+import de.bund.digitalservice.ris.caselaw.integration.tests.RISIntegrationTest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import reactor.core.publisher.Mono;
+
+@RISIntegrationTest(
+    imports = {
+      PostgresDocumentUnitRepositoryImpl.class,
+      DocumentUnitAggregateLoader.class,
+      DocumentUnitMetadataEnricher.class,
+      DocumentUnitListEntryLoader.class,
+      DocumentUnitChildRowWriter.class,
+      ReferenceDataCache.class,
+      FlywayConfig.class,
+      PostgresConfig.class,
+      StatementCounter.class
+    })
+class DocumentUnitAggregateLoaderIntegrationTest {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(DocumentUnitAggregateLoaderIntegrationTest.class);
+  private static final int WARM_UP_ITERATIONS = 10;
+  private static final int BENCHMARK_ITERATIONS = 100;
+
+  @Container
+  static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:12");
+
+  @DynamicPropertySource
+  static void registerDynamicProperties(DynamicPropertyRegistry registry) {
+    registry.add("database.user", () -> postgreSQLContainer.getUsername());
+    registry.add("database.password", () -> postgreSQLContainer.getPassword());
+    registry.add("database.host", () -> postgreSQLContainer.getHost());
+    registry.add("database.port", () -> postgreSQLContainer.getFirstMappedPort());
+    registry.add("database.database", () -> postgreSQLContainer.getDatabaseName());
+  }
+
+  @Autowired private DocumentUnitRepository documentUnitRepository;
+  @Autowired private StatementCounter statementCounter;
+  @Autowired private DocumentUnitAggregateLoader aggregateLoader;
+  @Autowired private DatabaseDocumentUnitRepository repository;
+  @Autowired private FileNumberRepository fileNumberRepository;
+  @Autowired private DeviatingEcliRepository deviatingEcliRepository;
+  @Autowired private DatabaseDeviatingDecisionDateRepository deviatingDecisionDateRepository;
+  @Autowired private DatabaseIncorrectCourtRepository incorrectCourtRepository;
+  @Autowired private DatabaseKeywordRepository keywordRepository;
+  @Autowired private DatabaseDocumentUnitNormRepository documentUnitNormRepository;
+  @Autowired private DatabaseDocumentTypeRepository documentTypeRepository;
+  @Autowired private DatabaseFieldOfLawRepository fieldOfLawRepository;
+  @Autowired private DatabaseDocumentUnitFieldsOfLawRepository documentUnitFieldsOfLawRepository;
+  @Autowired private DatabaseDocumentationOfficeRepository documentationOfficeRepository;
+  @Autowired private DatabaseProceedingDecisionLinkRepository proceedingDecisionLinkRepository;
+
+  private UUID uuid;
+
+  @BeforeEach
+  void setUp() {
+    DocumentTypeDTO documentTypeDTO =
+        documentTypeRepository
+            .save(
+                DocumentTypeDTO.builder()
+                    .jurisShortcut("Urt")
+                    .label("Urteil")
+                    .documentType('R')
+                    .changeIndicator('N')
+                    .build())
+            .block();
+    FieldOfLawDTO fieldOfLawDTO =
+        fieldOfLawRepository
+            .save(
+                FieldOfLawDTO.builder()
+                    .id(1L)
+                    .childrenCount(0)
+                    .identifier("SF-01")
+                    .text("field of law text")
+                    .changeIndicator('N')
+                    .isNew(true)
+                    .build())
+            .block();
+    DocumentationOfficeDTO documentationOfficeDTO =
+        documentationOfficeRepository.findByLabel("DigitalService").block();
+
+    uuid = UUID.randomUUID();
+    DocumentUnitDTO parent =
+        repository
+            .save(
+                DocumentUnitDTO.builder()
+                    .uuid(uuid)
+                    .documentnumber("ABCD202300001")
+                    .creationtimestamp(Instant.now())
+                    .dataSource(DataSource.NEURIS)
+                    .courtType("BGH")
+                    .documentTypeId(documentTypeDTO.getId())
+                    .documentationOfficeId(documentationOfficeDTO.getId())
+                    .decisionDate(Instant.now().truncatedTo(ChronoUnit.DAYS))
+                    .headline("headline")
+                    .build())
+            .block();
+    DocumentUnitDTO child =
+        repository
+            .save(
+                DocumentUnitDTO.builder()
+                    .uuid(UUID.randomUUID())
+                    .documentnumber("ABCD202300002")
+                    .creationtimestamp(Instant.now())
+                    .dataSource(DataSource.PROCEEDING_DECISION)
+                    .documentTypeId(documentTypeDTO.getId())
+                    .build())
+            .block();
+    Long id = parent.getId();
+
+    for (int i = 0; i < 3; i++) {
+      fileNumberRepository
+          .save(
+              FileNumberDTO.builder()
+                  .documentUnitId(id)
+                  .fileNumber("AZ " + i)
+                  .isDeviating(false)
+                  .build())
+          .block();
+      fileNumberRepository
+          .save(
+              FileNumberDTO.builder()
+                  .documentUnitId(id)
+                  .fileNumber("deviating AZ " + i)
+                  .isDeviating(true)
+                  .build())
+          .block();
+      deviatingEcliRepository
+          .save(DeviatingEcliDTO.builder().documentUnitId(id).ecli("ECLI " + i).build())
+          .block();
+      deviatingDecisionDateRepository
+          .save(
+              DeviatingDecisionDateDTO.builder()
+                  .documentUnitId(id)
+                  .decisionDate(Instant.now().truncatedTo(ChronoUnit.DAYS))
+                  .build())
+          .block();
+      incorrectCourtRepository
+          .save(IncorrectCourtDTO.builder().documentUnitId(id).court("court " + i).build())
+          .block();
+      keywordRepository
+          .save(KeywordDTO.builder().documentUnitId(id).keyword("keyword " + i).build())
+          .block();
+      documentUnitNormRepository
+          .save(
+              DocumentUnitNormDTO.builder()
+                  .documentUnitId(id)
+                  .risAbbreviation("BGB")
+                  .singleNorm("§ " + i)
+                  .dateOfVersion(Instant.now().truncatedTo(ChronoUnit.SECONDS))
+                  .build())
+          .block();
+    }
+    fileNumberRepository
+        .save(
+            FileNumberDTO.builder()
+                .documentUnitId(child.getId())
+                .fileNumber("child AZ")
+                .isDeviating(false)
+                .build())
+        .block();
+    documentUnitFieldsOfLawRepository
+        .save(
+            DocumentUnitFieldsOfLawDTO.builder()
+                .documentUnitId(id)
+                .fieldOfLawId(fieldOfLawDTO.getId())
+                .build())
+        .block();
+    proceedingDecisionLinkRepository
+        .save(
+            ProceedingDecisionLinkDTO.builder()
+                .parentDocumentUnitId(id)
+                .childDocumentUnitId(child.getId())
+                .build())
+        .block();
+  }
+
+  @AfterEach
+  void cleanUp() {
+    proceedingDecisionLinkRepository.deleteAll().block();
+    repository.deleteAll().block();
+    fieldOfLawRepository.deleteAll().block();
+    documentTypeRepository.deleteAll().block();
+  }
+
+  @Test
+  void testAggregateLoader_shouldReturnSameDocumentUnitAsChildQueryChain() {
+    DocumentUnit expected = loadViaChildQueries().block();
+    DocumentUnit actual = loadViaAggregateLoader().block();
+
+    assertThat(actual).isNotNull();
+    assertThat(actual.coreData().fileNumbers()).containsExactly("AZ 0", "AZ 1", "AZ 2");
+    assertThat(actual.proceedingDecisions()).hasSize(1);
+    assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+  }
+
+  @Test
+  void testAggregateLoader_shouldLoadTheDocumentUnitWithOneStatement() {
+    loadViaChildQueries().block();
+    loadViaAggregateLoader().block();
+
+    statementCounter.reset();
+    loadViaChildQueries().block();
+    int chainStatements = statementCounter.get();
+
+    statementCounter.reset();
+    loadViaAggregateLoader().block();
+    int aggregateStatements = statementCounter.get();
+
+    assertThat(aggregateStatements).isEqualTo(1);
+    assertThat(chainStatements).isGreaterThan(aggregateStatements);
+  }
+
+  @Test
+  @Tag("benchmark")
+  void benchmarkAggregateLoaderAgainstChildQueryChain() {
+    double chain = measure(this::loadViaChildQueries);
+    double aggregate = measure(this::loadViaAggregateLoader);
+
+    LOGGER.info(
+        "Average load time over {} iterations: child query chain {} ms, aggregate loader {} ms",
+        BENCHMARK_ITERATIONS,
+        String.format("%.3f", chain),
+        String.format("%.3f", aggregate));
+
+    assertThat(aggregate).isPositive();
+  }
+
+  private Mono<DocumentUnit> loadViaChildQueries() {
+    PostgresDocumentUnitRepositoryImpl target =
+        AopTestUtils.getUltimateTargetObject(documentUnitRepository);
+
+    return repository
+        .findByUuid(uuid)
+        .flatMap(target::injectAdditionalInformation)
+        .map(DocumentUnitTransformer::transformDTO);
+  }
+
+  private Mono<DocumentUnit> loadViaAggregateLoader() {
+    return aggregateLoader.findByUuid(uuid).map(DocumentUnitTransformer::transformDTO);
+  }
+
+  private double measure(Supplier<Mono<DocumentUnit>> loader) {
+    for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+      loader.get().block();
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+      loader.get().block();
+    }
+    return (System.nanoTime() - start) / 1_000_000.0 / BENCHMARK_ITERATIONS;
+  }
+}
@@ -0,0 +1,237 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import de.bund.digitalservice.ris.caselaw.config.FlywayConfig;
+import de.bund.digitalservice.ris.caselaw.config.PostgresConfig;
+import de.bund.digitalservice.ris.caselaw.domain.DataSource;
+import de.bund.digitalservice.ris.caselaw.integration.tests.RISIntegrationTest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+@RISIntegrationTest(
+    imports = {DocumentUnitChildRowWriter.class, FlywayConfig.class, PostgresConfig.class})
+class DocumentUnitChildRowWriterIntegrationTest {
+  @Container
+  static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:12");
+
+  @DynamicPropertySource
+  static void registerDynamicProperties(DynamicPropertyRegistry registry) {
+    registry.add("database.user", () -> postgreSQLContainer.getUsername());
+    registry.add("database.password", () -> postgreSQLContainer.getPassword());
+    registry.add("database.host", () -> postgreSQLContainer.getHost());
+    registry.add("database.port", () -> postgreSQLContainer.getFirstMappedPort());
+    registry.add("database.database", () -> postgreSQLContainer.getDatabaseName());
+  }
+
+  @Autowired private DocumentUnitChildRowWriter writer;
+  @Autowired private DatabaseDocumentUnitRepository repository;
+  @Autowired private FileNumberRepository fileNumberRepository;
+  @Autowired private DatabaseDocumentUnitNormRepository documentUnitNormRepository;
+  @Autowired private R2dbcEntityTemplate template;
+
+  private Long documentUnitId;
+
+  @BeforeEach
+  void setUp() {
+    documentUnitId =
+        repository
+            .save(
+                DocumentUnitDTO.builder()
+                    .uuid(UUID.randomUUID())
+                    .documentnumber("ABCD202300001")
+                    .creationtimestamp(Instant.now())
+                    .dataSource(DataSource.NEURIS)
+                    .build())
+            .block()
+            .getId();
+  }
+
+  @AfterEach
+  void cleanUp() {
+    repository.deleteAll().block();
+  }
+
+  @Test
+  void testWrite_shouldInsertAllRowsWithOneStatementAndAssignTheIdsOfTheirRows() {
+    Instant dateOfVersion = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    List<String> singleNorms = List.of("§ 3", "§ 1", "§ 2");
+
+    List<DocumentUnitNormDTO> writtenNorms =
+        writer
+            .write(
+                DocumentUnitChildRowWriter.DOCUMENT_UNIT_NORM,
+                ChildRowDiff.of(
+                    List.of(),
+                    singleNorms,
+                    DocumentUnitNormDTO::getSingleNorm,
+                    (documentUnitNormDTO, singleNorm) -> documentUnitNormDTO,
+                    singleNorm ->
+                        DocumentUnitNormDTO.builder()
+                            .documentUnitId(documentUnitId)
+                            .risAbbreviation("BGB")
+                            .singleNorm(singleNorm)
+                            .dateOfVersion(dateOfVersion)
+                            .build(),
+                    DocumentUnitNormDTO::getPosition,
+                    (documentUnitNormDTO, position) -> {
+                      documentUnitNormDTO.setPosition(position);
+                      return documentUnitNormDTO;
+                    }))
+            .block();
+
+    assertThat(writtenNorms)
+        .extracting(DocumentUnitNormDTO::getSingleNorm)
+        .containsExactly("§ 3", "§ 1", "§ 2");
+    List<DocumentUnitNormDTO> storedNorms =
+        documentUnitNormRepository.findAllByDocumentUnitId(documentUnitId).collectList().block();
+    assertThat(storedNorms)
+        .usingRecursiveFieldByFieldElementComparator()
+        .containsExactlyInAnyOrderElementsOf(writtenNorms);
+    assertThat(storedNorms)
+        .allSatisfy(norm -> assertThat(norm.getDateOfVersion()).isEqualTo(dateOfVersion));
+  }
+
+  @Test
+  void testWrite_shouldUpdateAndDeleteOnlyTheChangedRows() {
+    List<FileNumberDTO> storedFileNumbers =
+        fileNumberRepository
+            .saveAll(
+                List.of("AZ 1", "AZ 2", "AZ 3").stream()
+                    .map(
+                        fileNumber ->
+                            FileNumberDTO.builder()
+                                .documentUnitId(documentUnitId)
+                                .fileNumber(fileNumber)
+                                .isDeviating(false)
+                                .build())
+                    .toList())
+            .collectList()
+            .block();
+
+    List<FileNumberDTO> writtenFileNumbers =
+        writeFileNumbers(storedFileNumbers, List.of("AZ 2", "AZ 4"));
+
+    List<FileNumberDTO> fileNumbers =
+        fileNumberRepository.findAllByDocumentUnitId(documentUnitId).collectList().block();
+    assertThat(fileNumbers)
+        .extracting(FileNumberDTO::getId, FileNumberDTO::getFileNumber)
+        .containsExactlyInAnyOrder(
+            tuple(storedFileNumbers.get(1).getId(), "AZ 2"),
+            tuple(storedFileNumbers.get(2).getId(), "AZ 4"));
+    assertThat(fileNumbers)
+        .usingRecursiveFieldByFieldElementComparator()
+        .containsExactlyInAnyOrderElementsOf(writtenFileNumbers);
+  }
+
+  @Test
+  void testWrite_withValueInsertedAtTheHead_shouldInsertOneRowWhichIsReadFirst() {
+    List<FileNumberDTO> storedFileNumbers = writeFileNumbers(List.of(), List.of("AZ 2", "AZ 3"));
+
+    ChildRowDiff<FileNumberDTO> diff =
+        fileNumberDiff(storedFileNumbers, List.of("AZ 1", "AZ 2", "AZ 3"));
+    List<FileNumberDTO> writtenFileNumbers =
+        writer.write(DocumentUnitChildRowWriter.FILE_NUMBER, diff).block();
+
+    assertThat(diff.rowsWritten()).isEqualTo(1);
+    List<FileNumberDTO> fileNumbers =
+        fileNumberRepository.findAllByDocumentUnitId(documentUnitId).collectList().block();
+    assertThat(fileNumbers)
+        .extracting(FileNumberDTO::getId, FileNumberDTO::getFileNumber)
+        .containsExactly(
+            tuple(writtenFileNumbers.get(0).getId(), "AZ 1"),
+            tuple(storedFileNumbers.get(0).getId(), "AZ 2"),
+            tuple(storedFileNumbers.get(1).getId(), "AZ 3"));
+  }
+
+  @Test
+  void testWrite_withValueInsertedBetweenTwoRows_shouldShiftTheFollowingRows() {
+    List<FileNumberDTO> storedFileNumbers = writeFileNumbers(List.of(), List.of("AZ 1", "AZ 3"));
+
+    writeFileNumbers(storedFileNumbers, List.of("AZ 1", "AZ 2", "AZ 3"));
+
+    List<FileNumberDTO> fileNumbers =
+        fileNumberRepository.findAllByDocumentUnitId(documentUnitId).collectList().block();
+    assertThat(fileNumbers)
+        .extracting(FileNumberDTO::getFileNumber)
+        .containsExactly("AZ 1", "AZ 2", "AZ 3");
+    assertThat(fileNumbers.get(2).getId()).isEqualTo(storedFileNumbers.get(1).getId());
+  }
+
+  @Test
+  void testWrite_shouldStoreTheDecisionDateAsUtcTimestamp() {
+    writer
+        .write(
+            DocumentUnitChildRowWriter.DEVIATING_DECISION_DATE,
+            ChildRowDiff.of(
+                List.of(),
+                List.of(Instant.parse("2022-12-31T23:30:00Z")),
+                DeviatingDecisionDateDTO::decisionDate,
+                (deviatingDecisionDateDTO, decisionDate) -> deviatingDecisionDateDTO,
+                decisionDate ->
+                    DeviatingDecisionDateDTO.builder()
+                        .documentUnitId(documentUnitId)
+                        .decisionDate(decisionDate)
+                        .build(),
+                DeviatingDecisionDateDTO::position,
+                (deviatingDecisionDateDTO, position) ->
+                    deviatingDecisionDateDTO.toBuilder().position(position).build()))
+        .block();
+
+    String decisionDate =
+        template
+            .getDatabaseClient()
+            .sql(
+                "SELECT decision_date::text AS decision_date FROM deviating_decision_date "
+                    + "WHERE document_unit_id = :documentUnitId")
+            .bind("documentUnitId", documentUnitId)
+            .map(row -> row.get("decision_date", String.class))
+            .one()
+            .block();
+    assertThat(decisionDate).isEqualTo("2022-12-31 23:30:00");
+  }
+
+  private List<FileNumberDTO> writeFileNumbers(
+      List<FileNumberDTO> storedFileNumbers, List<String> fileNumbers) {
+    return writer
+        .write(
+            DocumentUnitChildRowWriter.FILE_NUMBER,
+            fileNumberDiff(storedFileNumbers, fileNumbers))
+        .block();
+  }
+
+  private ChildRowDiff<FileNumberDTO> fileNumberDiff(
+      List<FileNumberDTO> storedFileNumbers, List<String> fileNumbers) {
+    return ChildRowDiff.of(
+        storedFileNumbers,
+        fileNumbers,
+        FileNumberDTO::getFileNumber,
+        (fileNumberDTO, fileNumber) -> {
+          fileNumberDTO.setFileNumber(fileNumber);
+          return fileNumberDTO;
+        },
+        fileNumber ->
+            FileNumberDTO.builder()
+                .documentUnitId(documentUnitId)
+                .fileNumber(fileNumber)
+                .isDeviating(false)
+                .build(),
+        FileNumberDTO::getPosition,
+        (fileNumberDTO, position) -> {
+          fileNumberDTO.setPosition(position);
+          return fileNumberDTO;
+        });
+  }
+}
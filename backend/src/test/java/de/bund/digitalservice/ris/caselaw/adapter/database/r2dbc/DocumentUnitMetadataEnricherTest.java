@@ -0,0 +1,100 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseCourtRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseDocumentTypeRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DocumentTypeDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateRepository;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith(SpringExtension.class)
+@Import({DocumentUnitMetadataEnricher.class, ReferenceDataCache.class})
+class DocumentUnitMetadataEnricherTest {
+  private static final UUID OFFICE_UUID = UUID.randomUUID();
+
+  @MockBean private FileNumberRepository fileNumberRepository;
+  @MockBean private DatabaseCourtRepository courtRepository;
+  @MockBean private StateRepository stateRepository;
+  @MockBean private DatabaseDocumentTypeRepository documentTypeRepository;
+  @MockBean private DatabaseDocumentationOfficeRepository documentationOfficeRepository;
+
+  @Autowired private DocumentUnitMetadataEnricher enricher;
+
+  @Test
+  void testEnrich_withEmptyList_shouldNotQueryTheDatabase() {
+    StepVerifier.create(enricher.enrich(List.of())).expectNext(List.of()).verifyComplete();
+
+    verifyNoInteractions(
+        fileNumberRepository, documentTypeRepository, documentationOfficeRepository);
+  }
+
+  @Test
+  void testEnrich_shouldUseOneQueryForFileNumbersAndTheReferenceDataSnapshot() {
+    List<DocumentUnitMetadataDTO> documentUnits =
+        LongStream.rangeClosed(1, 30)
+            .<DocumentUnitMetadataDTO>mapToObj(
+                id ->
+                    DocumentUnitMetadataDTO.builder()
+                        .id(id)
+                        .documentTypeId(id % 2 == 0 ? 7L : null)
+                        .documentationOfficeId(OFFICE_UUID)
+                        .build())
+            .toList();
+    when(fileNumberRepository.findAllNonDeviatingByDocumentUnitIds(any()))
+        .thenReturn(
+            Flux.just(
+                FileNumberDTO.builder().documentUnitId(1L).fileNumber("AZ 1").build(),
+                FileNumberDTO.builder().documentUnitId(1L).fileNumber("AZ 2").build(),
+                FileNumberDTO.builder().documentUnitId(2L).fileNumber("AZ 3").build()));
+    when(courtRepository.findAll()).thenReturn(Flux.empty());
+    when(stateRepository.findAll()).thenReturn(Flux.empty());
+    when(documentTypeRepository.findAll())
+        .thenReturn(Flux.just(DocumentTypeDTO.builder().id(7L).label("Urteil").build()));
+    when(documentationOfficeRepository.findAll())
+        .thenReturn(
+            Flux.just(DocumentationOfficeDTO.builder().id(OFFICE_UUID).label("BGH").build()));
+
+    StepVerifier.create(enricher.enrich(documentUnits))
+        .consumeNextWith(
+            enriched -> {
+              assertThat(enriched.get(0).getFileNumbers())
+                  .extracting(FileNumberDTO::getFileNumber)
+                  .containsExactly("AZ 1", "AZ 2");
+              assertThat(enriched.get(1).getFileNumbers())
+                  .extracting(FileNumberDTO::getFileNumber)
+                  .containsExactly("AZ 3");
+              assertThat(enriched.get(2).getFileNumbers()).isEmpty();
+              assertThat(enriched.get(0).getDocumentTypeDTO()).isNull();
+              assertThat(enriched.get(1).getDocumentTypeDTO().getLabel()).isEqualTo("Urteil");
+              assertThat(enriched)
+                  .allSatisfy(
+                      documentUnit ->
+                          assertThat(documentUnit.getDocumentationOffice().getLabel())
+                              .isEqualTo("BGH"));
+            })
+        .verifyComplete();
+
+    verify(fileNumberRepository, times(1)).findAllNonDeviatingByDocumentUnitIds(any());
+    verify(documentTypeRepository, times(1)).findAll();
+    verify(documentTypeRepository, never()).findAllByIds(any());
+    verify(documentationOfficeRepository, times(1)).findAll();
+    verify(documentationOfficeRepository, never()).findAllByIds(any());
+  }
+}
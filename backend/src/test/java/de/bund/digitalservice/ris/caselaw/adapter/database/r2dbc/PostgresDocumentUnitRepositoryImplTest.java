@@ -1,22 +1,29 @@
 package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
-import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseCourtRepository;
-import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseDocumentTypeRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseFieldOfLawRepository;
-import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.proceedingdecision.DatabaseProceedingDecisionLinkRepository;
 import de.bund.digitalservice.ris.caselaw.domain.DataSource;
+import java.util.List;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
+import org.reactivestreams.Publisher;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 @ExtendWith(SpringExtension.class)
@@ -30,14 +37,16 @@ class PostgresDocumentUnitRepositoryImplTest {
   @MockBean private DatabaseProceedingDecisionLinkRepository proceedingDecisionLinkRepository;
   @MockBean private DatabaseDeviatingDecisionDateRepository deviatingDecisionDateRepository;
   @MockBean private DatabaseIncorrectCourtRepository incorrectCourtRepository;
-  @MockBean private DatabaseCourtRepository databaseCourtRepository;
-  @MockBean private StateRepository stateRepository;
-  @MockBean private DatabaseDocumentTypeRepository databaseDocumentTypeRepository;
   @MockBean private DatabaseFieldOfLawRepository fieldOfLawRepository;
   @MockBean private DatabaseDocumentUnitFieldsOfLawRepository documentUnitFieldsOfLawRepository;
   @MockBean private DatabaseKeywordRepository keywordRepository;
   @MockBean private DatabaseDocumentUnitNormRepository documentUnitNormRepository;
-  @MockBean private DatabaseDocumentationOfficeRepository documentationOfficeRepository;
+  @MockBean private DocumentUnitAggregateLoader aggregateLoader;
+  @MockBean private DocumentUnitMetadataEnricher metadataEnricher;
+  @MockBean private DocumentUnitListEntryLoader listEntryLoader;
+  @MockBean private DocumentUnitChildRowWriter childRowWriter;
+  @MockBean private ReferenceDataCache referenceDataCache;
+  @MockBean private R2dbcEntityTemplate template;
 
   @BeforeEach
   public void setup() {
@@ -50,14 +59,40 @@ class PostgresDocumentUnitRepositoryImplTest {
             proceedingDecisionLinkRepository,
             deviatingDecisionDateRepository,
             incorrectCourtRepository,
-            databaseCourtRepository,
-            stateRepository,
-            databaseDocumentTypeRepository,
             fieldOfLawRepository,
             documentUnitFieldsOfLawRepository,
             keywordRepository,
             documentUnitNormRepository,
-            documentationOfficeRepository);
+            aggregateLoader,
+            metadataEnricher,
+            listEntryLoader,
+            childRowWriter,
+            referenceDataCache,
+            template,
+            4);
+  }
+
+  @Test
+  void testEstimateCountByDataSource_withoutStatistics_shouldFallBackToExactCount() {
+    Mockito.when(listEntryLoader.estimateCountByDataSource(DataSource.NEURIS))
+        .thenReturn(Mono.empty());
+    Mockito.when(metadataRepository.countByDataSource(DataSource.NEURIS)).thenReturn(Mono.just(3L));
+
+    StepVerifier.create(postgresDocumentUnitRepository.estimateCountByDataSource(DataSource.NEURIS))
+        .expectNext(3L)
+        .verifyComplete();
+  }
+
+  @Test
+  void testEstimateCountByDataSource_withStatistics_shouldNotCount() {
+    Mockito.when(listEntryLoader.estimateCountByDataSource(DataSource.NEURIS))
+        .thenReturn(Mono.just(500_000L));
+
+    StepVerifier.create(postgresDocumentUnitRepository.estimateCountByDataSource(DataSource.NEURIS))
+        .expectNext(500_000L)
+        .verifyComplete();
+
+    verify(metadataRepository, Mockito.never()).countByDataSource(DataSource.NEURIS);
   }
 
   @Test
@@ -74,4 +109,75 @@ class PostgresDocumentUnitRepositoryImplTest {
     verify(metadataRepository)
         .findAllByDataSource(DataSource.NEURIS.name(), PageRequest.of(0, 10, sort));
   }
+
+  @Test
+  void testFindByUuid_shouldUseAggregateLoader() {
+    UUID uuid = UUID.randomUUID();
+    Mockito.when(aggregateLoader.findByUuid(uuid))
+        .thenReturn(Mono.just(DocumentUnitDTO.builder().uuid(uuid).build()));
+
+    StepVerifier.create(postgresDocumentUnitRepository.findByUuid(uuid))
+        .consumeNextWith(documentUnit -> assertThat(documentUnit.uuid()).isEqualTo(uuid))
+        .verifyComplete();
+
+    verify(aggregateLoader).findByUuid(uuid);
+    verifyNoInteractions(repository, fileNumberRepository, deviatingEcliRepository);
+  }
+
+  @Test
+  void testFindByDocumentNumber_shouldUseAggregateLoader() {
+    Mockito.when(aggregateLoader.findByDocumentNumber("ABCD202300001"))
+        .thenReturn(Mono.just(DocumentUnitDTO.builder().documentnumber("ABCD202300001").build()));
+
+    StepVerifier.create(postgresDocumentUnitRepository.findByDocumentNumber("ABCD202300001"))
+        .consumeNextWith(
+            documentUnit -> assertThat(documentUnit.documentNumber()).isEqualTo("ABCD202300001"))
+        .verifyComplete();
+
+    verify(aggregateLoader).findByDocumentNumber("ABCD202300001");
+    verifyNoInteractions(repository, fileNumberRepository, deviatingEcliRepository);
+  }
+
+  @Test
+  void testInjectAdditionalInformation_shouldLoadFileNumbersOnceAndPartitionThem() {
+    ReflectionTestUtils.setField(postgresDocumentUnitRepository, "childLoadConcurrency", 2);
+    UUID uuid = UUID.randomUUID();
+    DocumentUnitDTO documentUnitDTO = DocumentUnitDTO.builder().id(1L).uuid(uuid).build();
+    Mockito.when(fileNumberRepository.findAllByDocumentUnitId(1L))
+        .thenReturn(
+            Flux.just(
+                FileNumberDTO.builder().fileNumber("AZ 1").isDeviating(false).build(),
+                FileNumberDTO.builder().fileNumber("AZ 2").isDeviating(true).build()));
+    Mockito.when(metadataRepository.findByUuid(uuid)).thenReturn(Mono.empty());
+    Mockito.when(metadataRepository.findAllById(ArgumentMatchers.<Publisher<Long>>any()))
+        .thenReturn(Flux.empty());
+    Mockito.when(metadataEnricher.enrich(List.of())).thenReturn(Mono.just(List.of()));
+    Mockito.when(deviatingEcliRepository.findAllByDocumentUnitId(1L)).thenReturn(Flux.empty());
+    Mockito.when(deviatingDecisionDateRepository.findAllByDocumentUnitId(1L))
+        .thenReturn(Flux.empty());
+    Mockito.when(incorrectCourtRepository.findAllByDocumentUnitId(1L)).thenReturn(Flux.empty());
+    Mockito.when(keywordRepository.findAllByDocumentUnitId(1L)).thenReturn(Flux.empty());
+    Mockito.when(documentUnitNormRepository.findAllByDocumentUnitId(1L)).thenReturn(Flux.empty());
+    Mockito.when(documentUnitFieldsOfLawRepository.findAllByDocumentUnitId(1L))
+        .thenReturn(Flux.empty());
+    Mockito.when(fieldOfLawRepository.findAllById(ArgumentMatchers.<Iterable<Long>>any()))
+        .thenReturn(Flux.empty());
+
+    StepVerifier.create(postgresDocumentUnitRepository.injectAdditionalInformation(documentUnitDTO))
+        .consumeNextWith(
+            dto -> {
+              assertThat(dto.getFileNumbers())
+                  .extracting(FileNumberDTO::getFileNumber)
+                  .containsExactly("AZ 1");
+              assertThat(dto.getDeviatingFileNumbers())
+                  .extracting(FileNumberDTO::getFileNumber)
+                  .containsExactly("AZ 2");
+              assertThat(dto.getProceedingDecisions()).isEmpty();
+              assertThat(dto.getKeywords()).isEmpty();
+              assertThat(dto.getFieldsOfLaw()).isEmpty();
+            })
+        .verifyComplete();
+
+    verify(fileNumberRepository, times(1)).findAllByDocumentUnitId(1L);
+  }
 }
@@ -0,0 +1,176 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.CourtDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseCourtRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseDocumentTypeRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DocumentTypeDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateRepository;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ReferenceDataCacheTest {
+  private static final UUID OFFICE_UUID = UUID.fromString("88888888-4444-4444-4444-121212121212");
+
+  private DatabaseCourtRepository courtRepository;
+  private StateRepository stateRepository;
+  private DatabaseDocumentTypeRepository documentTypeRepository;
+  private DatabaseDocumentationOfficeRepository documentationOfficeRepository;
+  private ReferenceDataCache cache;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    courtRepository = mock(DatabaseCourtRepository.class);
+    stateRepository = mock(StateRepository.class);
+    documentTypeRepository = mock(DatabaseDocumentTypeRepository.class);
+    documentationOfficeRepository = mock(DatabaseDocumentationOfficeRepository.class);
+
+    when(courtRepository.findAll())
+        .thenReturn(
+            Flux.just(
+                CourtDTO.builder()
+                    .id(1L)
+                    .courttype("BGH")
+                    .federalstate("BW")
+                    .region("Baden-Württemberg")
+                    .build(),
+                CourtDTO.builder().id(2L).courttype("AG").courtlocation("Aachen").build()));
+    when(stateRepository.findAll())
+        .thenReturn(
+            Flux.just(StateDTO.builder().id(1L).jurisshortcut("BW").label("Ba-Wü").build()));
+    when(documentTypeRepository.findAll())
+        .thenReturn(
+            Flux.just(
+                DocumentTypeDTO.builder().id(8L).jurisShortcut("Ur").label("Urteil (N)").build(),
+                DocumentTypeDTO.builder().id(7L).jurisShortcut("Ur").label("Urteil").build()));
+    when(documentationOfficeRepository.findAll())
+        .thenReturn(
+            Flux.just(DocumentationOfficeDTO.builder().id(OFFICE_UUID).label("BGH").build()));
+
+    ObjectProvider<ReactiveStringRedisTemplate> redisTemplateProvider = mock(ObjectProvider.class);
+    cache =
+        new ReferenceDataCache(
+            courtRepository,
+            stateRepository,
+            documentTypeRepository,
+            documentationOfficeRepository,
+            redisTemplateProvider,
+            "reference-data-cache-rebuild");
+  }
+
+  @Test
+  void testFind_shouldLoadTheSnapshotOnceAndResolveAllKeysFromIt() {
+    StepVerifier.create(cache.findCourtByTypeAndLocation("BGH", null))
+        .consumeNextWith(court -> assertThat(court.getId()).isEqualTo(1L))
+        .verifyComplete();
+    StepVerifier.create(cache.findCourtByTypeAndLocation("AG", "Aachen"))
+        .consumeNextWith(court -> assertThat(court.getId()).isEqualTo(2L))
+        .verifyComplete();
+    StepVerifier.create(cache.findStateByJurisShortcut("BW"))
+        .consumeNextWith(state -> assertThat(state.getLabel()).isEqualTo("Ba-Wü"))
+        .verifyComplete();
+    StepVerifier.create(cache.findDocumentTypeById(8L))
+        .consumeNextWith(
+            documentType -> assertThat(documentType.getLabel()).isEqualTo("Urteil (N)"))
+        .verifyComplete();
+    StepVerifier.create(cache.findDocumentationOfficeByLabel("BGH"))
+        .consumeNextWith(office -> assertThat(office.getId()).isEqualTo(OFFICE_UUID))
+        .verifyComplete();
+    StepVerifier.create(cache.findDocumentationOfficesByIds(new UUID[] {OFFICE_UUID}))
+        .consumeNextWith(offices -> assertThat(offices).containsOnlyKeys(OFFICE_UUID))
+        .verifyComplete();
+
+    verify(courtRepository, times(1)).findAll();
+    verify(documentTypeRepository, times(1)).findAll();
+    verify(courtRepository, never()).findByCourttypeAndCourtlocation(any(), any());
+    verify(stateRepository, never()).findByJurisshortcut(anyString());
+    verify(documentTypeRepository, never()).findById(any(Long.class));
+    verify(documentationOfficeRepository, never()).findByLabel(anyString());
+    verify(documentationOfficeRepository, never()).findAllByIds(any());
+  }
+
+  @Test
+  void testFindDocumentTypeByJurisShortcut_withDuplicateShortcut_shouldUseTheLowestId() {
+    StepVerifier.create(cache.findDocumentTypeByJurisShortcut("Ur"))
+        .consumeNextWith(documentType -> assertThat(documentType.getId()).isEqualTo(7L))
+        .verifyComplete();
+  }
+
+  @Test
+  void testSearch_shouldFindCourtsAndOnlyCaselawDocumentTypes() {
+    when(documentTypeRepository.findAll())
+        .thenReturn(
+            Flux.just(
+                DocumentTypeDTO.builder().id(7L).jurisShortcut("Ur").documentType('R').build(),
+                DocumentTypeDTO.builder().id(8L).jurisShortcut("Ur").documentType('N').build()));
+
+    ReferenceDataSnapshot snapshot = cache.getSnapshot().block();
+
+    assertThat(snapshot.searchCourts("aach")).extracting(CourtDTO::getId).containsExactly(2L);
+    assertThat(snapshot.searchCourts("g")).extracting(CourtDTO::getId).containsExactly(2L, 1L);
+    assertThat(snapshot.searchCaselawDocumentTypes("ur"))
+        .extracting(DocumentTypeDTO::getId)
+        .containsExactly(7L);
+  }
+
+  @Test
+  void testRebuild_shouldReplaceTheSnapshotWithANewerVersion() {
+    long firstVersion = cache.getSnapshot().block().version();
+    when(stateRepository.findAll())
+        .thenReturn(
+            Flux.just(
+                StateDTO.builder().id(1L).jurisshortcut("BW").label("Baden-Württemberg").build()));
+
+    StepVerifier.create(cache.rebuild())
+        .consumeNextWith(snapshot -> assertThat(snapshot.version()).isGreaterThan(firstVersion))
+        .verifyComplete();
+
+    StepVerifier.create(cache.findStateByJurisShortcut("BW"))
+        .consumeNextWith(state -> assertThat(state.getLabel()).isEqualTo("Baden-Württemberg"))
+        .verifyComplete();
+  }
+
+  @Test
+  void testFind_withKeyMissingInTheSnapshotButInTheDatabase_shouldRebuildTheSnapshot() {
+    cache.getSnapshot().block();
+    DocumentTypeDTO newDocumentType =
+        DocumentTypeDTO.builder().id(9L).jurisShortcut("Bes").label("Beschluss").build();
+    when(documentTypeRepository.findByJurisShortcut("Bes")).thenReturn(Mono.just(newDocumentType));
+    when(documentTypeRepository.findAll()).thenReturn(Flux.just(newDocumentType));
+
+    StepVerifier.create(cache.findDocumentTypeByJurisShortcut("Bes"))
+        .expectNext(newDocumentType)
+        .verifyComplete();
+    StepVerifier.create(cache.findDocumentTypeById(9L))
+        .expectNext(newDocumentType)
+        .verifyComplete();
+
+    verify(documentTypeRepository, times(2)).findAll();
+    verify(documentTypeRepository, never()).findById(any(Long.class));
+  }
+
+  @Test
+  void testFind_withUnknownKey_shouldNotRebuildTheSnapshot() {
+    when(courtRepository.findByCourttypeAndCourtlocation("LG", "Bonn")).thenReturn(Mono.empty());
+
+    StepVerifier.create(cache.findCourtByTypeAndLocation("LG", "Bonn")).verifyComplete();
+
+    verify(courtRepository, times(1)).findAll();
+  }
+}
@@ -0,0 +1,84 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class ReloadableSnapshotTest {
+
+  @Test
+  void testGet_shouldShareTheRunningLoad() {
+    AtomicInteger loads = new AtomicInteger();
+    Sinks.One<String> result = Sinks.one();
+    ReloadableSnapshot<String> snapshot =
+        new ReloadableSnapshot<>(
+            "test snapshot",
+            version -> result.asMono().doOnSubscribe(subscription -> loads.incrementAndGet()),
+            String::length,
+            0,
+            null,
+            null);
+
+    Mono<String> first = snapshot.get();
+    Mono<String> second = snapshot.get();
+    StepVerifier.create(Mono.zip(first, second))
+        .then(() -> result.tryEmitValue("loaded"))
+        .consumeNextWith(
+            snapshots -> {
+              assertThat(snapshots.getT1()).isEqualTo("loaded");
+              assertThat(snapshots.getT2()).isEqualTo("loaded");
+            })
+        .verifyComplete();
+
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(snapshot.getVersion()).isEqualTo(1);
+  }
+
+  @Test
+  void testLoad_withForcedLoadFinishingFirst_shouldKeepTheLaterVersion() {
+    Sinks.One<String> slowLoad = Sinks.one();
+    ReloadableSnapshot<String> snapshot =
+        new ReloadableSnapshot<>(
+            "test snapshot",
+            version -> version == 1 ? slowLoad.asMono() : Mono.just("version " + version),
+            String::length,
+            0,
+            null,
+            null);
+
+    Mono<String> firstLoad = snapshot.load(false).cache();
+    firstLoad.subscribe();
+    StepVerifier.create(snapshot.load(true)).expectNext("version 2").verifyComplete();
+    slowLoad.tryEmitValue("version 1");
+
+    StepVerifier.create(firstLoad).expectNext("version 1").verifyComplete();
+    StepVerifier.create(snapshot.get()).expectNext("version 2").verifyComplete();
+    assertThat(snapshot.getVersion()).isEqualTo(2);
+  }
+
+  @Test
+  void testGet_withSnapshotOlderThanTheMaxAge_shouldServeItAndReloadInTheBackground() {
+    AtomicInteger loads = new AtomicInteger();
+    ReloadableSnapshot<String> snapshot =
+        new ReloadableSnapshot<>(
+            "test snapshot",
+            version -> Mono.fromCallable(() -> "load " + loads.incrementAndGet()),
+            String::length,
+            1,
+            null,
+            null);
+
+    StepVerifier.create(snapshot.get()).expectNext("load 1").verifyComplete();
+    StepVerifier.create(Mono.delay(Duration.ofMillis(5)).then(snapshot.get()))
+        .expectNext("load 1")
+        .verifyComplete();
+
+    assertThat(loads.get()).isEqualTo(2);
+    StepVerifier.create(snapshot.get()).expectNext("load 2").verifyComplete();
+  }
+}
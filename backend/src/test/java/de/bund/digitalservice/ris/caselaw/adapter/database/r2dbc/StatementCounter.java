@@ -0,0 +1,69 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.lang.NonNull;
+import reactor.core.publisher.Mono;
+
+/**
+ * Wraps the connection factory of the test context in a proxy which counts the statements created
+ * on its connections.
+ */
+public class StatementCounter implements BeanPostProcessor {
+  private final AtomicInteger statements = new AtomicInteger();
+
+  public int get() {
+    return statements.get();
+  }
+
+  public void reset() {
+    statements.set(0);
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+    if (bean instanceof ConnectionFactory connectionFactory) {
+      return proxy(
+          ConnectionFactory.class,
+          (proxy, method, args) -> {
+            Object result = invoke(connectionFactory, method, args);
+            if (method.getName().equals("create")) {
+              return Mono.from((Publisher<?>) result)
+                  .map(connection -> countStatements((Connection) connection));
+            }
+            return result;
+          });
+    }
+    return bean;
+  }
+
+  private Connection countStatements(Connection connection) {
+    return proxy(
+        Connection.class,
+        (proxy, method, args) -> {
+          if (method.getName().equals("createStatement")) {
+            statements.incrementAndGet();
+          }
+          return invoke(connection, method, args);
+        });
+  }
+
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldOfLaw;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+class FieldOfLawSearchIndexTest {
+  private final FieldOfLawTree tree =
+      FieldOfLawTree.of(
+          List.of(
+              fieldOfLaw(1L, "AR", "Arbeitsrecht"),
+              fieldOfLaw(2L, "AR-01", "Individualarbeitsrecht und Tarifrecht"),
+              fieldOfLaw(3L, "AR-01-01", "Recht der Arbeitnehmer-Erfindung"),
+              fieldOfLaw(4L, "BR", "Bürgerliches Recht"),
+              fieldOfLaw(5L, "SR", null)),
+          List.of(),
+          List.of(norm(2L, "TVG", "§ 12"), norm(4L, "BGB", "§ 123"), norm(5L, "TVG", null)),
+          List.of());
+
+  @Test
+  void testSearch_shouldFindAllFieldsOfLawContainingAllTerms() {
+    assertThat(identifiers(tree.search(null, new String[] {"recht"}, Pageable.unpaged())))
+        .containsExactlyInAnyOrder("AR", "AR-01", "AR-01-01", "BR");
+    assertThat(identifiers(tree.search(null, new String[] {"RECHT", "ar"}, Pageable.unpaged())))
+        .containsExactlyInAnyOrder("AR", "AR-01", "AR-01-01");
+    assertThat(identifiers(tree.search(null, new String[] {"nehmer-erf"}, Pageable.unpaged())))
+        .containsExactly("AR-01-01");
+    assertThat(identifiers(tree.search(null, new String[] {"01-01"}, Pageable.unpaged())))
+        .containsExactly("AR-01-01");
+    assertThat(tree.search(null, new String[] {"recht", "unknown"}, Pageable.unpaged())).isEmpty();
+    assertThat(tree.search(null, null, Pageable.unpaged())).isEmpty();
+  }
+
+  @Test
+  void testSearch_shouldMatchTheNormStringInBothOrders() {
+    assertThat(identifiers(tree.search("§ 12", null, Pageable.unpaged())))
+        .containsExactlyInAnyOrder("AR-01", "BR");
+    assertThat(identifiers(tree.search("bgb § 12", null, Pageable.unpaged())))
+        .containsExactly("BR");
+    assertThat(identifiers(tree.search("§ 123 bgb", null, Pageable.unpaged())))
+        .containsExactly("BR");
+    assertThat(identifiers(tree.search("tvg", null, Pageable.unpaged())))
+        .containsExactlyInAnyOrder("AR-01", "SR");
+    assertThat(identifiers(tree.search("§ 12", new String[] {"tarif"}, Pageable.unpaged())))
+        .containsExactly("AR-01");
+    assertThat(tree.search("§ 12 tvg bgb", null, Pageable.unpaged())).isEmpty();
+  }
+
+  @Test
+  void testSearch_shouldOrderByScoreAndIdentifier() {
+    Page<FieldOfLaw> page = tree.search(null, new String[] {"ar"}, Pageable.unpaged());
+
+    assertThat(page.getContent())
+        .extracting(FieldOfLaw::identifier, FieldOfLaw::score)
+        .containsExactly(tuple("AR", 24), tuple("AR-01-01", 11), tuple("AR-01", 9));
+  }
+
+  @Test
+  void testSearch_shouldReturnTheRequestedPageOfTheRankedMatches() {
+    List<FieldOfLawDTO> fieldsOfLaw = new ArrayList<>();
+    IntStream.range(0, 100)
+        .forEach(i -> fieldsOfLaw.add(fieldOfLaw(i + 1L, String.format("XX-%02d", i), "text")));
+    fieldsOfLaw.add(fieldOfLaw(1000L, "YY", "text text"));
+    FieldOfLawTree largeTree = FieldOfLawTree.of(fieldsOfLaw, List.of(), List.of(), List.of());
+
+    Page<FieldOfLaw> firstPage =
+        largeTree.search(null, new String[] {"text"}, PageRequest.of(0, 3));
+    Page<FieldOfLaw> lastPage =
+        largeTree.search(null, new String[] {"text"}, PageRequest.of(33, 3));
+    Page<FieldOfLaw> behindLastPage =
+        largeTree.search(null, new String[] {"text"}, PageRequest.of(34, 3));
+
+    assertThat(identifiers(firstPage)).containsExactly("YY", "XX-00", "XX-01");
+    assertThat(firstPage.getTotalElements()).isEqualTo(101);
+    assertThat(identifiers(lastPage)).containsExactly("XX-98", "XX-99");
+    assertThat(behindLastPage.getContent()).isEmpty();
+    assertThat(behindLastPage.getTotalElements()).isEqualTo(101);
+  }
+
+  private static List<String> identifiers(Page<FieldOfLaw> page) {
+    return page.getContent().stream().map(FieldOfLaw::identifier).toList();
+  }
+
+  private static FieldOfLawDTO fieldOfLaw(Long id, String identifier, String text) {
+    return FieldOfLawDTO.builder().id(id).identifier(identifier).text(text).build();
+  }
+
+  private static NormDTO norm(
+      Long fieldOfLawId, String abbreviation, String singleNormDescription) {
+
+    return NormDTO.builder()
+        .fieldOfLawId(fieldOfLawId)
+        .abbreviation(abbreviation)
+        .singleNormDescription(singleNormDescription)
+        .build();
+  }
+}
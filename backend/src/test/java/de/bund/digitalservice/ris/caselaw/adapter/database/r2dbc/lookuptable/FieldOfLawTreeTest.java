@@ -0,0 +1,113 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldOfLaw;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.Keyword;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.Norm;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FieldOfLawTreeTest {
+  private final FieldOfLawTree tree =
+      FieldOfLawTree.of(
+          List.of(
+              fieldOfLaw(4L, "AR-01-02", 2L),
+              fieldOfLaw(2L, "AR-01", 1L),
+              fieldOfLaw(5L, "BR", null),
+              fieldOfLaw(3L, "AR-01-01", 2L),
+              fieldOfLaw(1L, "AR", null)),
+          List.of(keyword(3L, "zweites"), keyword(3L, "erstes")),
+          List.of(norm(3L, "BGB", "§ 2"), norm(3L, "BGB", null), norm(3L, "AO", "§ 1")),
+          List.of(link(3L, 5L), link(3L, 1L), link(3L, 99L)));
+
+  @Test
+  void testGetChildren_shouldReturnTheChildrenOrderedByIdentifier() {
+    assertThat(tree.getTopLevelNodes())
+        .extracting(FieldOfLaw::identifier)
+        .containsExactly("AR", "BR");
+    assertThat(tree.getChildren("AR")).extracting(FieldOfLaw::identifier).containsExactly("AR-01");
+    assertThat(tree.getChildren("AR-01"))
+        .extracting(FieldOfLaw::identifier)
+        .containsExactly("AR-01-01", "AR-01-02");
+    assertThat(tree.getChildren("AR-01-01")).isEmpty();
+    assertThat(tree.getChildren("unknown")).isEmpty();
+  }
+
+  @Test
+  void testGetChildrenWithDepth_shouldAddTheDescendantsDownToTheDepth() {
+    List<FieldOfLaw> topLevelNodes = tree.getChildren(null, 2);
+
+    assertThat(topLevelNodes).extracting(FieldOfLaw::identifier).containsExactly("AR", "BR");
+    assertThat(topLevelNodes.get(0).children())
+        .extracting(FieldOfLaw::identifier)
+        .containsExactly("AR-01");
+    assertThat(topLevelNodes.get(0).children().get(0).children()).isEmpty();
+    assertThat(tree.getChildren("AR", 5).get(0).children())
+        .extracting(FieldOfLaw::identifier)
+        .containsExactly("AR-01-01", "AR-01-02");
+    assertThat(tree.getChildren("AR", 1).get(0).children()).isEmpty();
+    assertThat(tree.getChildren("unknown", 2)).isEmpty();
+  }
+
+  @Test
+  void testGetAncestorsAndSelf_shouldReturnTheChainFromTheTopLevelNode() {
+    assertThat(tree.getAncestorsAndSelf("AR-01-02"))
+        .extracting(FieldOfLaw::identifier)
+        .containsExactly("AR", "AR-01", "AR-01-02");
+    assertThat(tree.getAncestorsAndSelf("BR"))
+        .extracting(FieldOfLaw::identifier)
+        .containsExactly("BR");
+    assertThat(tree.getAncestorsAndSelf("unknown")).isEmpty();
+  }
+
+  @Test
+  void testFindByIdentifier_shouldAttachTheOrderedKeywordsNormsAndLinkedFields() {
+    FieldOfLaw fieldOfLaw = tree.findByIdentifier("AR-01-01").orElseThrow();
+
+    assertThat(fieldOfLaw.id()).isEqualTo(3L);
+    assertThat(fieldOfLaw.keywords())
+        .extracting(Keyword::value)
+        .containsExactly("erstes", "zweites");
+    assertThat(fieldOfLaw.norms())
+        .extracting(Norm::abbreviation, Norm::singleNormDescription)
+        .containsExactly(tuple("AO", "§ 1"), tuple("BGB", "§ 2"), tuple("BGB", null));
+    assertThat(fieldOfLaw.linkedFields()).containsExactly("AR", "BR");
+    assertThat(tree.findByIdentifier("AR").orElseThrow().keywords()).isEmpty();
+  }
+
+  @Test
+  void testFindByIdentifier_shouldReturnANewModifiableFieldOfLaw() {
+    FieldOfLaw first = tree.findByIdentifier("AR").orElseThrow();
+    first.children().add(tree.findByIdentifier("AR-01").orElseThrow());
+
+    assertThat(tree.findByIdentifier("AR").orElseThrow().children()).isEmpty();
+    assertThat(tree.size()).isEqualTo(5);
+  }
+
+  private static FieldOfLawDTO fieldOfLaw(Long id, String identifier, Long parentId) {
+    return FieldOfLawDTO.builder().id(id).identifier(identifier).parentId(parentId).build();
+  }
+
+  private static FieldOfLawKeywordDTO keyword(Long fieldOfLawId, String value) {
+    return FieldOfLawKeywordDTO.builder().fieldOfLawId(fieldOfLawId).value(value).build();
+  }
+
+  private static NormDTO norm(
+      Long fieldOfLawId, String abbreviation, String singleNormDescription) {
+
+    return NormDTO.builder()
+        .fieldOfLawId(fieldOfLawId)
+        .abbreviation(abbreviation)
+        .singleNormDescription(singleNormDescription)
+        .build();
+  }
+
+  private static FieldOfLawLinkDTO link(Long fieldOfLawId, Long linkedFieldOfLawId) {
+    return FieldOfLawLinkDTO.builder()
+        .fieldOfLawId(fieldOfLawId)
+        .linkedFieldOfLawId(linkedFieldOfLawId)
+        .build();
+  }
+}
@@ -0,0 +1,102 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.DocumentTypeNew;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.NormAbbreviation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class NormAbbreviationIndexTest {
+
+  @Test
+  void testSearch_shouldFindThePrefixCaseSensitiveAndOrderByTheCodePoints() {
+    NormAbbreviationIndex index =
+        NormAbbreviationIndex.of(
+            List.of(
+                normAbbreviation("Search C"),
+                normAbbreviation("search lower case"),
+                normAbbreviation("in the middle Search"),
+                normAbbreviation("Search A"),
+                normAbbreviation("Search Ä"),
+                normAbbreviation("Search B"),
+                normAbbreviation("Searc")));
+
+    assertThat(index.search("Search", null, null))
+        .extracting(NormAbbreviation::abbreviation)
+        .containsExactly("Search A", "Search B", "Search C", "Search Ä");
+    assertThat(index.search("", null, null)).hasSize(7);
+    assertThat(index.search("Unknown", null, null)).isEmpty();
+    assertThat(index.search(null, null, null)).isEmpty();
+  }
+
+  @Test
+  void testSearch_shouldReturnThePageOfSizeAndOffset() {
+    List<NormAbbreviation> normAbbreviations = new ArrayList<>();
+    IntStream.range(0, 1000)
+        .forEach(i -> normAbbreviations.add(normAbbreviation(String.format("BGB %04d", i))));
+    IntStream.range(0, 10)
+        .forEach(i -> normAbbreviations.add(normAbbreviation(String.format("AO %02d", i))));
+    NormAbbreviationIndex index = NormAbbreviationIndex.of(normAbbreviations);
+
+    assertThat(index.search("AO", 3, 6))
+        .extracting(NormAbbreviation::abbreviation)
+        .containsExactly("AO 06", "AO 07", "AO 08");
+    assertThat(index.search("AO", 3, 9))
+        .extracting(NormAbbreviation::abbreviation)
+        .containsExactly("AO 09");
+    assertThat(index.search("BGB", 2, 500))
+        .extracting(NormAbbreviation::abbreviation)
+        .containsExactly("BGB 0500", "BGB 0501");
+    assertThat(index.search("", 2, 9))
+        .extracting(NormAbbreviation::abbreviation)
+        .containsExactly("AO 09", "BGB 0000");
+    assertThat(index.search("BGB", 10, 1000)).isEmpty();
+    assertThat(index.search("BGB", 0, 0)).isEmpty();
+  }
+
+  @Test
+  void testFindById_shouldFindEveryEntry() {
+    List<NormAbbreviation> normAbbreviations =
+        IntStream.range(0, 100).mapToObj(i -> normAbbreviation("abbreviation " + i)).toList();
+    NormAbbreviationIndex index = NormAbbreviationIndex.of(normAbbreviations);
+
+    for (NormAbbreviation normAbbreviation : normAbbreviations) {
+      assertThat(index.findById(normAbbreviation.id())).contains(normAbbreviation);
+    }
+    assertThat(index.findById(UUID.randomUUID())).isEmpty();
+    assertThat(index.findById(null)).isEmpty();
+  }
+
+  @Test
+  void testOf_shouldShareEqualDocumentTypes() {
+    NormAbbreviationIndex index =
+        NormAbbreviationIndex.of(
+            List.of(
+                normAbbreviation("first", documentType()),
+                normAbbreviation("second", documentType())));
+
+    List<NormAbbreviation> result = index.search("", null, null);
+
+    assertThat(result.get(0).documentTypes()).isEqualTo(result.get(1).documentTypes());
+    assertThat(result.get(0).documentTypes()).isSameAs(result.get(1).documentTypes());
+  }
+
+  private static NormAbbreviation normAbbreviation(
+      String abbreviation, DocumentTypeNew... documentTypes) {
+
+    return NormAbbreviation.builder()
+        .id(UUID.randomUUID())
+        .abbreviation(abbreviation)
+        .documentTypes(List.of(documentTypes))
+        .regions(List.of())
+        .build();
+  }
+
+  private static DocumentTypeNew documentType() {
+    return DocumentTypeNew.builder().abbreviation("RV").label("Rechtsverordnung").build();
+  }
+}
@@ -0,0 +1,62 @@
+package de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class TypeaheadIndexTest {
+
+  @Test
+  void testSearch_shouldOrderByLabelPrefixWordStartAndInfix() {
+    TypeaheadIndex<String> index =
+        TypeaheadIndex.of(
+            List.of(
+                "Kammer für Baulandsachen Ulm",
+                "Gericht Potsdam",
+                "Landsitzungskammer Hamburg",
+                "Verwaltungsgericht der Landeskirche Frankfurt",
+                "England Court",
+                "Landgericht Amberg",
+                "Jugendgericht des Haupt-Landes München"),
+            Function.identity());
+
+    assertThat(index.search("land"))
+        .containsExactly(
+            "Landgericht Amberg",
+            "Landsitzungskammer Hamburg",
+            "Jugendgericht des Haupt-Landes München",
+            "Verwaltungsgericht der Landeskirche Frankfurt",
+            "England Court",
+            "Kammer für Baulandsachen Ulm");
+  }
+
+  @Test
+  void testSearch_withSeveralOccurrences_shouldUseTheBestMatch() {
+    TypeaheadIndex<String> index =
+        TypeaheadIndex.of(List.of("Amtsgericht Gerichtstadt", "Gericht"), Function.identity());
+
+    assertThat(index.search("GERICHT")).containsExactly("Gericht", "Amtsgericht Gerichtstadt");
+  }
+
+  @Test
+  void testSearch_shouldIgnoreTheCaseAndSortUmlautsAlphabetically() {
+    TypeaheadIndex<String> index =
+        TypeaheadIndex.of(
+            List.of("Zollgericht", "Ärztegericht", "Bundesgericht"), Function.identity());
+
+    assertThat(index.search("GeRiChT"))
+        .containsExactly("Ärztegericht", "Bundesgericht", "Zollgericht");
+    assertThat(index.search("straße")).isEmpty();
+  }
+
+  @Test
+  void testSearch_withoutMatch_shouldReturnEmptyList() {
+    TypeaheadIndex<String> index =
+        TypeaheadIndex.of(List.of("BGH Karlsruhe", "AG Aachen"), Function.identity());
+
+    assertThat(index.search("Köln")).isEmpty();
+    assertThat(index.search("Karlsruhe Zweigstelle")).isEmpty();
+  }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -20,6 +21,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -31,9 +33,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Order;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -47,7 +51,7 @@ import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
 @ExtendWith(SpringExtension.class)
-@Import(DocumentUnitService.class)
+@Import({DocumentUnitService.class, DocumentUnitWriteBehindBuffer.class})
 @TestPropertySource(properties = "otc.obs.bucket-name:testBucket")
 class DocumentUnitServiceTest {
   private static final UUID TEST_UUID = UUID.fromString("88888888-4444-4444-4444-121212121212");
@@ -62,6 +66,8 @@ class DocumentUnitServiceTest {
 
   @MockBean private EmailPublishService publishService;
 
+  @SpyBean private DocumentUnitWriteBehindBuffer writeBehindBuffer;
+
   @Test
   void testGenerateNewDocumentUnit() {
     when(repository.createNewDocumentUnit("nextDocumentNumber"))
@@ -207,6 +213,47 @@ class DocumentUnitServiceTest {
     verify(repository).findAll(pageRequest);
   }
 
+  @Test
+  void testGetAllByCursor_withoutCursor_shouldRequestFirstSlice() {
+    DocumentUnitListSlice slice =
+        DocumentUnitListSlice.builder()
+            .content(List.of(DocumentUnitListEntry.builder().build()))
+            .nextCursor("next")
+            .build();
+    when(repository.findAllByCursor(null, 10)).thenReturn(Mono.just(slice));
+
+    StepVerifier.create(service.getAllByCursor(null, 10, false)).expectNext(slice).verifyComplete();
+
+    verify(repository, never()).estimateCountByDataSource(any());
+  }
+
+  @Test
+  void testGetAllByCursor_withCursorAndEstimatedTotal() {
+    DocumentUnitListCursor cursor =
+        new DocumentUnitListCursor(Instant.parse("2023-03-01T10:15:30.123456Z"), 42L);
+    when(repository.findAllByCursor(cursor, 10))
+        .thenReturn(Mono.just(DocumentUnitListSlice.builder().content(List.of()).build()));
+    when(repository.estimateCountByDataSource(DataSource.NEURIS)).thenReturn(Mono.just(500L));
+
+    StepVerifier.create(service.getAllByCursor(cursor.encode(), 10, true))
+        .consumeNextWith(slice -> assertThat(slice.estimatedTotal()).isEqualTo(500L))
+        .verifyComplete();
+
+    verify(repository).findAllByCursor(cursor, 10);
+  }
+
+  @Test
+  void testGetAllByCursor_withInvalidCursor_shouldReturnBadRequest() {
+    StepVerifier.create(service.getAllByCursor("not a cursor", 10, false))
+        .expectErrorMatches(
+            ex ->
+                ex instanceof ResponseStatusException responseStatusException
+                    && responseStatusException.getStatusCode() == HttpStatus.BAD_REQUEST)
+        .verify();
+
+    verify(repository, never()).findAllByCursor(any(), anyInt());
+  }
+
   @Test
   void testGetByDocumentnumber() {
     when(repository.findByDocumentNumber("ABCDE20220001"))
@@ -296,11 +343,53 @@ class DocumentUnitServiceTest {
             .build();
     when(repository.save(documentUnit)).thenReturn(Mono.just(documentUnit));
     StepVerifier.create(service.updateDocumentUnit(documentUnit))
-        .consumeNextWith(du -> assertEquals(du, documentUnit))
+        .expectNext(new DocumentUnitSaveResult(documentUnit, false))
         .verifyComplete();
     verify(repository).save(documentUnit);
   }
 
+  @Test
+  void testCreateProceedingDecision_shouldSaveTheChildWithoutTheWriteBehindBuffer() {
+    UUID childUuid = UUID.randomUUID();
+    DocumentUnit child =
+        DocumentUnit.builder().uuid(childUuid).coreData(CoreData.builder().build()).build();
+    ProceedingDecision proceedingDecision = ProceedingDecision.builder().fileNumber("abc").build();
+    when(documentNumberService.generateNextDocumentNumber(any(DocumentUnitCreationInfo.class)))
+        .thenReturn(Mono.just("nextDocumentNumber"));
+    when(repository.createNewDocumentUnit("nextDocumentNumber")).thenReturn(Mono.just(child));
+    when(repository.save(any(DocumentUnit.class))).thenReturn(Mono.just(child));
+    when(repository.linkDocumentUnits(TEST_UUID, childUuid)).thenReturn(Mono.just(child));
+    when(repository.findAllLinkedDocumentUnitsByParentDocumentUnitId(TEST_UUID))
+        .thenReturn(Flux.just(proceedingDecision));
+
+    StepVerifier.create(service.createProceedingDecision(TEST_UUID, proceedingDecision))
+        .expectNext(proceedingDecision)
+        .verifyComplete();
+
+    verify(writeBehindBuffer, never()).save(any(DocumentUnit.class));
+    verify(repository).save(any(DocumentUnit.class));
+    verify(repository).linkDocumentUnits(TEST_UUID, childUuid);
+  }
+
+  @Test
+  void testPatchDocumentUnit_shouldPassThePatchToTheRepository() {
+    DocumentUnit patchedDocumentUnit =
+        DocumentUnit.builder()
+            .uuid(TEST_UUID)
+            .texts(Texts.builder().headline("headline").build())
+            .build();
+    UnaryOperator<DocumentUnit> patch =
+        documentUnit ->
+            documentUnit.toBuilder().texts(Texts.builder().headline("headline").build()).build();
+    when(repository.patch(TEST_UUID, patch)).thenReturn(Mono.just(patchedDocumentUnit));
+
+    StepVerifier.create(service.patchDocumentUnit(TEST_UUID, patch))
+        .expectNext(patchedDocumentUnit)
+        .verifyComplete();
+    verify(repository).patch(TEST_UUID, patch);
+    verify(repository, never()).findByUuid(TEST_UUID);
+  }
+
   @Test
   void testPublishByEmail() {
     when(repository.findByUuid(TEST_UUID)).thenReturn(Mono.just(DocumentUnit.builder().build()));
@@ -0,0 +1,228 @@
+package de.bund.digitalservice.ris.caselaw.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class DocumentUnitWriteBehindBufferTest {
+  private static final UUID TEST_UUID = UUID.fromString("88888888-4444-4444-4444-121212121212");
+
+  private DocumentUnitRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(DocumentUnitRepository.class);
+    when(repository.save(any(DocumentUnit.class)))
+        .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+  }
+
+  @Test
+  void testSave_withSavesWithinTheWindow_shouldOnlyWriteTheLatestState() {
+    DocumentUnitWriteBehindBuffer buffer = buffer(60_000, 10);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    buffer.bindTo(registry);
+
+    StepVerifier.create(buffer.save(documentUnit(TEST_UUID, "first")))
+        .expectNext(new DocumentUnitSaveResult(documentUnit(TEST_UUID, "first"), true))
+        .verifyComplete();
+    StepVerifier.create(buffer.save(documentUnit(TEST_UUID, "second")))
+        .expectNext(new DocumentUnitSaveResult(documentUnit(TEST_UUID, "second"), true))
+        .verifyComplete();
+    StepVerifier.create(buffer.save(documentUnit(TEST_UUID, "third")))
+        .expectNext(new DocumentUnitSaveResult(documentUnit(TEST_UUID, "third"), true))
+        .verifyComplete();
+    verify(repository, never()).save(any(DocumentUnit.class));
+
+    StepVerifier.create(buffer.flush(TEST_UUID)).verifyComplete();
+
+    verify(repository, times(1)).save(any(DocumentUnit.class));
+    verify(repository).save(documentUnit(TEST_UUID, "third"));
+    assertThat(
+            registry
+                .get("documentunit.write.behind.saves")
+                .tag("result", "coalesced")
+                .functionCounter()
+                .count())
+        .isEqualTo(2);
+    assertThat(
+            registry
+                .get("documentunit.write.behind.saves")
+                .tag("result", "written")
+                .functionCounter()
+                .count())
+        .isEqualTo(1);
+    assertThat(registry.get("documentunit.write.behind.pending").gauge().value()).isZero();
+  }
+
+  @Test
+  void testSave_afterTheWindow_shouldWriteTheBufferedSave() {
+    DocumentUnitWriteBehindBuffer buffer = buffer(10, 10);
+
+    buffer.save(documentUnit(TEST_UUID, "headline")).block();
+
+    verify(repository, timeout(1000)).save(documentUnit(TEST_UUID, "headline"));
+  }
+
+  @Test
+  void testSave_withFullBuffer_shouldWriteDirectly() {
+    DocumentUnitWriteBehindBuffer buffer = buffer(60_000, 1);
+    UUID otherUuid = UUID.randomUUID();
+
+    buffer.save(documentUnit(TEST_UUID, "headline")).block();
+    buffer.save(documentUnit(otherUuid, "headline")).block();
+
+    verify(repository).save(documentUnit(otherUuid, "headline"));
+    verify(repository, never()).save(documentUnit(TEST_UUID, "headline"));
+  }
+
+  @Test
+  void testSave_afterAFailedBufferedSave_shouldWriteDirectly() {
+    DocumentUnitWriteBehindBuffer buffer = buffer(60_000, 10);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    buffer.bindTo(registry);
+    when(repository.save(documentUnit(TEST_UUID, "first")))
+        .thenReturn(Mono.error(new IllegalStateException("database is gone")));
+    buffer.save(documentUnit(TEST_UUID, "first")).block();
+
+    StepVerifier.create(buffer.flush(TEST_UUID)).verifyComplete();
+
+    StepVerifier.create(buffer.save(documentUnit(TEST_UUID, "second")))
+        .expectNext(new DocumentUnitSaveResult(documentUnit(TEST_UUID, "second"), false))
+        .verifyComplete();
+    verify(repository).save(documentUnit(TEST_UUID, "second"));
+    assertThat(
+            registry
+                .get("documentunit.write.behind.saves")
+                .tag("result", "failed")
+                .functionCounter()
+                .count())
+        .isEqualTo(1);
+
+    StepVerifier.create(buffer.save(documentUnit(TEST_UUID, "third")))
+        .expectNext(new DocumentUnitSaveResult(documentUnit(TEST_UUID, "third"), true))
+        .verifyComplete();
+    verify(repository, never()).save(documentUnit(TEST_UUID, "third"));
+  }
+
+  @Test
+  void testFlush_withoutBufferedSave_shouldWriteNothing() {
+    DocumentUnitWriteBehindBuffer buffer = buffer(60_000, 10);
+
+    StepVerifier.create(buffer.flush(TEST_UUID)).verifyComplete();
+
+    verify(repository, never()).save(any(DocumentUnit.class));
+  }
+
+  @Test
+  void testFlushByDocumentNumber_shouldOnlyWriteTheSaveOfTheDocumentNumber() {
+    DocumentUnitWriteBehindBuffer buffer = buffer(60_000, 10);
+    UUID otherUuid = UUID.randomUUID();
+    buffer.save(documentUnit(TEST_UUID, "headline")).block();
+    buffer
+        .save(documentUnit(otherUuid, "headline").toBuilder().documentNumber("other").build())
+        .block();
+
+    StepVerifier.create(buffer.flushByDocumentNumber("ABCD202300001")).verifyComplete();
+
+    verify(repository).save(documentUnit(TEST_UUID, "headline"));
+    verify(repository, times(1)).save(any(DocumentUnit.class));
+  }
+
+  @Test
+  void testShutdown_shouldWriteAllBufferedSaves() {
+    DocumentUnitWriteBehindBuffer buffer = buffer(60_000, 10);
+    UUID otherUuid = UUID.randomUUID();
+    buffer.save(documentUnit(TEST_UUID, "headline")).block();
+    buffer.save(documentUnit(otherUuid, "headline")).block();
+
+    buffer.shutdown();
+
+    verify(repository).save(documentUnit(TEST_UUID, "headline"));
+    verify(repository).save(documentUnit(otherUuid, "headline"));
+  }
+
+  @Test
+  void testSave_withDisabledBuffer_shouldWriteDirectly() {
+    DocumentUnitWriteBehindBuffer buffer =
+        new DocumentUnitWriteBehindBuffer(repository, false, 60_000, 10);
+
+    buffer.save(documentUnit(TEST_UUID, "headline")).block();
+
+    verify(repository).save(documentUnit(TEST_UUID, "headline"));
+  }
+
+  @Test
+  void testSave_withDeactivatedBuffer_shouldWriteDirectly() {
+    DocumentUnitWriteBehindBuffer buffer = buffer(60_000, 10);
+    buffer.deactivate();
+
+    StepVerifier.create(buffer.save(documentUnit(TEST_UUID, "first")))
+        .expectNext(new DocumentUnitSaveResult(documentUnit(TEST_UUID, "first"), false))
+        .verifyComplete();
+    verify(repository).save(documentUnit(TEST_UUID, "first"));
+
+    buffer.activate();
+
+    StepVerifier.create(buffer.save(documentUnit(TEST_UUID, "second")))
+        .expectNext(new DocumentUnitSaveResult(documentUnit(TEST_UUID, "second"), true))
+        .verifyComplete();
+    verify(repository, never()).save(documentUnit(TEST_UUID, "second"));
+  }
+
+  @Test
+  void testSave_afterDeactivationWithBufferedSave_shouldReplaceTheBufferedSave() {
+    DocumentUnitWriteBehindBuffer buffer = buffer(60_000, 10);
+    buffer.save(documentUnit(TEST_UUID, "first")).block();
+    buffer.deactivate();
+
+    buffer.save(documentUnit(TEST_UUID, "second")).block();
+    StepVerifier.create(buffer.flush(TEST_UUID)).verifyComplete();
+
+    verify(repository).save(documentUnit(TEST_UUID, "second"));
+    verify(repository, never()).save(documentUnit(TEST_UUID, "first"));
+  }
+
+  @Test
+  void testSuspend_shouldLetSavesAndReadsWaitUntilResume() {
+    DocumentUnitWriteBehindBuffer buffer = buffer(60_000, 10);
+    buffer.suspend();
+
+    Mono<DocumentUnitSaveResult> save = buffer.save(documentUnit(TEST_UUID, "headline")).cache();
+    Mono<Void> flush = buffer.flushByDocumentNumber("ABCD202300001").cache();
+    save.subscribe();
+    flush.subscribe();
+    verify(repository, never()).save(any(DocumentUnit.class));
+
+    buffer.resume();
+
+    StepVerifier.create(save)
+        .expectNext(new DocumentUnitSaveResult(documentUnit(TEST_UUID, "headline"), false))
+        .verifyComplete();
+    StepVerifier.create(flush).verifyComplete();
+    verify(repository).save(documentUnit(TEST_UUID, "headline"));
+  }
+
+  private DocumentUnitWriteBehindBuffer buffer(long windowMillis, int maximumSize) {
+    return new DocumentUnitWriteBehindBuffer(repository, true, windowMillis, maximumSize);
+  }
+
+  private static DocumentUnit documentUnit(UUID uuid, String headline) {
+    return DocumentUnit.builder()
+        .uuid(uuid)
+        .documentNumber("ABCD202300001")
+        .texts(Texts.builder().headline(headline).build())
+        .build();
+  }
+}
@@ -3,12 +3,16 @@ package de.bund.digitalservice.ris.caselaw.domain;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.atMostOnce;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import de.bund.digitalservice.ris.caselaw.adapter.LookupTableImportJob;
+import de.bund.digitalservice.ris.caselaw.adapter.LookupTableImportJob.Phase;
 import de.bund.digitalservice.ris.caselaw.adapter.LookupTableImporterService;
 import de.bund.digitalservice.ris.caselaw.adapter.database.jpa.JPADocumentTypeDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.jpa.JPADocumentTypeRepository;
@@ -17,33 +21,46 @@ import de.bund.digitalservice.ris.caselaw.adapter.database.jpa.JPAFieldOfLawLink
 import de.bund.digitalservice.ris.caselaw.adapter.database.jpa.JPAFieldOfLawRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.jpa.JPAKeywordDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.jpa.JPANormDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataCache;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.CourtDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseCourtRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseDocumentTypeRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseFieldOfLawRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawTreeCache;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateRepository;
-import java.nio.ByteBuffer;
+import de.bund.digitalservice.ris.caselaw.config.LookupTableImportConfig;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.ReactiveTransactionManager;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 @ExtendWith(SpringExtension.class)
-@Import(LookupTableImporterService.class)
+@Import({LookupTableImporterService.class, LookupTableImportConfig.class})
 class LookupTableImporterServiceTest {
 
   @SpyBean private LookupTableImporterService service;
 
+  @TempDir Path tempDir;
+
   @MockBean private DatabaseDocumentTypeRepository databaseDocumentTypeRepository;
 
   @MockBean private JPADocumentTypeRepository jpaDocumentTypeRepository;
@@ -58,8 +75,31 @@ class LookupTableImporterServiceTest {
 
   @MockBean private JPAFieldOfLawLinkRepository jpaFieldOfLawLinkRepository;
 
+  @MockBean private ReferenceDataCache referenceDataCache;
+
+  @MockBean private FieldOfLawTreeCache fieldOfLawTreeCache;
+
+  @MockBean private EntityManager entityManager;
+
+  @MockBean(name = "jpaTransactionManager")
+  private PlatformTransactionManager jpaTransactionManager;
+
+  @MockBean(name = "connectionFactoryTransactionManager")
+  private ReactiveTransactionManager r2dbcTransactionManager;
+
+  @BeforeEach
+  void setUp() {
+    ReactiveTransaction transaction = mock(ReactiveTransaction.class);
+    when(r2dbcTransactionManager.getReactiveTransaction(any())).thenReturn(Mono.just(transaction));
+    when(r2dbcTransactionManager.commit(transaction)).thenReturn(Mono.empty());
+    when(r2dbcTransactionManager.rollback(transaction)).thenReturn(Mono.empty());
+    when(referenceDataCache.rebuild()).thenReturn(Mono.empty());
+    when(fieldOfLawTreeCache.rebuild()).thenReturn(Mono.empty());
+  }
+
   @Test
-  void testImportDocumentTypeLookupTable() {
+  void testImportDocumentTypeLookupTable() throws IOException {
+    LookupTableImportJob job = new LookupTableImportJob("document type");
     when(databaseDocumentTypeRepository.deleteAll()).thenReturn(Mono.empty());
 
     String doctypesXml =
@@ -73,7 +113,7 @@ class LookupTableImporterServiceTest {
             <bezeichnung>Änderungsnorm</bezeichnung>
           </juris-doktyp>
         </juris-table>""";
-    ByteBuffer byteBuffer = ByteBuffer.wrap(doctypesXml.getBytes());
+    Path file = Files.writeString(tempDir.resolve("lookup-table.xml"), doctypesXml);
     List<JPADocumentTypeDTO> documentTypeDTOs =
         List.of(
             JPADocumentTypeDTO.builder()
@@ -86,7 +126,7 @@ class LookupTableImporterServiceTest {
                 .label("Änderungsnorm")
                 .build());
 
-    StepVerifier.create(service.importDocumentTypeLookupTable(byteBuffer))
+    StepVerifier.create(service.importDocumentTypeLookupTable(file, job))
         .consumeNextWith(
             documentTypeDTO ->
                 assertEquals(
@@ -97,12 +137,16 @@ class LookupTableImporterServiceTest {
     verify(databaseDocumentTypeRepository, never()).saveAll(anyCollection());
     verify(jpaDocumentTypeRepository, atMostOnce()).deleteAll();
     verify(jpaDocumentTypeRepository, atMostOnce()).saveAll(documentTypeDTOs);
+    verify(referenceDataCache).rebuild();
+    assertThat(job.getRowsProcessed()).isEqualTo(1);
+    assertThat(job.getPhase()).isEqualTo(Phase.REBUILDING_CACHES);
   }
 
   @Captor private ArgumentCaptor<List<CourtDTO>> courtDTOlistCaptor;
 
   @Test
-  void testImportCourtLookupTable() {
+  void testImportCourtLookupTable() throws IOException {
+    LookupTableImportJob job = new LookupTableImportJob("court");
     List<CourtDTO> courtsDTO =
         List.of(
             CourtDTO.builder()
@@ -129,9 +173,9 @@ class LookupTableImporterServiceTest {
                 </juris-gericht>
             </juris-table>
             """;
-    ByteBuffer byteBuffer = ByteBuffer.wrap(courtsXml.getBytes());
+    Path file = Files.writeString(tempDir.resolve("lookup-table.xml"), courtsXml);
 
-    StepVerifier.create(service.importCourtLookupTable(byteBuffer))
+    StepVerifier.create(service.importCourtLookupTable(file, job))
         .consumeNextWith(
             courtDTO -> assertEquals("Successfully imported the court lookup table", courtDTO))
         .verifyComplete();
@@ -143,10 +187,33 @@ class LookupTableImporterServiceTest {
     assertThat(courtDTOlistCaptor.getValue())
         .extracting("courttype", "courtlocation")
         .containsExactly(tuple("type123", "location123"));
+    verify(referenceDataCache).rebuild();
+    verify(r2dbcTransactionManager).commit(any());
+    assertThat(job.getRowsProcessed()).isEqualTo(1);
+    assertThat(job.getPhase()).isEqualTo(Phase.REBUILDING_CACHES);
   }
 
   @Test
-  void testImportStateLookupTable() {
+  void testImportCourtLookupTable_withMalformedXml_shouldRollbackTheDelete() throws IOException {
+    LookupTableImportJob job = new LookupTableImportJob("court");
+    when(databaseCourtRepository.deleteAll()).thenReturn(Mono.empty());
+    Path file =
+        Files.writeString(
+            tempDir.resolve("lookup-table.xml"),
+            "<juris-table><juris-gericht id=\"9\"></juris-table>");
+
+    StepVerifier.create(service.importCourtLookupTable(file, job)).expectError().verify();
+
+    verify(databaseCourtRepository).deleteAll();
+    verify(r2dbcTransactionManager).rollback(any());
+    verify(r2dbcTransactionManager, never()).commit(any());
+    verify(databaseCourtRepository, never()).saveAll(anyCollection());
+    assertThat(job.getPhase()).isNotEqualTo(Phase.REBUILDING_CACHES);
+  }
+
+  @Test
+  void testImportStateLookupTable() throws IOException {
+    LookupTableImportJob job = new LookupTableImportJob("state");
     List<StateDTO> statesDto =
         List.of(
             StateDTO.builder()
@@ -171,19 +238,23 @@ class LookupTableImporterServiceTest {
                 </juris-buland>
             </juris-table>
             """;
-    ByteBuffer byteBuffer = ByteBuffer.wrap(statesXml.getBytes());
+    Path file = Files.writeString(tempDir.resolve("lookup-table.xml"), statesXml);
 
-    StepVerifier.create(service.importStateLookupTable(byteBuffer))
+    StepVerifier.create(service.importStateLookupTable(file, job))
         .consumeNextWith(
             stateDTO -> assertEquals("Successfully imported the state lookup table", stateDTO))
         .verifyComplete();
 
     verify(stateRepository).deleteAll();
     verify(stateRepository).saveAll(anyCollection());
+    verify(referenceDataCache).rebuild();
+    assertThat(job.getRowsProcessed()).isEqualTo(1);
+    assertThat(job.getPhase()).isEqualTo(Phase.REBUILDING_CACHES);
   }
 
   @Test
-  void testImportFieldOfLawLookupTable() {
+  void testImportFieldOfLawLookupTable() throws IOException {
+    LookupTableImportJob job = new LookupTableImportJob("field of law");
     JPANormDTO childNorm1 =
         JPANormDTO.builder()
             .jpaFieldOfLawDTO(null)
@@ -197,26 +268,37 @@ class LookupTableImporterServiceTest {
     JPAKeywordDTO childKeyword1 =
         JPAKeywordDTO.builder().jpaFieldOfLawDTO(null).value("schlagwort 2.1").build();
     JPAKeywordDTO childKeyword2 =
-        JPAKeywordDTO.builder().jpaFieldOfLawDTO(null).value("schlagwort 2.3").build();
+        JPAKeywordDTO.builder().jpaFieldOfLawDTO(null).value("schlagwort 2.2").build();
     Set<JPAKeywordDTO> childKeywords = Set.of(childKeyword1, childKeyword2);
 
+    // the parents are set by the paths after all fields of law are inserted
     JPAFieldOfLawDTO parent =
-        JPAFieldOfLawDTO.builder().id(1L).parentFieldOfLaw(null).identifier("TS-01").build();
+        JPAFieldOfLawDTO.builder()
+            .id(1L)
+            .parentFieldOfLaw(null)
+            .changeIndicator('N')
+            .identifier("TS-01")
+            .childrenCount(1)
+            .path("TS-01/")
+            .depth(1)
+            .build();
     JPAFieldOfLawDTO child =
         JPAFieldOfLawDTO.builder()
             .id(2L)
-            .parentFieldOfLaw(parent)
+            .parentFieldOfLaw(null)
             .changeDateMail("2022-12-22")
-            .changeDateClient("2022-12-24")
-            .changeIndicator('N')
+            .changeIndicator('J')
             .version("1.0")
             .identifier("TS-01-01")
             .text("stext 2")
             .navigationTerm("navbez 2")
             .keywords(childKeywords)
             .norms(childNorms)
+            .childrenCount(0)
+            .path("TS-01/TS-01-01/")
+            .depth(2)
             .build();
-    List<JPAFieldOfLawDTO> jpaFieldOfLawDTOS = List.of(parent, child);
+    List<JPAFieldOfLawDTO> jpaFieldOfLawDTOS = List.of(child, parent);
 
     String fieldOfLawXml =
         """
@@ -244,17 +326,22 @@ class LookupTableImporterServiceTest {
 
             </juris-table>
             """;
-    ByteBuffer byteBuffer = ByteBuffer.wrap(fieldOfLawXml.getBytes());
+    Path file = Files.writeString(tempDir.resolve("lookup-table.xml"), fieldOfLawXml);
 
-    StepVerifier.create(service.importFieldOfLawLookupTable(byteBuffer))
+    StepVerifier.create(service.importFieldOfLawLookupTable(file, job))
         .consumeNextWith(
             resultString ->
                 assertEquals("Successfully imported the fieldOfLaw lookup table", resultString))
         .verifyComplete();
 
-    verify(jpaFieldOfLawRepository, atMostOnce()).deleteAll();
-    verify(jpaFieldOfLawRepository, atMostOnce()).saveAll(jpaFieldOfLawDTOS);
+    verify(jpaFieldOfLawRepository).deleteAllInBatch();
+    verify(jpaFieldOfLawRepository).saveAll(jpaFieldOfLawDTOS);
+    verify(jpaFieldOfLawRepository).setParentIdsByPath();
     verify(fieldOfLawRepository, never()).deleteAll();
     verify(fieldOfLawRepository, never()).saveAll(anyCollection());
+    verify(referenceDataCache, never()).rebuild();
+    verify(fieldOfLawTreeCache).rebuild();
+    assertThat(job.getRowsProcessed()).isEqualTo(2);
+    assertThat(job.getPhase()).isEqualTo(Phase.REBUILDING_CACHES);
   }
 }
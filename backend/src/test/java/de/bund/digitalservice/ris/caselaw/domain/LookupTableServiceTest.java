@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataCache;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.CourtDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseCourtRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseDocumentTypeRepository;
@@ -37,6 +38,7 @@ class LookupTableServiceTest {
 
   @MockBean private DatabaseDocumentTypeRepository databaseDocumentTypeRepository;
   @MockBean private DatabaseCourtRepository databaseCourtRepository;
+  @MockBean private ReferenceDataCache referenceDataCache;
   @MockBean private FieldOfLawRepository fieldOfLawRepository;
   @MockBean private NormRepository normRepository;
   @MockBean private FieldOfLawKeywordRepository fieldOfLawKeywordRepository;
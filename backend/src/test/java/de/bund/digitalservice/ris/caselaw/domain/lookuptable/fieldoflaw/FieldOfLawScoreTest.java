@@ -0,0 +1,33 @@
+package de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FieldOfLawScoreTest {
+
+  @Test
+  void testCalculate_shouldScoreTheIdentifierAndTheWordsOfTheText() {
+    FieldOfLaw fieldOfLaw =
+        FieldOfLaw.builder().identifier("TS-01-01").text("stext 2").norms(List.of()).build();
+
+    assertThat(FieldOfLawScore.calculate(fieldOfLaw, new String[] {"stext"}, null)).isEqualTo(13);
+    assertThat(FieldOfLawScore.calculate(fieldOfLaw, new String[] {"ts-01-01"}, null))
+        .isEqualTo(15);
+    assertThat(FieldOfLawScore.calculate(fieldOfLaw, new String[] {"stext", "TS"}, null))
+        .isEqualTo(20);
+  }
+
+  @Test
+  void testCalculate_shouldScoreTheNorms() {
+    FieldOfLaw fieldOfLaw =
+        FieldOfLaw.builder()
+            .identifier("TS-01")
+            .norms(List.of(new Norm("BGB", "§ 123"), new Norm("BGB", "§ 1234")))
+            .build();
+
+    assertThat(FieldOfLawScore.calculate(fieldOfLaw, null, "§ 123")).isEqualTo(28);
+    assertThat(FieldOfLawScore.calculate(fieldOfLaw, null, "§ 123 bgb")).isEqualTo(5);
+  }
+}
@@ -0,0 +1,105 @@
+package de.bund.digitalservice.ris.caselaw.integration.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseAdvisoryLocks;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseAdvisoryLocks.Lock;
+import de.bund.digitalservice.ris.caselaw.config.FlywayConfig;
+import de.bund.digitalservice.ris.caselaw.config.PostgresConfig;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import reactor.core.publisher.Mono;
+
+@RISIntegrationTest(
+    imports = {DatabaseAdvisoryLocks.class, FlywayConfig.class, PostgresConfig.class})
+class DatabaseAdvisoryLocksIntegrationTest {
+  private static final String LOCK_NAME = "test-lock";
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @Container
+  static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:12");
+
+  @DynamicPropertySource
+  static void registerDynamicProperties(DynamicPropertyRegistry registry) {
+    registry.add("database.user", () -> postgreSQLContainer.getUsername());
+    registry.add("database.password", () -> postgreSQLContainer.getPassword());
+    registry.add("database.host", () -> postgreSQLContainer.getHost());
+    registry.add("database.port", () -> postgreSQLContainer.getFirstMappedPort());
+    registry.add("database.database", () -> postgreSQLContainer.getDatabaseName());
+  }
+
+  @Autowired private DatabaseAdvisoryLocks locks;
+
+  @Test
+  void testTryAcquire_withHeldLock_shouldCompleteEmpty() {
+    Lock lock = locks.tryAcquire(LOCK_NAME).block();
+
+    assertThat(lock).isNotNull();
+    assertThat(locks.tryAcquire(LOCK_NAME).block()).isNull();
+
+    locks.release(lock).block();
+    Lock nextLock = locks.tryAcquire(LOCK_NAME).block();
+    assertThat(nextLock).isNotNull();
+    locks.release(nextLock).block();
+  }
+
+  @Test
+  void testTryAcquire_afterTheConnectionOfTheLockWasClosed_shouldAcquireTheLockOnce() {
+    Lock lock = locks.tryAcquire(LOCK_NAME).block();
+    // like a failed unlock, the connection is closed while it holds the lock
+    Mono.from(lock.connection().close()).block();
+
+    Lock nextLock = locks.tryAcquire(LOCK_NAME).block();
+
+    assertThat(nextLock).isNotNull();
+    assertThat(locks.tryAcquire(LOCK_NAME).block()).isNull();
+    locks.release(nextLock).block();
+  }
+
+  @Test
+  void testAcquireShared_shouldKeepOtherConnectionsFromTheExclusiveLock() {
+    Lock firstLock = locks.acquireShared(LOCK_NAME).block(TIMEOUT);
+    Lock secondLock = locks.acquireShared(LOCK_NAME).block(TIMEOUT);
+
+    assertThat(locks.tryAcquire(LOCK_NAME).block()).isNull();
+    assertThat(locks.tryUpgrade(firstLock).block()).isNull();
+
+    locks.release(secondLock).block();
+    Lock upgradedLock = locks.tryUpgrade(firstLock).block();
+    assertThat(upgradedLock).isNotNull();
+    assertThat(upgradedLock.shared()).isFalse();
+    assertThat(locks.tryAcquire(LOCK_NAME).block()).isNull();
+    locks.release(upgradedLock).block();
+
+    Lock nextLock = locks.tryAcquire(LOCK_NAME).block();
+    assertThat(nextLock).isNotNull();
+    locks.release(nextLock).block();
+  }
+
+  @Test
+  void testDowngrade_withWaitingConnection_shouldGrantTheSharedLock() {
+    Lock lock = locks.tryAcquire(LOCK_NAME).block();
+    assertThat(locks.hasWaiters(lock).block()).isFalse();
+    CompletableFuture<Lock> waitingLock = locks.acquireShared(LOCK_NAME).toFuture();
+
+    locks
+        .hasWaiters(lock)
+        .filter(Boolean::booleanValue)
+        .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50)))
+        .block(TIMEOUT);
+    assertThat(waitingLock).isNotDone();
+    Lock sharedLock = locks.downgrade(lock).block(TIMEOUT);
+
+    Lock grantedLock = Mono.fromFuture(waitingLock).block(TIMEOUT);
+    assertThat(grantedLock).isNotNull();
+    assertThat(locks.tryAcquire(LOCK_NAME).block()).isNull();
+    locks.release(sharedLock).block();
+    locks.release(grantedLock).block();
+  }
+}
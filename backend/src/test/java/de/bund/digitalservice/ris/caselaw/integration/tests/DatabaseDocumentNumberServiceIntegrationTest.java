@@ -0,0 +1,166 @@
+package de.bund.digitalservice.ris.caselaw.integration.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.bund.digitalservice.ris.caselaw.adapter.DatabaseDocumentNumberService;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseDocumentNumberCounterRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseDocumentNumberOfficeCounterRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseDocumentUnitRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitDTO;
+import de.bund.digitalservice.ris.caselaw.config.FlywayConfig;
+import de.bund.digitalservice.ris.caselaw.config.PostgresConfig;
+import de.bund.digitalservice.ris.caselaw.domain.DataSource;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentNumberCapacity;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentNumberCounter;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitCreationInfo;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.Year;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import reactor.core.publisher.Flux;
+
+@RISIntegrationTest(imports = {FlywayConfig.class, PostgresConfig.class})
+@Slf4j
+class DatabaseDocumentNumberServiceIntegrationTest {
+  private static final int DOCUMENT_UNIT_COUNT = 200;
+  private static final int BENCHMARK_DOCUMENT_UNIT_COUNT = 3000;
+  private static final int INSTANCE_COUNT = 3;
+
+  @Container
+  static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:12");
+
+  @DynamicPropertySource
+  static void registerDynamicProperties(DynamicPropertyRegistry registry) {
+    registry.add("database.user", () -> postgreSQLContainer.getUsername());
+    registry.add("database.password", () -> postgreSQLContainer.getPassword());
+    registry.add("database.host", () -> postgreSQLContainer.getHost());
+    registry.add("database.port", () -> postgreSQLContainer.getFirstMappedPort());
+    registry.add("database.database", () -> postgreSQLContainer.getDatabaseName());
+  }
+
+  @Autowired private DatabaseDocumentNumberOfficeCounterRepository counterRepository;
+  @Autowired private DatabaseDocumentNumberCounterRepository sharedCounterRepository;
+  @Autowired private DatabaseDocumentUnitRepository repository;
+
+  @AfterEach
+  void cleanUp() {
+    repository.deleteAll().block();
+    counterRepository.deleteAll().block();
+  }
+
+  @Test
+  void testGenerateNextDocumentNumber_withParallelCreationsOfSeveralInstances_shouldBeUnique() {
+    List<DocumentUnitDTO> documentUnits = createDocumentUnits(DOCUMENT_UNIT_COUNT);
+
+    assertThat(documentUnits)
+        .extracting(DocumentUnitDTO::getDocumentnumber)
+        .hasSize(DOCUMENT_UNIT_COUNT)
+        .doesNotHaveDuplicates();
+    assertThat(repository.count().block()).isEqualTo(DOCUMENT_UNIT_COUNT);
+  }
+
+  @Test
+  @Tag("benchmark")
+  void benchmarkParallelCreationsOfSeveralInstances() {
+    long start = System.nanoTime();
+    List<DocumentUnitDTO> documentUnits = createDocumentUnits(BENCHMARK_DOCUMENT_UNIT_COUNT);
+    Duration duration = Duration.ofNanos(System.nanoTime() - start);
+
+    log.info(
+        "Created {} document units with {} instances in {} ms",
+        BENCHMARK_DOCUMENT_UNIT_COUNT,
+        INSTANCE_COUNT,
+        duration.toMillis());
+    assertThat(documentUnits)
+        .extracting(DocumentUnitDTO::getDocumentnumber)
+        .doesNotHaveDuplicates();
+  }
+
+  @Test
+  void testGenerateNextDocumentNumber_shouldContinueAfterTheStoredNumbersOfTheYear() {
+    int currentYear = Year.now(ZoneId.of("Europe/Berlin")).getValue();
+    saveDocumentUnit(String.format("DSRE%04d%05d", currentYear, 41));
+    saveDocumentUnit(String.format("DSRE%04d%05d", currentYear - 1, 500));
+    saveDocumentUnit(String.format("KORE%04d%05d", currentYear, 700));
+    DatabaseDocumentNumberService service =
+        new DatabaseDocumentNumberService(counterRepository, 10);
+
+    assertThat(service.generateNextDocumentNumber(new DocumentUnitCreationInfo("DS", "RE")).block())
+        .isEqualTo(String.format("DSRE%04d%05d", currentYear, 42));
+    assertThat(service.getCapacities().collectList().block())
+        .containsExactly(new DocumentNumberCapacity("DS", currentYear, 51, 99_999 - 51));
+  }
+
+  @Test
+  void testGenerateNextDocumentNumber_shouldKeepTheSharedCounterBeyondTheReservedNumbers() {
+    int currentYear = Year.now(ZoneId.of("Europe/Berlin")).getValue();
+    DocumentNumberCounter sharedCounter =
+        sharedCounterRepository.getDocumentNumberCounterEntry().block();
+    sharedCounter.setCurrentyear(currentYear);
+    sharedCounter.setNextnumber(5);
+    sharedCounterRepository.save(sharedCounter).block();
+    saveDocumentUnit(String.format("DSRE%04d%05d", currentYear, 41));
+    DatabaseDocumentNumberService service =
+        new DatabaseDocumentNumberService(counterRepository, 10);
+
+    service.generateNextDocumentNumber(new DocumentUnitCreationInfo("DS", "RE")).block();
+
+    // an instance with the shared counter continues after the reserved block 42 to 51
+    assertThat(sharedCounterRepository.getDocumentNumberCounterEntry().block().getNextnumber())
+        .isEqualTo(52);
+  }
+
+  private void saveDocumentUnit(String documentNumber) {
+    repository
+        .save(
+            DocumentUnitDTO.builder()
+                .uuid(UUID.randomUUID())
+                .documentnumber(documentNumber)
+                .creationtimestamp(Instant.now())
+                .dataSource(DataSource.NEURIS)
+                .build())
+        .block();
+  }
+
+  /** Creates the document units in parallel, every instance has its own blocks like a pod. */
+  private List<DocumentUnitDTO> createDocumentUnits(int count) {
+    List<DatabaseDocumentNumberService> services =
+        IntStream.range(0, INSTANCE_COUNT)
+            .mapToObj(index -> new DatabaseDocumentNumberService(counterRepository, 10))
+            .toList();
+    List<DocumentUnitCreationInfo> creationInfos =
+        List.of(
+            new DocumentUnitCreationInfo("KO", "RE"), new DocumentUnitCreationInfo("BGH", "RE"));
+
+    return Flux.range(0, count)
+        .flatMap(
+            index ->
+                services
+                    .get(index % INSTANCE_COUNT)
+                    .generateNextDocumentNumber(creationInfos.get(index % creationInfos.size()))
+                    .flatMap(
+                        documentNumber ->
+                            repository.save(
+                                DocumentUnitDTO.builder()
+                                    .uuid(UUID.randomUUID())
+                                    .documentnumber(documentNumber)
+                                    .creationtimestamp(Instant.now())
+                                    .dataSource(DataSource.NEURIS)
+                                    .build())),
+            64)
+        .collectList()
+        .block();
+  }
+}
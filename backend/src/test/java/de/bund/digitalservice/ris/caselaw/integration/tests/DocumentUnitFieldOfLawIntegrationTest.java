@@ -4,17 +4,25 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
 
 import de.bund.digitalservice.ris.caselaw.adapter.ContentRelatedIndexingController;
+import de.bund.digitalservice.ris.caselaw.adapter.DocumentUnitCache;
 import de.bund.digitalservice.ris.caselaw.adapter.FieldOfLawService;
 import de.bund.digitalservice.ris.caselaw.adapter.KeywordService;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseDocumentUnitFieldsOfLawRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseDocumentUnitRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitAggregateLoader;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitChildRowWriter;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitFieldsOfLawDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitListEntryLoader;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitMetadataEnricher;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.PostgresDocumentUnitRepositoryImpl;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.PostgresFieldOfLawRepositoryImpl;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.PostgresKeywordRepositoryImpl;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataCache;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseFieldOfLawRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawEnricher;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawTreeCache;
 import de.bund.digitalservice.ris.caselaw.config.FlywayConfig;
 import de.bund.digitalservice.ris.caselaw.config.PostgresConfig;
 import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldOfLaw;
@@ -37,8 +45,16 @@ import reactor.test.StepVerifier;
       FlywayConfig.class,
       PostgresConfig.class,
       PostgresDocumentUnitRepositoryImpl.class,
+      DocumentUnitAggregateLoader.class,
+      DocumentUnitMetadataEnricher.class,
+      DocumentUnitListEntryLoader.class,
+      DocumentUnitChildRowWriter.class,
+      ReferenceDataCache.class,
       PostgresKeywordRepositoryImpl.class,
-      PostgresFieldOfLawRepositoryImpl.class
+      PostgresFieldOfLawRepositoryImpl.class,
+      FieldOfLawEnricher.class,
+      FieldOfLawTreeCache.class,
+      DocumentUnitCache.class
     },
     controllers = {ContentRelatedIndexingController.class})
 class DocumentUnitFieldOfLawIntegrationTest {
@@ -15,11 +15,16 @@ import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseIncorre
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DeviatingDecisionDateDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DeviatingEcliDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DeviatingEcliRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitAggregateLoader;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitChildRowWriter;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitListEntryLoader;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitMetadataEnricher;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.FileNumberDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.FileNumberRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.IncorrectCourtDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.PostgresDocumentUnitRepositoryImpl;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataCache;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.CourtDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseCourtRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseDocumentTypeRepository;
@@ -32,6 +37,7 @@ import de.bund.digitalservice.ris.caselaw.domain.CoreData;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnit;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitCreationInfo;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitService;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitWriteBehindBuffer;
 import de.bund.digitalservice.ris.caselaw.domain.EmailPublishService;
 import de.bund.digitalservice.ris.caselaw.domain.LegalEffect;
 import de.bund.digitalservice.ris.caselaw.domain.ProceedingDecision;
@@ -43,11 +49,13 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -59,9 +67,15 @@ import software.amazon.awssdk.services.s3.S3AsyncClient;
 @RISIntegrationTest(
     imports = {
       DocumentUnitService.class,
+      DocumentUnitWriteBehindBuffer.class,
       KeycloakUserService.class,
       DatabaseDocumentNumberService.class,
       PostgresDocumentUnitRepositoryImpl.class,
+      DocumentUnitAggregateLoader.class,
+      DocumentUnitMetadataEnricher.class,
+      DocumentUnitListEntryLoader.class,
+      DocumentUnitChildRowWriter.class,
+      ReferenceDataCache.class,
       FlywayConfig.class,
       PostgresConfig.class
     },
@@ -132,6 +146,117 @@ class DocumentUnitIntegrationTest {
     assertThat(list.get(0).isDateKnown()).isTrue();
   }
 
+  @Test
+  void testGetByDocumentNumber_shouldAnswerWithNotModifiedUntilTheDocumentUnitIsUpdated() {
+    UUID uuid = UUID.randomUUID();
+    repository
+        .save(
+            DocumentUnitDTO.builder()
+                .uuid(uuid)
+                .creationtimestamp(Instant.now())
+                .documentnumber("1234567890123")
+                .build())
+        .block();
+
+    String eTag =
+        webClient
+            .mutateWith(csrf())
+            .get()
+            .uri("/api/v1/caselaw/documentunits/1234567890123")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(DocumentUnit.class)
+            .getResponseHeaders()
+            .getETag();
+    assertThat(eTag).isNotNull();
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/documentunits/1234567890123")
+        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        .exchange()
+        .expectStatus()
+        .isNotModified();
+
+    webClient
+        .mutateWith(csrf())
+        .put()
+        .uri("/api/v1/caselaw/documentunits/" + uuid)
+        .bodyValue(
+            DocumentUnit.builder()
+                .uuid(uuid)
+                .documentNumber("1234567890123")
+                .coreData(CoreData.builder().fileNumbers(List.of("AkteX")).build())
+                .texts(Texts.builder().build())
+                .build())
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(DocumentUnit.class)
+        .consumeWith(
+            response ->
+                assertThat(response.getResponseBody().version())
+                    .isEqualTo(repository.findVersionByDocumentnumber("1234567890123").block()));
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/documentunits/1234567890123")
+        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .value(HttpHeaders.ETAG, newETag -> assertThat(newETag).isNotEqualTo(eTag));
+  }
+
+  @Test
+  void testUpdateByUuid_withoutChanges_shouldKeepTheVersion() {
+    UUID uuid = UUID.randomUUID();
+    repository
+        .save(
+            DocumentUnitDTO.builder()
+                .uuid(uuid)
+                .creationtimestamp(Instant.now())
+                .documentnumber("1234567890123")
+                .build())
+        .block();
+    DocumentUnit documentUnit =
+        DocumentUnit.builder()
+            .uuid(uuid)
+            .documentNumber("1234567890123")
+            .coreData(CoreData.builder().fileNumbers(List.of("AkteX")).build())
+            .texts(Texts.builder().build())
+            .build();
+
+    webClient
+        .mutateWith(csrf())
+        .put()
+        .uri("/api/v1/caselaw/documentunits/" + uuid)
+        .bodyValue(documentUnit)
+        .exchange()
+        .expectStatus()
+        .isOk();
+    Long version = repository.findVersionByDocumentnumber("1234567890123").block();
+
+    webClient
+        .mutateWith(csrf())
+        .put()
+        .uri("/api/v1/caselaw/documentunits/" + uuid)
+        .bodyValue(documentUnit)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(DocumentUnit.class)
+        .consumeWith(
+            response -> assertThat(response.getResponseBody().version()).isEqualTo(version));
+
+    assertThat(repository.findVersionByDocumentnumber("1234567890123").block())
+        .isEqualTo(version);
+  }
+
   @Test
   void testForFileNumbersDbEntryAfterUpdateByUuid() {
     UUID uuid = UUID.randomUUID();
@@ -181,6 +306,110 @@ class DocumentUnitIntegrationTest {
     assertThat(fileNumberEntries.get(0).getFileNumber()).isEqualTo("AkteX");
   }
 
+  @Test
+  void testPatchByUuid_shouldOnlyChangeThePatchedMembers() {
+    UUID uuid = UUID.randomUUID();
+    DocumentUnitDTO savedDto =
+        repository
+            .save(
+                DocumentUnitDTO.builder()
+                    .uuid(uuid)
+                    .creationtimestamp(Instant.now())
+                    .documentnumber("1234567890123")
+                    .headline("old headline")
+                    .tenor("tenor")
+                    .build())
+            .block();
+    FileNumberDTO fileNumber =
+        fileNumberRepository
+            .save(
+                FileNumberDTO.builder()
+                    .documentUnitId(savedDto.getId())
+                    .fileNumber("AkteX")
+                    .isDeviating(false)
+                    .build())
+            .block();
+
+    webClient
+        .mutateWith(csrf())
+        .patch()
+        .uri("/api/v1/caselaw/documentunits/" + uuid)
+        .header(HttpHeaders.CONTENT_TYPE, "application/merge-patch+json")
+        .bodyValue("{\"texts\":{\"headline\":\"new headline\"}}")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(DocumentUnit.class)
+        .consumeWith(
+            response -> {
+              assertThat(response.getResponseBody().texts().headline()).isEqualTo("new headline");
+              assertThat(response.getResponseBody().coreData().fileNumbers())
+                  .containsExactly("AkteX");
+            });
+
+    DocumentUnitDTO patchedDto = repository.findByUuid(uuid).block();
+    assertThat(patchedDto.getHeadline()).isEqualTo("new headline");
+    assertThat(patchedDto.getTenor()).isEqualTo("tenor");
+    assertThat(fileNumberRepository.findAllByDocumentUnitId(savedDto.getId()).collectList().block())
+        .extracting(FileNumberDTO::getId)
+        .containsExactly(fileNumber.getId());
+  }
+
+  @Test
+  void testForFileNumbersDbEntryAfterRemovingTheFirstFileNumber_shouldKeepTheOtherRows() {
+    UUID uuid = UUID.randomUUID();
+    DocumentUnitDTO savedDto =
+        repository
+            .save(
+                DocumentUnitDTO.builder()
+                    .uuid(uuid)
+                    .creationtimestamp(Instant.now())
+                    .documentnumber("1234567890123")
+                    .build())
+            .block();
+    List<FileNumberDTO> storedFileNumbers =
+        fileNumberRepository
+            .saveAll(
+                Stream.of("AkteX", "AkteY", "AkteZ")
+                    .map(
+                        fileNumber ->
+                            FileNumberDTO.builder()
+                                .documentUnitId(savedDto.getId())
+                                .fileNumber(fileNumber)
+                                .isDeviating(false)
+                                .build())
+                    .toList())
+            .collectList()
+            .block();
+
+    webClient
+        .mutateWith(csrf())
+        .put()
+        .uri("/api/v1/caselaw/documentunits/" + uuid)
+        .bodyValue(
+            DocumentUnit.builder()
+                .uuid(uuid)
+                .documentNumber("1234567890123")
+                .coreData(CoreData.builder().fileNumbers(List.of("AkteY", "AkteZ")).build())
+                .texts(Texts.builder().build())
+                .build())
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(DocumentUnit.class)
+        .consumeWith(
+            response ->
+                assertThat(response.getResponseBody().coreData().fileNumbers())
+                    .containsExactly("AkteY", "AkteZ"));
+
+    List<FileNumberDTO> fileNumberEntries =
+        fileNumberRepository.findAllByDocumentUnitId(savedDto.getId()).collectList().block();
+    assertThat(fileNumberEntries)
+        .extracting(FileNumberDTO::getId)
+        .containsExactlyInAnyOrder(
+            storedFileNumbers.get(1).getId(), storedFileNumbers.get(2).getId());
+  }
+
   @Test
   void testForDeviatingEcliDbEntryAfterUpdateByUuid() {
     UUID uuid = UUID.randomUUID();
@@ -4,15 +4,23 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
 
 import de.bund.digitalservice.ris.caselaw.adapter.ContentRelatedIndexingController;
+import de.bund.digitalservice.ris.caselaw.adapter.DocumentUnitCache;
 import de.bund.digitalservice.ris.caselaw.adapter.FieldOfLawService;
 import de.bund.digitalservice.ris.caselaw.adapter.KeywordService;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseDocumentUnitRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseKeywordRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitAggregateLoader;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitChildRowWriter;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitListEntryLoader;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitMetadataEnricher;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.KeywordDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.PostgresDocumentUnitRepositoryImpl;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.PostgresFieldOfLawRepositoryImpl;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.PostgresKeywordRepositoryImpl;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataCache;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawEnricher;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawTreeCache;
 import de.bund.digitalservice.ris.caselaw.config.FlywayConfig;
 import de.bund.digitalservice.ris.caselaw.config.PostgresConfig;
 import java.time.Instant;
@@ -33,8 +41,16 @@ import org.testcontainers.junit.jupiter.Container;
       FlywayConfig.class,
       PostgresConfig.class,
       PostgresDocumentUnitRepositoryImpl.class,
+      DocumentUnitAggregateLoader.class,
+      DocumentUnitMetadataEnricher.class,
+      DocumentUnitListEntryLoader.class,
+      DocumentUnitChildRowWriter.class,
+      ReferenceDataCache.class,
       PostgresKeywordRepositoryImpl.class,
-      PostgresFieldOfLawRepositoryImpl.class
+      PostgresFieldOfLawRepositoryImpl.class,
+      FieldOfLawEnricher.class,
+      FieldOfLawTreeCache.class,
+      DocumentUnitCache.class
     },
     controllers = {ContentRelatedIndexingController.class})
 class DocumentUnitKeywordIntegrationTest {
@@ -164,6 +180,40 @@ class DocumentUnitKeywordIntegrationTest {
             response -> assertThat(response.getResponseBody()).containsExactly("keyword01"));
   }
 
+  @Test
+  void testAddExistingKeywordForDocumentUnit_shouldKeepTheVersion() {
+    UUID documentUnitUuid = UUID.randomUUID();
+    DocumentUnitDTO documentUnitDTO =
+        DocumentUnitDTO.builder()
+            .uuid(documentUnitUuid)
+            .documentnumber("docnr12345678")
+            .creationtimestamp(Instant.now())
+            .build();
+    documentUnitDTO = documentUnitRepository.save(documentUnitDTO).block();
+    keywordRepository
+        .save(
+            KeywordDTO.builder()
+                .documentUnitId(documentUnitDTO.getId())
+                .keyword("keyword01")
+                .build())
+        .block();
+    Long version = documentUnitRepository.findVersionByDocumentnumber("docnr12345678").block();
+
+    webClient
+        .mutateWith(csrf())
+        .put()
+        .uri(
+            "/api/v1/caselaw/documentunits/"
+                + documentUnitUuid
+                + "/contentrelatedindexing/keywords/keyword01")
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    assertThat(documentUnitRepository.findVersionByDocumentnumber("docnr12345678").block())
+        .isEqualTo(version);
+  }
+
   @Test
   void testAddKeywordForNonExistingDocumentUnit_shouldReturnEmptyList() {
     UUID documentUnitUuid = UUID.randomUUID();
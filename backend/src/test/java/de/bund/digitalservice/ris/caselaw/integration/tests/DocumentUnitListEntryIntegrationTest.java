@@ -10,15 +10,21 @@ import de.bund.digitalservice.ris.caselaw.adapter.KeycloakUserService;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseDocumentUnitMetadataRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseDocumentUnitRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseDocumentationOfficeRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitAggregateLoader;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitChildRowWriter;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitListEntryLoader;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentUnitMetadataEnricher;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DocumentationOfficeDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.FileNumberDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.FileNumberRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.PostgresDocumentUnitRepositoryImpl;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataCache;
 import de.bund.digitalservice.ris.caselaw.config.FlywayConfig;
 import de.bund.digitalservice.ris.caselaw.config.PostgresConfig;
 import de.bund.digitalservice.ris.caselaw.domain.DataSource;
 import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitService;
+import de.bund.digitalservice.ris.caselaw.domain.DocumentUnitWriteBehindBuffer;
 import de.bund.digitalservice.ris.caselaw.domain.EmailPublishService;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -41,9 +47,15 @@ import software.amazon.awssdk.services.s3.S3AsyncClient;
 @RISIntegrationTest(
     imports = {
       DocumentUnitService.class,
+      DocumentUnitWriteBehindBuffer.class,
       KeycloakUserService.class,
       DatabaseDocumentNumberService.class,
       PostgresDocumentUnitRepositoryImpl.class,
+      DocumentUnitAggregateLoader.class,
+      DocumentUnitMetadataEnricher.class,
+      DocumentUnitListEntryLoader.class,
+      DocumentUnitChildRowWriter.class,
+      ReferenceDataCache.class,
       FlywayConfig.class,
       PostgresConfig.class
     },
@@ -189,4 +201,62 @@ public class DocumentUnitListEntryIntegrationTest {
       assertThat(tThis).isAfter(tNext);
     }
   }
+
+  @Test
+  void testForCursorBasedPagination() {
+    DocumentationOfficeDTO documentationOfficeDTO =
+        documentationOfficeRepository.findByLabel("BGH").block();
+    Instant creationTimestamp = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+    for (int i = 0; i < 5; i++) {
+      DocumentUnitDTO documentUnitDTO =
+          repository
+              .save(
+                  DocumentUnitDTO.builder()
+                      .uuid(UUID.randomUUID())
+                      // two entries share a timestamp, the id has to break the tie
+                      .creationtimestamp(creationTimestamp.minus(i / 2, ChronoUnit.DAYS))
+                      .documentnumber("123456789012" + i)
+                      .dataSource(DataSource.NEURIS)
+                      .documentationOfficeId(documentationOfficeDTO.getId())
+                      .build())
+              .block();
+      fileNumberRepository
+          .save(
+              FileNumberDTO.builder()
+                  .documentUnitId(documentUnitDTO.getId())
+                  .fileNumber("AZ " + i)
+                  .isDeviating(false)
+                  .build())
+          .block();
+    }
+    List<String> documentNumbersActual = new ArrayList<>();
+    String cursor = null;
+    do {
+      EntityExchangeResult<String> result =
+          webClient
+              .mutateWith(csrf())
+              .get()
+              .uri(
+                  "/api/v1/caselaw/documentunits/list?sz=2&estimateTotal=true"
+                      + (cursor == null ? "" : "&cursor=" + cursor))
+              .exchange()
+              .expectStatus()
+              .isOk()
+              .expectBody(String.class)
+              .returnResult();
+
+      documentNumbersActual.addAll(
+          JsonPath.read(result.getResponseBody(), "$.content[*].documentNumber"));
+      assertThat((List<String>) JsonPath.read(result.getResponseBody(), "$.content[*].fileNumber"))
+          .allMatch(fileNumber -> fileNumber.startsWith("AZ "));
+      assertThat((Integer) JsonPath.read(result.getResponseBody(), "$.estimatedTotal"))
+          .isPositive();
+      cursor = JsonPath.read(result.getResponseBody(), "$.nextCursor");
+    } while (cursor != null);
+
+    assertThat(documentNumbersActual)
+        .containsExactly(
+            "1234567890121", "1234567890120", "1234567890123", "1234567890122", "1234567890124");
+  }
 }
@@ -0,0 +1,290 @@
+package de.bund.digitalservice.ris.caselaw.integration.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
+
+import com.jayway.jsonpath.JsonPath;
+import de.bund.digitalservice.ris.caselaw.adapter.DocumentUnitCache;
+import de.bund.digitalservice.ris.caselaw.adapter.FieldOfLawController;
+import de.bund.digitalservice.ris.caselaw.adapter.FieldOfLawService;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.PostgresFieldOfLawRepositoryImpl;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseFieldOfLawRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawEnricher;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawKeywordDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawKeywordRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawLinkDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawLinkRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawTreeCache;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.NormDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.NormRepository;
+import de.bund.digitalservice.ris.caselaw.config.FlywayConfig;
+import de.bund.digitalservice.ris.caselaw.config.PostgresConfig;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldOfLaw;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+/**
+ * Without the in-memory tree the search of the fields of law is scored by the database, the
+ * keywords, norms and linked fields of the results are loaded in bulk and the hierarchy is read
+ * with the materialized path.
+ */
+@RISIntegrationTest(
+    imports = {
+      FieldOfLawService.class,
+      FlywayConfig.class,
+      PostgresConfig.class,
+      PostgresFieldOfLawRepositoryImpl.class,
+      FieldOfLawEnricher.class,
+      FieldOfLawTreeCache.class,
+      DocumentUnitCache.class
+    },
+    controllers = {FieldOfLawController.class})
+class FieldOfLawDatabaseIntegrationTest {
+  @Container
+  static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:12");
+
+  @DynamicPropertySource
+  static void registerDynamicProperties(DynamicPropertyRegistry registry) {
+    registry.add("database.user", () -> postgreSQLContainer.getUsername());
+    registry.add("database.password", () -> postgreSQLContainer.getPassword());
+    registry.add("database.host", () -> postgreSQLContainer.getHost());
+    registry.add("database.port", () -> postgreSQLContainer.getFirstMappedPort());
+    registry.add("database.database", () -> postgreSQLContainer.getDatabaseName());
+    registry.add("field-of-law-tree-cache.enabled", () -> false);
+  }
+
+  @Autowired private WebTestClient webClient;
+  @Autowired private DatabaseFieldOfLawRepository repository;
+  @Autowired private NormRepository normRepository;
+  @Autowired private FieldOfLawKeywordRepository keywordRepository;
+  @Autowired private FieldOfLawLinkRepository linkRepository;
+
+  @AfterEach
+  void cleanUp() {
+    keywordRepository.deleteAll().block();
+    linkRepository.deleteAll().block();
+    repository.deleteAll().block();
+    normRepository.deleteAll().block();
+  }
+
+  @Test
+  void testSearch_shouldOrderByTheSameScoresAsTheInMemorySearch() {
+    prepareDatabase();
+
+    String str = search("norm:\"§ 123 ab\" AB here text", 0, 10);
+
+    List<String> identifiers = JsonPath.read(str, "$.content[*].identifier");
+    List<Integer> scores = JsonPath.read(str, "$.content[*].score");
+    assertThat(identifiers).containsExactly("CD-02", "AB-01", "AB-01-01");
+    assertThat(scores).containsExactly(38, 28, 28);
+    assertThat((String) JsonPath.read(str, "$.content[0].norms[0].abbreviation"))
+        .isEqualTo("aber hallo");
+  }
+
+  @Test
+  void testSearch_shouldReturnOnlyTheRequestedPageAndTheTotal() {
+    prepareDatabase();
+
+    String str = search("text", 1, 2);
+
+    assertThat((Integer) JsonPath.read(str, "$.totalElements")).isEqualTo(5);
+    assertThat((Integer) JsonPath.read(str, "$.numberOfElements")).isEqualTo(2);
+    List<String> identifiers = JsonPath.read(str, "$.content[*].identifier");
+    assertThat(identifiers).containsExactly("AB-01-01", "CD");
+
+    str = search("text", 3, 2);
+
+    assertThat((Integer) JsonPath.read(str, "$.totalElements")).isEqualTo(5);
+    assertThat((Integer) JsonPath.read(str, "$.numberOfElements")).isZero();
+  }
+
+  @Test
+  void testSearch_withOnlyANormString_shouldMatchTheNormInBothOrders() {
+    prepareDatabase();
+
+    List<String> identifiers =
+        JsonPath.read(search("norm:\"abcd § 123\"", 0, 10), "$.content[*].identifier");
+
+    assertThat(identifiers).containsExactly("AB-01");
+  }
+
+  @Test
+  void testSearchByIdentifier_shouldLoadKeywordsNormsAndLinkedFieldsForAllResults() {
+    prepareDatabase();
+    keywordRepository
+        .saveAll(
+            List.of(
+                FieldOfLawKeywordDTO.builder().fieldOfLawId(1L).value("zeta").build(),
+                FieldOfLawKeywordDTO.builder().fieldOfLawId(1L).value("alpha").build()))
+        .blockLast();
+    linkRepository
+        .save(FieldOfLawLinkDTO.builder().fieldOfLawId(1L).linkedFieldOfLawId(5L).build())
+        .block();
+
+    String str =
+        webClient
+            .mutateWith(csrf())
+            .get()
+            .uri("/api/v1/caselaw/fieldsoflaw/search-by-identifier?q=AB")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(String.class)
+            .returnResult()
+            .getResponseBody();
+
+    List<String> identifiers = JsonPath.read(str, "$[*].identifier");
+    assertThat(identifiers).containsExactly("AB-01", "AB-01-01");
+    List<String> keywords = JsonPath.read(str, "$[0].keywords[*].value");
+    assertThat(keywords).containsExactly("alpha", "zeta");
+    List<String> linkedFields = JsonPath.read(str, "$[0].linkedFields");
+    assertThat(linkedFields).containsExactly("CD-02");
+    List<String> norms = JsonPath.read(str, "$[1].norms[*].abbreviation");
+    assertThat(norms).containsExactly("abxyz");
+    List<String> keywordsOfSecond = JsonPath.read(str, "$[1].keywords");
+    assertThat(keywordsOfSecond).isEmpty();
+  }
+
+  @Test
+  void testGetDescendants_shouldReturnTheLevelsDownToTheDepthNestedInTheirParents() {
+    prepareHierarchy();
+
+    FieldOfLaw[] children =
+        webClient
+            .mutateWith(csrf())
+            .get()
+            .uri("/api/v1/caselaw/fieldsoflaw/AR/descendants?depth=2")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(FieldOfLaw[].class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(children).extracting(FieldOfLaw::identifier).containsExactly("AR-01", "AR-02");
+    assertThat(children[0].children())
+        .extracting(FieldOfLaw::identifier)
+        .containsExactly("AR-01-01");
+    assertThat(children[0].children().get(0).children()).isEmpty();
+    assertThat(children[1].children()).isEmpty();
+
+    FieldOfLaw[] topLevelNodes =
+        webClient
+            .mutateWith(csrf())
+            .get()
+            .uri("/api/v1/caselaw/fieldsoflaw/root/descendants")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(FieldOfLaw[].class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(topLevelNodes).extracting(FieldOfLaw::identifier).containsExactly("AR", "ARB");
+    assertThat(topLevelNodes[0].children()).isEmpty();
+  }
+
+  @Test
+  void testGetTree_shouldLoadTheAncestorsWithThePath() {
+    prepareHierarchy();
+
+    FieldOfLaw tree =
+        webClient
+            .mutateWith(csrf())
+            .get()
+            .uri("/api/v1/caselaw/fieldsoflaw/AR-01-01-01/tree")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(FieldOfLaw.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(tree).isNotNull();
+    assertThat(tree.identifier()).isEqualTo("AR");
+    assertThat(tree.children()).extracting(FieldOfLaw::identifier).containsExactly("AR-01");
+    FieldOfLaw child = tree.children().get(0);
+    assertThat(child.children()).extracting(FieldOfLaw::identifier).containsExactly("AR-01-01");
+    child = child.children().get(0);
+    assertThat(child.children()).extracting(FieldOfLaw::identifier).containsExactly("AR-01-01-01");
+  }
+
+  private String search(String query, int page, int size) {
+    return webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/fieldsoflaw?q=" + query + "&pg=" + page + "&sz=" + size)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(String.class)
+        .returnResult()
+        .getResponseBody();
+  }
+
+  private void prepareHierarchy() {
+    // the identifier 'ARB' starts with 'AR', but the field of law is no descendant of it
+    String[][] fieldOfLawData = {
+      {"AR", null, "AR/"},
+      {"AR-01", "AR", "AR/AR-01/"},
+      {"AR-01-01", "AR-01", "AR/AR-01/AR-01-01/"},
+      {"AR-01-01-01", "AR-01-01", "AR/AR-01/AR-01-01/AR-01-01-01/"},
+      {"AR-02", "AR", "AR/AR-02/"},
+      {"ARB", null, "ARB/"}
+    };
+
+    Map<String, Long> ids = new HashMap<>();
+    for (int i = 0; i < fieldOfLawData.length; i++) {
+      String[] fol = fieldOfLawData[i];
+      ids.put(fol[0], (long) i + 1);
+      FieldOfLawDTO fieldOfLawDTO =
+          FieldOfLawDTO.builder()
+              .id((long) i + 1)
+              .isNew(true)
+              .identifier(fol[0])
+              .parentId(ids.get(fol[1]))
+              .path(fol[2])
+              .depth(fol[2].split("/").length)
+              .build();
+      repository.save(fieldOfLawDTO).block();
+    }
+  }
+
+  private void prepareDatabase() {
+    String[][] fieldOfLawData = {
+      {"AB-01", "Some text here", "§ 123", "abcd"},
+      {"AB-01-01", "More text also here", "§ 123", "abxyz"},
+      {"CD", "Other text without more", null, null},
+      {"CD-01", "Text means writing here", "§ 012", "dab"},
+      {"CD-02", "Aber a word starting with ab and text + here", "§ 123", "aber hallo"}
+    };
+
+    int normCount = 0;
+    for (int i = 0; i < fieldOfLawData.length; i++) {
+      String[] fol = fieldOfLawData[i];
+      long folId = (long) i + 1;
+      FieldOfLawDTO fieldOfLawDTO =
+          FieldOfLawDTO.builder().id(folId).isNew(true).identifier(fol[0]).text(fol[1]).build();
+      repository.save(fieldOfLawDTO).block();
+      if (fol[2] == null) continue;
+      NormDTO normDTO =
+          NormDTO.builder()
+              .id((long) normCount++)
+              .fieldOfLawId(folId)
+              .singleNormDescription(fol[2])
+              .abbreviation(fol[3])
+              .build();
+      normRepository.save(normDTO).block();
+    }
+  }
+}
@@ -4,11 +4,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
 
 import com.jayway.jsonpath.JsonPath;
+import de.bund.digitalservice.ris.caselaw.adapter.DocumentUnitCache;
 import de.bund.digitalservice.ris.caselaw.adapter.FieldOfLawController;
 import de.bund.digitalservice.ris.caselaw.adapter.FieldOfLawService;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.PostgresFieldOfLawRepositoryImpl;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseFieldOfLawRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawEnricher;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawTreeCache;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.NormDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.NormRepository;
 import de.bund.digitalservice.ris.caselaw.config.FlywayConfig;
@@ -33,7 +36,10 @@ import org.testcontainers.junit.jupiter.Container;
       FieldOfLawService.class,
       FlywayConfig.class,
       PostgresConfig.class,
-      PostgresFieldOfLawRepositoryImpl.class
+      PostgresFieldOfLawRepositoryImpl.class,
+      FieldOfLawEnricher.class,
+      FieldOfLawTreeCache.class,
+      DocumentUnitCache.class
     },
     controllers = {FieldOfLawController.class})
 class FieldOfLawIntegrationTest {
@@ -52,6 +58,7 @@ class FieldOfLawIntegrationTest {
   @Autowired private WebTestClient webClient;
   @Autowired private DatabaseFieldOfLawRepository repository;
   @Autowired private NormRepository normRepository;
+  @Autowired private FieldOfLawTreeCache fieldOfLawTreeCache;
 
   @AfterEach
   void cleanUp() {
@@ -122,7 +129,7 @@ class FieldOfLawIntegrationTest {
     assertThat((Boolean) JsonPath.read(str, "$.first")).isTrue();
     assertThat((Boolean) JsonPath.read(str, "$.last")).isFalse();
     List<String> identifiers = JsonPath.read(str, "$.content[*].identifier");
-    assertThat(identifiers).containsExactly("FL-01-01", "FL-04", "FL-02");
+    assertThat(identifiers).containsExactly("FL-01", "FL-01-01", "FL-02");
 
     result =
         webClient
@@ -144,7 +151,7 @@ class FieldOfLawIntegrationTest {
     assertThat((Boolean) JsonPath.read(str, "$.first")).isFalse();
     assertThat((Boolean) JsonPath.read(str, "$.last")).isTrue();
     identifiers = JsonPath.read(str, "$.content[*].identifier");
-    assertThat(identifiers).containsExactly("FL-01", "FL-03");
+    assertThat(identifiers).containsExactly("FL-03", "FL-04");
 
     result =
         webClient
@@ -250,6 +257,30 @@ class FieldOfLawIntegrationTest {
                     .containsExactly("FL-01", "FL-02", "FL-03", "FL-04"));
   }
 
+  @Test
+  void testGetDescendantsForFieldOfLawNumber() {
+    prepareDatabase();
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/fieldsoflaw/FL/descendants?depth=2")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(FieldOfLaw[].class)
+        .consumeWith(
+            response -> {
+              FieldOfLaw[] children = response.getResponseBody();
+              assertThat(children)
+                  .extracting("identifier")
+                  .containsExactly("FL-01", "FL-02", "FL-03", "FL-04");
+              assertThat(children[0].children())
+                  .extracting("identifier")
+                  .containsExactly("FL-01-01");
+            });
+  }
+
   @Test
   void testGetParentForFieldOfLaw() {
     prepareDatabase();
@@ -361,6 +392,8 @@ class FieldOfLawIntegrationTest {
             .changeIndicator('N')
             .build();
     repository.save(fieldOfLawDTO).block();
+
+    fieldOfLawTreeCache.rebuild().block();
   }
 
   @Test
@@ -3,10 +3,13 @@ package de.bund.digitalservice.ris.caselaw.integration.tests;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
 
+import de.bund.digitalservice.ris.caselaw.adapter.LookupTableImportJobService;
 import de.bund.digitalservice.ris.caselaw.adapter.LookupTableImporterController;
 import de.bund.digitalservice.ris.caselaw.adapter.LookupTableImporterService;
 import de.bund.digitalservice.ris.caselaw.adapter.database.jpa.JPADocumentTypeDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.jpa.JPADocumentTypeRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.DatabaseAdvisoryLocks;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataCache;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.CourtDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseCourtRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseFieldOfLawRepository;
@@ -15,31 +18,42 @@ import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.Fie
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawKeywordRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawLinkDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawLinkRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawTreeCache;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.NormDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.NormRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.StateRepository;
 import de.bund.digitalservice.ris.caselaw.config.FlywayConfig;
+import de.bund.digitalservice.ris.caselaw.config.LookupTableImportConfig;
 import de.bund.digitalservice.ris.caselaw.config.PostgresConfig;
 import de.bund.digitalservice.ris.caselaw.config.PostgresJPAConfig;
 import de.bund.digitalservice.ris.caselaw.domain.EmailPublishService;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
+import reactor.core.publisher.Mono;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 
 @RISIntegrationTest(
     imports = {
       LookupTableImporterService.class,
+      LookupTableImportJobService.class,
+      DatabaseAdvisoryLocks.class,
+      LookupTableImportConfig.class,
+      ReferenceDataCache.class,
+      FieldOfLawTreeCache.class,
       FlywayConfig.class,
       PostgresConfig.class,
       PostgresJPAConfig.class
@@ -58,6 +72,9 @@ class LookupTableImporterIntegrationTest {
     registry.add("database.database", () -> postgreSQLContainer.getDatabaseName());
   }
 
+  private static final ParameterizedTypeReference<Map<String, Object>> IMPORT_JOB =
+      new ParameterizedTypeReference<>() {};
+
   @Autowired private WebTestClient webClient;
   @Autowired private JPADocumentTypeRepository jpaDocumentTypeRepository;
   @Autowired private DatabaseCourtRepository databaseCourtRepository;
@@ -92,19 +109,7 @@ class LookupTableImporterIntegrationTest {
           </juris-doktyp>
         </juris-table>""";
 
-    webClient
-        .mutateWith(csrf())
-        .put()
-        .uri("/api/v1/caselaw/lookuptableimporter/doktyp")
-        .bodyValue(doktypXml)
-        .exchange()
-        .expectStatus()
-        .isOk()
-        .expectBody(String.class)
-        .consumeWith(
-            response ->
-                assertThat(response.getResponseBody())
-                    .isEqualTo("Successfully imported the document type lookup table"));
+    importLookupTable("doktyp", doktypXml, "Successfully imported the document type lookup table");
 
     List<JPADocumentTypeDTO> list = jpaDocumentTypeRepository.findAll();
     assertThat(list).hasSize(1);
@@ -129,19 +134,8 @@ class LookupTableImporterIntegrationTest {
           </juris-gericht>
         </juris-table>""";
 
-    webClient
-        .mutateWith(csrf())
-        .put()
-        .uri("/api/v1/caselaw/lookuptableimporter/gerichtdata")
-        .bodyValue(gerichtdataXml)
-        .exchange()
-        .expectStatus()
-        .isOk()
-        .expectBody(String.class)
-        .consumeWith(
-            response ->
-                assertThat(response.getResponseBody())
-                    .isEqualTo("Successfully imported the court lookup table"));
+    importLookupTable(
+        "gerichtdata", gerichtdataXml, "Successfully imported the court lookup table");
 
     List<CourtDTO> courtDTOs = databaseCourtRepository.findAll().collectList().block();
     assertThat(courtDTOs).hasSize(1);
@@ -166,19 +160,7 @@ class LookupTableImporterIntegrationTest {
           </juris-buland>
         </juris-table>""";
 
-    webClient
-        .mutateWith(csrf())
-        .put()
-        .uri("/api/v1/caselaw/lookuptableimporter/buland")
-        .bodyValue(bulandXml)
-        .exchange()
-        .expectStatus()
-        .isOk()
-        .expectBody(String.class)
-        .consumeWith(
-            response ->
-                assertThat(response.getResponseBody())
-                    .isEqualTo("Successfully imported the state lookup table"));
+    importLookupTable("buland", bulandXml, "Successfully imported the state lookup table");
 
     List<StateDTO> stateDTOS = stateRepository.findAll().collectList().block();
     assertThat(stateDTOS).hasSize(1);
@@ -210,6 +192,8 @@ class LookupTableImporterIntegrationTest {
             .childrenCount(0)
             .changeIndicator('N')
             .identifier("ÄB-01-02")
+            .path("ÄB-01-02/")
+            .depth(1)
             .build();
     FieldOfLawDTO expectedLinkedField2 =
         FieldOfLawDTO.builder()
@@ -217,6 +201,8 @@ class LookupTableImporterIntegrationTest {
             .childrenCount(0)
             .changeIndicator('N')
             .identifier("CD-01")
+            .path("CD-01/")
+            .depth(1)
             .build();
 
     FieldOfLawDTO expectedParent =
@@ -226,6 +212,8 @@ class LookupTableImporterIntegrationTest {
             .identifier("TS-01")
             .text("stext 1")
             .changeIndicator('N')
+            .path("TS-01/")
+            .depth(1)
             .build();
 
     FieldOfLawDTO expectedChild =
@@ -240,6 +228,8 @@ class LookupTableImporterIntegrationTest {
             "TS-01-01",
             "Linked fields, valid: ÄB-01-02, CD-01, invalid: EF01, Gh-01, IJ-01-023, KL-01a",
             "navbez 2",
+            "TS-01/TS-01-01/",
+            2,
             List.of(expectedLinkedField1, expectedLinkedField2),
             Arrays.asList(expectedKeyword1, expectedKeyword2),
             Arrays.asList(expectedNorm1, expectedNorm2),
@@ -289,19 +279,8 @@ class LookupTableImporterIntegrationTest {
             </juris-table>
             """;
 
-    webClient
-        .mutateWith(csrf())
-        .put()
-        .uri("/api/v1/caselaw/lookuptableimporter/fieldOfLaw")
-        .bodyValue(fieldOfLawXml)
-        .exchange()
-        .expectStatus()
-        .isOk()
-        .expectBody(String.class)
-        .consumeWith(
-            response ->
-                assertThat(response.getResponseBody())
-                    .isEqualTo("Successfully imported the fieldOfLaw lookup table"));
+    importLookupTable(
+        "fieldOfLaw", fieldOfLawXml, "Successfully imported the fieldOfLaw lookup table");
 
     List<FieldOfLawDTO> fieldOfLawDTOS =
         fieldOfLawRepository
@@ -341,4 +320,42 @@ class LookupTableImporterIntegrationTest {
         .ignoringFields("norms.id", "keywords.id")
         .isEqualTo(expectedChild);
   }
+
+  /**
+   * Uploads the lookup table and waits for the import job to finish. The import runs in the
+   * background, so the job is polled until it has a finish date.
+   */
+  private void importLookupTable(String table, String xml, String expectedMessage) {
+    Map<String, Object> job =
+        webClient
+            .mutateWith(csrf())
+            .put()
+            .uri("/api/v1/caselaw/lookuptableimporter/" + table)
+            .bodyValue(xml)
+            .exchange()
+            .expectStatus()
+            .isAccepted()
+            .expectBody(IMPORT_JOB)
+            .returnResult()
+            .getResponseBody();
+    assertThat(job).isNotNull();
+
+    for (int i = 0; i < 100 && job.get("finishedAt") == null; i++) {
+      Mono.delay(Duration.ofMillis(100)).block();
+      job =
+          webClient
+              .mutateWith(csrf())
+              .get()
+              .uri("/api/v1/caselaw/lookuptableimporter/jobs/" + job.get("id"))
+              .exchange()
+              .expectStatus()
+              .isOk()
+              .expectBody(IMPORT_JOB)
+              .returnResult()
+              .getResponseBody();
+      assertThat(job).isNotNull();
+    }
+
+    assertThat(job).containsEntry("phase", "COMPLETED").containsEntry("message", expectedMessage);
+  }
 }
@@ -1,12 +1,16 @@
 package de.bund.digitalservice.ris.caselaw.integration.tests;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
 
+import de.bund.digitalservice.ris.caselaw.adapter.LookupTableBundleService;
 import de.bund.digitalservice.ris.caselaw.adapter.LookupTableController;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.ReferenceDataCache;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.CourtDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseCourtRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseDocumentTypeRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.FieldOfLawTreeCache;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.PostgresCourtRepositoryImpl;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.PostgresDocumentTypeRepositoryImpl;
 import de.bund.digitalservice.ris.caselaw.config.FlywayConfig;
@@ -15,18 +19,23 @@ import de.bund.digitalservice.ris.caselaw.config.PostgresJPAConfig;
 import de.bund.digitalservice.ris.caselaw.domain.EmailPublishService;
 import de.bund.digitalservice.ris.caselaw.domain.FieldOfLawRepository;
 import de.bund.digitalservice.ris.caselaw.domain.LookupTableService;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.LookupTableBundle;
 import de.bund.digitalservice.ris.caselaw.domain.lookuptable.court.Court;
+import de.bund.digitalservice.ris.caselaw.domain.lookuptable.fieldoflaw.FieldOfLaw;
 import java.util.Arrays;
 import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
+import reactor.core.publisher.Flux;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 
 @RISIntegrationTest(
@@ -36,7 +45,9 @@ import software.amazon.awssdk.services.s3.S3AsyncClient;
       PostgresConfig.class,
       PostgresJPAConfig.class,
       PostgresDocumentTypeRepositoryImpl.class,
-      PostgresCourtRepositoryImpl.class
+      PostgresCourtRepositoryImpl.class,
+      ReferenceDataCache.class,
+      LookupTableBundleService.class
     },
     controllers = {LookupTableController.class})
 class LookupTableIntegrationTest {
@@ -55,8 +66,10 @@ class LookupTableIntegrationTest {
   @Autowired private WebTestClient webClient;
   @Autowired private DatabaseCourtRepository databaseCourtRepository;
   @Autowired private DatabaseDocumentTypeRepository databaseDocumentTypeRepository;
+  @Autowired private ReferenceDataCache referenceDataCache;
 
   @MockBean private FieldOfLawRepository fieldOfLawRepository;
+  @MockBean private FieldOfLawTreeCache fieldOfLawTreeCache;
   @MockBean private S3AsyncClient s3AsyncClient;
   @MockBean private EmailPublishService publishService;
 
@@ -112,6 +125,8 @@ class LookupTableIntegrationTest {
           .save(CourtDTO.builder().courttype(court[0]).courtlocation(court[1]).build())
           .block();
     }
+    // the search uses the reference data snapshot, which is rebuilt by the importer
+    referenceDataCache.rebuild().block();
 
     // expected order: alphabetically within 3 priority classes:
     List<String> expectedOrder =
@@ -140,4 +155,50 @@ class LookupTableIntegrationTest {
               }
             });
   }
+
+  @Test
+  void testGetBundle_shouldBeRevalidatedWithTheETag() {
+    databaseCourtRepository
+        .save(CourtDTO.builder().courttype("AB").courtlocation("Berlin").build())
+        .block();
+    referenceDataCache.rebuild().block();
+    when(fieldOfLawRepository.getTopLevelNodes())
+        .thenReturn(Flux.just(FieldOfLaw.builder().identifier("AR").text("Arbeitsrecht").build()));
+
+    LookupTableBundle bundle =
+        webClient
+            .mutateWith(csrf())
+            .get()
+            .uri("/api/v1/caselaw/lookuptable/bundle")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .cacheControl(CacheControl.noCache())
+            .expectBody(LookupTableBundle.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(bundle.courts()).extracting("label").containsExactly("AB Berlin");
+    assertThat(bundle.fieldsOfLaw()).extracting("identifier").containsExactly("AR");
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/lookuptable/bundle")
+        .header(HttpHeaders.IF_NONE_MATCH, "\"" + bundle.version() + "\"")
+        .exchange()
+        .expectStatus()
+        .isNotModified();
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/lookuptable/bundle/" + bundle.version())
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(HttpHeaders.ETAG, "\"" + bundle.version() + "\"");
+  }
 }
@@ -0,0 +1,230 @@
+package de.bund.digitalservice.ris.caselaw.integration.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.CourtDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseCourtRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseDocumentTypeRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseNormAbbreviationRepository;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DocumentTypeDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.NormAbbreviationDTO;
+import de.bund.digitalservice.ris.caselaw.config.FlywayConfig;
+import de.bund.digitalservice.ris.caselaw.config.PostgresConfig;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+@RISIntegrationTest(imports = {FlywayConfig.class, PostgresConfig.class})
+class LookupTableSearchIndexIntegrationTest {
+  private static final List<String> SEARCH_STRINGS =
+      List.of("land", "LG", "gericht", "-", "haupt-l", "ß", "x", "ort 12");
+
+  // the queries before the trigram indexes were added
+  private static final String PREVIOUS_COURT_SEARCH =
+      "WITH label_added AS (SELECT *, "
+          + "                            UPPER(CONCAT(courttype, ' ', courtlocation)) AS label "
+          + "                     from lookuptable_court) "
+          + "SELECT *,"
+          + "       label, "
+          + "       CASE "
+          + "           WHEN label LIKE UPPER(:searchStr||'%') THEN 1 "
+          + "           WHEN label LIKE UPPER('% '||:searchStr||'%') THEN 2 "
+          + "           WHEN label LIKE UPPER('%-'||:searchStr||'%') THEN 2 "
+          + "           ELSE 3 "
+          + "           END AS weight "
+          + "FROM label_added "
+          + "WHERE label LIKE UPPER('%'||:searchStr||'%') "
+          + "ORDER BY weight, label";
+  private static final String PREVIOUS_DOCUMENT_TYPE_SEARCH =
+      "WITH label_added AS (SELECT *, "
+          + "                            UPPER(CONCAT(juris_shortcut, ' ', label)) AS concat"
+          + "                     from lookuptable_documenttype) "
+          + "SELECT *,"
+          + "       concat, "
+          + "       CASE "
+          + "           WHEN concat LIKE UPPER(:searchStr||'%') THEN 1 "
+          + "           WHEN concat LIKE UPPER('% '||:searchStr||'%') THEN 2 "
+          + "           WHEN concat LIKE UPPER('%-'||:searchStr||'%') THEN 2 "
+          + "           ELSE 3 "
+          + "           END AS weight "
+          + "FROM label_added "
+          + "WHERE concat LIKE UPPER('%'||:searchStr||'%') AND document_type = 'R' "
+          + "ORDER BY weight, concat";
+
+  @Container
+  static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:12");
+
+  @DynamicPropertySource
+  static void registerDynamicProperties(DynamicPropertyRegistry registry) {
+    registry.add("database.user", () -> postgreSQLContainer.getUsername());
+    registry.add("database.password", () -> postgreSQLContainer.getPassword());
+    registry.add("database.host", () -> postgreSQLContainer.getHost());
+    registry.add("database.port", () -> postgreSQLContainer.getFirstMappedPort());
+    registry.add("database.database", () -> postgreSQLContainer.getDatabaseName());
+  }
+
+  @Autowired private DatabaseClient databaseClient;
+  @Autowired private DatabaseCourtRepository courtRepository;
+  @Autowired private DatabaseDocumentTypeRepository documentTypeRepository;
+  @Autowired private DatabaseNormAbbreviationRepository normAbbreviationRepository;
+
+  @BeforeEach
+  void setUp() {
+    String[][] courtData = {
+      {"Kammer für Baulandsachen", "Ulm"},
+      {"Gericht", "Potsdam"},
+      {"Landsitzungskammer", "Hamburg"},
+      {"Verwaltungsgericht der Landeskirche", "Frankfurt"},
+      {"England", "Court"},
+      {"Landgericht", "Amberg"},
+      {"Jugendgericht des Haupt-Landes", "München"},
+      {"Großer Senat", null},
+      {"LG", null},
+    };
+    for (String[] court : courtData) {
+      courtRepository
+          .save(CourtDTO.builder().courttype(court[0]).courtlocation(court[1]).build())
+          .block();
+    }
+
+    execute(
+        "INSERT INTO lookuptable_court (courttype, courtlocation) "
+            + "SELECT 'AG', 'Ort ' || i FROM generate_series(1, 20000) AS i");
+    execute(
+        "INSERT INTO lookuptable_documenttype (juris_shortcut, label, document_type) "
+            + "SELECT 'T' || i, 'Typ-' || i, CASE WHEN i % 2 = 0 THEN 'R' ELSE 'N' END "
+            + "FROM generate_series(1, 20000) AS i");
+    execute(
+        "INSERT INTO norm_abbreviation (id, abbreviation, document_id) "
+            + "SELECT md5(i::text)::uuid, 'NA' || i, i FROM generate_series(1, 20000) AS i");
+    execute("ANALYZE lookuptable_court");
+    execute("ANALYZE lookuptable_documenttype");
+    execute("ANALYZE norm_abbreviation");
+  }
+
+  @AfterEach
+  void cleanUp() {
+    courtRepository.deleteAll().block();
+    documentTypeRepository.deleteAll().block();
+    normAbbreviationRepository.deleteAll().block();
+  }
+
+  @Test
+  void testFindBySearchStr_shouldReturnTheSameCourtsInTheSameOrderAsBefore() {
+    for (String searchString : SEARCH_STRINGS) {
+      List<Long> previousResult = findIds(PREVIOUS_COURT_SEARCH, searchString);
+
+      List<Long> result =
+          courtRepository.findBySearchStr(searchString).map(CourtDTO::getId).collectList().block();
+
+      assertThat(result).as(searchString).isEqualTo(previousResult);
+    }
+  }
+
+  @Test
+  void testFindCaselawBySearchStr_shouldReturnTheSameDocumentTypesInTheSameOrderAsBefore() {
+    documentTypeRepository
+        .save(
+            DocumentTypeDTO.builder().jurisShortcut("Ur").label("Urteil").documentType('R').build())
+        .block();
+
+    for (String searchString : List.of("ur", "typ-1", "T12", "-", "x")) {
+      List<Long> previousResult = findIds(PREVIOUS_DOCUMENT_TYPE_SEARCH, searchString);
+
+      List<Long> result =
+          documentTypeRepository
+              .findCaselawBySearchStr(searchString)
+              .map(DocumentTypeDTO::getId)
+              .collectList()
+              .block();
+
+      assertThat(result).as(searchString).isEqualTo(previousResult);
+    }
+  }
+
+  @Test
+  void testFindBySearchStr_shouldUseTheTrigramIndex() throws NoSuchMethodException {
+    String plan =
+        explain(
+            DatabaseCourtRepository.class.getMethod("findBySearchStr", String.class),
+            Map.of("searchStr", "landgericht"));
+
+    assertThat(plan)
+        .contains("lookuptable_court_label_trgm_idx")
+        .doesNotContain("Seq Scan on lookuptable_court");
+  }
+
+  @Test
+  void testFindCaselawBySearchStr_shouldUseTheTrigramIndex() throws NoSuchMethodException {
+    String plan =
+        explain(
+            DatabaseDocumentTypeRepository.class.getMethod("findCaselawBySearchStr", String.class),
+            Map.of("searchStr", "typ-123"));
+
+    assertThat(plan)
+        .contains("lookuptable_documenttype_label_trgm_idx")
+        .doesNotContain("Seq Scan on lookuptable_documenttype");
+  }
+
+  @Test
+  void testFindBySearchQuery_shouldUseThePrefixIndex() throws NoSuchMethodException {
+    Method method =
+        DatabaseNormAbbreviationRepository.class.getMethod(
+            "findBySearchQuery", String.class, Integer.class, Integer.class);
+
+    for (String query : List.of("NA1234", "NA12")) {
+      String plan = explain(method, Map.of("query", query, "size", 30, "pageOffset", 0));
+
+      assertThat(plan)
+          .as(query)
+          .contains("norm_abbreviation_abbreviation_c_idx")
+          .doesNotContain("Seq Scan on norm_abbreviation");
+    }
+
+    List<String> abbreviations =
+        normAbbreviationRepository
+            .findBySearchQuery("NA1234", 30, 0)
+            .map(NormAbbreviationDTO::getAbbreviation)
+            .collectList()
+            .block();
+    assertThat(abbreviations)
+        .containsExactly(
+            "NA1234", "NA12340", "NA12341", "NA12342", "NA12343", "NA12344", "NA12345", "NA12346",
+            "NA12347", "NA12348", "NA12349");
+  }
+
+  private List<Long> findIds(String query, String searchString) {
+    return databaseClient
+        .sql(query)
+        .bind("searchStr", searchString)
+        .map(row -> row.get("id", Long.class))
+        .all()
+        .collectList()
+        .block();
+  }
+
+  /** Explains the query of the repository method with the given parameters. */
+  private String explain(Method method, Map<String, Object> parameters) {
+    DatabaseClient.GenericExecuteSpec spec =
+        databaseClient.sql("EXPLAIN " + method.getAnnotation(Query.class).value());
+    for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+      spec = spec.bind(parameter.getKey(), parameter.getValue());
+    }
+
+    return String.join("\n", spec.map(row -> row.get(0, String.class)).all().collectList().block());
+  }
+
+  private void execute(String sql) {
+    databaseClient.sql(sql).then().block();
+  }
+}
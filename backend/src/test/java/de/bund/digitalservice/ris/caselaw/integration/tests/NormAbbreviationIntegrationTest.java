@@ -1,6 +1,8 @@
 package de.bund.digitalservice.ris.caselaw.integration.tests;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.doReturn;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
 
 import de.bund.digitalservice.ris.caselaw.adapter.NormAbbreviationController;
@@ -13,11 +15,15 @@ import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.Dat
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DatabaseRegionRepository;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DocumentCategoryDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.DocumentTypeNewDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.NormAbbreviationCache;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.NormAbbreviationDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.NormAbbreviationDocumentTypeDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.NormAbbreviationEnricher;
+import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.NormAbbreviationIndex;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.NormAbbreviationRegionDTO;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.PostgresNormAbbreviationRepositoryImpl;
 import de.bund.digitalservice.ris.caselaw.adapter.database.r2dbc.lookuptable.RegionDTO;
+import de.bund.digitalservice.ris.caselaw.adapter.transformer.NormAbbreviationTransformer;
 import de.bund.digitalservice.ris.caselaw.config.FlywayConfig;
 import de.bund.digitalservice.ris.caselaw.config.PostgresConfig;
 import de.bund.digitalservice.ris.caselaw.domain.EmailPublishService;
@@ -35,11 +41,13 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
+import reactor.core.publisher.Mono;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 
 @RISIntegrationTest(
@@ -47,7 +55,9 @@ import software.amazon.awssdk.services.s3.S3AsyncClient;
       NormAbbreviationService.class,
       FlywayConfig.class,
       PostgresConfig.class,
-      PostgresNormAbbreviationRepositoryImpl.class
+      PostgresNormAbbreviationRepositoryImpl.class,
+      NormAbbreviationEnricher.class,
+      NormAbbreviationCache.class
     },
     controllers = {NormAbbreviationController.class})
 class NormAbbreviationIntegrationTest {
@@ -99,6 +109,8 @@ class NormAbbreviationIntegrationTest {
   private DatabaseNormAbbreviationDocumentTypeRepository normAbbreviationDocumentTypeRepository;
 
   @Autowired private DatabaseNormAbbreviationRegionRepository normAbbreviationRegionRepository;
+  @Autowired private NormAbbreviationEnricher enricher;
+  @SpyBean private NormAbbreviationCache cache;
   @MockBean private S3AsyncClient s3AsyncClient;
   @MockBean private EmailPublishService publishService;
 
@@ -125,6 +137,8 @@ class NormAbbreviationIntegrationTest {
             .addRegion(REGION_UUID_1)
             .build();
 
+    loadIndex();
+
     webClient
         .mutateWith(csrf())
         .get()
@@ -150,6 +164,8 @@ class NormAbbreviationIntegrationTest {
             .addRegion(REGION_UUID_1)
             .build();
 
+    loadIndex();
+
     webClient
         .mutateWith(csrf())
         .get()
@@ -175,6 +191,8 @@ class NormAbbreviationIntegrationTest {
             .addDocumentType(DOCUMENT_TYPE_UUID_1, 'L')
             .build();
 
+    loadIndex();
+
     webClient
         .mutateWith(csrf())
         .get()
@@ -196,6 +214,8 @@ class NormAbbreviationIntegrationTest {
     NormAbbreviation expectedNormAbbreviation =
         new NormAbbreviationTestBuilder().getExpectedNormAbbreviation().build();
 
+    loadIndex();
+
     webClient
         .mutateWith(csrf())
         .get()
@@ -227,6 +247,8 @@ class NormAbbreviationIntegrationTest {
             .addRegion(REGION_UUID_2)
             .build();
 
+    loadIndex();
+
     webClient
         .mutateWith(csrf())
         .get()
@@ -245,6 +267,8 @@ class NormAbbreviationIntegrationTest {
   void testGetNormAbbreviationBySearchQuery() {
     generateLookupValues();
 
+    loadIndex();
+
     webClient
         .mutateWith(csrf())
         .get()
@@ -265,6 +289,8 @@ class NormAbbreviationIntegrationTest {
   void testGetNormAbbreviationBySearchQuery_returnInTheRightOrder() {
     generateLookupValues();
 
+    loadIndex();
+
     webClient
         .mutateWith(csrf())
         .get()
@@ -282,6 +308,162 @@ class NormAbbreviationIntegrationTest {
             });
   }
 
+  @Test
+  void testGetNormAbbreviationBySearchQuery_shouldAddTheLinkedValuesToEveryResult() {
+    generateLookupValues();
+    linkDocumentType(NORM_ABBREVIATION_UUID_5, DOCUMENT_TYPE_UUID_1);
+    linkDocumentType(NORM_ABBREVIATION_UUID_6, DOCUMENT_TYPE_UUID_1);
+    linkDocumentType(NORM_ABBREVIATION_UUID_6, DOCUMENT_TYPE_UUID_2);
+    linkRegion(NORM_ABBREVIATION_UUID_6, REGION_UUID_2);
+
+    loadIndex();
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/normabbreviation?q=Search")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(NormAbbreviation[].class)
+        .consumeWith(
+            response -> {
+              NormAbbreviation[] normAbbreviations = response.getResponseBody();
+              assertThat(normAbbreviations)
+                  .extracting("id")
+                  .containsExactly(
+                      NORM_ABBREVIATION_UUID_6, NORM_ABBREVIATION_UUID_5, NORM_ABBREVIATION_UUID_7);
+              assertThat(normAbbreviations[0].documentTypes())
+                  .extracting("label", "categoryLabel")
+                  .containsExactly(
+                      tuple("document type label 1", 'L'), tuple("document type label 2", 'M'));
+              assertThat(normAbbreviations[0].regions())
+                  .extracting("code")
+                  .containsExactly("region code 2");
+              assertThat(normAbbreviations[1].documentTypes())
+                  .extracting("label")
+                  .containsExactly("document type label 1");
+              assertThat(normAbbreviations[1].regions()).isEmpty();
+              assertThat(normAbbreviations[2].documentTypes()).isEmpty();
+              assertThat(normAbbreviations[2].regions()).isEmpty();
+            });
+  }
+
+  @Test
+  void testEnrich_shouldAddTheSameLinkedValuesAsTheIndex() {
+    generateLookupValues();
+    linkDocumentType(NORM_ABBREVIATION_UUID_5, DOCUMENT_TYPE_UUID_1);
+    linkDocumentType(NORM_ABBREVIATION_UUID_6, DOCUMENT_TYPE_UUID_1);
+    linkDocumentType(NORM_ABBREVIATION_UUID_6, DOCUMENT_TYPE_UUID_2);
+    linkRegion(NORM_ABBREVIATION_UUID_6, REGION_UUID_2);
+
+    List<NormAbbreviation> fromDatabase =
+        repository
+            .findBySearchQuery("Search", 30, 0)
+            .collectList()
+            .flatMap(enricher::enrich)
+            .block()
+            .stream()
+            .map(NormAbbreviationTransformer::transformDTO)
+            .toList();
+
+    assertThat(loadIndex().search("Search", 30, 0)).isEqualTo(fromDatabase);
+  }
+
+  @Test
+  void testGetNormAbbreviationById_withIdMissingInTheIndex_shouldReadFromTheDatabase() {
+    doReturn(Mono.just(NormAbbreviationIndex.of(List.of()))).when(cache).getIndex();
+    generateLookupValues();
+    linkDocumentType(DOCUMENT_TYPE_UUID_1);
+    linkRegion(REGION_UUID_1);
+
+    NormAbbreviation expectedNormAbbreviation =
+        new NormAbbreviationTestBuilder()
+            .getExpectedNormAbbreviation()
+            .addDocumentType(DOCUMENT_TYPE_UUID_1, 'L')
+            .addRegion(REGION_UUID_1)
+            .build();
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/normabbreviation/" + NORM_ABBREVIATION_UUID_1)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(NormAbbreviation.class)
+        .consumeWith(
+            response -> {
+              assertThat(response.getResponseBody()).isEqualTo(expectedNormAbbreviation);
+            });
+  }
+
+  @Test
+  void testGetNormAbbreviationBySearchQuery_withIndexLoadError_shouldSearchInTheDatabase() {
+    generateLookupValues();
+    doReturn(Mono.error(new RuntimeException("index couldn't be loaded")))
+        .when(cache)
+        .getIndex();
+
+    webClient
+        .mutateWith(csrf())
+        .get()
+        .uri("/api/v1/caselaw/normabbreviation?q=Search")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(NormAbbreviation[].class)
+        .consumeWith(
+            response -> {
+              assertThat(response.getResponseBody())
+                  .extracting("id")
+                  .containsExactly(
+                      NORM_ABBREVIATION_UUID_6, NORM_ABBREVIATION_UUID_5, NORM_ABBREVIATION_UUID_7);
+            });
+  }
+
+  @Test
+  void testFindBySearchQuery_shouldOrderLikeTheIndex() {
+    List<String> abbreviations =
+        List.of(
+            "BGB", "bgb", "BGB AT", "BGB-AT", "BGBAT", "BGB 10", "BGB 2", "BGÄ", "BGb", "BGB§",
+            "BGZ", "Bgb", "BG B", "BG");
+    for (int i = 0; i < abbreviations.size(); i++) {
+      repository
+          .save(
+              NormAbbreviationDTO.builder()
+                  .id(UUID.randomUUID())
+                  .newEntity(true)
+                  .abbreviation(abbreviations.get(i))
+                  .documentId(i)
+                  .build())
+          .block();
+    }
+
+    List<String> fromDatabase =
+        repository
+            .findBySearchQuery("", 30, 0)
+            .map(NormAbbreviationDTO::getAbbreviation)
+            .collectList()
+            .block();
+
+    assertThat(loadIndex().search("", 30, 0))
+        .extracting(NormAbbreviation::abbreviation)
+        .containsExactlyElementsOf(fromDatabase)
+        .hasSize(abbreviations.size());
+  }
+
+  /**
+   * Builds an index of the values stored by the test and lets the cache serve it. The index of the
+   * cache is built once after the start and refreshed after its max age only.
+   */
+  private NormAbbreviationIndex loadIndex() {
+    NormAbbreviationIndex index =
+        new NormAbbreviationCache(repository, enricher, true, 0).getIndex().block();
+    doReturn(Mono.just(index)).when(cache).getIndex();
+    return index;
+  }
+
   private void generateLookupValues() {
     NormAbbreviationDTO normAbbreviationDTO =
         NormAbbreviationDTO.builder()
@@ -450,20 +632,28 @@ class NormAbbreviationIntegrationTest {
   }
 
   private void linkDocumentType(UUID documentTypeUUID) {
+    linkDocumentType(NORM_ABBREVIATION_UUID_1, documentTypeUUID);
+  }
+
+  private void linkDocumentType(UUID normAbbreviationUUID, UUID documentTypeUUID) {
     NormAbbreviationDocumentTypeDTO normAbbreviationDocumentTypeDTO =
         NormAbbreviationDocumentTypeDTO.builder()
             .newEntity(true)
-            .normAbbreviationId(NORM_ABBREVIATION_UUID_1)
+            .normAbbreviationId(normAbbreviationUUID)
             .documentTypeId(documentTypeUUID)
             .build();
     normAbbreviationDocumentTypeRepository.save(normAbbreviationDocumentTypeDTO).block();
   }
 
   private void linkRegion(UUID regionUUID) {
+    linkRegion(NORM_ABBREVIATION_UUID_1, regionUUID);
+  }
+
+  private void linkRegion(UUID normAbbreviationUUID, UUID regionUUID) {
     NormAbbreviationRegionDTO normAbbreviationRegionDTO =
         NormAbbreviationRegionDTO.builder()
             .newEntity(true)
-            .normAbbreviationId(NORM_ABBREVIATION_UUID_1)
+            .normAbbreviationId(normAbbreviationUUID)
             .regionId(regionUUID)
             .build();
     normAbbreviationRegionRepository.save(normAbbreviationRegionDTO).block();